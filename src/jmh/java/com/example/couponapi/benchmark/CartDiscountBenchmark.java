@@ -0,0 +1,143 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.discount.CartDiscountEngine;
+import com.example.couponapi.discount.CompiledCoupon;
+import com.example.couponapi.discount.CompiledCouponCache;
+import com.example.couponapi.dto.CartDTO;
+import com.example.couponapi.dto.CartDiscountResultDTO;
+import com.example.couponapi.dto.CartItemDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+import com.example.couponapi.service.CartDiscountService;
+import com.example.couponapi.service.CouponLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliação de carrinhos em lote, como nas prévias de preço.
+ *
+ * {@code evaluateAll} mede o serviço inteiro (validação, subtotal, escolha e
+ * DTOs de resposta) com a busca por código servida da memória, sem banco;
+ * {@code select} mede só a escolha da {@link CartDiscountEngine} sobre regras
+ * já compiladas. Rode com {@code -prof gc} para ver a alocação por carrinho.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartDiscountBenchmark {
+
+    private static final int COUPONS = 50;
+    private static final int ITEMS_PER_CART = 5;
+
+    @Param({"1000"})
+    public int carts;
+
+    @Param({"3"})
+    public int codesPerCart;
+
+    private CartDiscountService service;
+    private List<CartDTO> batch;
+    private CompiledCoupon[][] candidates;
+    private long[] subtotals;
+    private long today;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, Optional<CouponResponseDTO>> catalogue = new HashMap<>();
+        for (int i = 0; i < COUPONS; i++) {
+            boolean percentage = i % 2 == 0;
+            CouponResponseDTO coupon = new CouponResponseDTO((long) i + 1, String.format("CART%02d", i),
+                    "Cupom " + i, new BigDecimal(percentage ? "5.00" : "15.00").add(BigDecimal.valueOf(i % 7)),
+                    percentage ? DiscountType.PERCENTAGE : DiscountType.FIXED,
+                    i % 5 == 0 ? new BigDecimal("200.00") : null, i % 3 == 0,
+                    LocalDate.now().plusDays(30), true, LocalDateTime.now(), null, null);
+            catalogue.put(coupon.getCode(), Optional.of(coupon));
+        }
+
+        // busca por código servida da memória: mede a avaliação, não o cache nem o banco
+        CouponLookupService lookup = new CouponLookupService(null, null, null, null, 0, 0) {
+            @Override
+            public Map<String, Optional<CouponResponseDTO>> findRedeemableByCodes(Collection<String> codes) {
+                Map<String, Optional<CouponResponseDTO>> found = new HashMap<>();
+                for (String code : codes) {
+                    found.put(code, catalogue.getOrDefault(code, Optional.empty()));
+                }
+                return found;
+            }
+        };
+        CompiledCouponCache compiledCache = new CompiledCouponCache(new SimpleMeterRegistry(), 10_000);
+        service = new CartDiscountService(lookup, compiledCache,
+                Validation.buildDefaultValidatorFactory().getValidator(), carts);
+
+        batch = new ArrayList<>(carts);
+        candidates = new CompiledCoupon[carts][];
+        subtotals = new long[carts];
+        for (int c = 0; c < carts; c++) {
+            CartDTO cart = new CartDTO();
+            cart.setCartId("cart-" + c);
+            List<CartItemDTO> items = new ArrayList<>(ITEMS_PER_CART);
+            for (int i = 0; i < ITEMS_PER_CART; i++) {
+                CartItemDTO item = new CartItemDTO();
+                item.setSku("SKU-" + random.nextInt(10_000));
+                item.setQuantity(1 + random.nextInt(3));
+                item.setUnitPrice(BigDecimal.valueOf(500 + random.nextInt(20_000), 2));
+                items.add(item);
+                subtotals[c] += CompiledCoupon.toCents(item.getUnitPrice()) * item.getQuantity();
+            }
+            List<String> codes = new ArrayList<>(codesPerCart);
+            candidates[c] = new CompiledCoupon[codesPerCart];
+            int first = random.nextInt(COUPONS);
+            for (int k = 0; k < codesPerCart; k++) {
+                // passo 7, primo com COUPONS: códigos distintos no mesmo carrinho
+                String code = String.format("CART%02d", (first + 7 * k) % COUPONS);
+                codes.add(code);
+                candidates[c][k] = compiledCache.get(catalogue.get(code).orElseThrow());
+            }
+            cart.setItems(items);
+            cart.setCodes(codes);
+            batch.add(cart);
+        }
+        today = LocalDate.now().toEpochDay();
+    }
+
+    @Benchmark
+    public List<CartDiscountResultDTO> evaluateAll() {
+        return service.evaluateAll(batch);
+    }
+
+    @Benchmark
+    public long select() {
+        long total = 0;
+        for (int c = 0; c < carts; c++) {
+            total += CartDiscountEngine.select(candidates[c], subtotals[c], today).discountCents();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.CouponApiApplication;
+import com.example.couponapi.dto.CouponBatchResultDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.service.CouponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação em lote versus criação unitária, medida por cupom.
+ *
+ * {@code single} chama {@link CouponService#create} uma vez por cupom (uma
+ * transação e um INSERT cada); {@code batch} entrega os mesmos
+ * {@value #COUPONS} cupons a {@link CouponService#createAll}, que valida os
+ * códigos numa consulta e grava em batch JDBC. Como cada invocação conta
+ * {@value #COUPONS} operações, os dois resultados saem em µs por cupom e a
+ * razão entre eles é o ganho do lote.
+ *
+ * No H2 em memória não há ida e volta de rede, justamente o custo que o
+ * batch economiza; contra um banco remoto a diferença tende a ser maior.
+ *
+ *     mvn -Pbenchmark verify -Djmh.include=CouponBatchCreationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponBatchCreationBenchmark {
+
+    private static final int COUPONS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private CouponService couponService;
+    private long nextCode;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN",
+                            "spring.datasource.url=jdbc:h2:mem:batchcreation;DB_CLOSE_DELAY=-1")
+                .run();
+        couponService = context.getBean(CouponService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUPONS)
+    public void single(Blackhole blackhole) {
+        for (CouponRequestDTO dto : nextRequests()) {
+            blackhole.consume(couponService.create(dto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUPONS)
+    public CouponBatchResultDTO batch() {
+        return couponService.createAll(nextRequests());
+    }
+
+    /** Cupons com códigos ainda não usados: base 36 de um contador, seis caracteres. */
+    private List<CouponRequestDTO> nextRequests() {
+        List<CouponRequestDTO> requests = new ArrayList<>(COUPONS);
+        for (int i = 0; i < COUPONS; i++) {
+            String suffix = Long.toString(nextCode++, 36).toUpperCase();
+            CouponRequestDTO dto = new CouponRequestDTO();
+            dto.setCode("000000".substring(suffix.length()) + suffix);
+            dto.setDescription("Benchmark");
+            dto.setDiscountValue(new BigDecimal("10.00"));
+            dto.setExpirationDate(LocalDate.now().plusDays(30));
+            dto.setPublished(true);
+            requests.add(dto);
+        }
+        return requests;
+    }
+}
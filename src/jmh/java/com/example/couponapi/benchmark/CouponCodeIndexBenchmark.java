@@ -0,0 +1,77 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.index.CouponCode;
+import com.example.couponapi.index.LongLongIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca código → ID: {@code HashMap<String, Long>} versus {@link LongLongIndex}
+ * (no heap e fora dele) com o código empacotado em {@link CouponCode}.
+ *
+ * Para a memória ocupada, compare o heap após o setup (ex.: {@code -prof gc}
+ * ou um heap histogram) com {@link LongLongIndex#memoryBytes()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponCodeIndexBenchmark {
+
+    @Param({"1000000"})
+    public int entries;
+
+    private String[] codes;
+    private Map<String, Long> hashMap;
+    private LongLongIndex onHeap;
+    private LongLongIndex offHeap;
+
+    @Setup
+    public void setUp() {
+        codes   = new String[entries];
+        hashMap = new HashMap<>();
+        onHeap  = LongLongIndex.onHeap(entries);
+        offHeap = LongLongIndex.offHeap(entries);
+        for (int i = 0; i < entries; i++) {
+            codes[i] = CouponCode.unpack(i * 7919L);
+            hashMap.put(codes[i], (long) i);
+            onHeap.put(CouponCode.pack(codes[i]), i);
+            offHeap.put(CouponCode.pack(codes[i]), i);
+        }
+    }
+
+    @Benchmark
+    public Long hashMap() {
+        return hashMap.get(randomCode());
+    }
+
+    @Benchmark
+    public long onHeap() {
+        return onHeap.get(CouponCode.pack(randomCode()));
+    }
+
+    @Benchmark
+    public long offHeap() {
+        return offHeap.get(CouponCode.pack(randomCode()));
+    }
+
+    private String randomCode() {
+        return codes[ThreadLocalRandom.current().nextInt(entries)];
+    }
+}
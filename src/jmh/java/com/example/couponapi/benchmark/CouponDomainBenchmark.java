@@ -0,0 +1,92 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras de domínio executadas em toda criação de cupom.
+ *
+ * {@code rawCode} cobre o código já limpo, o código com caracteres especiais
+ * e uma entrada que falha na validação de tamanho (caminho da exceção).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponDomainBenchmark {
+
+    @Param({"SAVE10", "SA-VE@10", "SAVE10-EXTRA"})
+    public String rawCode;
+
+    private final BigDecimal validDiscount = new BigDecimal("10.00");
+    private final BigDecimal invalidDiscount = new BigDecimal("0.30");
+
+    /** Implementação original, mantida como referência de comparação. */
+    @Benchmark
+    public String sanitizeCodeRegex() {
+        return rawCode.replaceAll("[^a-zA-Z0-9]", "");
+    }
+
+    @Benchmark
+    public String sanitizeCode() {
+        return Coupon.sanitizeCode(rawCode);
+    }
+
+    /** Sanitização + tamanho numa passada; sem alocação quando rejeita. */
+    @Benchmark
+    public String trySanitizeCode() {
+        return Coupon.trySanitizeCode(rawCode);
+    }
+
+    @Benchmark
+    public void sanitizeValidCode(Blackhole blackhole) {
+        try {
+            blackhole.consume(Coupon.sanitizeValidCode(rawCode));
+        } catch (BusinessException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /** Fluxo em duas etapas (sanitizeCode + validateCode), para comparação. */
+    @Benchmark
+    public void sanitizeAndValidateCode(Blackhole blackhole) {
+        try {
+            String sanitized = Coupon.sanitizeCode(rawCode);
+            Coupon.validateCode(sanitized);
+            blackhole.consume(sanitized);
+        } catch (BusinessException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void validateDiscountValue(Blackhole blackhole) {
+        Coupon.validateDiscountValue(validDiscount);
+        blackhole.consume(validDiscount);
+    }
+
+    @Benchmark
+    public void validateDiscountValueRejected(Blackhole blackhole) {
+        try {
+            Coupon.validateDiscountValue(invalidDiscount);
+        } catch (BusinessException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.CouponApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Comparação ponta a ponta entre o modo padrão (pool de platform threads do
+ * Tomcat), o perfil "virtual" (virtual threads + limite de concorrência) e o
+ * perfil "reactive" (WebFlux + R2DBC em Netty).
+ *
+ * Cada fork sobe a aplicação numa porta livre e dispara requisições HTTP
+ * reais de {@value #CLIENT_THREADS} threads — acima das 200 threads padrão do
+ * Tomcat — contra criação, busca por ID e listagem.
+ *
+ * {@code Mode.SampleTime} reporta a distribuição de latência (p50/p99/p99.9)
+ * e {@code Mode.Throughput} as operações por segundo.
+ *
+ * Só respostas 2xx contam: qualquer outro status lança exceção e a iteração
+ * falha, em vez de um 503 rápido inflar vazão e latência. Por isso o perfil
+ * "virtual" roda com {@code coupon.concurrency.max-in-flight} igual a
+ * {@value #CLIENT_THREADS}, para que os três modos atendam toda requisição.
+ *
+ *     mvn -Pbenchmark verify -Djmh.include=CouponHttpBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(CouponHttpBenchmark.CLIENT_THREADS)
+@State(Scope.Benchmark)
+public class CouponHttpBenchmark {
+
+    static final int CLIENT_THREADS = 256;
+
+    private static final int SEEDED_COUPONS = 1_000;
+
+    @Param({"platform", "virtual", "reactive"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long firstSeededId;
+
+    private final AtomicLong codeCounter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CouponApiApplication.class)
+                .properties("server.port=0",
+                            "logging.level.root=WARN",
+                            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        if ("virtual".equals(threads)) {
+            builder.profiles("virtual")
+                   .properties("coupon.concurrency.max-in-flight=" + CLIENT_THREADS);
+        } else if ("reactive".equals(threads)) {
+            builder.profiles("reactive")
+                   .properties("spring.r2dbc.url=r2dbc:h2:mem:///benchmark;DB_CLOSE_DELAY=-1");
+        }
+        context = builder.run();
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/coupons";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        firstSeededId = Long.MAX_VALUE;
+        for (int i = 0; i < SEEDED_COUPONS; i++) {
+            HttpResponse<String> response = post(nextCode());
+            successful(response);
+            long id = Long.parseLong(response.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+            firstSeededId = Math.min(firstSeededId, id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int create() throws Exception {
+        return successful(post(nextCode()));
+    }
+
+    @Benchmark
+    public int getById() throws Exception {
+        long id = firstSeededId + ThreadLocalRandom.current().nextInt(SEEDED_COUPONS);
+        return successful(send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build()));
+    }
+
+    @Benchmark
+    public int list() throws Exception {
+        return successful(send(HttpRequest.newBuilder(URI.create(baseUrl + "?size=50")).GET().build()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /** Códigos únicos de 6 caracteres em base 36. */
+    private String nextCode() {
+        String base36 = Long.toString(codeCounter.getAndIncrement(), 36).toUpperCase();
+        return "000000".substring(base36.length()) + base36;
+    }
+
+    private HttpResponse<String> post(String code) throws IOException, InterruptedException {
+        String body = "{\"code\":\"" + code + "\",\"description\":\"Benchmark\",\"discountValue\":10.00," +
+                      "\"expirationDate\":\"" + LocalDate.now().plusDays(30) + "\",\"published\":true}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    /** Status da resposta; fora de 2xx a operação não é contada como sucesso. */
+    private static int successful(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            throw new IllegalStateException("HTTP " + status + " em " + response.uri() + ": " + response.body());
+        }
+        return status;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
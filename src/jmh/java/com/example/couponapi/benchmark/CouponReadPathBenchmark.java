@@ -0,0 +1,124 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.CouponApiApplication;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.repository.CouponRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras do banco: entidade + {@code fromEntity} versus projeção direta em DTO.
+ *
+ * Os métodos {@code entity*} reproduzem o caminho anterior (JPQL devolvendo
+ * {@link Coupon} gerenciado e cópia para o DTO, em transação read-only); os
+ * {@code projection*} chamam o {@link CouponRepository} atual. Com
+ * {@code -prof gc}, compare {@code gc.alloc.rate.norm} (bytes por operação).
+ *
+ *     mvn -Pbenchmark verify -Djmh.include=CouponReadPathBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponReadPathBenchmark {
+
+    private static final int SEEDED_COUPONS = 1_000;
+    private static final int PAGE_ROWS = 51;
+
+    private ConfigurableApplicationContext context;
+    private CouponRepository couponRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN",
+                            "spring.datasource.url=jdbc:h2:mem:readpath;DB_CLOSE_DELAY=-1")
+                .run();
+        couponRepository = context.getBean(CouponRepository.class);
+        entityManager    = context.getBean(EntityManager.class);
+        readOnly         = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Coupon> seed = new ArrayList<>(SEEDED_COUPONS);
+        for (int i = 0; i < SEEDED_COUPONS; i++) {
+            seed.add(Coupon.builder()
+                    .code(String.format("RP%04d", i))
+                    .description("Benchmark")
+                    .discountValue(new BigDecimal("10.00"))
+                    .expirationDate(LocalDate.now().plusDays(30))
+                    .published(true)
+                    .build());
+        }
+        firstId = couponRepository.saveAll(seed).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public CouponResponseDTO entityById() {
+        long id = randomId();
+        return readOnly.execute(status -> CouponResponseDTO.fromEntity(entityManager
+                .createQuery("SELECT c FROM Coupon c WHERE c.id = :id AND c.deletedAt IS NULL", Coupon.class)
+                .setParameter("id", id)
+                .getSingleResult()));
+    }
+
+    @Benchmark
+    public CouponResponseDTO projectionById() {
+        return couponRepository.findActiveById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<CouponResponseDTO> entityPage() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT c FROM Coupon c WHERE c.deletedAt IS NULL " +
+                             "ORDER BY c.createdAt DESC, c.id DESC", Coupon.class)
+                .setMaxResults(PAGE_ROWS)
+                .getResultList()
+                .stream()
+                .map(CouponResponseDTO::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<CouponResponseDTO> projectionPage() {
+        return readOnly.execute(status -> couponRepository.findActivePage(null, null, PAGE_ROWS));
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(SEEDED_COUPONS);
+    }
+}
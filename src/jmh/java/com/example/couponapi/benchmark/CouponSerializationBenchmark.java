@@ -0,0 +1,93 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade → DTO e serialização JSON das respostas de leitura.
+ *
+ * O {@link ObjectMapper} é montado como o do Spring Boot (módulos de
+ * java.time, datas em ISO-8601), para medir o mesmo trabalho dos endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponSerializationBenchmark {
+
+    /** Tamanho da lista serializada (página padrão e página máxima). */
+    @Param({"50", "500"})
+    public int listSize;
+
+    private Coupon coupon;
+    private CouponResponseDTO single;
+    private List<CouponResponseDTO> page;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        coupon = coupon(1);
+        single = CouponResponseDTO.fromEntity(coupon);
+        page = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            page.add(CouponResponseDTO.fromEntity(coupon(i)));
+        }
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writer();
+    }
+
+    @Benchmark
+    public CouponResponseDTO fromEntity() {
+        return CouponResponseDTO.fromEntity(coupon);
+    }
+
+    @Benchmark
+    public byte[] serializeSingle() throws JsonProcessingException {
+        return writer.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    private static Coupon coupon(int i) {
+        Coupon c = Coupon.builder()
+                .code(String.format("B%05d", i))
+                .description("10% de desconto na primeira compra")
+                .discountValue(new BigDecimal("10.00"))
+                .expirationDate(LocalDate.of(2026, 12, 31))
+                .published(true)
+                .build();
+        c.setId((long) i);
+        c.setCreatedAt(LocalDateTime.of(2026, 2, 18, 10, 30));
+        return c;
+    }
+}
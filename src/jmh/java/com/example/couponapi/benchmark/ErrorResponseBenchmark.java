@@ -0,0 +1,120 @@
+package com.example.couponapi.benchmark;
+
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.CouponNotFoundException;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de erro: criação da exceção de negócio e montagem do corpo
+ * padronizado pelo {@link GlobalExceptionHandler} (buildResponse).
+ *
+ * Os benchmarks {@code reject*} cobrem uma criação rejeitada do lançamento
+ * ao JSON; {@code legacyRejection} refaz o caminho anterior (exceção com
+ * stack trace, corpo em {@code HashMap}, {@code LocalDateTime.now().toString()})
+ * como referência de comparação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+    private final BusinessException businessException = new BusinessException("O desconto mínimo permitido é 0.5.");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BigDecimal invalidDiscount = new BigDecimal("0.30");
+
+    /** Apenas a montagem da resposta, com a exceção já criada. */
+    @Benchmark
+    public ResponseEntity<?> buildBusinessResponse() {
+        return handler.handleBusiness(businessException);
+    }
+
+    /** Fluxo completo de um 404: exceção nova (sem stack trace) + resposta. */
+    @Benchmark
+    public ResponseEntity<?> throwAndHandleNotFound() {
+        try {
+            throw new CouponNotFoundException(42L);
+        } catch (CouponNotFoundException e) {
+            return handler.handleNotFound(e);
+        }
+    }
+
+    /** Desconto abaixo do mínimo: exceção pré-alocada + resposta + JSON. */
+    @Benchmark
+    public byte[] rejectDiscountBelowMinimum() throws Exception {
+        try {
+            Coupon.validateDiscountValue(invalidDiscount);
+            throw new AssertionError("desconto deveria ser rejeitado");
+        } catch (BusinessException e) {
+            return objectMapper.writeValueAsBytes(handler.handleBusiness(e).getBody());
+        }
+    }
+
+    /** Código inválido: exceção sem stack, mensagem montada na leitura + JSON. */
+    @Benchmark
+    public byte[] rejectInvalidCode() throws Exception {
+        try {
+            Coupon.sanitizeValidCode("AB-12");
+            throw new AssertionError("código deveria ser rejeitado");
+        } catch (BusinessException e) {
+            return objectMapper.writeValueAsBytes(handler.handleBusiness(e).getBody());
+        }
+    }
+
+    /** Código duplicado: exceção sem stack + resposta + JSON. */
+    @Benchmark
+    public byte[] rejectDuplicateCode() throws Exception {
+        try {
+            throw new DuplicateCouponCodeException("SAVE10");
+        } catch (BusinessException e) {
+            return objectMapper.writeValueAsBytes(handler.handleBusiness(e).getBody());
+        }
+    }
+
+    /** Caminho anterior, como referência: mesmo 422 do desconto, com stack trace e Map. */
+    @Benchmark
+    public byte[] legacyRejection() throws Exception {
+        try {
+            throw new StackfulBusinessException("O desconto mínimo permitido é 0.5.");
+        } catch (StackfulBusinessException e) {
+            HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now().toString());
+            body.put("status", status.value());
+            body.put("error", status.getReasonPhrase());
+            body.put("message", e.getMessage());
+            return objectMapper.writeValueAsBytes(ResponseEntity.status(status).body(body).getBody());
+        }
+    }
+
+    /** Exceção de negócio como era antes: {@code RuntimeException} com stack trace. */
+    private static final class StackfulBusinessException extends RuntimeException {
+        StackfulBusinessException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.couponapi.archive;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.repository.CouponArchiveRepository;
+import com.example.couponapi.repository.CouponArchiveRepository.ArchivedCoupon;
+import com.example.couponapi.repository.CouponArchiveRepository.Reason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Arquivamento periódico de cupons que não voltam mais ao catálogo:
+ *  - soft-deletados há mais de {@code coupon.archive.deleted-retention};
+ *  - não deletados, mas vencidos ({@code expired_at}) há mais de
+ *    {@code coupon.archive.expired-retention}.
+ *
+ * A cada {@code coupon.archive.interval}, os cupons elegíveis são movidos em
+ * chunks de {@code coupon.archive.chunk-size}, um chunk por transação, com
+ * {@code coupon.archive.pause-between-chunks} entre eles para não disputar
+ * banco com o tráfego. Uma execução dura no máximo
+ * {@code coupon.archive.max-run-time}; o que sobrar fica para a próxima.
+ *
+ * Cada cupom movido deixa o código em {@code coupon_code_tombstones}, então
+ * continua impossível reutilizá-lo. Cupons vencidos (nunca deletados) geram o
+ * evento {@code ARCHIVED} no outbox, na mesma transação.
+ *
+ * Ativo com {@code coupon.archive.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.archive.enabled", havingValue = "true")
+public class CouponArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponArchivalService.class);
+
+    private final CouponArchiveRepository archiveRepository;
+    private final CouponChangeOutbox changeOutbox;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration deletedRetention;
+    private final Duration expiredRetention;
+    private final int chunkSize;
+    private final Duration pauseBetweenChunks;
+    private final Duration maxRunTime;
+
+    private final Counter deletedArchived;
+    private final Counter expiredArchived;
+    private final Timer runTimer;
+
+    public CouponArchivalService(CouponArchiveRepository archiveRepository,
+                                 CouponChangeOutbox changeOutbox,
+                                 CouponByIdCache byIdCache,
+                                 CouponByCodeCache byCodeCache,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${coupon.archive.deleted-retention:P30D}") Duration deletedRetention,
+                                 @Value("${coupon.archive.expired-retention:P90D}") Duration expiredRetention,
+                                 @Value("${coupon.archive.chunk-size:500}") int chunkSize,
+                                 @Value("${coupon.archive.pause-between-chunks:PT0.1S}") Duration pauseBetweenChunks,
+                                 @Value("${coupon.archive.max-run-time:PT10M}") Duration maxRunTime) {
+        this.archiveRepository   = archiveRepository;
+        this.changeOutbox        = changeOutbox;
+        this.byIdCache           = byIdCache;
+        this.byCodeCache         = byCodeCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deletedRetention    = deletedRetention;
+        this.expiredRetention    = expiredRetention;
+        this.chunkSize           = chunkSize;
+        this.pauseBetweenChunks  = pauseBetweenChunks;
+        this.maxRunTime          = maxRunTime;
+
+        this.deletedArchived = Counter.builder("coupon.archive.rows").tag("reason", "deleted")
+                .description("Cupons movidos para coupons_archive").register(meterRegistry);
+        this.expiredArchived = Counter.builder("coupon.archive.rows").tag("reason", "expired")
+                .description("Cupons movidos para coupons_archive").register(meterRegistry);
+        this.runTimer = Timer.builder("coupon.archive.run")
+                .description("Duração de cada execução do arquivamento").register(meterRegistry);
+    }
+
+    /** Resultado de uma execução. {@code complete} é falso se o tempo máximo acabou antes. */
+    public record ArchivalReport(long deleted, long expired, Duration elapsed, boolean complete) {}
+
+    @Scheduled(fixedDelayString = "${coupon.archive.interval:PT1H}",
+               initialDelayString = "${coupon.archive.initial-delay:PT5M}")
+    public void scheduledRun() {
+        archive();
+    }
+
+    /** Executa um ciclo de arquivamento e registra o resultado no log e nas métricas. */
+    public ArchivalReport archive() {
+        long started = System.nanoTime();
+        long deadline = started + maxRunTime.toNanos();
+        LocalDateTime now = LocalDateTime.now();
+
+        long deleted = drain(Reason.DELETED, deadline, archivedAt ->
+                archiveRepository.archiveDeletedBefore(now.minus(deletedRetention), chunkSize, archivedAt));
+        long expired = drain(Reason.EXPIRED, deadline, archivedAt ->
+                archiveRepository.archiveExpiredBefore(now.minus(expiredRetention), chunkSize, archivedAt));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        boolean complete = System.nanoTime() < deadline && !Thread.currentThread().isInterrupted();
+        runTimer.record(elapsed);
+        if (deleted + expired > 0 || !complete) {
+            log.info("Arquivamento de cupons: {} deletados e {} expirados movidos em {} ms{}",
+                    deleted, expired, elapsed.toMillis(),
+                    complete ? "" : " (tempo máximo atingido; continua na próxima execução)");
+        }
+        return new ArchivalReport(deleted, expired, elapsed, complete);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /** Move chunks até acabarem os elegíveis ou o prazo da execução. */
+    private long drain(Reason reason, long deadline, Function<LocalDateTime, List<ArchivedCoupon>> archiveChunk) {
+        long moved = 0;
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            List<ArchivedCoupon> chunk = transactionTemplate.execute(status -> {
+                LocalDateTime archivedAt = LocalDateTime.now();
+                List<ArchivedCoupon> archived = archiveChunk.apply(archivedAt);
+                if (reason == Reason.EXPIRED) {
+                    changeOutbox.recordArchived(archived, archivedAt);
+                }
+                for (ArchivedCoupon coupon : archived) {
+                    byIdCache.invalidate(coupon.id());
+                    byCodeCache.invalidate(coupon.code());
+                }
+                return archived;
+            });
+
+            moved += chunk.size();
+            (reason == Reason.DELETED ? deletedArchived : expiredArchived).increment(chunk.size());
+            if (chunk.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    /** @return {@code false} se a thread foi interrompida */
+    private boolean pause() {
+        if (pauseBetweenChunks.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenChunks);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
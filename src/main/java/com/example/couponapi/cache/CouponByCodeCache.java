@@ -0,0 +1,165 @@
+package com.example.couponapi.cache;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache read-through de cupons resgatáveis (ativos, publicados e não
+ * expirados) por código sanitizado — o caminho de maior volume da API.
+ *
+ * O acesso é de leitura quase exclusiva e muito concentrado em poucos códigos
+ * (campanhas em destaque), o perfil em que o W-TinyLFU do Caffeine mantém alta
+ * taxa de acerto com pouca memória.
+ *
+ * - Uma entrada positiva vive por {@code ttl}, mas nunca além da meia-noite
+ *   que encerra a {@code expirationDate} do cupom: o cache não serve cupom
+ *   expirado.
+ * - Ausências ficam por {@code negativeTtl}.
+ * - Criação e remoção invalidam o código na chamada e após o commit; cargas em
+ *   lote só entram se nenhuma invalidação ocorreu durante a consulta
+ *   (mesma geração, como no {@link CouponByIdCache}).
+ *
+ * Métricas em {@code cache.*{cache=coupon.by-code}}.
+ */
+@Component
+public class CouponByCodeCache {
+
+    public static final String CACHE_NAME = "coupon.by-code";
+
+    private final Cache<String, Optional<CouponResponseDTO>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CouponByCodeCache(MeterRegistry meterRegistry,
+                             @Value("${coupon.cache.by-code.max-size:50000}") long maxSize,
+                             @Value("${coupon.cache.by-code.ttl:PT10M}") Duration ttl,
+                             @Value("${coupon.cache.by-code.negative-ttl:PT5S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpirationAwareExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o cupom em cache ou o carrega com {@code loader}.
+     * Cargas concorrentes para o mesmo código são feitas uma única vez.
+     */
+    public Optional<CouponResponseDTO> get(String code, Function<String, Optional<CouponResponseDTO>> loader) {
+        return cache.get(code, loader);
+    }
+
+    /** Indica se há entrada em cache (presença ou ausência), sem carregar nem contar nas estatísticas. */
+    public boolean contains(String code) {
+        return cache.asMap().containsKey(code);
+    }
+
+    /** Entradas já em cache (presenças e ausências) dentre os códigos informados, sem carregar nada. */
+    public Map<String, Optional<CouponResponseDTO>> getAllPresent(Collection<String> codes) {
+        return cache.getAllPresent(codes);
+    }
+
+    /** Geração atual; capture antes de consultar o banco e passe a {@link #putIfUnchanged}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Guarda o resultado de uma consulta em lote, a menos que o código já
+     * esteja em cache ou que alguma invalidação tenha ocorrido depois de {@code since}.
+     */
+    public void putIfUnchanged(String code, Optional<CouponResponseDTO> value, long since) {
+        cache.asMap().compute(code, (key, current) ->
+                current != null || generation.get() != since ? current : value);
+    }
+
+    /**
+     * Guarda um cupom resgatável já carregado (aquecimento na subida).
+     * Cupons não publicados são ignorados; expirados expiram na hora.
+     */
+    public void put(CouponResponseDTO coupon) {
+        if (coupon.isPublished()) {
+            cache.put(coupon.getCode(), Optional.of(coupon));
+        }
+    }
+
+    /** Remove o código agora e, havendo transação ativa, novamente após o commit. */
+    public void invalidate(String code) {
+        invalidateAll(List.of(code));
+    }
+
+    /** Remove os códigos agora e, havendo transação ativa, novamente após o commit. */
+    public void invalidateAll(Collection<String> codes) {
+        evict(codes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(codes);
+                }
+            });
+        }
+    }
+
+    private void evict(Collection<String> codes) {
+        generation.incrementAndGet();
+        cache.invalidateAll(codes);
+    }
+
+    /** Esvazia o cache. */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /** Expira no TTL ou no fim do dia de expiração do cupom, o que vier antes. */
+    private static final class ExpirationAwareExpiry implements Expiry<String, Optional<CouponResponseDTO>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ExpirationAwareExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos         = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String code, Optional<CouponResponseDTO> value, long currentTime) {
+            if (value.isEmpty()) {
+                return negativeTtlNanos;
+            }
+            LocalDateTime endOfValidity = value.get().getExpirationDate().plusDays(1).atStartOfDay();
+            long untilExpiration = Duration.between(LocalDateTime.now(), endOfValidity).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String code, Optional<CouponResponseDTO> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(code, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String code, Optional<CouponResponseDTO> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.couponapi.cache;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache read-through de cupons ativos por ID, à frente de
+ * {@code CouponRepository.findActiveById}.
+ *
+ * - Limitado por tamanho, com a política W-TinyLFU do Caffeine: o conjunto
+ *   quente de cupons usados no checkout permanece; acessos esporádicos não o
+ *   expulsam.
+ * - Entradas positivas expiram após {@code ttl}; ausências (404) também são
+ *   guardadas, mas por um {@code negativeTtl} bem mais curto.
+ * - Invalidação por ID é síncrona e repetida após o commit da transação
+ *   corrente: uma carga concorrente que leu o estado anterior ao commit não
+ *   consegue deixar a versão antiga no cache, pois a invalidação espera a
+ *   carga em andamento para a mesma chave terminar.
+ * - Cargas em lote ({@link #putIfUnchanged}) não passam pela carga por chave:
+ *   cada invalidação avança uma geração, e o resultado de uma consulta só
+ *   entra no cache se nenhuma invalidação aconteceu desde o início dela.
+ *
+ * Métricas de hit/miss/eviction em {@code cache.*{cache=coupon.by-id}}.
+ */
+@Component
+public class CouponByIdCache {
+
+    public static final String CACHE_NAME = "coupon.by-id";
+
+    private final Cache<Long, Optional<CouponResponseDTO>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CouponByIdCache(MeterRegistry meterRegistry,
+                           @Value("${coupon.cache.by-id.max-size:10000}") long maxSize,
+                           @Value("${coupon.cache.by-id.ttl:PT10M}") Duration ttl,
+                           @Value("${coupon.cache.by-id.negative-ttl:PT5S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PresenceAwareExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o cupom em cache ou o carrega com {@code loader}.
+     * Cargas concorrentes para o mesmo ID são feitas uma única vez.
+     *
+     * @return cupom ativo, ou vazio se não existir / estiver deletado
+     */
+    public Optional<CouponResponseDTO> get(Long id, Function<Long, Optional<CouponResponseDTO>> loader) {
+        return cache.get(id, loader);
+    }
+
+    /** Indica se há entrada em cache (presença ou ausência), sem carregar nem contar nas estatísticas. */
+    public boolean contains(Long id) {
+        return cache.asMap().containsKey(id);
+    }
+
+    /** Entradas já em cache (presenças e ausências) dentre os IDs informados, sem carregar nada. */
+    public Map<Long, Optional<CouponResponseDTO>> getAllPresent(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /** Geração atual; capture antes de consultar o banco e passe a {@link #putIfUnchanged}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Guarda o resultado de uma consulta em lote, a menos que a chave já
+     * esteja em cache ou que alguma invalidação tenha ocorrido depois de
+     * {@code since} (a consulta pode ter lido o estado anterior a ela).
+     */
+    public void putIfUnchanged(Long id, Optional<CouponResponseDTO> value, long since) {
+        cache.asMap().compute(id, (key, current) ->
+                current != null || generation.get() != since ? current : value);
+    }
+
+    /** Guarda um cupom ativo já carregado (aquecimento na subida). */
+    public void put(CouponResponseDTO coupon) {
+        cache.put(coupon.getId(), Optional.of(coupon));
+    }
+
+    /**
+     * Remove o ID do cache agora e, havendo transação ativa, novamente
+     * após o commit.
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /** Remove os IDs agora e, havendo transação ativa, novamente após o commit. */
+    public void invalidateAll(Collection<Long> ids) {
+        evictAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll(ids);
+                }
+            });
+        }
+    }
+
+    /** A geração avança antes da remoção: um {@link #putIfUnchanged} posterior já a enxerga. */
+    private void evict(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    private void evictAll(Collection<Long> ids) {
+        generation.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    /** Esvazia o cache. */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /** Expiração diferente para presenças e ausências. */
+    private static final class PresenceAwareExpiry implements Expiry<Long, Optional<CouponResponseDTO>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PresenceAwareExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos         = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<CouponResponseDTO> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<CouponResponseDTO> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(id, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<CouponResponseDTO> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.couponapi.changes;
+
+import com.example.couponapi.dto.CouponChangeDTO;
+import com.example.couponapi.dto.CouponChangesPageDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.repository.CouponOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feed de mudanças do catálogo (GET /api/v1/coupons/changes), lido do outbox
+ * a partir de um offset.
+ *
+ * Duas formas de consumo:
+ *  - long-poll ({@link #poll}): com eventos após {@code since}, responde na
+ *    hora; sem eventos, a requisição fica suspensa (sem ocupar thread) até o
+ *    relay publicar algo ou o {@code wait} acabar, quando volta vazia;
+ *  - SSE ({@link #subscribe}): os eventos são enviados à medida que são
+ *    publicados, com o offset como {@code id} — um cliente reconectando com
+ *    {@code Last-Event-ID} retoma de onde parou.
+ *
+ * Quem acorda os consumidores é o {@link CouponChangeRelay}, via
+ * {@link #advance}, sempre na thread do agendador. Cada ciclo envia no
+ * máximo {@code coupon.changes.max-page-size} eventos por assinante SSE, para
+ * que um assinante atrasado não segure os demais.
+ */
+@Component
+public class CouponChangeFeed {
+
+    private final CouponOutboxRepository outboxRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Duration defaultWait;
+    private final Duration maxWait;
+    private final Duration sseTimeout;
+    private final long heartbeatNanos;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // atualizados só por advance(); até o primeiro ciclo do relay, o feed parece vazio
+    private volatile long head;
+    private volatile long purged;
+
+    public CouponChangeFeed(CouponOutboxRepository outboxRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${coupon.changes.default-page-size:100}") int defaultPageSize,
+                            @Value("${coupon.changes.max-page-size:1000}") int maxPageSize,
+                            @Value("${coupon.changes.default-wait:PT25S}") Duration defaultWait,
+                            @Value("${coupon.changes.max-wait:PT60S}") Duration maxWait,
+                            @Value("${coupon.changes.sse-timeout:PT30M}") Duration sseTimeout,
+                            @Value("${coupon.changes.sse-heartbeat:PT15S}") Duration sseHeartbeat) {
+        this.outboxRepository = outboxRepository;
+        this.defaultPageSize  = defaultPageSize;
+        this.maxPageSize      = maxPageSize;
+        this.defaultWait      = defaultWait;
+        this.maxWait          = maxWait;
+        this.sseTimeout       = sseTimeout;
+        this.heartbeatNanos   = sseHeartbeat.toNanos();
+
+        Gauge.builder("coupon.changes.offset", this, f -> f.head)
+                .description("Último offset publicado no feed de mudanças").register(meterRegistry);
+        Gauge.builder("coupon.changes.consumers", waiters, Set::size).tag("mode", "long-poll")
+                .description("Consumidores aguardando eventos").register(meterRegistry);
+        Gauge.builder("coupon.changes.consumers", subscribers, Set::size).tag("mode", "sse")
+                .description("Consumidores aguardando eventos").register(meterRegistry);
+    }
+
+    /**
+     * Próxima página de eventos após {@code since}, esperando até
+     * {@code waitSeconds} se ainda não houver nenhum.
+     *
+     * @param limit       tamanho da página (nulo = padrão; limitado ao máximo)
+     * @param waitSeconds espera máxima (nulo = padrão; {@code 0} = não espera)
+     * @throws BusinessException se {@code since} for negativo ou anterior à retenção
+     */
+    public DeferredResult<CouponChangesPageDTO> poll(long since, Integer limit, Integer waitSeconds) {
+        checkRetained(since);
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        Duration wait = waitSeconds == null ? defaultWait : Duration.ofSeconds(Math.max(waitSeconds, 0));
+        if (wait.compareTo(maxWait) > 0) {
+            wait = maxWait;
+        }
+
+        DeferredResult<CouponChangesPageDTO> result = new DeferredResult<>(
+                Math.max(wait.toMillis(), 1), () -> CouponChangesPageDTO.of(List.of(), since));
+        if (head <= since && !wait.isZero()) {
+            Waiter waiter = new Waiter(since, pageSize, result);
+            waiters.add(waiter);
+            result.onCompletion(() -> waiters.remove(waiter));
+            // confere de novo: o relay pode ter avançado antes de o waiter entrar no conjunto
+            if (head <= since) {
+                return result;
+            }
+            waiters.remove(waiter);
+        }
+        result.setResult(CouponChangesPageDTO.of(outboxRepository.findAfter(since, pageSize), since));
+        return result;
+    }
+
+    /**
+     * Abre um stream SSE com os eventos após {@code since}. O primeiro envio
+     * acontece no próximo ciclo do relay.
+     *
+     * @throws BusinessException se {@code since} for negativo ou anterior à retenção
+     */
+    public SseEmitter subscribe(long since) {
+        checkRetained(since);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Chamado pelo relay a cada ciclo com o estado atual do outbox: responde
+     * os long-polls que ficaram para trás e envia o que falta a cada
+     * assinante SSE.
+     */
+    void advance(long newHead, long newPurged) {
+        purged = newPurged;
+        head   = newHead;
+
+        if (!waiters.isEmpty()) {
+            // long-polls com o mesmo (since, limit) compartilham a mesma consulta
+            Map<Waiter.PageKey, CouponChangesPageDTO> pages = new HashMap<>();
+            for (Waiter waiter : waiters) {
+                if (waiter.since() < newHead && waiters.remove(waiter)) {
+                    try {
+                        waiter.result().setResult(pages.computeIfAbsent(waiter.pageKey(),
+                                key -> CouponChangesPageDTO.of(
+                                        outboxRepository.findAfter(key.since(), key.pageSize()), key.since())));
+                    } catch (RuntimeException e) {
+                        waiter.result().setErrorResult(e);
+                    }
+                }
+            }
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.deliver(newHead, newPurged);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private void checkRetained(long since) {
+        if (since < 0) {
+            throw new BusinessException("invalid_offset", "O offset 'since' não pode ser negativo.");
+        }
+        if (since < purged) {
+            throw new BusinessException("offset_purged", "Os eventos após o offset " + since + " já foram removidos " +
+                    "(retenção do feed). Refaça a carga completa do catálogo e retome a partir do offset " +
+                    head + ".");
+        }
+    }
+
+    /** Long-poll suspenso à espera de eventos após {@code since}. */
+    private record Waiter(long since, int pageSize, DeferredResult<CouponChangesPageDTO> result) {
+
+        record PageKey(long since, int pageSize) {}
+
+        PageKey pageKey() {
+            return new PageKey(since, pageSize);
+        }
+    }
+
+    /** Stream SSE aberto; só a thread do relay escreve nele. */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long lastSent;
+        private long lastActivity = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long since) {
+            this.emitter  = emitter;
+            this.lastSent = since;
+        }
+
+        void deliver(long newHead, long newPurged) {
+            try {
+                if (lastSent < newPurged) {
+                    // atrasou além da retenção: ao reconectar, recebe o 422 explicando o motivo
+                    subscribers.remove(this);
+                    emitter.complete();
+                } else if (lastSent < newHead) {
+                    for (CouponChangeDTO change : outboxRepository.findAfter(lastSent, maxPageSize)) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.getOffset()))
+                                .name(change.getType().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        lastSent = change.getOffset();
+                    }
+                    lastActivity = System.nanoTime();
+                } else if (System.nanoTime() - lastActivity >= heartbeatNanos) {
+                    // mantém a conexão viva em proxies e detecta clientes que já foram embora
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    lastActivity = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
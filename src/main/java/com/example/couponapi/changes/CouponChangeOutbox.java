@@ -0,0 +1,119 @@
+package com.example.couponapi.changes;
+
+import com.example.couponapi.dto.CouponChangeDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.repository.CouponArchiveRepository.ArchivedCoupon;
+import com.example.couponapi.repository.CouponExpirationRepository.ExpiredCoupon;
+import com.example.couponapi.repository.CouponOutboxRepository;
+import com.example.couponapi.repository.CouponOutboxRepository.OutboxRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grava os eventos do ciclo de vida dos cupons no outbox
+ * ({@code coupon_outbox}), na transação de quem altera o cupom.
+ *
+ * Exige uma transação ativa ({@link Propagation#MANDATORY}): o evento é
+ * confirmado junto com a alteração ou descartado com ela, nunca um sem o
+ * outro. A publicação fica a cargo do {@link CouponChangeRelay}.
+ *
+ * A variante reativa grava pelo R2DBC, fora do alcance do JDBC: usa
+ * {@link #createdRow} e {@link #deletedRow} para montar as mesmas linhas e as
+ * insere na sua própria transação.
+ */
+@Component
+public class CouponChangeOutbox {
+
+    private final CouponOutboxRepository outboxRepository;
+    private final ObjectWriter payloadWriter;
+
+    public CouponChangeOutbox(CouponOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.payloadWriter    = objectMapper.writerFor(CouponResponseDTO.class);
+    }
+
+    /** Registra a criação dos cupons (já persistidos, com ID e {@code createdAt}). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Coupon> coupons) {
+        if (coupons.isEmpty()) {
+            return;
+        }
+        List<OutboxRow> rows = new ArrayList<>(coupons.size());
+        for (Coupon coupon : coupons) {
+            rows.add(createdRow(coupon));
+        }
+        outboxRepository.insertAll(rows);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Coupon coupon) {
+        recordCreated(List.of(coupon));
+    }
+
+    /** Registra o soft delete do cupom (com {@code deletedAt} preenchido). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Coupon coupon) {
+        outboxRepository.insertAll(List.of(deletedRow(coupon)));
+    }
+
+    /** Registra o vencimento dos cupons marcados pela varredura da virada do dia. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpired(Collection<ExpiredCoupon> coupons, LocalDateTime expiredAt) {
+        if (coupons.isEmpty()) {
+            return;
+        }
+        List<OutboxRow> rows = new ArrayList<>(coupons.size());
+        for (ExpiredCoupon coupon : coupons) {
+            rows.add(new OutboxRow(CouponChangeDTO.Type.EXPIRED, coupon.id(), coupon.code(), null, expiredAt));
+        }
+        outboxRepository.insertAll(rows);
+    }
+
+    /** Registra a saída do catálogo de cupons ativos movidos para o arquivo. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordArchived(Collection<ArchivedCoupon> coupons, LocalDateTime archivedAt) {
+        if (coupons.isEmpty()) {
+            return;
+        }
+        List<OutboxRow> rows = new ArrayList<>(coupons.size());
+        for (ArchivedCoupon coupon : coupons) {
+            rows.add(new OutboxRow(CouponChangeDTO.Type.ARCHIVED, coupon.id(), coupon.code(), null, archivedAt));
+        }
+        outboxRepository.insertAll(rows);
+    }
+
+    /** Linha CREATED do cupom já persistido (com ID e {@code createdAt}). */
+    public OutboxRow createdRow(Coupon coupon) {
+        return new OutboxRow(CouponChangeDTO.Type.CREATED, coupon.getId(), coupon.getCode(),
+                payload(CouponResponseDTO.fromEntity(coupon)), coupon.getCreatedAt());
+    }
+
+    /** Linha DELETED do cupom com {@code deletedAt} preenchido. */
+    public OutboxRow deletedRow(Coupon coupon) {
+        return new OutboxRow(CouponChangeDTO.Type.DELETED,
+                coupon.getId(), coupon.getCode(), null, coupon.getDeletedAt());
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private String payload(CouponResponseDTO coupon) {
+        try {
+            return payloadWriter.writeValueAsString(coupon);
+        } catch (JsonProcessingException e) {
+            // CouponResponseDTO só tem tipos simples; não acontece na prática
+            throw new IllegalStateException("Falha ao serializar o cupom " + coupon.getId(), e);
+        }
+    }
+}
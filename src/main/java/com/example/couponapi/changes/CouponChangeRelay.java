@@ -0,0 +1,76 @@
+package com.example.couponapi.changes;
+
+import com.example.couponapi.repository.CouponOutboxRepository;
+import com.example.couponapi.repository.CouponOutboxRepository.RelayState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Publica o outbox: a cada {@code coupon.changes.relay-interval}, atribui
+ * offsets às linhas pendentes em lotes de {@code coupon.changes.relay-batch-size}
+ * (uma transação por lote) e avisa o {@link CouponChangeFeed} do novo topo.
+ *
+ * O topo é sempre relido do banco, então assinantes desta instância também
+ * recebem eventos publicados pelo relay de outra instância. Eventos mais
+ * antigos que {@code coupon.changes.retention} são removidos periodicamente.
+ */
+@Component
+public class CouponChangeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponChangeRelay.class);
+
+    private final CouponOutboxRepository outboxRepository;
+    private final CouponChangeFeed feed;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public CouponChangeRelay(CouponOutboxRepository outboxRepository,
+                             CouponChangeFeed feed,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${coupon.changes.relay-batch-size:500}") int batchSize,
+                             @Value("${coupon.changes.retention:P7D}") Duration retention) {
+        this.outboxRepository    = outboxRepository;
+        this.feed                = feed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize           = batchSize;
+        this.retention           = retention;
+    }
+
+    /** Publica as linhas pendentes e avança o feed. */
+    @Scheduled(fixedDelayString = "${coupon.changes.relay-interval:PT0.2S}")
+    public void relay() {
+        try {
+            if (outboxRepository.hasPending()) {
+                int published;
+                do {
+                    published = transactionTemplate.execute(status -> outboxRepository.assignOffsets(batchSize));
+                } while (published == batchSize);
+            }
+            RelayState state = outboxRepository.findRelayState();
+            feed.advance(state.lastOffset(), state.purgedOffset());
+        } catch (RuntimeException e) {
+            // o próximo ciclo retoma do mesmo ponto: nada é publicado pela metade
+            log.warn("Falha ao publicar o outbox de cupons", e);
+        }
+    }
+
+    /** Remove eventos publicados além da retenção. */
+    @Scheduled(fixedDelayString = "${coupon.changes.purge-interval:PT1H}",
+               initialDelayString = "${coupon.changes.purge-interval:PT1H}")
+    public void purge() {
+        int removed = transactionTemplate.execute(
+                status -> outboxRepository.purgeBefore(LocalDateTime.now().minus(retention)));
+        if (removed > 0) {
+            log.info("Outbox de cupons: {} eventos anteriores a {} removidos", removed, retention);
+        }
+    }
+}
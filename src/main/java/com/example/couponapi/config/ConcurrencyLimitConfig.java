@@ -0,0 +1,33 @@
+package com.example.couponapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Registra o {@link ConcurrencyLimitFilter} para {@code /api/*} quando
+ * {@code coupon.concurrency.limit.enabled=true} (ligado no perfil "virtual").
+ * Actuator e Swagger ficam de fora do limite.
+ */
+@Configuration
+@ConditionalOnProperty(name = "coupon.concurrency.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${coupon.concurrency.max-in-flight:200}") int maxInFlight,
+            @Value("${coupon.concurrency.acquire-timeout:PT0.5S}") Duration acquireTimeout) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxInFlight, acquireTimeout, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
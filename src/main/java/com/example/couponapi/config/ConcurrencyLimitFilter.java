@@ -0,0 +1,86 @@
+package com.example.couponapi.config;
+
+import com.example.couponapi.exception.ErrorTimestamp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas requisições da API são processadas ao mesmo tempo.
+ *
+ * Com virtual threads não há mais o teto natural do pool de threads do
+ * Tomcat: sem este filtro, um pico de tráfego vira um pico de threads
+ * disputando as poucas conexões do banco, e as requisições passam a estourar
+ * o {@code connection-timeout} do pool em cascata. Aqui o excesso espera até
+ * {@code acquireTimeout} por uma vaga e, se não conseguir, recebe
+ * 503 com {@code Retry-After} sem tocar no banco.
+ *
+ * Requisições assíncronas (exportação NDJSON) liberam a vaga ao fim do
+ * dispatch inicial; durante o streaming, o limite efetivo é o pool de conexões.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.permits             = new Semaphore(maxInFlight);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejected = Counter.builder("coupon.concurrency.rejected")
+                .description("Requisições recusadas com 503 por excesso de concorrência")
+                .register(meterRegistry);
+        Gauge.builder("coupon.concurrency.in.flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("Requisições da API em processamento")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Mesmo formato de corpo de erro do {@code GlobalExceptionHandler}. */
+    private static void reject(HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"timestamp\":\"" + ErrorTimestamp.now() + "\"," +
+                "\"status\":" + status.value() + "," +
+                "\"error\":\"" + status.getReasonPhrase() + "\"," +
+                "\"message\":\"Servidor sobrecarregado. Tente novamente em instantes.\"}");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.couponapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Infraestrutura da variante reativa (perfil "reactive").
+ *
+ * O {@link ConnectionFactory} (com pool) vem da autoconfiguração do Spring
+ * Boot a partir de {@code spring.r2dbc.*}. Com ele presente o Boot deixa de
+ * criar o {@code DataSource}, que continua necessário para o JPA, o filtro de
+ * códigos e os demais componentes JDBC — por isso é declarado aqui, com as
+ * mesmas propriedades {@code spring.datasource.*}.
+ *
+ * As gravações reativas (cupom e evento do outbox juntos) rodam num
+ * {@link TransactionalOperator} sobre um {@link R2dbcTransactionManager} que
+ * não é bean: um segundo {@code TransactionManager} no contexto deixaria
+ * ambíguo o {@code @Transactional} do lado JPA — por isso a autoconfiguração
+ * dele está excluída em {@code application-reactive.properties}.
+ *
+ * O servidor Netty também é explícito: sem ele o Boot usaria o Tomcat, que
+ * está no classpath por causa da variante MVC.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.couponapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas ({@code @Scheduled}) da aplicação,
+ * como a reconstrução periódica do filtro de códigos.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
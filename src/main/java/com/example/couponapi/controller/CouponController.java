@@ -1,10 +1,23 @@
 package com.example.couponapi.controller;
 
+import com.example.couponapi.dto.CartDTO;
+import com.example.couponapi.dto.CartDiscountResultDTO;
+import com.example.couponapi.dto.CouponBatchResultDTO;
+import com.example.couponapi.dto.CouponChangesPageDTO;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponLookupRequestDTO;
+import com.example.couponapi.dto.CouponLookupResultDTO;
+import com.example.couponapi.dto.CouponPageDTO;
+import com.example.couponapi.dto.CouponRedemptionRequestDTO;
+import com.example.couponapi.dto.CouponRedemptionResponseDTO;
 import com.example.couponapi.dto.CouponRequestDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.dto.GeneratedCodesDTO;
+import com.example.couponapi.idempotency.CouponIdempotencyStore;
 import com.example.couponapi.service.CouponService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -13,22 +26,43 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * Controller REST para o recurso "cupom".
  * Base path: /api/v1/coupons
+ *
+ * Registrado apenas na aplicação servlet (Spring MVC); no perfil "reactive"
+ * o mesmo base path é atendido pelo {@link ReactiveCouponController}.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/coupons")
 @Tag(name = "Coupons", description = "Gerenciamento de cupons de desconto")
 public class CouponController {
 
+    /** Header com o token opaco da próxima página da listagem. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Header com a chave de idempotência da criação. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Header presente (true) quando a resposta repete a de uma requisição anterior com a mesma chave. */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final CouponService couponService;
 
     public CouponController(CouponService couponService) {
@@ -43,12 +77,16 @@ public class CouponController {
         summary = "Criar cupom",
         description = "Cadastra um novo cupom de desconto. " +
                       "Caracteres especiais no campo `code` são removidos automaticamente, " +
-                      "devendo restar exatamente **6 caracteres alfanuméricos**."
+                      "devendo restar exatamente **6 caracteres alfanuméricos**. " +
+                      "Com o header `Idempotency-Key`, retentativas com a mesma chave e o mesmo " +
+                      "corpo recebem a resposta da primeira criação (com `Idempotent-Replayed: true`)."
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "201",
-            description = "Cupom criado com sucesso",
+            description = "Cupom criado com sucesso (ou resposta repetida de uma criação com a mesma Idempotency-Key)",
+            headers = @Header(name = IDEMPOTENT_REPLAYED_HEADER,
+                              description = "true quando a resposta repete a de uma requisição anterior"),
             content = @Content(
                 mediaType = MediaType.APPLICATION_JSON_VALUE,
                 schema = @Schema(implementation = CouponResponseDTO.class),
@@ -85,7 +123,8 @@ public class CouponController {
         ),
         @ApiResponse(
             responseCode = "422",
-            description = "Violação de regra de negócio (código inválido, data no passado, código duplicado)",
+            description = "Violação de regra de negócio (código inválido, data no passado, código duplicado, " +
+                          "Idempotency-Key reutilizada com outro corpo ou ainda em processamento)",
             content = @Content(
                 mediaType = MediaType.APPLICATION_JSON_VALUE,
                 examples = @ExampleObject(value = """
@@ -121,9 +160,113 @@ public class CouponController {
                     )
                 )
             )
-            @Valid @RequestBody CouponRequestDTO dto) {
-        CouponResponseDTO response = couponService.create(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            @Valid @RequestBody CouponRequestDTO dto,
+            @Parameter(description = "Chave única da operação (até 255 caracteres) para retentativas seguras")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(couponService.create(dto));
+        }
+        CouponIdempotencyStore.Outcome outcome = couponService.create(dto, idempotencyKey);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (outcome.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.coupon());
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/batch
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Criar cupons em lote",
+        description = "Cria vários cupons em uma única requisição. Aceita um array JSON " +
+                      "(`application/json`) ou um item por linha (`application/x-ndjson`). " +
+                      "Cada item é validado com as mesmas regras do `POST /api/v1/coupons` e " +
+                      "tratado de forma independente: a resposta informa, na ordem recebida, " +
+                      "o id criado ou o motivo da rejeição de cada item."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote processado (verifique o status de cada item)",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CouponBatchResultDTO.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "requested": 2,
+                      "created": 1,
+                      "rejected": 1,
+                      "items": [
+                        { "index": 0, "status": "CREATED", "id": 51, "code": "SAVE10" },
+                        { "index": 1, "status": "REJECTED", "code": "SAVE10",
+                          "message": "Código 'SAVE10' repetido dentro do lote." }
+                      ]
+                    }
+                    """)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Lote vazio, acima do máximo permitido ou NDJSON malformado",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = """
+                    {
+                      "timestamp": "2026-02-18T10:30:00",
+                      "status": 422,
+                      "error": "Unprocessable Entity",
+                      "message": "O lote deve conter ao menos um cupom."
+                    }
+                    """)
+            )
+        )
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CouponBatchResultDTO> createBatch(@RequestBody List<CouponRequestDTO> dtos) {
+        return ResponseEntity.ok(couponService.createAll(dtos));
+    }
+
+    @Operation(hidden = true)
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<CouponBatchResultDTO> createBatchNdjson(InputStream body) {
+        return ResponseEntity.ok(couponService.createAll(body));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/codes
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Gerar códigos únicos",
+        description = "Gera `count` códigos de 6 caracteres alfanuméricos, distintos entre si " +
+                      "e ainda não usados por nenhum cupom, para criação de campanhas em massa. " +
+                      "Códigos emitidos nunca são emitidos novamente, mesmo entre instâncias."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Códigos gerados",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = GeneratedCodesDTO.class),
+                examples = @ExampleObject(value = """
+                    { "codes": ["k3Z9aQ", "0Pq7Lx", "Tz81bM"] }
+                    """)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Quantidade fora do intervalo permitido",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping("/codes")
+    public ResponseEntity<GeneratedCodesDTO> generateCodes(
+            @Parameter(description = "Quantidade de códigos", example = "100", required = true)
+            @RequestParam int count) {
+        return ResponseEntity.ok(couponService.generateCodes(count));
     }
 
     // -------------------------------------------------------------------------
@@ -132,22 +275,143 @@ public class CouponController {
 
     @Operation(
         summary = "Listar cupons",
-        description = "Retorna todos os cupons **ativos** (não soft-deletados), " +
-                      "ordenados do mais recente para o mais antigo."
+        description = "Retorna uma página de cupons **ativos** (não soft-deletados), " +
+                      "ordenados do mais recente para o mais antigo. " +
+                      "Quando há mais itens, o token da próxima página é devolvido no header " +
+                      "`X-Next-Cursor` (e no header `Link` com `rel=\"next\"`); basta repeti-lo " +
+                      "no parâmetro `cursor` mantendo os mesmos filtros."
     )
     @ApiResponses({
         @ApiResponse(
             responseCode = "200",
-            description = "Lista retornada com sucesso (pode ser vazia)",
+            description = "Página retornada com sucesso (pode ser vazia)",
+            headers = @Header(name = NEXT_CURSOR_HEADER,
+                              description = "Token da próxima página; ausente na última página"),
             content = @Content(
                 mediaType = MediaType.APPLICATION_JSON_VALUE,
                 array = @ArraySchema(schema = @Schema(implementation = CouponResponseDTO.class))
             )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Cursor inválido, tamanho de página inválido ou filtro inconsistente",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = """
+                    {
+                      "timestamp": "2026-02-18T10:30:00",
+                      "status": 422,
+                      "error": "Unprocessable Entity",
+                      "message": "Cursor de paginação inválido."
+                    }
+                    """)
+            )
         )
     })
     @GetMapping
-    public ResponseEntity<List<CouponResponseDTO>> findAll() {
-        return ResponseEntity.ok(couponService.findAll());
+    public ResponseEntity<List<CouponResponseDTO>> findAll(
+            @Parameter(description = "Token opaco da página anterior (header X-Next-Cursor)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página; limitado pelo máximo configurado", example = "50")
+            @RequestParam(required = false) Integer size,
+            @ParameterObject CouponFilterDTO filter) {
+        CouponPageDTO page = couponService.findPage(filter, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/v1/coupons/export
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Exportar catálogo (NDJSON)",
+        description = "Exporta **todos** os cupons ativos, em ordem de id, um JSON por linha " +
+                      "(`application/x-ndjson`). A resposta é transmitida em chunks à medida " +
+                      "que as linhas são lidas do banco, com memória constante no servidor."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream NDJSON com um cupom por linha",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = CouponResponseDTO.class),
+                examples = @ExampleObject(value = """
+                    {"id":1,"code":"SAVE10","description":"10% de desconto","discountValue":10.0,"expirationDate":"2026-12-31","published":true,"createdAt":"2026-02-18T10:30:00"}
+                    {"id":2,"code":"SAVE20","description":"20% de desconto","discountValue":20.0,"expirationDate":"2026-12-31","published":false,"createdAt":"2026-02-18T10:31:00"}
+                    """)
+            )
+        )
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = couponService::exportActive;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/v1/coupons/changes
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Feed de mudanças (long-poll)",
+        description = "Retorna as criações e remoções de cupons com offset maior que `since`, " +
+                      "em ordem. Sem eventos novos, a resposta espera até `wait` segundos por " +
+                      "um evento e volta vazia se nada acontecer. Envie `nextOffset` como " +
+                      "`since` na próxima chamada. Com `Accept: text/event-stream`, o mesmo " +
+                      "endpoint abre um stream SSE (o `id` de cada evento é o offset)."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Eventos após `since` (possivelmente nenhum)",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CouponChangesPageDTO.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "items": [
+                        {"offset":41,"type":"CREATED","couponId":7,"code":"SAVE10","occurredAt":"2026-02-18T10:30:00","coupon":{"id":7,"code":"SAVE10","description":"10% de desconto","discountValue":10.0,"expirationDate":"2026-12-31","published":true,"createdAt":"2026-02-18T10:30:00"}},
+                        {"offset":42,"type":"DELETED","couponId":3,"code":"OLD001","occurredAt":"2026-02-18T10:31:00","coupon":null}
+                      ],
+                      "nextOffset": 42
+                    }
+                    """)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "`since` negativo ou anterior à retenção do feed (refazer a carga completa)"
+        )
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<CouponChangesPageDTO> changes(
+            @Parameter(description = "Último offset já processado (0 = desde o início)", example = "0")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Máximo de eventos na resposta", example = "100")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Espera máxima, em segundos, quando não há eventos (0 = não espera)", example = "25")
+            @RequestParam(name = "wait", required = false) Integer waitSeconds) {
+        return couponService.pollChanges(since, limit, waitSeconds);
+    }
+
+    @Operation(hidden = true)
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changesStream(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return couponService.streamChanges(lastEventId != null ? Math.max(since, lastEventId) : since);
     }
 
     // -------------------------------------------------------------------------
@@ -191,6 +455,220 @@ public class CouponController {
         return ResponseEntity.ok(couponService.findById(id));
     }
 
+    // -------------------------------------------------------------------------
+    // GET /api/v1/coupons/code/{code}
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Buscar cupom por código",
+        description = "Retorna o cupom com o código informado, desde que esteja ativo, " +
+                      "publicado e não expirado. Caracteres especiais do código são " +
+                      "removidos antes da busca, como na criação."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cupom disponível para uso",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CouponResponseDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Cupom inexistente, removido, expirado ou não publicado",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = """
+                    {
+                      "timestamp": "2026-02-18T10:30:00",
+                      "status": 404,
+                      "error": "Not Found",
+                      "message": "Cupom com código 'SAVE10' não encontrado ou indisponível."
+                    }
+                    """)
+            )
+        )
+    })
+    @GetMapping("/code/{code}")
+    public ResponseEntity<CouponResponseDTO> findByCode(
+            @Parameter(description = "Código do cupom", example = "SAVE10", required = true)
+            @PathVariable String code) {
+        return ResponseEntity.ok(couponService.findRedeemableByCode(code));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/lookup
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Buscar vários cupons",
+        description = "Busca numa só requisição vários cupons por ID (`ids`) e/ou por código (`codes`), " +
+                      "com as mesmas regras de `GET /api/v1/coupons/{id}` e " +
+                      "`GET /api/v1/coupons/code/{code}`. A resposta traz um item por chave, " +
+                      "primeiro os ids e depois os códigos, na ordem recebida; chaves sem cupom " +
+                      "vêm com status `NOT_FOUND`, sem falhar a requisição."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Busca concluída (verifique o status de cada item)",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CouponLookupResultDTO.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "requested": 3,
+                      "found": 2,
+                      "notFound": 1,
+                      "items": [
+                        { "id": 1, "status": "FOUND", "coupon": { "id": 1, "code": "SAVE10", "...": "..." } },
+                        { "id": 99, "status": "NOT_FOUND" },
+                        { "code": "FRETE-1", "status": "FOUND", "coupon": { "id": 7, "code": "FRETE1", "...": "..." } }
+                      ]
+                    }
+                    """)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Nenhuma chave informada ou acima do máximo permitido",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<CouponLookupResultDTO> lookup(@RequestBody CouponLookupRequestDTO request) {
+        return ResponseEntity.ok(couponService.lookup(request));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/evaluate
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Calcular o melhor desconto de um carrinho",
+        description = "Avalia os códigos informados contra os itens do carrinho e aplica a melhor " +
+                      "combinação: um cupom exclusivo sozinho ou a soma dos cupons acumuláveis " +
+                      "(`stackable`), respeitando tipo (`FIXED`/`PERCENTAGE`) e subtotal mínimo. " +
+                      "Empates ficam com menos cupons e, depois, com o cupom de menor ID. " +
+                      "Nada é resgatado: os limites de uso são verificados no resgate."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Carrinho avaliado (verifique o status de cada código)",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CartDiscountResultDTO.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "cartId": "cart-42",
+                      "subtotal": 149.70,
+                      "discount": 22.46,
+                      "total": 127.24,
+                      "coupons": [
+                        { "code": "PCT015", "couponId": 7, "status": "APPLIED", "discount": 22.46 },
+                        { "code": "SAVE10", "couponId": 1, "status": "NOT_SELECTED", "discount": 0.00 },
+                        { "code": "XYZ999", "status": "NOT_FOUND", "discount": 0.00 }
+                      ]
+                    }
+                    """)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Carrinho inválido (sem itens, quantidade ou preço inválidos, códigos demais)",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping("/evaluate")
+    public ResponseEntity<CartDiscountResultDTO> evaluate(@Valid @RequestBody CartDTO cart) {
+        return ResponseEntity.ok(couponService.evaluate(cart));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/evaluate/batch
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Calcular o melhor desconto de vários carrinhos",
+        description = "Mesmas regras do `POST /api/v1/coupons/evaluate`, para um lote de carrinhos " +
+                      "(ex.: prévias de preço). Os códigos de todos os carrinhos são resolvidos de uma " +
+                      "vez; a resposta traz um resultado por carrinho, na ordem recebida."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote avaliado",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = CartDiscountResultDTO.class))
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Lote acima do máximo permitido ou carrinho inválido (a mensagem traz a posição)",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        )
+    })
+    @PostMapping("/evaluate/batch")
+    public ResponseEntity<List<CartDiscountResultDTO>> evaluateBatch(@RequestBody List<CartDTO> carts) {
+        return ResponseEntity.ok(couponService.evaluateAll(carts));
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/code/{code}/redemptions
+    // -------------------------------------------------------------------------
+
+    @Operation(
+        summary = "Resgatar cupom",
+        description = "Registra o uso do cupom por um cliente no checkout, respeitando o " +
+                      "limite total de usos (maxUses) e o limite por cliente (maxUsesPerCustomer). " +
+                      "O código passa pela mesma sanitização da criação."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "201",
+            description = "Resgate registrado",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CouponRedemptionResponseDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Erro de validação nos campos (Bean Validation)",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Cupom inexistente, removido, expirado ou não publicado",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Limite total ou por cliente atingido",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(value = """
+                    {
+                      "timestamp": "2026-02-18T10:30:00",
+                      "status": 422,
+                      "error": "Unprocessable Entity",
+                      "message": "O cupom 'SAVE10' atingiu o limite de 1000 usos."
+                    }
+                    """)
+            )
+        )
+    })
+    @PostMapping("/code/{code}/redemptions")
+    public ResponseEntity<CouponRedemptionResponseDTO> redeem(
+            @Parameter(description = "Código do cupom", example = "SAVE10", required = true)
+            @PathVariable String code,
+            @Valid @RequestBody CouponRedemptionRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(couponService.redeem(code, dto));
+    }
+
     // -------------------------------------------------------------------------
     // DELETE /api/v1/coupons/{id}
     // -------------------------------------------------------------------------
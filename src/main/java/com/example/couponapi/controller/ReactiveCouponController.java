@@ -0,0 +1,80 @@
+package com.example.couponapi.controller;
+
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.service.ReactiveCouponService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reativa (WebFlux + R2DBC) do {@link CouponController}, ativa no
+ * perfil "reactive".
+ *
+ * Mesmo base path e mesmo contrato de criação, consulta por ID, listagem e
+ * remoção — inclusive os headers {@code X-Next-Cursor}/{@code Link} e os
+ * corpos de erro do {@code GlobalExceptionHandler}. A listagem é um
+ * {@link Flux}: em {@code application/json} o array é escrito à medida que as
+ * linhas chegam do banco, e em {@code application/x-ndjson} cada cupom sai em
+ * uma linha própria.
+ *
+ * A documentação OpenAPI fica no {@link CouponController}.
+ */
+@RestController
+@RequestMapping("/api/v1/coupons")
+@Profile("reactive")
+public class ReactiveCouponController {
+
+    private final ReactiveCouponService couponService;
+
+    public ReactiveCouponController(ReactiveCouponService couponService) {
+        this.couponService = couponService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<CouponResponseDTO>> create(@Valid @RequestBody CouponRequestDTO dto) {
+        return couponService.create(dto)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Mono<ResponseEntity<Flux<CouponResponseDTO>>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            CouponFilterDTO filter,
+            ServerWebExchange exchange) {
+        Flux<CouponResponseDTO> items = couponService.findPage(filter, cursor, size);
+
+        return couponService.findNextCursor(filter, cursor, size)
+                .map(nextCursor -> {
+                    String nextLink = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                            .replaceQueryParam("cursor", nextCursor)
+                            .toUriString();
+                    return ResponseEntity.ok()
+                            .header(CouponController.NEXT_CURSOR_HEADER, nextCursor)
+                            .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+                            .body(items);
+                })
+                .defaultIfEmpty(ResponseEntity.ok().body(items));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CouponResponseDTO> findById(@PathVariable Long id) {
+        return couponService.findById(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return couponService.delete(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
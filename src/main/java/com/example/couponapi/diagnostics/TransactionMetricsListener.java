@@ -0,0 +1,94 @@
+package com.example.couponapi.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duração das transações, do begin ao commit ou rollback, no timer
+ * {@value #METRIC_NAME} com as tags {@code name} (classe e método do
+ * {@code @Transactional}, ou {@code template} para {@code TransactionTemplate})
+ * e {@code outcome} ({@code commit}, {@code rollback}, {@code failed}).
+ *
+ * O Spring Boot registra o listener no transaction manager auto-configurado.
+ * Somado a {@code hikaricp.connections.acquire} (espera por conexão do pool),
+ * separa o tempo segurando conexão do tempo esperando por ela.
+ */
+@Component
+public class TransactionMetricsListener implements TransactionExecutionListener {
+
+    public static final String METRIC_NAME = "coupon.transaction";
+
+    private static final int COMMIT = 0;
+    private static final int ROLLBACK = 1;
+    private static final int FAILED = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<TransactionExecution, Long> started = new ConcurrentHashMap<>();
+    // timers por nome de transação, indexados pelo desfecho: sem alocação por transação
+    private final ConcurrentHashMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public TransactionMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            started.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null ? COMMIT : FAILED);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, rollbackFailure == null ? ROLLBACK : FAILED);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private void record(TransactionExecution transaction, int outcome) {
+        // remove: um commit que falha ainda pode passar pelo rollback, e só conta uma vez
+        Long begin = started.remove(transaction);
+        if (begin != null) {
+            String name = transaction.getTransactionName();
+            timers.computeIfAbsent(name != null ? name : "", this::register)[outcome]
+                    .record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer[] register(String transactionName) {
+        String name = shortName(transactionName);
+        return new Timer[] {
+            timer(name, "commit"), timer(name, "rollback"), timer(name, "failed")
+        };
+    }
+
+    private Timer timer(String name, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .description("Duração das transações, do begin ao commit/rollback")
+                .register(meterRegistry);
+    }
+
+    /** {@code com.example.couponapi.service.CouponCreationService.create} → {@code CouponCreationService.create}. */
+    static String shortName(String transactionName) {
+        if (transactionName.isEmpty()) {
+            return "template";
+        }
+        int method = transactionName.lastIndexOf('.');
+        return method <= 0 ? transactionName : transactionName.substring(transactionName.lastIndexOf('.', method - 1) + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CouponOperationEvent.NAME_PREFIX + "Create")
+@Label("Coupon Create")
+@Description("Criação de um cupom (CouponCreationService.create).")
+public class CouponCreateEvent extends CouponOperationEvent {
+}
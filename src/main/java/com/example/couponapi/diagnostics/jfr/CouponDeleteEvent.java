@@ -0,0 +1,11 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CouponOperationEvent.NAME_PREFIX + "Delete")
+@Label("Coupon Delete")
+@Description("Soft delete de um cupom (CouponDeletionService.delete).")
+public class CouponDeleteEvent extends CouponOperationEvent {
+}
@@ -0,0 +1,114 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gravação JFR contínua dos eventos de cupom, junto com os eventos da JVM
+ * (GC, JIT, locks, I/O) da configuração {@code coupon.jfr.settings}
+ * ({@code default}, ~1% de overhead, ou {@code profile}).
+ *
+ * A gravação guarda no máximo {@code coupon.jfr.max-age} /
+ * {@code coupon.jfr.max-size} em disco e é despejada em
+ * {@code coupon.jfr.dump-path} quando a aplicação para. Com a aplicação no
+ * ar, o mesmo conteúdo pode ser tirado com
+ * {@code jcmd <pid> JFR.dump name=coupon-api filename=...}.
+ *
+ * Eventos de cupom mais curtos que {@code coupon.jfr.threshold} são
+ * descartados no {@code commit()}; o padrão {@code 0} grava todos.
+ *
+ * O arquivo é lido por {@link CouponJfrAnalyzer} ou pelo JDK Mission Control.
+ *
+ * Ativo com {@code coupon.jfr.enabled=true} (perfil "jfr").
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.jfr.enabled", havingValue = "true")
+public class CouponFlightRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponFlightRecorder.class);
+
+    /** Nome da gravação, usado em {@code jcmd JFR.dump name=...}. */
+    public static final String RECORDING_NAME = "coupon-api";
+
+    static final List<Class<? extends CouponOperationEvent>> EVENT_TYPES = List.of(
+            CouponCreateEvent.class, CouponLookupEvent.class, CouponListEvent.class, CouponDeleteEvent.class);
+
+    private final String settings;
+    private final Duration threshold;
+    private final Duration maxAge;
+    private final long maxSize;
+    private final Path dumpPath;
+
+    private Recording recording;
+
+    public CouponFlightRecorder(@Value("${coupon.jfr.settings:default}") String settings,
+                                @Value("${coupon.jfr.threshold:PT0S}") Duration threshold,
+                                @Value("${coupon.jfr.max-age:PT30M}") Duration maxAge,
+                                @Value("${coupon.jfr.max-size:268435456}") long maxSize,
+                                @Value("${coupon.jfr.dump-path:coupon-api.jfr}") Path dumpPath) {
+        this.settings  = settings;
+        this.threshold = threshold;
+        this.maxAge    = maxAge;
+        this.maxSize   = maxSize;
+        this.dumpPath  = dumpPath;
+    }
+
+    @Override
+    public synchronized void start() {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Configuração JFR inválida: " + settings, e);
+        }
+        recording = new Recording(configuration);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        for (Class<? extends CouponOperationEvent> type : EVENT_TYPES) {
+            recording.enable(type).withThreshold(threshold).withoutStackTrace();
+        }
+        recording.start();
+        log.info("Gravação JFR '{}' ativa (configuração {}, janela de {} min); despejo em {} ao parar",
+                RECORDING_NAME, settings, maxAge.toMinutes(), dumpPath.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            Path parent = dumpPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            recording.dump(dumpPath);
+            log.info("Gravação JFR despejada em {}", dumpPath.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Falha ao despejar a gravação JFR em {}", dumpPath.toAbsolutePath(), e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+}
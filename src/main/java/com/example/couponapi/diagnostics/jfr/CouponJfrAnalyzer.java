@@ -0,0 +1,127 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo offline dos eventos de cupom de um arquivo {@code .jfr}.
+ *
+ * Agrupa por operação ({@code Create}, {@code Lookup}, {@code List},
+ * {@code Delete}; buscas respondidas pelo cache ficam em
+ * {@code Lookup (cache)}) e, para cada uma, mostra contagem, p50/p95/p99/máximo
+ * da duração, a média de tempo de banco, de serialização e do restante
+ * (validação, cache, código da aplicação), e os desfechos.
+ *
+ * <pre>
+ *   java -cp target/classes com.example.couponapi.diagnostics.jfr.CouponJfrAnalyzer coupon-api.jfr
+ * </pre>
+ */
+public final class CouponJfrAnalyzer {
+
+    private CouponJfrAnalyzer() {}
+
+    /** Estatísticas de uma operação; durações em nanossegundos. */
+    public record OperationStats(String operation, int count,
+                                 long p50, long p95, long p99, long max,
+                                 long meanDb, long meanSerialization, long meanOther,
+                                 Map<String, Integer> outcomes) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: CouponJfrAnalyzer <arquivo.jfr>");
+            System.exit(2);
+        }
+        print(summarize(Path.of(args[0])), System.out);
+    }
+
+    /** Lê o arquivo e devolve as estatísticas por operação, em ordem alfabética. */
+    public static Map<String, OperationStats> summarize(Path file) throws IOException {
+        Map<String, Accumulator> byOperation = new TreeMap<>();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(CouponOperationEvent.NAME_PREFIX)) {
+                    continue;
+                }
+                byOperation.computeIfAbsent(operation(event, name), k -> new Accumulator()).add(event);
+            }
+        }
+        Map<String, OperationStats> stats = new TreeMap<>();
+        byOperation.forEach((operation, acc) -> stats.put(operation, acc.toStats(operation)));
+        return stats;
+    }
+
+    /** Imprime as estatísticas em tabela, com durações em microssegundos. */
+    public static void print(Map<String, OperationStats> stats, PrintStream out) {
+        out.printf("%-16s %8s %10s %10s %10s %10s %10s %10s %10s  %s%n",
+                "operação", "n", "p50 µs", "p95 µs", "p99 µs", "max µs",
+                "db µs", "serial. µs", "resto µs", "desfechos");
+        for (OperationStats s : stats.values()) {
+            out.printf("%-16s %8d %10d %10d %10d %10d %10d %10d %10d  %s%n",
+                    s.operation(), s.count(), micros(s.p50()), micros(s.p95()), micros(s.p99()), micros(s.max()),
+                    micros(s.meanDb()), micros(s.meanSerialization()), micros(s.meanOther()), s.outcomes());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private static String operation(RecordedEvent event, String name) {
+        String operation = name.substring(CouponOperationEvent.NAME_PREFIX.length());
+        if (event.hasField("cached") && event.getBoolean("cached")) {
+            return operation + " (cache)";
+        }
+        return operation;
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+
+    private static final class Accumulator {
+
+        private long[] durations = new long[64];
+        private int count;
+        private long dbTotal;
+        private long serializationTotal;
+        private final Map<String, Integer> outcomes = new TreeMap<>();
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            dbTotal += event.getLong("dbTime");
+            serializationTotal += event.getLong("serializationTime");
+            String outcome = event.getString("outcome");
+            outcomes.merge(outcome == null ? "?" : outcome, 1, Integer::sum);
+        }
+
+        OperationStats toStats(String operation) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            long total = Arrays.stream(sorted).sum();
+            long meanDb = dbTotal / count;
+            long meanSerialization = serializationTotal / count;
+            long meanOther = Math.max(0, total / count - meanDb - meanSerialization);
+            return new OperationStats(operation, count,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[count - 1], meanDb, meanSerialization, meanOther, outcomes);
+        }
+
+        /** Nearest-rank: o menor valor com pelo menos {@code p} das amostras até ele. */
+        private static long percentile(long[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CouponOperationEvent.NAME_PREFIX + "List")
+@Label("Coupon List")
+@Description("Página da listagem de cupons (CouponQueryService.findPage).")
+public class CouponListEvent extends CouponOperationEvent {
+}
@@ -0,0 +1,19 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(CouponOperationEvent.NAME_PREFIX + "Lookup")
+@Label("Coupon Lookup")
+@Description("Busca de um cupom por ID ou código (CouponQueryService).")
+public class CouponLookupEvent extends CouponOperationEvent {
+
+    /** {@code id} ou {@code code}. */
+    @Label("Lookup Key")
+    public String by;
+
+    /** Respondida pelo cache, sem consulta ao banco. */
+    @Label("Cached")
+    public boolean cached;
+}
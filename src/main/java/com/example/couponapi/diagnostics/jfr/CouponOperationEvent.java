@@ -0,0 +1,95 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.CouponNotFoundException;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.function.Supplier;
+
+/**
+ * Base dos eventos JFR das operações de cupom. A duração do evento é o tempo
+ * do método do serviço (sem o commit, feito pelo proxy transacional depois).
+ *
+ * Sem stack trace e com os campos preenchidos só enquanto o evento está
+ * aberto: com a gravação desligada, {@code commit()} não faz nada e o JIT
+ * elimina a alocação do evento.
+ *
+ * Os serviços envolvem a operação em {@link #record}, que abre o evento,
+ * registra o desfecho de uma exceção e o confirma ao final.
+ */
+@Category({ "Coupon API" })
+@StackTrace(false)
+public abstract class CouponOperationEvent extends Event {
+
+    /** Prefixo do nome de todos os eventos de cupom. */
+    public static final String NAME_PREFIX = "com.example.couponapi.";
+
+    @Label("Coupon Id")
+    public long couponId;
+
+    @Label("Code")
+    public String code;
+
+    @Label("Rows")
+    public int rows;
+
+    /** {@code ok}, o {@code reason} da {@link BusinessException}, {@code not_found} ou {@code error}. */
+    @Label("Outcome")
+    public String outcome = "ok";
+
+    @Label("DB Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+
+    /** Mapeamento para DTO e codificação feitos no serviço (ex.: DTO de resposta, cursor da página). */
+    @Label("Serialization Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializationTime;
+
+    /**
+     * Executa a operação com o evento aberto: uma exceção tem o desfecho
+     * registrado ({@link #fail}) e é relançada; o evento é confirmado em
+     * qualquer caso.
+     */
+    public <T> T record(Supplier<T> operation) {
+        begin();
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            fail(e);
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+
+    /** {@link #record(Supplier)} para operações sem retorno. */
+    public void record(Runnable operation) {
+        record(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /** Preenche {@link #couponId} quando o ID é conhecido; {@code null} deixa zero. */
+    public void setCouponId(Long id) {
+        if (id != null) {
+            couponId = id;
+        }
+    }
+
+    /** Registra o desfecho de uma exceção que interrompeu a operação. */
+    public void fail(RuntimeException e) {
+        if (e instanceof BusinessException business) {
+            outcome = business.getReason();
+        } else if (e instanceof CouponNotFoundException) {
+            outcome = "not_found";
+        } else {
+            outcome = "error";
+        }
+    }
+}
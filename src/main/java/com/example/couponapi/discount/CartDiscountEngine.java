@@ -0,0 +1,140 @@
+package com.example.couponapi.discount;
+
+/**
+ * Escolhe a melhor combinação de cupons para um carrinho.
+ *
+ * Regras:
+ *  - Cupom elegível: dentro da validade e com subtotal maior ou igual ao
+ *    mínimo do cupom.
+ *  - Percentuais incidem sobre o subtotal (não em cascata); fixos abatem o
+ *    próprio valor. O desconto total nunca passa do subtotal.
+ *  - Um cupom exclusivo ({@code stackable=false}) vale sozinho; os
+ *    acumuláveis se somam entre si, do maior para o menor desconto, até
+ *    cobrir o subtotal. Vence o melhor exclusivo ou o conjunto dos
+ *    acumuláveis, o que der mais desconto.
+ *  - Desempate determinístico, independente da ordem dos códigos: maior
+ *    desconto, depois menos cupons, depois menor ID (o cupom mais antigo).
+ *
+ * Sem estado e sem alocação além do {@link Selection} devolvido: os
+ * candidatos são percorridos direto no array e os escolhidos vão num
+ * bitmask. Com poucos códigos por carrinho, a busca quadrática dos
+ * acumuláveis é mais barata que ordenar.
+ */
+public final class CartDiscountEngine {
+
+    /** Máximo de candidatos por carrinho: um bit de {@link Selection#appliedMask} cada. */
+    public static final int MAX_CANDIDATES = Long.SIZE;
+
+    /**
+     * Maior subtotal aceito, em centavos (1 trilhão): multiplicado pelos até
+     * 10.000 pontos base de um percentual, o cálculo ainda cabe num {@code long}.
+     */
+    public static final long MAX_SUBTOTAL_CENTS = 100_000_000_000_000L;
+
+    /**
+     * Resultado da escolha.
+     *
+     * @param appliedMask   bit {@code i} ligado = {@code candidates[i]} aplicado
+     * @param discountCents desconto total, em centavos, já limitado ao subtotal
+     * @param cappedIndex   candidato que absorve o corte do teto: o último
+     *                      acumulável empilhado (o de menor desconto) ou o
+     *                      exclusivo; {@code -1} sem cupom aplicado
+     */
+    public record Selection(long appliedMask, long discountCents, int cappedIndex) {
+
+        public boolean isApplied(int index) {
+            return (appliedMask & (1L << index)) != 0;
+        }
+    }
+
+    private static final Selection NONE = new Selection(0, 0, -1);
+
+    private CartDiscountEngine() {}
+
+    /**
+     * @param candidates cupons na ordem dos códigos do carrinho; {@code null}
+     *                   para código sem cupom e para repetições
+     * @param epochDay   dia de referência da validade
+     * @throws IllegalArgumentException com mais de {@link #MAX_CANDIDATES} candidatos
+     *                                  ou subtotal acima de {@link #MAX_SUBTOTAL_CENTS}
+     */
+    public static Selection select(CompiledCoupon[] candidates, long subtotalCents, long epochDay) {
+        if (candidates.length > MAX_CANDIDATES) {
+            throw new IllegalArgumentException(
+                    "No máximo " + MAX_CANDIDATES + " cupons por carrinho; recebidos " + candidates.length);
+        }
+        if (subtotalCents > MAX_SUBTOTAL_CENTS) {
+            throw new IllegalArgumentException(
+                    "Subtotal máximo de " + MAX_SUBTOTAL_CENTS + " centavos; recebido " + subtotalCents);
+        }
+
+        int exclusive = -1;
+        long exclusiveCents = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            CompiledCoupon coupon = candidates[i];
+            if (coupon == null || coupon.isStackable() || !coupon.isEligible(subtotalCents, epochDay)) {
+                continue;
+            }
+            long cents = coupon.discountCents(subtotalCents);
+            if (beats(coupon, cents, candidates, exclusive, exclusiveCents)) {
+                exclusive = i;
+                exclusiveCents = cents;
+            }
+        }
+
+        long stackMask = 0;
+        long stackCents = 0;
+        int stackCount = 0;
+        int last = -1;
+        while (stackCents < subtotalCents) {
+            int best = -1;
+            long bestCents = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                CompiledCoupon coupon = candidates[i];
+                if (coupon == null || !coupon.isStackable() || (stackMask & (1L << i)) != 0
+                        || !coupon.isEligible(subtotalCents, epochDay)) {
+                    continue;
+                }
+                long cents = coupon.discountCents(subtotalCents);
+                if (beats(coupon, cents, candidates, best, bestCents)) {
+                    best = i;
+                    bestCents = cents;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            stackMask |= 1L << best;
+            stackCents += bestCents;
+            stackCount++;
+            last = best;
+        }
+        stackCents = Math.min(stackCents, subtotalCents);
+
+        boolean stackWins;
+        if (exclusive < 0) {
+            stackWins = stackCount > 0;
+        } else if (stackCount == 0) {
+            stackWins = false;
+        } else if (stackCents != exclusiveCents) {
+            stackWins = stackCents > exclusiveCents;
+        } else {
+            // mesmo desconto: menos cupons e, com um só de cada lado, o menor ID
+            stackWins = stackCount == 1
+                    && candidates[Long.numberOfTrailingZeros(stackMask)].id() < candidates[exclusive].id();
+        }
+        if (stackWins) {
+            return new Selection(stackMask, stackCents, last);
+        }
+        return exclusive < 0 ? NONE : new Selection(1L << exclusive, exclusiveCents, exclusive);
+    }
+
+    /** Desconto maior ou, empatado, ID menor que o atual; desconto zero nunca entra. */
+    private static boolean beats(CompiledCoupon coupon, long cents,
+                                 CompiledCoupon[] candidates, int current, long currentCents) {
+        if (cents != currentCents) {
+            return cents > currentCents;
+        }
+        return current >= 0 && coupon.id() < candidates[current].id();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.couponapi.discount;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Regras de desconto de um cupom, compiladas uma única vez a partir do
+ * {@link CouponResponseDTO} para a avaliação de carrinhos.
+ *
+ * Imutável e só com primitivos: valores em centavos, percentuais em pontos
+ * base (1% = 100) e validade em epoch day. Avaliar um carrinho contra o
+ * cupom não cria nenhum {@link BigDecimal} nem {@link java.time.LocalDate}.
+ *
+ * As regras de um cupom não mudam depois da criação (não há edição; remoção
+ * e expiração tiram o cupom da busca por código), então a forma compilada
+ * pode ficar em cache pelo ID ({@link CompiledCouponCache}).
+ */
+public final class CompiledCoupon {
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private final long id;
+    private final String code;
+    private final boolean percentage;
+    /** Centavos (FIXED) ou pontos base (PERCENTAGE). */
+    private final long value;
+    /** {@code 0} = sem subtotal mínimo. */
+    private final long minCartCents;
+    private final boolean stackable;
+    private final long expirationEpochDay;
+
+    private CompiledCoupon(long id, String code, boolean percentage, long value,
+                           long minCartCents, boolean stackable, long expirationEpochDay) {
+        this.id                 = id;
+        this.code               = code;
+        this.percentage         = percentage;
+        this.value              = value;
+        this.minCartCents       = minCartCents;
+        this.stackable          = stackable;
+        this.expirationEpochDay = expirationEpochDay;
+    }
+
+    public static CompiledCoupon compile(CouponResponseDTO coupon) {
+        return new CompiledCoupon(
+                coupon.getId(),
+                coupon.getCode(),
+                coupon.getDiscountType() == DiscountType.PERCENTAGE,
+                toCents(coupon.getDiscountValue()),
+                coupon.getMinCartValue() == null ? 0 : toCents(coupon.getMinCartValue()),
+                coupon.isStackable(),
+                coupon.getExpirationDate().toEpochDay());
+    }
+
+    /** Valor em centavos, arredondado HALF_UP (também converte percentual em pontos base). */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // -------------------------------------------------------------------------
+    // Regras
+    // -------------------------------------------------------------------------
+
+    /** Dentro da validade em {@code epochDay} (o dia da expiração ainda vale). */
+    public boolean isValidOn(long epochDay) {
+        return expirationEpochDay >= epochDay;
+    }
+
+    /** Subtotal atinge o mínimo do cupom. */
+    public boolean meetsMinimum(long subtotalCents) {
+        return subtotalCents >= minCartCents;
+    }
+
+    public boolean isEligible(long subtotalCents, long epochDay) {
+        return isValidOn(epochDay) && meetsMinimum(subtotalCents);
+    }
+
+    /**
+     * Desconto do cupom sozinho sobre o subtotal, em centavos, nunca acima do
+     * subtotal. Percentuais arredondam HALF_UP no centavo.
+     */
+    public long discountCents(long subtotalCents) {
+        if (percentage) {
+            return (subtotalCents * value + BASIS_POINTS / 2) / BASIS_POINTS;
+        }
+        return Math.min(value, subtotalCents);
+    }
+
+    // -------------------------------------------------------------------------
+    // Getters
+    // -------------------------------------------------------------------------
+
+    public long id()             { return id; }
+    public String code()         { return code; }
+    public boolean isStackable() { return stackable; }
+}
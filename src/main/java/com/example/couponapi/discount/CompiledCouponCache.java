@@ -0,0 +1,45 @@
+package com.example.couponapi.discount;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache das regras compiladas ({@link CompiledCoupon}) por ID de cupom.
+ *
+ * Sem TTL nem invalidação: as regras de um cupom nunca mudam, e um cupom
+ * removido ou expirado deixa de ser entregue pela busca por código antes de
+ * chegar aqui. Limitado por tamanho (W-TinyLFU), como os caches de leitura.
+ *
+ * Métricas de hit/miss/eviction em {@code cache.*{cache=coupon.compiled}}.
+ */
+@Component
+public class CompiledCouponCache {
+
+    public static final String CACHE_NAME = "coupon.compiled";
+
+    private final Cache<Long, CompiledCoupon> cache;
+
+    public CompiledCouponCache(MeterRegistry meterRegistry,
+                               @Value("${coupon.discount.compiled-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /** Regras compiladas do cupom; compila só na primeira vez que o ID aparece. */
+    public CompiledCoupon get(CouponResponseDTO coupon) {
+        CompiledCoupon compiled = cache.getIfPresent(coupon.getId());
+        if (compiled != null) {
+            return compiled;
+        }
+        // fora do caminho quente: a lambda que captura o DTO só é criada na falta
+        return cache.get(coupon.getId(), id -> CompiledCoupon.compile(coupon));
+    }
+}
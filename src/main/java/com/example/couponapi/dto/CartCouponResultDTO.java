@@ -0,0 +1,51 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * Desfecho de um código informado no carrinho.
+ */
+@Schema(description = "Desfecho de um código de cupom na avaliação do carrinho")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartCouponResultDTO {
+
+    public enum Status {
+        /** Aplicado ao carrinho. */
+        APPLIED,
+        /** Sem cupom resgatável com o código (inexistente, removido, não publicado ou expirado). */
+        NOT_FOUND,
+        /** Subtotal abaixo do mínimo do cupom. */
+        BELOW_MIN_CART_VALUE,
+        /** Elegível, mas outra combinação deu desconto maior (ou igual, pelo desempate). */
+        NOT_SELECTED,
+        /** Cupom já informado antes no mesmo carrinho. */
+        DUPLICATE
+    }
+
+    @Schema(description = "Código, como enviado.", example = "SAVE10")
+    private final String code;
+
+    @Schema(description = "ID do cupom (ausente em NOT_FOUND).", example = "1")
+    private final Long couponId;
+
+    @Schema(description = "APPLIED, NOT_FOUND, BELOW_MIN_CART_VALUE, NOT_SELECTED ou DUPLICATE.", example = "APPLIED")
+    private final Status status;
+
+    @Schema(description = "Parte do desconto que coube a este cupom (zero se não aplicado).", example = "10.00")
+    private final BigDecimal discount;
+
+    public CartCouponResultDTO(String code, Long couponId, Status status, BigDecimal discount) {
+        this.code     = code;
+        this.couponId = couponId;
+        this.status   = status;
+        this.discount = discount;
+    }
+
+    public String getCode() { return code; }
+    public Long getCouponId() { return couponId; }
+    public Status getStatus() { return status; }
+    public BigDecimal getDiscount() { return discount; }
+}
@@ -0,0 +1,47 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Carrinho a avaliar: itens e os códigos de cupom que o cliente informou.
+ * O subtotal é a soma de {@code quantity × unitPrice} dos itens.
+ */
+@Schema(description = "Carrinho a avaliar contra os códigos de cupom informados")
+public class CartDTO {
+
+    /** Máximo de códigos por carrinho. */
+    public static final int MAX_CODES = 20;
+
+    @Schema(description = "Identificador do carrinho, devolvido no resultado (opcional).",
+            example = "cart-42", maxLength = 64)
+    @Size(max = 64, message = "O campo 'cartId' deve ter no máximo 64 caracteres.")
+    private String cartId;
+
+    @ArraySchema(schema = @Schema(implementation = CartItemDTO.class))
+    @NotEmpty(message = "O carrinho deve ter ao menos um item.")
+    private List<@Valid CartItemDTO> items;
+
+    @ArraySchema(schema = @Schema(description = "Código de cupom (sanitizado como na criação).", example = "SAVE10"),
+                 maxItems = MAX_CODES)
+    @Size(max = MAX_CODES, message = "O carrinho aceita no máximo " + MAX_CODES + " códigos.")
+    private List<String> codes;
+
+    // -------------------------------------------------------------------------
+    // Getters & Setters
+    // -------------------------------------------------------------------------
+
+    public String getCartId() { return cartId; }
+    public void setCartId(String cartId) { this.cartId = cartId; }
+
+    public List<CartItemDTO> getItems() { return items; }
+    public void setItems(List<CartItemDTO> items) { this.items = items; }
+
+    public List<String> getCodes() { return codes; }
+    public void setCodes(List<String> codes) { this.codes = codes; }
+}
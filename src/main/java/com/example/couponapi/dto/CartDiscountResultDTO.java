@@ -0,0 +1,46 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resultado da avaliação de um carrinho: totais e o desfecho de cada código,
+ * na ordem da requisição.
+ */
+@Schema(description = "Melhor desconto aplicável a um carrinho")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartDiscountResultDTO {
+
+    @Schema(description = "Identificador do carrinho, se enviado.", example = "cart-42")
+    private final String cartId;
+
+    @Schema(description = "Soma de quantity × unitPrice dos itens.", example = "149.70")
+    private final BigDecimal subtotal;
+
+    @Schema(description = "Desconto total dos cupons aplicados (nunca acima do subtotal).", example = "22.46")
+    private final BigDecimal discount;
+
+    @Schema(description = "Subtotal menos o desconto.", example = "127.24")
+    private final BigDecimal total;
+
+    @Schema(description = "Desfecho de cada código, na ordem da requisição.")
+    private final List<CartCouponResultDTO> coupons;
+
+    public CartDiscountResultDTO(String cartId, BigDecimal subtotal, BigDecimal discount,
+                                 List<CartCouponResultDTO> coupons) {
+        this.cartId   = cartId;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.total    = subtotal.subtract(discount);
+        this.coupons  = coupons;
+    }
+
+    public String getCartId() { return cartId; }
+    public BigDecimal getSubtotal() { return subtotal; }
+    public BigDecimal getDiscount() { return discount; }
+    public BigDecimal getTotal() { return total; }
+    public List<CartCouponResultDTO> getCoupons() { return coupons; }
+}
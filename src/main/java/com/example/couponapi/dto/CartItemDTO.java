@@ -0,0 +1,50 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Item de um carrinho avaliado")
+public class CartItemDTO {
+
+    /** Com {@link #MAX_UNIT_PRICE}, o valor de um item em centavos (até 10^18) cabe num {@code long}. */
+    public static final int MAX_QUANTITY = 1_000_000;
+
+    public static final String MAX_UNIT_PRICE = "9999999999.99";
+
+    @Schema(description = "Identificador do produto.", example = "SKU-123", maxLength = 64)
+    @NotBlank(message = "O campo 'sku' é obrigatório.")
+    @Size(max = 64, message = "O campo 'sku' deve ter no máximo 64 caracteres.")
+    private String sku;
+
+    @Schema(description = "Quantidade.", example = "2", minimum = "1", maximum = "1000000")
+    @Min(value = 1, message = "O campo 'quantity' deve ser no mínimo 1.")
+    @Max(value = MAX_QUANTITY, message = "O campo 'quantity' deve ser no máximo " + MAX_QUANTITY + ".")
+    private int quantity;
+
+    @Schema(description = "Preço unitário.", example = "49.90", minimum = "0", maximum = MAX_UNIT_PRICE)
+    @NotNull(message = "O campo 'unitPrice' é obrigatório.")
+    @DecimalMin(value = "0", inclusive = true, message = "O campo 'unitPrice' não pode ser negativo.")
+    @DecimalMax(value = MAX_UNIT_PRICE, message = "O campo 'unitPrice' deve ser no máximo " + MAX_UNIT_PRICE + ".")
+    private BigDecimal unitPrice;
+
+    // -------------------------------------------------------------------------
+    // Getters & Setters
+    // -------------------------------------------------------------------------
+
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+}
@@ -0,0 +1,53 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resultado de um item da criação em lote.
+ *
+ * {@code index} é a posição do item na requisição (base 0).
+ */
+@Schema(description = "Resultado individual de um item da criação em lote")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CouponBatchItemResultDTO {
+
+    public enum Status { CREATED, REJECTED }
+
+    @Schema(description = "Posição do item na requisição (base 0).", example = "0")
+    private final int index;
+
+    @Schema(description = "CREATED ou REJECTED.", example = "CREATED")
+    private final Status status;
+
+    @Schema(description = "ID do cupom criado (somente CREATED).", example = "1")
+    private final Long id;
+
+    @Schema(description = "Código sanitizado, quando foi possível calculá-lo.", example = "SAVE10")
+    private final String code;
+
+    @Schema(description = "Motivo da rejeição (somente REJECTED).")
+    private final String message;
+
+    private CouponBatchItemResultDTO(int index, Status status, Long id, String code, String message) {
+        this.index   = index;
+        this.status  = status;
+        this.id      = id;
+        this.code    = code;
+        this.message = message;
+    }
+
+    public static CouponBatchItemResultDTO created(int index, Long id, String code) {
+        return new CouponBatchItemResultDTO(index, Status.CREATED, id, code, null);
+    }
+
+    public static CouponBatchItemResultDTO rejected(int index, String code, String message) {
+        return new CouponBatchItemResultDTO(index, Status.REJECTED, null, code, message);
+    }
+
+    public int getIndex() { return index; }
+    public Status getStatus() { return status; }
+    public Long getId() { return id; }
+    public String getCode() { return code; }
+    public String getMessage() { return message; }
+}
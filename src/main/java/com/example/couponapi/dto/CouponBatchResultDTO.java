@@ -0,0 +1,43 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Resposta da criação em lote: totais e o resultado de cada item,
+ * na mesma ordem da requisição.
+ */
+@Schema(description = "Resultado da criação em lote de cupons")
+public class CouponBatchResultDTO {
+
+    @Schema(description = "Quantidade de itens recebidos.", example = "3")
+    private final int requested;
+
+    @Schema(description = "Quantidade de cupons criados.", example = "2")
+    private final int created;
+
+    @Schema(description = "Quantidade de itens rejeitados.", example = "1")
+    private final int rejected;
+
+    @Schema(description = "Resultado de cada item, na ordem da requisição.")
+    private final List<CouponBatchItemResultDTO> items;
+
+    public CouponBatchResultDTO(List<CouponBatchItemResultDTO> items) {
+        int createdCount = 0;
+        for (CouponBatchItemResultDTO item : items) {
+            if (item.getStatus() == CouponBatchItemResultDTO.Status.CREATED) {
+                createdCount++;
+            }
+        }
+        this.requested = items.size();
+        this.created   = createdCount;
+        this.rejected  = items.size() - createdCount;
+        this.items     = items;
+    }
+
+    public int getRequested() { return requested; }
+    public int getCreated() { return created; }
+    public int getRejected() { return rejected; }
+    public List<CouponBatchItemResultDTO> getItems() { return items; }
+}
@@ -0,0 +1,50 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um evento do feed de mudanças do catálogo (GET /api/v1/coupons/changes).
+ *
+ * {@code offset} é crescente e sem lacunas entre eventos publicados; o
+ * consumidor guarda o último offset processado e o envia como {@code since}.
+ * {@code coupon} traz o cupom como estava no momento do evento (nulo em
+ * {@link Type#DELETED}, {@link Type#EXPIRED} e {@link Type#ARCHIVED}).
+ */
+public class CouponChangeDTO {
+
+    /**
+     * Tipo do evento. {@code EXPIRED}: o cupom venceu na virada do dia e saiu
+     * do catálogo ativo. {@code ARCHIVED}: um cupom vencido (nunca deletado)
+     * foi movido para o arquivo.
+     */
+    public enum Type { CREATED, DELETED, EXPIRED, ARCHIVED }
+
+    private final long offset;
+    private final Type type;
+    private final long couponId;
+    private final String code;
+    private final LocalDateTime occurredAt;
+    private final String coupon;
+
+    public CouponChangeDTO(long offset, Type type, long couponId, String code,
+                           LocalDateTime occurredAt, String coupon) {
+        this.offset     = offset;
+        this.type       = type;
+        this.couponId   = couponId;
+        this.code       = code;
+        this.occurredAt = occurredAt;
+        this.coupon     = coupon;
+    }
+
+    public long getOffset() { return offset; }
+    public Type getType() { return type; }
+    public long getCouponId() { return couponId; }
+    public String getCode() { return code; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    /** JSON do cupom, já serializado na gravação do outbox. */
+    @JsonRawValue
+    public String getCoupon() { return coupon; }
+}
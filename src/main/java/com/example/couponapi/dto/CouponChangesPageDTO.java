@@ -0,0 +1,28 @@
+package com.example.couponapi.dto;
+
+import java.util.List;
+
+/**
+ * Uma página do feed de mudanças e o offset a enviar como {@code since}
+ * na próxima chamada.
+ *
+ * Sem eventos novos, {@code items} é vazio e {@code nextOffset} repete o
+ * {@code since} recebido.
+ */
+public class CouponChangesPageDTO {
+
+    private final List<CouponChangeDTO> items;
+    private final long nextOffset;
+
+    public CouponChangesPageDTO(List<CouponChangeDTO> items, long nextOffset) {
+        this.items      = items;
+        this.nextOffset = nextOffset;
+    }
+
+    public static CouponChangesPageDTO of(List<CouponChangeDTO> items, long since) {
+        return new CouponChangesPageDTO(items, items.isEmpty() ? since : items.get(items.size() - 1).getOffset());
+    }
+
+    public List<CouponChangeDTO> getItems() { return items; }
+    public long getNextOffset() { return nextOffset; }
+}
@@ -0,0 +1,67 @@
+package com.example.couponapi.dto;
+
+import com.example.couponapi.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Posição de continuação da listagem paginada (keyset pagination).
+ *
+ * A listagem é ordenada por {@code (createdAt DESC, id DESC)}; o cursor guarda
+ * a chave do último item entregue para que a próxima página comece logo
+ * depois dele, sem OFFSET.
+ *
+ * Para o cliente o token é opaco: 20 bytes (segundos, nanos, id) codificados
+ * em Base64 URL-safe sem padding.
+ */
+public final class CouponCursor {
+
+    private static final int TOKEN_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public CouponCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id        = id;
+    }
+
+    /** Cursor posicionado após o último item da página informada. */
+    public static CouponCursor after(CouponResponseDTO last) {
+        return new CouponCursor(last.getCreatedAt(), last.getId());
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica um token recebido do cliente.
+     *
+     * @throws BusinessException se o token estiver malformado
+     */
+    public static CouponCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != TOKEN_BYTES) {
+                throw new IllegalArgumentException("tamanho inválido");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new CouponCursor(createdAt, buffer.getLong());
+        } catch (RuntimeException e) {
+            throw new BusinessException("invalid_cursor", "Cursor de paginação inválido.");
+        }
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getId() { return id; }
+}
@@ -0,0 +1,55 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionais da listagem paginada de cupons.
+ *
+ * Todos os campos são opcionais; campos nulos não restringem o resultado.
+ * Os valores são recebidos como query parameters.
+ */
+@Schema(description = "Filtros opcionais da listagem de cupons")
+public class CouponFilterDTO {
+
+    @Schema(description = "Filtra por cupons publicados (true) ou não publicados (false).", example = "true")
+    private Boolean published;
+
+    @Schema(description = "Somente cupons que expiram antes desta data (exclusivo).",
+            example = "2026-12-31", type = "string", format = "date")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiringBefore;
+
+    @Schema(description = "Somente cupons que expiram depois desta data (exclusivo).",
+            example = "2026-01-01", type = "string", format = "date")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiringAfter;
+
+    @Schema(description = "Valor mínimo de desconto (inclusivo).", example = "5.00")
+    private BigDecimal minDiscount;
+
+    @Schema(description = "Valor máximo de desconto (inclusivo).", example = "50.00")
+    private BigDecimal maxDiscount;
+
+    // -------------------------------------------------------------------------
+    // Getters & Setters
+    // -------------------------------------------------------------------------
+
+    public Boolean getPublished() { return published; }
+    public void setPublished(Boolean published) { this.published = published; }
+
+    public LocalDate getExpiringBefore() { return expiringBefore; }
+    public void setExpiringBefore(LocalDate expiringBefore) { this.expiringBefore = expiringBefore; }
+
+    public LocalDate getExpiringAfter() { return expiringAfter; }
+    public void setExpiringAfter(LocalDate expiringAfter) { this.expiringAfter = expiringAfter; }
+
+    public BigDecimal getMinDiscount() { return minDiscount; }
+    public void setMinDiscount(BigDecimal minDiscount) { this.minDiscount = minDiscount; }
+
+    public BigDecimal getMaxDiscount() { return maxDiscount; }
+    public void setMaxDiscount(BigDecimal maxDiscount) { this.maxDiscount = maxDiscount; }
+}
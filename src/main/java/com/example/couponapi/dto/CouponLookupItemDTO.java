@@ -0,0 +1,53 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resultado de uma chave da busca em lote: o ID ou o código pedido, como
+ * veio na requisição, e o cupom encontrado.
+ *
+ * Por ID vale a mesma regra do {@code GET /api/v1/coupons/{id}} (cupom
+ * ativo); por código, a do {@code GET /api/v1/coupons/code/{code}} (cupom
+ * ativo, publicado e não expirado).
+ */
+@Schema(description = "Resultado individual da busca em lote")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CouponLookupItemDTO {
+
+    public enum Status { FOUND, NOT_FOUND }
+
+    @Schema(description = "ID pedido (somente itens de 'ids').", example = "1")
+    private final Long id;
+
+    @Schema(description = "Código pedido, como enviado (somente itens de 'codes').", example = "SAVE10")
+    private final String code;
+
+    @Schema(description = "FOUND ou NOT_FOUND.", example = "FOUND")
+    private final Status status;
+
+    @Schema(description = "Cupom encontrado (somente FOUND).")
+    private final CouponResponseDTO coupon;
+
+    private CouponLookupItemDTO(Long id, String code, CouponResponseDTO coupon) {
+        this.id     = id;
+        this.code   = code;
+        this.status = coupon != null ? Status.FOUND : Status.NOT_FOUND;
+        this.coupon = coupon;
+    }
+
+    /** @param coupon cupom encontrado, ou {@code null} */
+    public static CouponLookupItemDTO ofId(Long id, CouponResponseDTO coupon) {
+        return new CouponLookupItemDTO(id, null, coupon);
+    }
+
+    /** @param coupon cupom encontrado, ou {@code null} */
+    public static CouponLookupItemDTO ofCode(String code, CouponResponseDTO coupon) {
+        return new CouponLookupItemDTO(null, code, coupon);
+    }
+
+    public Long getId() { return id; }
+    public String getCode() { return code; }
+    public Status getStatus() { return status; }
+    public CouponResponseDTO getCoupon() { return coupon; }
+}
@@ -0,0 +1,31 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Payload da busca em lote: IDs e/ou códigos, em qualquer combinação.
+ * Repetições são aceitas e respondidas em cada posição.
+ */
+@Schema(description = "Payload de busca de vários cupons por ID e/ou código")
+public class CouponLookupRequestDTO {
+
+    @ArraySchema(schema = @Schema(description = "ID de um cupom ativo.", example = "1"))
+    private List<Long> ids;
+
+    @ArraySchema(schema = @Schema(description = "Código de um cupom resgatável (sanitizado como na criação).",
+                                  example = "SAVE10"))
+    private List<String> codes;
+
+    // -------------------------------------------------------------------------
+    // Getters & Setters
+    // -------------------------------------------------------------------------
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public List<String> getCodes() { return codes; }
+    public void setCodes(List<String> codes) { this.codes = codes; }
+}
@@ -0,0 +1,43 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Resposta da busca em lote: totais e um item por chave pedida — primeiro
+ * os {@code ids}, depois os {@code codes}, cada grupo na ordem da requisição.
+ */
+@Schema(description = "Resultado da busca em lote de cupons")
+public class CouponLookupResultDTO {
+
+    @Schema(description = "Quantidade de chaves recebidas (ids + codes).", example = "3")
+    private final int requested;
+
+    @Schema(description = "Quantidade de chaves com cupom encontrado.", example = "2")
+    private final int found;
+
+    @Schema(description = "Quantidade de chaves sem cupom.", example = "1")
+    private final int notFound;
+
+    @Schema(description = "Um item por chave: ids e depois codes, na ordem da requisição.")
+    private final List<CouponLookupItemDTO> items;
+
+    public CouponLookupResultDTO(List<CouponLookupItemDTO> items) {
+        int foundCount = 0;
+        for (CouponLookupItemDTO item : items) {
+            if (item.getStatus() == CouponLookupItemDTO.Status.FOUND) {
+                foundCount++;
+            }
+        }
+        this.requested = items.size();
+        this.found     = foundCount;
+        this.notFound  = items.size() - foundCount;
+        this.items     = items;
+    }
+
+    public int getRequested() { return requested; }
+    public int getFound() { return found; }
+    public int getNotFound() { return notFound; }
+    public List<CouponLookupItemDTO> getItems() { return items; }
+}
@@ -0,0 +1,26 @@
+package com.example.couponapi.dto;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem de cupons e o cursor para a página seguinte.
+ *
+ * {@code nextCursor} é nulo quando não há mais itens.
+ */
+public class CouponPageDTO {
+
+    private final List<CouponResponseDTO> items;
+    private final String nextCursor;
+
+    public CouponPageDTO(List<CouponResponseDTO> items, String nextCursor) {
+        this.items      = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CouponResponseDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Payload de resgate de um cupom no checkout")
+public class CouponRedemptionRequestDTO {
+
+    @Schema(description = "Identificador do cliente que está usando o cupom.", example = "customer-42", maxLength = 64)
+    @NotBlank(message = "O campo 'customerId' é obrigatório.")
+    @Size(max = 64, message = "O campo 'customerId' deve ter no máximo 64 caracteres.")
+    private String customerId;
+
+    @Schema(description = "Identificador do pedido (opcional).", example = "order-1001", maxLength = 64)
+    @Size(max = 64, message = "O campo 'orderId' deve ter no máximo 64 caracteres.")
+    private String orderId;
+
+    // -------------------------------------------------------------------------
+    // Getters & Setters
+    // -------------------------------------------------------------------------
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+}
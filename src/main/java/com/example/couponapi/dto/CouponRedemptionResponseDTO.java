@@ -0,0 +1,61 @@
+package com.example.couponapi.dto;
+
+import com.example.couponapi.entity.DiscountType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Resgate de cupom registrado no ledger")
+public class CouponRedemptionResponseDTO {
+
+    @Schema(description = "Identificador do resgate.", example = "1")
+    private final Long id;
+
+    @Schema(description = "Identificador do cupom resgatado.", example = "1")
+    private final Long couponId;
+
+    @Schema(description = "Código do cupom resgatado.", example = "SAVE10")
+    private final String code;
+
+    @Schema(description = "Cliente que resgatou o cupom.", example = "customer-42")
+    private final String customerId;
+
+    @Schema(description = "Pedido associado ao resgate.", example = "order-1001")
+    private final String orderId;
+
+    @Schema(description = "Valor do desconto do cupom: moeda em FIXED, percentual em PERCENTAGE.", example = "10.0")
+    private final BigDecimal discountValue;
+
+    @Schema(description = "Tipo do desconto: FIXED ou PERCENTAGE.", example = "FIXED")
+    private final DiscountType discountType;
+
+    @Schema(description = "Instante do resgate.", example = "2026-02-18T10:30:00")
+    private final LocalDateTime redeemedAt;
+
+    public CouponRedemptionResponseDTO(Long id, Long couponId, String code, String customerId,
+                                       String orderId, BigDecimal discountValue, DiscountType discountType,
+                                       LocalDateTime redeemedAt) {
+        this.id            = id;
+        this.couponId      = couponId;
+        this.code          = code;
+        this.customerId    = customerId;
+        this.orderId       = orderId;
+        this.discountValue = discountValue;
+        this.discountType  = discountType;
+        this.redeemedAt    = redeemedAt;
+    }
+
+    // -------------------------------------------------------------------------
+    // Getters (necessários para serialização JSON pelo Jackson)
+    // -------------------------------------------------------------------------
+
+    public Long getId() { return id; }
+    public Long getCouponId() { return couponId; }
+    public String getCode() { return code; }
+    public String getCustomerId() { return customerId; }
+    public String getOrderId() { return orderId; }
+    public BigDecimal getDiscountValue() { return discountValue; }
+    public DiscountType getDiscountType() { return discountType; }
+    public LocalDateTime getRedeemedAt() { return redeemedAt; }
+}
@@ -1,6 +1,7 @@
 package com.example.couponapi.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.example.couponapi.entity.DiscountType;
 import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
@@ -24,7 +25,7 @@ public class CouponRequestDTO {
     private String description;
 
     @Schema(
-        description = "Valor do desconto. Mínimo: 0.5. Sem máximo definido.",
+        description = "Valor do desconto. Mínimo: 0.5. Sem máximo para FIXED; até 100 para PERCENTAGE.",
         example = "10.00",
         minimum = "0.5"
     )
@@ -33,6 +34,25 @@ public class CouponRequestDTO {
                 message = "O desconto mínimo permitido é 0.5.")
     private BigDecimal discountValue;
 
+    @Schema(
+        description = "Tipo do desconto: FIXED (valor em moeda) ou PERCENTAGE (% do subtotal do carrinho).",
+        example = "FIXED",
+        defaultValue = "FIXED"
+    )
+    private DiscountType discountType = DiscountType.FIXED;
+
+    @Schema(description = "Subtotal mínimo do carrinho para o cupom valer. Omitido = sem mínimo.",
+            example = "100.00", minimum = "0")
+    @DecimalMin(value = "0", inclusive = true, message = "O campo 'minCartValue' não pode ser negativo.")
+    private BigDecimal minCartValue;
+
+    @Schema(
+        description = "Se true, o cupom acumula com outros cupons acumuláveis; se false, é exclusivo.",
+        example = "false",
+        defaultValue = "false"
+    )
+    private boolean stackable = false;
+
     @Schema(
         description = "Data de expiração do cupom. Não pode estar no passado.",
         example = "2026-12-31",
@@ -49,6 +69,14 @@ public class CouponRequestDTO {
     )
     private boolean published = false;
 
+    @Schema(description = "Limite total de resgates. Omitido = ilimitado.", example = "1000", minimum = "1")
+    @Min(value = 1, message = "O campo 'maxUses' deve ser no mínimo 1.")
+    private Integer maxUses;
+
+    @Schema(description = "Limite de resgates por cliente. Omitido = ilimitado.", example = "1", minimum = "1")
+    @Min(value = 1, message = "O campo 'maxUsesPerCustomer' deve ser no mínimo 1.")
+    private Integer maxUsesPerCustomer;
+
     // -------------------------------------------------------------------------
     // Getters & Setters
     // -------------------------------------------------------------------------
@@ -62,9 +90,24 @@ public class CouponRequestDTO {
     public BigDecimal getDiscountValue() { return discountValue; }
     public void setDiscountValue(BigDecimal discountValue) { this.discountValue = discountValue; }
 
+    public DiscountType getDiscountType() { return discountType; }
+    public void setDiscountType(DiscountType discountType) { this.discountType = discountType; }
+
+    public BigDecimal getMinCartValue() { return minCartValue; }
+    public void setMinCartValue(BigDecimal minCartValue) { this.minCartValue = minCartValue; }
+
+    public boolean isStackable() { return stackable; }
+    public void setStackable(boolean stackable) { this.stackable = stackable; }
+
     public LocalDate getExpirationDate() { return expirationDate; }
     public void setExpirationDate(LocalDate expirationDate) { this.expirationDate = expirationDate; }
 
     public boolean isPublished() { return published; }
     public void setPublished(boolean published) { this.published = published; }
+
+    public Integer getMaxUses() { return maxUses; }
+    public void setMaxUses(Integer maxUses) { this.maxUses = maxUses; }
+
+    public Integer getMaxUsesPerCustomer() { return maxUsesPerCustomer; }
+    public void setMaxUsesPerCustomer(Integer maxUsesPerCustomer) { this.maxUsesPerCustomer = maxUsesPerCustomer; }
 }
@@ -1,6 +1,8 @@
 package com.example.couponapi.dto;
 
 import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.entity.DiscountType;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -11,38 +13,89 @@ import java.time.LocalDateTime;
 public class CouponResponseDTO {
 
     @Schema(description = "Identificador único do cupom.", example = "1")
-    private Long id;
+    private final Long id;
 
     @Schema(description = "Código do cupom — sempre 6 caracteres alfanuméricos.", example = "SAVE10")
-    private String code;
+    private final String code;
 
     @Schema(description = "Descrição do cupom.", example = "10% de desconto na primeira compra")
-    private String description;
+    private final String description;
 
     @Schema(description = "Valor do desconto.", example = "10.0")
-    private BigDecimal discountValue;
+    private final BigDecimal discountValue;
+
+    @Schema(description = "Tipo do desconto: FIXED ou PERCENTAGE.", example = "FIXED")
+    private final DiscountType discountType;
+
+    @Schema(description = "Subtotal mínimo do carrinho (nulo = sem mínimo).", example = "100.00")
+    private final BigDecimal minCartValue;
+
+    @Schema(description = "Indica se o cupom acumula com outros cupons acumuláveis.", example = "false")
+    private final boolean stackable;
 
     @Schema(description = "Data de expiração do cupom.", example = "2026-12-31", type = "string", format = "date")
-    private LocalDate expirationDate;
+    private final LocalDate expirationDate;
 
     @Schema(description = "Indica se o cupom está publicado.", example = "true")
-    private boolean published;
+    private final boolean published;
 
     @Schema(description = "Timestamp de criação do registro.", example = "2026-02-18T10:30:00")
-    private LocalDateTime createdAt;
+    private final LocalDateTime createdAt;
+
+    @Schema(description = "Limite total de resgates (nulo = ilimitado).", example = "1000")
+    private final Integer maxUses;
 
-    private CouponResponseDTO() {}
+    @Schema(description = "Limite de resgates por cliente (nulo = ilimitado).", example = "1")
+    private final Integer maxUsesPerCustomer;
+
+    /**
+     * Construtor completo. Também é usado pelas consultas de projeção do
+     * repositório ({@code SELECT new ...}), que montam o DTO direto das
+     * colunas, sem carregar a entidade — e pelo Jackson na desserialização.
+     * {@code discountType} nulo (JSON gravado antes do campo existir) vira
+     * {@link DiscountType#FIXED}.
+     */
+    @JsonCreator
+    public CouponResponseDTO(Long id, String code, String description, BigDecimal discountValue,
+                             DiscountType discountType, BigDecimal minCartValue, boolean stackable,
+                             LocalDate expirationDate, boolean published, LocalDateTime createdAt,
+                             Integer maxUses, Integer maxUsesPerCustomer) {
+        this.id                 = id;
+        this.code               = code;
+        this.description        = description;
+        this.discountValue      = discountValue;
+        this.discountType       = discountType == null ? DiscountType.FIXED : discountType;
+        this.minCartValue       = minCartValue;
+        this.stackable          = stackable;
+        this.expirationDate     = expirationDate;
+        this.published          = published;
+        this.createdAt          = createdAt;
+        this.maxUses            = maxUses;
+        this.maxUsesPerCustomer = maxUsesPerCustomer;
+    }
+
+    /** Cupom de desconto fixo, exclusivo e sem subtotal mínimo. */
+    public CouponResponseDTO(Long id, String code, String description, BigDecimal discountValue,
+                             LocalDate expirationDate, boolean published, LocalDateTime createdAt,
+                             Integer maxUses, Integer maxUsesPerCustomer) {
+        this(id, code, description, discountValue, DiscountType.FIXED, null, false,
+                expirationDate, published, createdAt, maxUses, maxUsesPerCustomer);
+    }
 
     public static CouponResponseDTO fromEntity(Coupon coupon) {
-        CouponResponseDTO dto = new CouponResponseDTO();
-        dto.id             = coupon.getId();
-        dto.code           = coupon.getCode();
-        dto.description    = coupon.getDescription();
-        dto.discountValue  = coupon.getDiscountValue();
-        dto.expirationDate = coupon.getExpirationDate();
-        dto.published      = coupon.isPublished();
-        dto.createdAt      = coupon.getCreatedAt();
-        return dto;
+        return new CouponResponseDTO(
+                coupon.getId(),
+                coupon.getCode(),
+                coupon.getDescription(),
+                coupon.getDiscountValue(),
+                coupon.getDiscountType(),
+                coupon.getMinCartValue(),
+                coupon.isStackable(),
+                coupon.getExpirationDate(),
+                coupon.isPublished(),
+                coupon.getCreatedAt(),
+                coupon.getMaxUses(),
+                coupon.getMaxUsesPerCustomer());
     }
 
     // -------------------------------------------------------------------------
@@ -53,7 +106,12 @@ public class CouponResponseDTO {
     public String getCode() { return code; }
     public String getDescription() { return description; }
     public BigDecimal getDiscountValue() { return discountValue; }
+    public DiscountType getDiscountType() { return discountType; }
+    public BigDecimal getMinCartValue() { return minCartValue; }
+    public boolean isStackable() { return stackable; }
     public LocalDate getExpirationDate() { return expirationDate; }
     public boolean isPublished() { return published; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public Integer getMaxUses() { return maxUses; }
+    public Integer getMaxUsesPerCustomer() { return maxUsesPerCustomer; }
 }
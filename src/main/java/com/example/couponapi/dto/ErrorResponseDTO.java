@@ -0,0 +1,47 @@
+package com.example.couponapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Corpo padronizado das respostas de erro ({@code GlobalExceptionHandler}).
+ *
+ * Campos fixos e tipados no lugar de um {@code Map}: o Jackson serializa
+ * direto dos getters, sem tabela de hash por resposta. {@code details} só
+ * aparece quando preenchido (ex.: erros de campo do Bean Validation).
+ */
+@Schema(description = "Resposta de erro")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "timestamp", "status", "error", "message", "details" })
+public class ErrorResponseDTO {
+
+    @Schema(description = "Momento do erro, com precisão de segundos.", example = "2026-02-18T10:30:00")
+    private final String timestamp;
+
+    @Schema(description = "Status HTTP.", example = "422")
+    private final int status;
+
+    @Schema(description = "Descrição do status HTTP.", example = "Unprocessable Entity")
+    private final String error;
+
+    @Schema(description = "Mensagem do erro.", example = "A data de expiração não pode estar no passado.")
+    private final String message;
+
+    @Schema(description = "Detalhes opcionais (ex.: campo → mensagem).")
+    private final Object details;
+
+    public ErrorResponseDTO(String timestamp, int status, String error, String message, Object details) {
+        this.timestamp = timestamp;
+        this.status    = status;
+        this.error     = error;
+        this.message   = message;
+        this.details   = details;
+    }
+
+    public String getTimestamp() { return timestamp; }
+    public int getStatus() { return status; }
+    public String getError() { return error; }
+    public String getMessage() { return message; }
+    public Object getDetails() { return details; }
+}
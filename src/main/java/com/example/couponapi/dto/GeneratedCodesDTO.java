@@ -0,0 +1,19 @@
+package com.example.couponapi.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Códigos de cupom gerados pelo servidor, ainda não utilizados")
+public class GeneratedCodesDTO {
+
+    @ArraySchema(schema = @Schema(description = "Código com 6 caracteres alfanuméricos.", example = "k3Z9aQ"))
+    private final List<String> codes;
+
+    public GeneratedCodesDTO(List<String> codes) {
+        this.codes = codes;
+    }
+
+    public List<String> getCodes() { return codes; }
+}
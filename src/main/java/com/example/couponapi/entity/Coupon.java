@@ -1,9 +1,11 @@
 package com.example.couponapi.entity;
 
 import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.InvalidCouponCodeException;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -14,11 +16,27 @@ import java.time.LocalDateTime;
 @Table(name = "coupons")
 public class Coupon {
 
-    private static final int CODE_LENGTH = 6;
+    public static final int CODE_LENGTH = 6;
     private static final BigDecimal MIN_DISCOUNT = new BigDecimal("0.5");
+    private static final BigDecimal MAX_PERCENTAGE = new BigDecimal("100");
 
+    // Rejeições de mensagem fixa: pré-alocadas, já que BusinessException é imutável e sem stack
+    private static final BusinessException DISCOUNT_BELOW_MINIMUM =
+            new BusinessException("discount_below_minimum", "O desconto mínimo permitido é " + MIN_DISCOUNT + ".");
+    private static final BusinessException EXPIRATION_IN_PAST =
+            new BusinessException("expiration_in_past", "A data de expiração não pode estar no passado.");
+    private static final BusinessException PERCENTAGE_ABOVE_MAXIMUM =
+            new BusinessException("percentage_above_maximum", "O desconto percentual máximo é " + MAX_PERCENTAGE + ".");
+
+    /**
+     * IDs vêm da sequence {@code coupons_seq} com otimizador pooled: o Hibernate
+     * reserva blocos de {@code allocationSize} valores por ida ao banco e, ao
+     * contrário de IDENTITY, consegue agrupar os INSERTs em batches JDBC.
+     * O {@code allocationSize} deve ser igual ao INCREMENT BY da sequence.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupons_seq")
+    @SequenceGenerator(name = "coupons_seq", sequenceName = "coupons_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 6)
@@ -30,6 +48,18 @@ public class Coupon {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal discountValue;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DiscountType discountType = DiscountType.FIXED;
+
+    /** Subtotal mínimo do carrinho para o cupom valer; {@code null} = sem mínimo. */
+    @Column(precision = 10, scale = 2)
+    private BigDecimal minCartValue;
+
+    /** {@code true} = acumula com outros cupons acumuláveis; {@code false} = exclusivo. */
+    @Column(nullable = false)
+    private boolean stackable = false;
+
     @Column(nullable = false)
     private LocalDate expirationDate;
 
@@ -42,14 +72,35 @@ public class Coupon {
     @Column
     private LocalDateTime deletedAt;
 
+    /**
+     * Instante em que a varredura da virada do dia marcou o cupom como
+     * vencido; {@code null} = dentro da validade. Gravado apenas via JDBC
+     * ({@code CouponExpirationRepository}), nunca pelo Hibernate.
+     */
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime expiredAt;
+
+    /** Limite total de resgates; {@code null} = ilimitado. */
+    @Column
+    private Integer maxUses;
+
+    /** Limite de resgates por cliente; {@code null} = ilimitado. */
+    @Column
+    private Integer maxUsesPerCustomer;
+
     public Coupon() {}
 
     private Coupon(Builder builder) {
         this.code           = builder.code;
         this.description    = builder.description;
         this.discountValue  = builder.discountValue;
+        this.discountType   = builder.discountType;
+        this.minCartValue   = builder.minCartValue;
+        this.stackable      = builder.stackable;
         this.expirationDate = builder.expirationDate;
         this.published      = builder.published;
+        this.maxUses        = builder.maxUses;
+        this.maxUsesPerCustomer = builder.maxUsesPerCustomer;
     }
 
     @PrePersist
@@ -61,26 +112,121 @@ public class Coupon {
     // Regras de domínio
     // =========================================================================
 
-    /** Remove caracteres não alfanuméricos do código bruto. */
+    /**
+     * Remove caracteres não alfanuméricos (ASCII) do código bruto.
+     *
+     * Uma única passada, sem regex: se não houver nada a remover, devolve a
+     * própria string recebida, sem alocar.
+     */
     public static String sanitizeCode(String rawCode) {
-        return rawCode.replaceAll("[^a-zA-Z0-9]", "");
+        int length = rawCode.length();
+        for (int i = 0; i < length; i++) {
+            if (!isCodeChar(rawCode.charAt(i))) {
+                return stripFrom(rawCode, i);
+            }
+        }
+        return rawCode;
+    }
+
+    /**
+     * Sanitiza e valida o tamanho numa única passada.
+     *
+     * Não aloca nada quando o código é rejeitado, e interrompe a leitura assim
+     * que passa de 6 caracteres válidos. Útil em caminhos de leitura, onde um
+     * código inválido é só um "não encontrado".
+     *
+     * @return código sanitizado com 6 caracteres, ou {@code null} se o
+     *         resultado não tiver exatamente 6 caracteres
+     */
+    public static String trySanitizeCode(String rawCode) {
+        long packed = 0;
+        int count = 0;
+        int length = rawCode.length();
+        for (int i = 0; i < length; i++) {
+            char c = rawCode.charAt(i);
+            if (isCodeChar(c)) {
+                if (++count > CODE_LENGTH) {
+                    return null;
+                }
+                packed = (packed << 8) | c;
+            }
+        }
+        if (count != CODE_LENGTH) {
+            return null;
+        }
+        return length == CODE_LENGTH ? rawCode : unpack(packed);
+    }
+
+    /**
+     * Equivale a {@link #sanitizeCode} seguido de {@link #validateCode}, em uma
+     * única passada.
+     *
+     * @throws InvalidCouponCodeException se o resultado não tiver 6 caracteres
+     */
+    public static String sanitizeValidCode(String rawCode) {
+        String code = trySanitizeCode(rawCode);
+        if (code == null) {
+            throw new InvalidCouponCodeException(rawCode);
+        }
+        return code;
+    }
+
+    /** Indica se o código sanitizado tem exatamente 6 caracteres. */
+    public static boolean hasValidCodeLength(String sanitizedCode) {
+        return sanitizedCode.length() == CODE_LENGTH;
     }
 
     /** Valida que o código sanitizado tem exatamente 6 caracteres. */
     public static void validateCode(String sanitizedCode) {
-        if (sanitizedCode.length() != CODE_LENGTH) {
-            throw new BusinessException(
-                "O campo 'code' deve resultar em exatamente " + CODE_LENGTH +
-                " caracteres alfanuméricos após a remoção de caracteres especiais. " +
-                "Código sanitizado: '" + sanitizedCode + "' (" + sanitizedCode.length() + " chars)."
-            );
+        if (!hasValidCodeLength(sanitizedCode)) {
+            throw new InvalidCouponCodeException(sanitizedCode);
+        }
+    }
+
+    private static boolean isCodeChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /** Copia o prefixo já válido e filtra o restante a partir do primeiro caractere removido. */
+    private static String stripFrom(String rawCode, int firstRemoved) {
+        int length = rawCode.length();
+        char[] out = new char[length - 1];
+        rawCode.getChars(0, firstRemoved, out, 0);
+        int size = firstRemoved;
+        for (int i = firstRemoved + 1; i < length; i++) {
+            char c = rawCode.charAt(i);
+            if (isCodeChar(c)) {
+                out[size++] = c;
+            }
+        }
+        return new String(out, 0, size);
+    }
+
+    /** Reconstrói os 6 caracteres ASCII acumulados (8 bits cada) em {@link #trySanitizeCode}. */
+    private static String unpack(long packed) {
+        byte[] bytes = new byte[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            bytes[i] = (byte) packed;
+            packed >>>= 8;
         }
+        return new String(bytes, StandardCharsets.US_ASCII);
     }
 
     /** Valida que o desconto é maior ou igual ao mínimo permitido (0.5). */
     public static void validateDiscountValue(BigDecimal discountValue) {
         if (discountValue.compareTo(MIN_DISCOUNT) < 0) {
-            throw new BusinessException("O desconto mínimo permitido é " + MIN_DISCOUNT + ".");
+            throw DISCOUNT_BELOW_MINIMUM;
+        }
+    }
+
+    /**
+     * Valida o desconto conforme o tipo: o mínimo (0.5) vale para os dois, e
+     * o percentual não passa de 100.
+     */
+    public static void validateDiscount(DiscountType discountType, BigDecimal discountValue) {
+        validateDiscountValue(discountValue);
+        if (discountType == DiscountType.PERCENTAGE && discountValue.compareTo(MAX_PERCENTAGE) > 0) {
+            throw PERCENTAGE_ABOVE_MAXIMUM;
         }
     }
 
@@ -90,7 +236,7 @@ public class Coupon {
      */
     public static void validateExpirationDate(LocalDate expirationDate, LocalDate today) {
         if (expirationDate.isBefore(today)) {
-            throw new BusinessException("A data de expiração não pode estar no passado.");
+            throw EXPIRATION_IN_PAST;
         }
     }
 
@@ -100,7 +246,7 @@ public class Coupon {
      */
     public void softDelete() {
         if (isDeleted()) {
-            throw new BusinessException("O cupom com id " + id + " já foi removido anteriormente.");
+            throw new BusinessException("already_deleted", "O cupom com id " + id + " já foi removido anteriormente.");
         }
         this.deletedAt = LocalDateTime.now();
     }
@@ -125,6 +271,15 @@ public class Coupon {
     public BigDecimal getDiscountValue()       { return discountValue; }
     public void setDiscountValue(BigDecimal v) { this.discountValue = v; }
 
+    public DiscountType getDiscountType()      { return discountType; }
+    public void setDiscountType(DiscountType t) { this.discountType = t; }
+
+    public BigDecimal getMinCartValue()        { return minCartValue; }
+    public void setMinCartValue(BigDecimal v)  { this.minCartValue = v; }
+
+    public boolean isStackable()               { return stackable; }
+    public void setStackable(boolean s)        { this.stackable = s; }
+
     public LocalDate getExpirationDate()       { return expirationDate; }
     public void setExpirationDate(LocalDate d) { this.expirationDate = d; }
 
@@ -137,6 +292,14 @@ public class Coupon {
     public LocalDateTime getDeletedAt()        { return deletedAt; }
     public void setDeletedAt(LocalDateTime t)  { this.deletedAt = t; }
 
+    public LocalDateTime getExpiredAt()        { return expiredAt; }
+
+    public Integer getMaxUses()                { return maxUses; }
+    public void setMaxUses(Integer m)          { this.maxUses = m; }
+
+    public Integer getMaxUsesPerCustomer()           { return maxUsesPerCustomer; }
+    public void setMaxUsesPerCustomer(Integer m)     { this.maxUsesPerCustomer = m; }
+
     // =========================================================================
     // Builder
     // =========================================================================
@@ -147,14 +310,24 @@ public class Coupon {
         private String code;
         private String description;
         private BigDecimal discountValue;
+        private DiscountType discountType = DiscountType.FIXED;
+        private BigDecimal minCartValue;
+        private boolean stackable = false;
         private LocalDate expirationDate;
         private boolean published = false;
+        private Integer maxUses;
+        private Integer maxUsesPerCustomer;
 
         public Builder code(String code)               { this.code = code; return this; }
         public Builder description(String description) { this.description = description; return this; }
         public Builder discountValue(BigDecimal v)     { this.discountValue = v; return this; }
+        public Builder discountType(DiscountType t)    { this.discountType = t == null ? DiscountType.FIXED : t; return this; }
         public Builder expirationDate(LocalDate d)     { this.expirationDate = d; return this; }
+        public Builder minCartValue(BigDecimal v)      { this.minCartValue = v; return this; }
+        public Builder stackable(boolean stackable)    { this.stackable = stackable; return this; }
         public Builder published(boolean published)    { this.published = published; return this; }
+        public Builder maxUses(Integer maxUses)        { this.maxUses = maxUses; return this; }
+        public Builder maxUsesPerCustomer(Integer m)   { this.maxUsesPerCustomer = m; return this; }
 
         public Coupon build() { return new Coupon(this); }
     }
@@ -0,0 +1,13 @@
+package com.example.couponapi.entity;
+
+/**
+ * Como o {@code discountValue} de um cupom é aplicado ao carrinho.
+ */
+public enum DiscountType {
+
+    /** Valor em moeda abatido do subtotal. */
+    FIXED,
+
+    /** Percentual (0.5 a 100) do subtotal. */
+    PERCENTAGE
+}
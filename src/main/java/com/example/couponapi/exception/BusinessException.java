@@ -4,10 +4,34 @@ package com.example.couponapi.exception;
  * Lançada quando uma regra de negócio é violada (ex.: código com menos de 6
  * caracteres válidos após sanitização, data no passado, cupom já deletado).
  * Resulta em HTTP 422 Unprocessable Entity.
+ *
+ * Cada exceção carrega um {@code reason} estável e de baixa cardinalidade
+ * (ex.: {@code duplicate_code}), usado como tag do contador
+ * {@code coupon.rejections} pelo {@link GlobalExceptionHandler}.
+ *
+ * Não captura stack trace: a exceção só carrega a mensagem até o
+ * {@link GlobalExceptionHandler}, que nunca a loga, e preencher o stack era
+ * o passo mais caro de uma requisição rejeitada. Sem stack, sem suppressed e
+ * com a causa fixada no construtor, a instância é imutável — exceções de
+ * mensagem fixa podem ser pré-alocadas e lançadas de novo (ver {@code Coupon}).
  */
 public class BusinessException extends RuntimeException {
 
+    /** Motivo das regras que não têm um próprio. */
+    public static final String GENERIC_REASON = "business_rule";
+
+    private final String reason;
+
     public BusinessException(String message) {
-        super(message);
+        this(GENERIC_REASON, message);
+    }
+
+    public BusinessException(String reason, String message) {
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
     }
 }
@@ -3,10 +3,18 @@ package com.example.couponapi.exception;
 /**
  * Lançada quando um cupom solicitado não é encontrado ou já foi soft-deletado.
  * Resulta em HTTP 404 Not Found.
+ *
+ * Sem stack trace, como a {@link BusinessException}: é o desfecho esperado
+ * de uma busca, não uma falha.
  */
 public class CouponNotFoundException extends RuntimeException {
 
     public CouponNotFoundException(Long id) {
-        super("Cupom com id " + id + " não encontrado ou já foi removido.");
+        super("Cupom com id " + id + " não encontrado ou já foi removido.", null, false, false);
+    }
+
+    /** Busca por código: inexistente, removido, expirado ou não publicado. */
+    public CouponNotFoundException(String code) {
+        super("Cupom com código '" + code + "' não encontrado ou indisponível.", null, false, false);
     }
 }
@@ -0,0 +1,37 @@
+package com.example.couponapi.exception;
+
+/**
+ * Código de cupom já usado por outro cupom (ativo, deletado ou arquivado).
+ * Resulta em HTTP 422, como toda {@link BusinessException}.
+ *
+ * Como a {@link InvalidCouponCodeException}, guarda só o código e monta a
+ * mensagem apenas se ela for lida. A mesma mensagem recusa os itens
+ * repetidos da criação em lote, via {@link #messageFor}.
+ */
+public class DuplicateCouponCodeException extends BusinessException {
+
+    private final String code;
+    private String message;
+
+    public DuplicateCouponCodeException(String code) {
+        super("duplicate_code", null);
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = messageFor(code);
+        }
+        return message;
+    }
+
+    /** Mensagem padrão para código já existente (já sanitizado). */
+    public static String messageFor(String code) {
+        return "Já existe um cupom com o código '" + code + "'.";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.couponapi.exception;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Timestamp dos corpos de erro, no formato {@code 2026-02-18T10:30:00}.
+ *
+ * A precisão é de segundos, então o texto é formatado uma vez por segundo e
+ * reaproveitado por todas as respostas de erro desse segundo.
+ */
+public final class ErrorTimestamp {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private record Formatted(long epochSecond, String text) {}
+
+    private static volatile Formatted last = new Formatted(Long.MIN_VALUE, "");
+
+    private ErrorTimestamp() {}
+
+    public static String now() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        Formatted current = last;
+        if (current.epochSecond() != epochSecond) {
+            // corrida inofensiva: quem perder só formata o mesmo segundo de novo
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+            current = new Formatted(epochSecond, time.format(FORMAT));
+            last = current;
+        }
+        return current.text();
+    }
+}
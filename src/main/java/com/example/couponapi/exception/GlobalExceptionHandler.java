@@ -1,26 +1,43 @@
 package com.example.couponapi.exception;
 
+import com.example.couponapi.dto.ErrorResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Handler global de exceções.
  *
  * Centraliza o tratamento de erros da aplicação, padronizando o formato
- * de resposta de erro para todos os endpoints.
+ * de resposta de erro ({@link ErrorResponseDTO}) para todos os endpoints.
+ *
+ * Cada erro incrementa {@value #METRIC_NAME}, com as tags {@code status} e
+ * {@code reason} ({@link BusinessException#getReason()} nas regras de negócio).
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    public static final String METRIC_NAME = "coupon.rejections";
+
+    private final MeterRegistry meterRegistry;
+    // um contador por motivo (cada motivo tem um só status), criado no primeiro erro
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     // -------------------------------------------------------------------------
     // Erros de validação do Bean Validation (@Valid no controller)
     // -------------------------------------------------------------------------
@@ -30,28 +47,25 @@ public class GlobalExceptionHandler {
      * Retorna HTTP 400 com a lista de campos inválidos e as mensagens.
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationErrors(
+    public ResponseEntity<ErrorResponseDTO> handleValidationErrors(
             MethodArgumentNotValidException ex) {
+        return buildValidationResponse(ex.getBindingResult());
+    }
 
-        // Coleta todos os erros de campo em um mapa campo → mensagem
-        Map<String, String> fieldErrors = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .collect(Collectors.toMap(
-                        fe -> fe.getField(),
-                        fe -> fe.getDefaultMessage(),
-                        // em caso de campo duplicado, mantém o primeiro erro
-                        (msg1, msg2) -> msg1
-                ));
-
-        return buildResponse(HttpStatus.BAD_REQUEST, "Erro de validação.", fieldErrors);
+    /**
+     * Mesmo erro de validação na variante reativa (WebFlux), com o mesmo corpo de resposta.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReactiveValidationErrors(
+            WebExchangeBindException ex) {
+        return buildValidationResponse(ex.getBindingResult());
     }
 
     /**
      * Captura violações de constraint em parâmetros de método (@PathVariable, @RequestParam).
      */
     @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<Map<String, Object>> handleConstraintViolation(
+    public ResponseEntity<ErrorResponseDTO> handleConstraintViolation(
             ConstraintViolationException ex) {
 
         String message = ex.getConstraintViolations()
@@ -59,7 +73,7 @@ public class GlobalExceptionHandler {
                 .map(cv -> cv.getPropertyPath() + ": " + cv.getMessage())
                 .collect(Collectors.joining("; "));
 
-        return buildResponse(HttpStatus.BAD_REQUEST, message, null);
+        return buildResponse(HttpStatus.BAD_REQUEST, "invalid_parameter", message, null);
     }
 
     // -------------------------------------------------------------------------
@@ -70,48 +84,63 @@ public class GlobalExceptionHandler {
      * Cupom não encontrado → HTTP 404.
      */
     @ExceptionHandler(CouponNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(CouponNotFoundException ex) {
-        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), null);
+    public ResponseEntity<ErrorResponseDTO> handleNotFound(CouponNotFoundException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, "not_found", ex.getMessage(), null);
     }
 
     /**
      * Violação de regra de negócio → HTTP 422.
      */
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<Map<String, Object>> handleBusiness(BusinessException ex) {
-        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), null);
+    public ResponseEntity<ErrorResponseDTO> handleBusiness(BusinessException ex) {
+        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getReason(), ex.getMessage(), null);
     }
 
     /**
      * Qualquer outra exceção não mapeada → HTTP 500.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
+    public ResponseEntity<ErrorResponseDTO> handleGeneric(Exception ex) {
         return buildResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR,
+                "internal_error",
                 "Erro interno. Tente novamente mais tarde.",
                 null
         );
     }
 
     // -------------------------------------------------------------------------
-    // Auxiliar – monta o corpo padronizado de resposta de erro
+    // Auxiliares – montam o corpo padronizado de resposta de erro
     // -------------------------------------------------------------------------
 
-    private ResponseEntity<Map<String, Object>> buildResponse(
-            HttpStatus status, String message, Object details) {
+    private ResponseEntity<ErrorResponseDTO> buildValidationResponse(BindingResult bindingResult) {
+
+        // Coleta todos os erros de campo em um mapa campo → mensagem
+        Map<String, String> fieldErrors = bindingResult
+                .getFieldErrors()
+                .stream()
+                .collect(Collectors.toMap(
+                        fe -> fe.getField(),
+                        fe -> fe.getDefaultMessage(),
+                        // em caso de campo duplicado, mantém o primeiro erro
+                        (msg1, msg2) -> msg1
+                ));
+
+        return buildResponse(HttpStatus.BAD_REQUEST, "invalid_request", "Erro de validação.", fieldErrors);
+    }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now().toString());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
+    private ResponseEntity<ErrorResponseDTO> buildResponse(
+            HttpStatus status, String reason, String message, Object details) {
 
-        // Details é opcional (ex.: mapa de erros de campo)
-        if (details != null) {
-            body.put("details", details);
-        }
+        rejections.computeIfAbsent(reason, r -> Counter.builder(METRIC_NAME)
+                .tag("status", Integer.toString(status.value()))
+                .tag("reason", r)
+                .description("Requisições rejeitadas, por motivo")
+                .register(meterRegistry)).increment();
 
+        // Details é opcional (ex.: mapa de erros de campo); nulo fica fora do JSON
+        ErrorResponseDTO body = new ErrorResponseDTO(
+                ErrorTimestamp.now(), status.value(), status.getReasonPhrase(), message, details);
         return ResponseEntity.status(status).body(body);
     }
 }
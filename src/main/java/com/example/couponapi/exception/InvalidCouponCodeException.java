@@ -0,0 +1,32 @@
+package com.example.couponapi.exception;
+
+import com.example.couponapi.entity.Coupon;
+
+/**
+ * Código de cupom que não resulta em exatamente 6 caracteres alfanuméricos
+ * após a sanitização. Resulta em HTTP 422, como toda {@link BusinessException}.
+ *
+ * Guarda apenas o código recebido; a mensagem (que concatena o código
+ * sanitizado e seu tamanho) só é montada se for lida.
+ */
+public class InvalidCouponCodeException extends BusinessException {
+
+    private final String code;
+    private String message;
+
+    public InvalidCouponCodeException(String code) {
+        super("invalid_code", null);
+        this.code = code;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            String sanitized = Coupon.sanitizeCode(code);
+            message = "O campo 'code' deve resultar em exatamente " + Coupon.CODE_LENGTH +
+                      " caracteres alfanuméricos após a remoção de caracteres especiais. " +
+                      "Código sanitizado: '" + sanitized + "' (" + sanitized.length() + " chars).";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.couponapi.expiration;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.repository.CouponExpirationRepository;
+import com.example.couponapi.repository.CouponExpirationRepository.ExpiredCoupon;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marca como vencidos ({@code expired_at}) os cupons cuja
+ * {@code expirationDate} ficou para trás, tirando-os do catálogo ativo.
+ *
+ * O vencimento tem granularidade de dia, então todos os prazos caem na virada
+ * do dia: a varredura roda no cron {@code coupon.expiration.cron} (meia-noite)
+ * e uma vez na subida, para recuperar viradas perdidas com a aplicação parada.
+ * Os cupons vencidos são tratados em chunks de {@code coupon.expiration.chunk-size},
+ * um por transação; no mesmo chunk são gravados os eventos {@code EXPIRED} no
+ * outbox e descartadas as entradas dos caches.
+ *
+ * Com várias instâncias, o {@code FOR UPDATE} dos candidatos serializa as
+ * varreduras: cada cupom é marcado (e publicado) uma vez só.
+ */
+@Component
+public class CouponExpirationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponExpirationSweeper.class);
+
+    private final CouponExpirationRepository expirationRepository;
+    private final CouponChangeOutbox changeOutbox;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final Counter expiredRows;
+    private final Timer sweepTimer;
+
+    public CouponExpirationSweeper(CouponExpirationRepository expirationRepository,
+                                   CouponChangeOutbox changeOutbox,
+                                   CouponByIdCache byIdCache,
+                                   CouponByCodeCache byCodeCache,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${coupon.expiration.chunk-size:5000}") int chunkSize) {
+        this.expirationRepository = expirationRepository;
+        this.changeOutbox         = changeOutbox;
+        this.byIdCache            = byIdCache;
+        this.byCodeCache          = byCodeCache;
+        this.transactionTemplate  = new TransactionTemplate(transactionManager);
+        this.chunkSize            = chunkSize;
+
+        this.expiredRows = Counter.builder("coupon.expiration.rows")
+                .description("Cupons marcados como vencidos").register(meterRegistry);
+        this.sweepTimer = Timer.builder("coupon.expiration.sweep")
+                .description("Duração de cada varredura de vencimento").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${coupon.expiration.cron:0 0 0 * * *}")
+    public void scheduledSweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Marca como vencidos todos os cupons ativos com {@code expirationDate}
+     * anterior a {@code today}.
+     *
+     * @return quantidade de cupons marcados
+     */
+    public long sweep(LocalDate today) {
+        long started = System.nanoTime();
+        long expired = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<ExpiredCoupon> chunk = transactionTemplate.execute(status -> {
+                LocalDateTime expiredAt = LocalDateTime.now();
+                List<ExpiredCoupon> marked = expirationRepository.markExpired(today, chunkSize, expiredAt);
+                changeOutbox.recordExpired(marked, expiredAt);
+                for (ExpiredCoupon coupon : marked) {
+                    byIdCache.invalidate(coupon.id());
+                    byCodeCache.invalidate(coupon.code());
+                }
+                return marked;
+            });
+
+            expired += chunk.size();
+            expiredRows.increment(chunk.size());
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        sweepTimer.record(elapsed);
+        if (expired > 0) {
+            log.info("Vencimento de cupons: {} marcados como vencidos em {} ms", expired, elapsed.toMillis());
+        }
+        return expired;
+    }
+}
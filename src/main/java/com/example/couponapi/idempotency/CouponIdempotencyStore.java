@@ -0,0 +1,309 @@
+package com.example.couponapi.idempotency;
+
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.repository.CouponIdempotencyRepository;
+import com.example.couponapi.repository.CouponIdempotencyRepository.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respostas de {@code POST /api/v1/coupons} por chave de idempotência
+ * (header {@code Idempotency-Key}).
+ *
+ * - A primeira requisição com uma chave cria o cupom; as retentativas com o
+ *   mesmo corpo recebem a mesma resposta, sem criar nada nem esbarrar no
+ *   "código já existe".
+ * - Requisições simultâneas com a mesma chave executam a criação uma única
+ *   vez: as demais esperam o resultado da primeira (até
+ *   {@code coupon.idempotency.wait-timeout}) e recebem a mesma resposta ou o
+ *   mesmo erro.
+ * - A mesma chave com outro corpo (fingerprint SHA-256 diferente) é rejeitada.
+ * - Só criações concluídas são guardadas: depois de uma falha, a próxima
+ *   tentativa executa de novo.
+ *
+ * As respostas ficam em memória, limitadas a {@code coupon.idempotency.max-entries}
+ * e por {@code coupon.idempotency.ttl}. Com {@code coupon.idempotency.persistent=true}
+ * também vão para {@code coupon_idempotency_keys}, na transação do cupom, e
+ * valem entre instâncias e após um restart.
+ */
+@Component
+public class CouponIdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponIdempotencyStore.class);
+
+    public static final String CACHE_NAME = "coupon.idempotency";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /** Resultado de uma requisição: o cupom e se a resposta é a repetição de uma anterior. */
+    public record Outcome(CouponResponseDTO coupon, boolean replayed) {}
+
+    private record Completed(String fingerprint, CouponResponseDTO response) {}
+
+    private record InFlight(String fingerprint, CompletableFuture<CouponResponseDTO> result) {}
+
+    private final Cache<String, Completed> completed;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final CouponIdempotencyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader responseReader;
+    private final ObjectWriter responseWriter;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+
+    public CouponIdempotencyStore(CouponIdempotencyRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${coupon.idempotency.max-entries:50000}") long maxEntries,
+                                  @Value("${coupon.idempotency.ttl:PT24H}") Duration ttl,
+                                  @Value("${coupon.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+                                  @Value("${coupon.idempotency.persistent:false}") boolean persistent) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.repository          = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responseReader      = objectMapper.readerFor(CouponResponseDTO.class);
+        this.responseWriter      = objectMapper.writerFor(CouponResponseDTO.class);
+        this.persistent          = persistent;
+        this.ttl                 = ttl;
+        this.waitTimeout         = waitTimeout;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+        Gauge.builder("coupon.idempotency.in-flight", inFlight, ConcurrentHashMap::size)
+                .description("Criações com Idempotency-Key em andamento")
+                .register(meterRegistry);
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.joined   = requests(meterRegistry, "joined");
+    }
+
+    /**
+     * Executa {@code create} uma única vez por chave, repetindo a resposta
+     * nas retentativas.
+     *
+     * @param key     valor do header {@code Idempotency-Key}
+     * @param request corpo da requisição, comparado com o da primeira execução
+     * @param create  criação do cupom; roda na thread de quem chama
+     */
+    public Outcome execute(String key, CouponRequestDTO request, Supplier<CouponResponseDTO> create) {
+        validateKey(key);
+        String fingerprint = fingerprint(request);
+
+        Completed done = completed.getIfPresent(key);
+        if (done != null) {
+            return replay(key, done, fingerprint);
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return join(key, running, fingerprint);
+        }
+        try {
+            Outcome outcome = executeOnce(key, fingerprint, create);
+            mine.result().complete(outcome.coupon());
+            return outcome;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Remove da camada persistente as chaves mais antigas que o TTL. */
+    @Scheduled(fixedDelayString = "${coupon.idempotency.purge-interval:PT1H}",
+               initialDelayString = "${coupon.idempotency.purge-interval:PT1H}")
+    public void purge() {
+        if (!persistent) {
+            return;
+        }
+        int removed = repository.purgeBefore(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            log.info("Idempotência: {} chaves anteriores a {} removidas", removed, ttl);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private Outcome executeOnce(String key, String fingerprint, Supplier<CouponResponseDTO> create) {
+        // concluída entre a primeira consulta e o registro em inFlight, ou em outra instância
+        Completed done = findCompleted(key);
+        if (done != null) {
+            return replay(key, done, fingerprint);
+        }
+
+        CouponResponseDTO response;
+        try {
+            response = persistent ? createAndStore(key, fingerprint, create) : create.get();
+        } catch (RuntimeException e) {
+            // outra instância pode ter concluído a mesma chave enquanto esta criava
+            Completed stored = persistent ? findStored(key) : null;
+            if (stored == null) {
+                throw e;
+            }
+            return replay(key, stored, fingerprint);
+        }
+        completed.put(key, new Completed(fingerprint, response));
+        executed.increment();
+        return new Outcome(response, false);
+    }
+
+    private CouponResponseDTO createAndStore(String key, String fingerprint, Supplier<CouponResponseDTO> create) {
+        return transactionTemplate.execute(status -> {
+            CouponResponseDTO response = create.get();
+            repository.insert(key, new StoredResponse(fingerprint, serialize(response)), LocalDateTime.now());
+            return response;
+        });
+    }
+
+    private Completed findCompleted(String key) {
+        Completed done = completed.getIfPresent(key);
+        return done != null || !persistent ? done : findStored(key);
+    }
+
+    private Completed findStored(String key) {
+        return repository.find(key)
+                .map(stored -> {
+                    Completed done = new Completed(stored.fingerprint(), deserialize(stored.response()));
+                    completed.put(key, done);
+                    return done;
+                })
+                .orElse(null);
+    }
+
+    private Outcome replay(String key, Completed done, String fingerprint) {
+        if (!done.fingerprint().equals(fingerprint)) {
+            throw mismatch(key);
+        }
+        replayed.increment();
+        return new Outcome(done.response(), true);
+    }
+
+    private Outcome join(String key, InFlight running, String fingerprint) {
+        if (!running.fingerprint().equals(fingerprint)) {
+            throw mismatch(key);
+        }
+        joined.increment();
+        try {
+            return new Outcome(running.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw stillRunning(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning(key);
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("invalid_idempotency_key",
+                    "O header 'Idempotency-Key' deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.");
+        }
+    }
+
+    /**
+     * SHA-256 dos campos do corpo, em Base64. Os valores em moeda entram
+     * normalizados ({@code 10} e {@code 10.00} são o mesmo pedido).
+     */
+    static String fingerprint(CouponRequestDTO request) {
+        BigDecimal discount = request.getDiscountValue();
+        BigDecimal minCart = request.getMinCartValue();
+        String canonical = String.join("\u0000",
+                Objects.toString(request.getCode()),
+                Objects.toString(request.getDescription()),
+                discount == null ? "null" : discount.stripTrailingZeros().toPlainString(),
+                Objects.toString(request.getDiscountType()),
+                minCart == null ? "null" : minCart.stripTrailingZeros().toPlainString(),
+                Boolean.toString(request.isStackable()),
+                Objects.toString(request.getExpirationDate()),
+                Boolean.toString(request.isPublished()),
+                Objects.toString(request.getMaxUses()),
+                Objects.toString(request.getMaxUsesPerCustomer()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 é obrigatório em toda JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(CouponResponseDTO response) {
+        try {
+            return responseWriter.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o cupom " + response.getId(), e);
+        }
+    }
+
+    private CouponResponseDTO deserialize(String json) {
+        try {
+            return responseReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta idempotente ilegível", e);
+        }
+    }
+
+    private static BusinessException mismatch(String key) {
+        return new BusinessException("idempotency_key_mismatch",
+                "A Idempotency-Key '" + key + "' já foi usada com outro corpo de requisição.");
+    }
+
+    private static BusinessException stillRunning(String key) {
+        return new BusinessException("idempotency_key_in_progress",
+                "A requisição com a Idempotency-Key '" + key + "' ainda está em processamento. Tente novamente.");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("coupon.idempotency.requests").tag("outcome", outcome)
+                .description("Criações com Idempotency-Key, por desfecho").register(meterRegistry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.couponapi.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom para códigos de cupom, seguro para uso concorrente.
+ *
+ * Responde "definitivamente ausente" ou "talvez presente": nunca há falso
+ * negativo para um código inserido, e a taxa de falsos positivos fica perto
+ * da configurada enquanto o número de inserções não passar do esperado.
+ *
+ * Usa um único hash de 64 bits por código e deriva as {@code k} posições por
+ * double hashing (Kirsch–Mitzenmacher), sem alocar nada por consulta.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        int wordCount = (int) ((bitCount + 63) / 64);
+        this.words         = new AtomicLongArray(wordCount);
+        this.bitCount      = (long) wordCount * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Dimensiona o filtro para {@code expectedInsertions} elementos com a
+     * taxa de falsos positivos {@code fpp}.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp deve estar entre 0 e 1: " + fpp);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        bits = Math.min(Math.max(bits, 64), (long) Integer.MAX_VALUE * 64);
+        int k = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, k);
+    }
+
+    public void put(String code) {
+        long hash = hash(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + (long) i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String code) {
+        long hash = hash(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + (long) i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Memória ocupada pelo vetor de bits. */
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /** Quantidade de chamadas a {@link #put(String)} (inclui códigos repetidos). */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /** Taxa teórica de falsos positivos para o número atual de inserções. */
+    public double expectedFpp() {
+        double fill = -(double) hashFunctions * insertions.sum() / bitCount;
+        return Math.pow(1 - Math.exp(fill), hashFunctions);
+    }
+
+    private long index(long combined) {
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+
+    /** FNV-1a sobre os chars seguido do finalizador do MurmurHash3. */
+    private static long hash(String code) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            h ^= code.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.couponapi.index;
+
+import com.example.couponapi.entity.Coupon;
+
+/**
+ * Código de cupom sanitizado empacotado em um {@code long}.
+ *
+ * Cada um dos {@value Coupon#CODE_LENGTH} caracteres alfanuméricos ocupa
+ * 6 bits ({@code 0-9} → 0–9, {@code A-Z} → 10–35, {@code a-z} → 36–61), então
+ * o código inteiro cabe nos 36 bits menos significativos. A ordem dos valores
+ * empacotados é a mesma da ordem ASCII dos códigos.
+ *
+ * Os métodos estáticos {@link #pack} / {@link #unpack} não alocam nada além
+ * da {@code String} devolvida por {@code unpack}; são eles que os índices
+ * primitivos usam nos caminhos quentes.
+ */
+public final class CouponCode implements Comparable<CouponCode> {
+
+    /** Bits usados por caractere. */
+    public static final int BITS_PER_CHAR = 6;
+
+    /** Bits usados pelo código inteiro. */
+    public static final int BITS = BITS_PER_CHAR * Coupon.CODE_LENGTH;
+
+    /** Retornado por {@link #tryPack} quando o código não é empacotável. */
+    public static final long INVALID = -1L;
+
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final long packed;
+
+    private CouponCode(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * @param sanitizedCode código com exatamente 6 caracteres alfanuméricos
+     * @throws IllegalArgumentException se o código não estiver sanitizado
+     */
+    public static CouponCode of(String sanitizedCode) {
+        return new CouponCode(pack(sanitizedCode));
+    }
+
+    /**
+     * @throws IllegalArgumentException se {@code packed} não for um valor
+     *         produzido por {@link #pack}
+     */
+    public static CouponCode fromPacked(long packed) {
+        if (packed < 0 || packed >>> BITS != 0 || !validSymbols(packed)) {
+            throw new IllegalArgumentException("Código empacotado inválido: " + packed);
+        }
+        return new CouponCode(packed);
+    }
+
+    /**
+     * Empacota um código sanitizado.
+     *
+     * @throws IllegalArgumentException se o código não tiver 6 caracteres alfanuméricos
+     */
+    public static long pack(String sanitizedCode) {
+        long packed = tryPack(sanitizedCode);
+        if (packed == INVALID) {
+            throw new IllegalArgumentException("Código não sanitizado: " + sanitizedCode);
+        }
+        return packed;
+    }
+
+    /**
+     * Empacota um código sanitizado sem lançar exceção.
+     *
+     * @return valor empacotado, ou {@link #INVALID} se o código não tiver
+     *         exatamente 6 caracteres alfanuméricos
+     */
+    public static long tryPack(String sanitizedCode) {
+        if (sanitizedCode.length() != Coupon.CODE_LENGTH) {
+            return INVALID;
+        }
+        long packed = 0;
+        for (int i = 0; i < Coupon.CODE_LENGTH; i++) {
+            int symbol = symbolOf(sanitizedCode.charAt(i));
+            if (symbol < 0) {
+                return INVALID;
+            }
+            packed = (packed << BITS_PER_CHAR) | symbol;
+        }
+        return packed;
+    }
+
+    /** Reconstrói o código a partir do valor empacotado. */
+    public static String unpack(long packed) {
+        char[] chars = new char[Coupon.CODE_LENGTH];
+        for (int i = Coupon.CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (packed & 0x3F)];
+            packed >>>= BITS_PER_CHAR;
+        }
+        return new String(chars);
+    }
+
+    public long packed() {
+        return packed;
+    }
+
+    @Override
+    public int compareTo(CouponCode other) {
+        return Long.compare(packed, other.packed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CouponCode other && other.packed == packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
+    }
+
+    /** O código em texto, como gravado no banco. */
+    @Override
+    public String toString() {
+        return unpack(packed);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private static int symbolOf(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 10;
+        if (c >= 'a' && c <= 'z') return c - 'a' + 36;
+        return -1;
+    }
+
+    private static boolean validSymbols(long packed) {
+        for (int i = 0; i < Coupon.CODE_LENGTH; i++) {
+            if ((packed & 0x3F) >= ALPHABET.length) {
+                return false;
+            }
+            packed >>>= BITS_PER_CHAR;
+        }
+        return true;
+    }
+}
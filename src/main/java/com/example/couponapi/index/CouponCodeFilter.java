@@ -0,0 +1,192 @@
+package com.example.couponapi.index;
+
+import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de pertinência em memória sobre todos os códigos de cupom (ativos,
+ * deletados e arquivados), posicionado à frente de
+ * {@link CouponRepository#isArchivedCode} e de {@link CouponRepository#findExistingCodes}.
+ *
+ * Quando o filtro responde "ausente", a consulta ao banco é dispensada; só as
+ * respostas "talvez presente" vão ao banco. Enquanto o filtro não foi
+ * construído, toda consulta é tratada como "talvez presente".
+ *
+ * Ciclo de vida:
+ *  - construído na subida da aplicação a partir de uma leitura em streaming
+ *    de todos os códigos;
+ *  - atualizado após o commit de cada inserção ({@link #registerAfterCommit});
+ *  - reconstruído periodicamente, redimensionando para o volume atual.
+ *    Inserções que ocorrem durante a reconstrução entram nos dois filtros.
+ *
+ * O filtro é local à instância: códigos criados por outra instância só passam
+ * a constar após a próxima reconstrução. Nesse intervalo a constraint
+ * {@code uq_coupons_code} barra o INSERT, e a violação é reconhecida por
+ * {@code CouponValidationService.isCodeConflict}: vira 422 na criação
+ * unitária e item recusado na criação em lote, nunca um erro 500.
+ */
+@Component
+public class CouponCodeFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCodeFilter.class);
+
+    private final CouponRepository couponRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double fpp;
+    private final double growthFactor;
+    private final long minCapacity;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter rebuilding;
+
+    private final Counter absentChecks;
+    private final Counter maybeChecks;
+    private final Counter falsePositives;
+
+    public CouponCodeFilter(CouponRepository couponRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${coupon.code-filter.fpp:0.01}") double fpp,
+                            @Value("${coupon.code-filter.growth-factor:2.0}") double growthFactor,
+                            @Value("${coupon.code-filter.min-capacity:100000}") long minCapacity) {
+        this.couponRepository    = couponRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fpp                 = fpp;
+        this.growthFactor        = growthFactor;
+        this.minCapacity         = minCapacity;
+
+        this.absentChecks   = Counter.builder("coupon.code.filter.checks").tag("result", "absent")
+                .description("Consultas respondidas pelo filtro sem ir ao banco")
+                .register(meterRegistry);
+        this.maybeChecks    = Counter.builder("coupon.code.filter.checks").tag("result", "maybe")
+                .description("Consultas encaminhadas ao banco")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("coupon.code.filter.false.positives")
+                .description("Respostas 'talvez presente' que o banco mostrou ausentes")
+                .register(meterRegistry);
+
+        Gauge.builder("coupon.code.filter.memory", this, f -> f.current == null ? 0 : f.current.memoryBytes())
+                .baseUnit("bytes").description("Memória do vetor de bits do filtro")
+                .register(meterRegistry);
+        Gauge.builder("coupon.code.filter.entries", this, f -> f.current == null ? 0 : f.current.insertions())
+                .description("Códigos inseridos no filtro").register(meterRegistry);
+        Gauge.builder("coupon.code.filter.expected.fpp", this, f -> f.current == null ? 0 : f.current.expectedFpp())
+                .description("Taxa teórica de falsos positivos").register(meterRegistry);
+        Gauge.builder("coupon.code.filter.observed.fpp", this, CouponCodeFilter::observedFpp)
+                .description("Falsos positivos / consultas encaminhadas ao banco").register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} se o código com certeza não existe; {@code true} se
+     *         pode existir (ou se o filtro ainda não está pronto)
+     */
+    public boolean mightContain(String code) {
+        BloomFilter filter = current;
+        if (filter != null && !filter.mightContain(code)) {
+            absentChecks.increment();
+            return false;
+        }
+        maybeChecks.increment();
+        return true;
+    }
+
+    /** Registra que uma resposta "talvez presente" não se confirmou no banco. */
+    public void recordFalsePositives(int count) {
+        if (count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    /**
+     * Adiciona códigos ao filtro quando a transação corrente confirmar
+     * (imediatamente, se não houver transação). Um rollback não deixa
+     * resíduos no filtro.
+     */
+    public void registerAfterCommit(Collection<String> codes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register(codes);
+                }
+            });
+        } else {
+            register(codes);
+        }
+    }
+
+    public void registerAfterCommit(String code) {
+        registerAfterCommit(List.of(code));
+    }
+
+    /**
+     * Reconstrói o filtro a partir do banco, dimensionado para o volume atual
+     * multiplicado pelo fator de crescimento.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${coupon.code-filter.rebuild-interval:PT1H}",
+               initialDelayString = "${coupon.code-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        long existing = couponRepository.countAllCodes();
+        BloomFilter filter = BloomFilter.create(
+                Math.max(minCapacity, (long) (existing * growthFactor)), fpp);
+
+        // a partir daqui, inserções confirmadas também entram no novo filtro
+        rebuilding = filter;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> codes = couponRepository.streamAllCodes()) {
+                    codes.forEach(filter::put);
+                }
+            });
+            current = filter;
+        } finally {
+            rebuilding = null;
+        }
+
+        log.info("Filtro de códigos reconstruído: {} códigos, {} KiB, em {} ms",
+                filter.insertions(), filter.memoryBytes() / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private void register(Collection<String> codes) {
+        BloomFilter active = current;
+        BloomFilter pending = rebuilding;
+        for (String code : codes) {
+            if (active != null) {
+                active.put(code);
+            }
+            if (pending != null) {
+                pending.put(code);
+            }
+        }
+    }
+
+    private double observedFpp() {
+        double maybe = maybeChecks.count();
+        return maybe == 0 ? 0 : falsePositives.count() / maybe;
+    }
+}
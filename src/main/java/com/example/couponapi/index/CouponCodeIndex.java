@@ -0,0 +1,173 @@
+package com.example.couponapi.index;
+
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória código → ID de todos os cupons (ativos, deletados e
+ * arquivados — estes com o ID que tinham em {@code coupons}),
+ * com o código empacotado em {@link CouponCode} e os pares guardados num
+ * {@link LongLongIndex} — sem {@code String}, {@code Long} ou nó de mapa por
+ * entrada, opcionalmente fora do heap ({@code coupon.code-index.off-heap}).
+ *
+ * Como códigos nunca são reutilizados (nem após o soft delete ou o
+ * arquivamento), uma entrada nunca fica errada: um código presente no índice
+ * com certeza existe e o ID associado é o do cupom dono do código. Usos:
+ *  - unicidade: código presente é duplicado, sem ir ao banco;
+ *  - busca por código: resolve o ID e segue pelo cache por ID.
+ *
+ * Um código ausente só significa "desconhecido nesta instância" (criado por
+ * outra instância após a última reconstrução): quem consulta segue pelo
+ * caminho normal (filtro de Bloom / banco).
+ *
+ * Ciclo de vida igual ao do {@link CouponCodeFilter}: construído na subida,
+ * atualizado após o commit de cada inserção e reconstruído periodicamente.
+ */
+@Component
+public class CouponCodeIndex {
+
+    /** Retornado por {@link #idOf} quando o código não está no índice. */
+    public static final long NO_ID = LongLongIndex.NO_VALUE;
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCodeIndex.class);
+
+    private final CouponRepository couponRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean offHeap;
+    private final long minCapacity;
+
+    private volatile LongLongIndex current;
+    private volatile LongLongIndex rebuilding;
+
+    public CouponCodeIndex(CouponRepository couponRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${coupon.code-index.off-heap:false}") boolean offHeap,
+                           @Value("${coupon.code-index.min-capacity:100000}") long minCapacity) {
+        this.couponRepository    = couponRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.offHeap             = offHeap;
+        this.minCapacity         = minCapacity;
+        // começa vazio: até a primeira construção, todo código é "desconhecido"
+        this.current             = newIndex(minCapacity);
+
+        Gauge.builder("coupon.code.index.entries", this, i -> i.current.size())
+                .description("Códigos no índice código → ID").register(meterRegistry);
+        Gauge.builder("coupon.code.index.memory", this, i -> i.current.memoryBytes())
+                .baseUnit("bytes").tag("area", offHeap ? "off-heap" : "heap")
+                .description("Memória reservada pelas tabelas do índice").register(meterRegistry);
+    }
+
+    /**
+     * @param sanitizedCode código já sanitizado
+     * @return ID do cupom com o código, ou {@link #NO_ID} se o código for
+     *         desconhecido nesta instância
+     */
+    public long idOf(String sanitizedCode) {
+        long packed = CouponCode.tryPack(sanitizedCode);
+        return packed == CouponCode.INVALID ? NO_ID : current.get(packed);
+    }
+
+    /** Indica se o código com certeza já existe. */
+    public boolean contains(String sanitizedCode) {
+        return idOf(sanitizedCode) != NO_ID;
+    }
+
+    /**
+     * Adiciona os cupons (já com ID) ao índice quando a transação corrente
+     * confirmar (imediatamente, se não houver transação).
+     */
+    public void registerAfterCommit(Collection<Coupon> coupons) {
+        long[] codes = new long[coupons.size()];
+        long[] ids   = new long[coupons.size()];
+        int n = 0;
+        for (Coupon coupon : coupons) {
+            codes[n] = CouponCode.pack(coupon.getCode());
+            ids[n++] = coupon.getId();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register(codes, ids);
+                }
+            });
+        } else {
+            register(codes, ids);
+        }
+    }
+
+    public void registerAfterCommit(Coupon coupon) {
+        registerAfterCommit(List.of(coupon));
+    }
+
+    /**
+     * Adiciona um código que com certeza existe no banco (ex.: lido do
+     * snapshot do catálogo), sem esperar transação.
+     */
+    public void register(long packedCode, long id) {
+        current.put(packedCode, id);
+        LongLongIndex pending = rebuilding;
+        if (pending != null) {
+            pending.put(packedCode, id);
+        }
+    }
+
+    /** Reconstrói o índice a partir do banco. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${coupon.code-index.rebuild-interval:PT1H}",
+               initialDelayString = "${coupon.code-index.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        LongLongIndex index = newIndex(Math.max(minCapacity, couponRepository.countAllCodes()));
+
+        // a partir daqui, inserções confirmadas também entram no novo índice
+        rebuilding = index;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = couponRepository.streamAllCodesAndIds()) {
+                    rows.forEach(row -> index.put(CouponCode.pack((String) row[0]), (Long) row[1]));
+                }
+            });
+            current = index;
+        } finally {
+            rebuilding = null;
+        }
+
+        log.info("Índice de códigos reconstruído: {} códigos, {} KiB {}, em {} ms",
+                index.size(), index.memoryBytes() / 1024, offHeap ? "off-heap" : "no heap",
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private void register(long[] codes, long[] ids) {
+        for (int i = 0; i < codes.length; i++) {
+            register(codes[i], ids[i]);
+        }
+    }
+
+    private LongLongIndex newIndex(long expectedEntries) {
+        return offHeap ? LongLongIndex.offHeap(expectedEntries) : LongLongIndex.onHeap(expectedEntries);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.couponapi.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Mapa {@code long → long} de endereçamento aberto (sondagem linear), sem
+ * objetos por entrada: chaves e valores ficam em vetores primitivos no heap
+ * ou em buffers diretos fora do heap.
+ *
+ * Chaves e valores devem ser não negativos. Só há inserção — não existe
+ * remoção — o que basta para códigos de cupom, que nunca são reutilizados.
+ *
+ * Concorrência: leituras não bloqueiam; escritas são serializadas. A chave de
+ * um slot é publicada com semântica release depois do valor, então uma leitura
+ * que encontra a chave (acquire) sempre vê o valor correspondente. Ao crescer,
+ * a tabela nova é preenchida por completo antes de substituir a antiga; a
+ * antiga não é mais alterada.
+ */
+public final class LongLongIndex {
+
+    /** Retornado por {@link #get} quando a chave não está no índice. */
+    public static final long NO_VALUE = -1L;
+
+    private static final double MAX_LOAD = 0.75;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final boolean offHeap;
+    private volatile Table table;
+    private volatile long size;
+
+    private LongLongIndex(long expectedEntries, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.table   = newTable(capacityFor(expectedEntries));
+    }
+
+    /** Índice com as tabelas em {@code long[]} no heap. */
+    public static LongLongIndex onHeap(long expectedEntries) {
+        return new LongLongIndex(expectedEntries, false);
+    }
+
+    /** Índice com as tabelas em buffers diretos, fora do heap e do GC. */
+    public static LongLongIndex offHeap(long expectedEntries) {
+        return new LongLongIndex(expectedEntries, true);
+    }
+
+    /** @return o valor associado à chave, ou {@link #NO_VALUE} */
+    public long get(long key) {
+        Table t = table;
+        long stored = key + 1;
+        int mask = t.capacity - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = t.keyAcquire(slot);
+            if (current == stored) {
+                return t.valueAcquire(slot);
+            }
+            if (current == 0) {
+                return NO_VALUE;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * Associa {@code value} a {@code key}, substituindo o valor anterior.
+     *
+     * @throws IllegalArgumentException se a chave ou o valor forem negativos
+     * @throws IllegalStateException    se o índice atingir a capacidade máxima
+     */
+    public synchronized void put(long key, long value) {
+        if (key < 0 || value < 0) {
+            throw new IllegalArgumentException("Chave e valor devem ser não negativos: " + key + " → " + value);
+        }
+        Table t = table;
+        if (size + 1 > (long) (t.capacity * MAX_LOAD)) {
+            t = grow(t);
+        }
+        if (insert(t, key, value)) {
+            size++;
+        }
+    }
+
+    /** Quantidade de chaves distintas. */
+    public long size() {
+        return size;
+    }
+
+    /** Memória reservada pela tabela atual. */
+    public long memoryBytes() {
+        return (long) table.capacity * 2 * Long.BYTES;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /** @return {@code true} se a chave era nova */
+    private static boolean insert(Table t, long key, long value) {
+        long stored = key + 1;
+        int mask = t.capacity - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = t.keyAcquire(slot);
+            if (current == stored) {
+                t.valueRelease(slot, value);
+                return false;
+            }
+            if (current == 0) {
+                t.valueRelease(slot, value);
+                t.keyRelease(slot, stored);
+                return true;
+            }
+        }
+    }
+
+    private Table grow(Table old) {
+        if (old.capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Índice cheio: " + size + " entradas");
+        }
+        Table bigger = newTable(old.capacity * 2);
+        for (int slot = 0; slot < old.capacity; slot++) {
+            long stored = old.keyAcquire(slot);
+            if (stored != 0) {
+                insert(bigger, stored - 1, old.valueAcquire(slot));
+            }
+        }
+        table = bigger;
+        return bigger;
+    }
+
+    private Table newTable(int capacity) {
+        return offHeap ? new OffHeapTable(capacity) : new HeapTable(capacity);
+    }
+
+    private static int capacityFor(long expectedEntries) {
+        long needed = (long) Math.ceil(Math.max(1, expectedEntries) / MAX_LOAD);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacidade acima do máximo suportado: " + expectedEntries);
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /** Finalizador do MurmurHash3: espalha chaves sequenciais pela tabela. */
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Armazenamento dos slots. As chaves guardam {@code key + 1}, de modo que
+     * a memória zerada de uma tabela nova já representa slots vazios.
+     */
+    private abstract static class Table {
+
+        final int capacity;
+
+        Table(int capacity) {
+            this.capacity = capacity;
+        }
+
+        abstract long keyAcquire(int slot);
+        abstract void keyRelease(int slot, long key);
+        abstract long valueAcquire(int slot);
+        abstract void valueRelease(int slot, long value);
+    }
+
+    private static final class HeapTable extends Table {
+
+        private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] keys;
+        private final long[] values;
+
+        HeapTable(int capacity) {
+            super(capacity);
+            this.keys   = new long[capacity];
+            this.values = new long[capacity];
+        }
+
+        @Override long keyAcquire(int slot)               { return (long) LONGS.getAcquire(keys, slot); }
+        @Override void keyRelease(int slot, long key)     { LONGS.setRelease(keys, slot, key); }
+        @Override long valueAcquire(int slot)             { return (long) LONGS.getAcquire(values, slot); }
+        @Override void valueRelease(int slot, long value) { LONGS.setRelease(values, slot, value); }
+    }
+
+    /**
+     * Slots de 16 bytes (chave, valor) em buffers diretos de até 1 GiB cada —
+     * o limite de um {@link ByteBuffer} impede um único buffer para as
+     * tabelas maiores.
+     */
+    private static final class OffHeapTable extends Table {
+
+        private static final VarHandle LONGS =
+                MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+        private static final int SLOT_BYTES = 2 * Long.BYTES;
+        private static final int SEGMENT_SHIFT = 26;
+        private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+        private final ByteBuffer[] segments;
+
+        OffHeapTable(int capacity) {
+            super(capacity);
+            int slotsPerSegment = Math.min(capacity, 1 << SEGMENT_SHIFT);
+            this.segments = new ByteBuffer[capacity / slotsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                // acesso acquire/release exige endereços alinhados a 8 bytes
+                segments[i] = ByteBuffer.allocateDirect(slotsPerSegment * SLOT_BYTES + Long.BYTES - 1)
+                                        .alignedSlice(Long.BYTES);
+            }
+        }
+
+        @Override long keyAcquire(int slot)               { return (long) LONGS.getAcquire(segment(slot), offset(slot)); }
+        @Override void keyRelease(int slot, long key)     { LONGS.setRelease(segment(slot), offset(slot), key); }
+        @Override long valueAcquire(int slot)             { return (long) LONGS.getAcquire(segment(slot), offset(slot) + Long.BYTES); }
+        @Override void valueRelease(int slot, long value) { LONGS.setRelease(segment(slot), offset(slot) + Long.BYTES, value); }
+
+        private ByteBuffer segment(int slot) {
+            return segments[slot >>> SEGMENT_SHIFT];
+        }
+
+        private static int offset(int slot) {
+            return (slot & SEGMENT_MASK) * SLOT_BYTES;
+        }
+    }
+}
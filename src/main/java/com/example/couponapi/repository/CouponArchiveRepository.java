@@ -0,0 +1,103 @@
+package com.example.couponapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Acesso JDBC ao arquivamento: move cupons de {@code coupons} para
+ * {@code coupons_archive}, deixando o código em {@code coupon_code_tombstones}.
+ *
+ * Cada chamada de {@code archive*} trata no máximo {@code limit} cupons e deve
+ * rodar numa transação própria: as linhas escolhidas ficam travadas
+ * ({@code FOR UPDATE}) até o commit, e cópia, tombstone e remoção são
+ * confirmadas juntas.
+ */
+@Repository
+public class CouponArchiveRepository {
+
+    /** Motivo gravado em {@code coupons_archive.archive_reason}. */
+    public enum Reason { DELETED, EXPIRED }
+
+    /** Cupom movido para o arquivo. */
+    public record ArchivedCoupon(long id, String code) {}
+
+    private static final RowMapper<ArchivedCoupon> ARCHIVED_MAPPER =
+            (rs, rowNum) -> new ArchivedCoupon(rs.getLong("id"), rs.getString("code"));
+
+    private static final String ARCHIVED_COLUMNS =
+            "id, code, description, discount_value, discount_type, min_cart_value, stackable, " +
+            "expiration_date, published, created_at, deleted_at, expired_at, max_uses, max_uses_per_customer";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Arquiva até {@code limit} cupons soft-deletados antes de {@code cutoff}. */
+    public List<ArchivedCoupon> archiveDeletedBefore(LocalDateTime cutoff, int limit, LocalDateTime archivedAt) {
+        List<ArchivedCoupon> coupons = jdbcTemplate.query(
+                "SELECT id, code FROM coupons WHERE deleted_at < ? ORDER BY deleted_at LIMIT ? FOR UPDATE",
+                ARCHIVED_MAPPER, Timestamp.valueOf(cutoff), limit);
+        return move(coupons, Reason.DELETED, archivedAt);
+    }
+
+    /**
+     * Arquiva até {@code limit} cupons não deletados que a varredura da virada
+     * do dia marcou como vencidos antes de {@code cutoff}.
+     */
+    public List<ArchivedCoupon> archiveExpiredBefore(LocalDateTime cutoff, int limit, LocalDateTime archivedAt) {
+        List<ArchivedCoupon> coupons = jdbcTemplate.query(
+                "SELECT id, code FROM coupons WHERE deleted_at IS NULL AND expired_at < ? " +
+                "ORDER BY expired_at LIMIT ? FOR UPDATE",
+                ARCHIVED_MAPPER, Timestamp.valueOf(cutoff), limit);
+        return move(coupons, Reason.EXPIRED, archivedAt);
+    }
+
+    /**
+     * Entrega os cupons arquivados depois de {@code since}, sem materializar a
+     * lista. Usado para descartar de caches aquecidos a partir de um snapshot.
+     */
+    public void forEachArchivedSince(LocalDateTime since, Consumer<ArchivedCoupon> sink) {
+        jdbcTemplate.query(
+                "SELECT id, code FROM coupons_archive WHERE archived_at > ?",
+                rs -> { sink.accept(ARCHIVED_MAPPER.mapRow(rs, 0)); },
+                Timestamp.valueOf(since));
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private List<ArchivedCoupon> move(List<ArchivedCoupon> coupons, Reason reason, LocalDateTime archivedAt) {
+        if (coupons.isEmpty()) {
+            return coupons;
+        }
+        Object[] ids = coupons.stream().map(ArchivedCoupon::id).toArray();
+        String in = " IN (" + String.join(", ", Collections.nCopies(ids.length, "?")) + ")";
+
+        Object[] archiveArgs = new Object[ids.length + 2];
+        archiveArgs[0] = reason.name();
+        archiveArgs[1] = Timestamp.valueOf(archivedAt);
+        System.arraycopy(ids, 0, archiveArgs, 2, ids.length);
+
+        jdbcTemplate.update(
+                "INSERT INTO coupons_archive (" + ARCHIVED_COLUMNS + ", archive_reason, archived_at) " +
+                "SELECT " + ARCHIVED_COLUMNS + ", ?, ? FROM coupons WHERE id" + in,
+                archiveArgs);
+        jdbcTemplate.update(
+                "INSERT INTO coupon_code_tombstones (code, coupon_id) SELECT code, id FROM coupons WHERE id" + in,
+                ids);
+        // o uso por cliente só serve para limitar novos resgates; o ledger fica
+        jdbcTemplate.update("DELETE FROM coupon_customer_usage WHERE coupon_id" + in, ids);
+        jdbcTemplate.update("DELETE FROM coupons WHERE id" + in, ids);
+        return coupons;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.couponapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reserva de blocos de contadores para o gerador de códigos.
+ *
+ * Cada chamada à sequence {@code coupon_code_counter_seq} devolve o início de
+ * um bloco exclusivo de {@link #BLOCK_SIZE} contadores. Como a sequence é
+ * compartilhada pelo banco, blocos nunca se repetem entre threads, instâncias
+ * ou reinícios da aplicação.
+ */
+@Repository
+public class CouponCodeBlockRepository {
+
+    /** Deve ser igual ao INCREMENT BY de coupon_code_counter_seq (schema.sql). */
+    public static final long BLOCK_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponCodeBlockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Reserva o próximo bloco e retorna seu primeiro contador. */
+    public long reserveBlock() {
+        Long start = jdbcTemplate.queryForObject(
+                "SELECT NEXT VALUE FOR coupon_code_counter_seq", Long.class);
+        return start;
+    }
+}
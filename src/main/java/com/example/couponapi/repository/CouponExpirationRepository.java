@@ -0,0 +1,65 @@
+package com.example.couponapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acesso JDBC à marcação de vencimento ({@code coupons.expired_at}).
+ *
+ * Os candidatos saem da cabeça do índice {@code idx_coupons_expiration}
+ * ({@code deleted_at, expired_at, expiration_date}): um cupom marcado deixa
+ * o trecho {@code expired_at IS NULL}, então cada chunk lê só as linhas que
+ * vai atualizar, mesmo com milhões vencendo na mesma data.
+ */
+@Repository
+public class CouponExpirationRepository {
+
+    /** Cupom marcado como vencido. */
+    public record ExpiredCoupon(long id, String code) {}
+
+    private static final RowMapper<ExpiredCoupon> EXPIRED_MAPPER =
+            (rs, rowNum) -> new ExpiredCoupon(rs.getLong("id"), rs.getString("code"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponExpirationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Marca como vencidos até {@code limit} cupons ativos com
+     * {@code expiration_date} anterior a {@code today}. Deve rodar numa
+     * transação: as linhas ficam travadas até o commit.
+     *
+     * @return cupons marcados (menos que {@code limit} = não há mais pendentes)
+     */
+    public List<ExpiredCoupon> markExpired(LocalDate today, int limit, LocalDateTime expiredAt) {
+        List<ExpiredCoupon> coupons = jdbcTemplate.query(
+                "SELECT id, code FROM coupons " +
+                "WHERE deleted_at IS NULL AND expired_at IS NULL AND expiration_date < ? " +
+                "ORDER BY expiration_date LIMIT ? FOR UPDATE",
+                EXPIRED_MAPPER, Date.valueOf(today), limit);
+        if (coupons.isEmpty()) {
+            return coupons;
+        }
+
+        Object[] args = new Object[coupons.size() + 1];
+        args[0] = Timestamp.valueOf(expiredAt);
+        for (int i = 0; i < coupons.size(); i++) {
+            args[i + 1] = coupons.get(i).id();
+        }
+        jdbcTemplate.update(
+                "UPDATE coupons SET expired_at = ? WHERE id IN (" +
+                String.join(", ", Collections.nCopies(coupons.size(), "?")) + ")",
+                args);
+        return coupons;
+    }
+}
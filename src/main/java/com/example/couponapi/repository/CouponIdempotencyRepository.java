@@ -0,0 +1,55 @@
+package com.example.couponapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Acesso JDBC às respostas guardadas por chave de idempotência
+ * ({@code coupon_idempotency_keys}).
+ */
+@Repository
+public class CouponIdempotencyRepository {
+
+    /** Resposta guardada: fingerprint do corpo original e o cupom criado, em JSON. */
+    public record StoredResponse(String fingerprint, String response) {}
+
+    private static final RowMapper<StoredResponse> STORED_MAPPER =
+            (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getString("response"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponIdempotencyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Grava a resposta na transação corrente.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException se a chave já foi usada
+     */
+    public void insert(String key, StoredResponse stored, LocalDateTime createdAt) {
+        jdbcTemplate.update(
+                "INSERT INTO coupon_idempotency_keys (idempotency_key, fingerprint, response, created_at) " +
+                "VALUES (?, ?, ?, ?)",
+                key, stored.fingerprint(), stored.response(), Timestamp.valueOf(createdAt));
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        List<StoredResponse> found = jdbcTemplate.query(
+                "SELECT fingerprint, response FROM coupon_idempotency_keys WHERE idempotency_key = ?",
+                STORED_MAPPER, key);
+        return found.stream().findFirst();
+    }
+
+    /** @return quantidade de chaves gravadas antes de {@code cutoff} removidas */
+    public int purgeBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(
+                "DELETE FROM coupon_idempotency_keys WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.couponapi.repository;
+
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositório para a listagem paginada por keyset.
+ *
+ * Implementado em {@link CouponKeysetRepositoryImpl} e exposto através de
+ * {@link CouponRepository}.
+ */
+public interface CouponKeysetRepository {
+
+    /**
+     * Retorna até {@code limit} cupons ativos que satisfazem o filtro,
+     * ordenados por {@code createdAt DESC, id DESC} e posicionados
+     * estritamente após o cursor (quando informado), já projetados em DTO.
+     *
+     * @param filter filtros opcionais (campos nulos são ignorados)
+     * @param after  cursor da página anterior, ou {@code null} para a primeira página
+     * @param limit  quantidade máxima de linhas retornadas
+     */
+    List<CouponResponseDTO> findActivePage(CouponFilterDTO filter, CouponCursor after, int limit);
+}
@@ -0,0 +1,86 @@
+package com.example.couponapi.repository;
+
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação da listagem por keyset com Criteria API.
+ *
+ * Apenas os filtros informados entram no WHERE — nada de
+ * {@code (:param IS NULL OR ...)} — para que o otimizador escolha o índice
+ * composto adequado (ver {@code schema.sql}) e cada página seja um range scan.
+ *
+ * Condição de continuação para a ordem {@code (created_at DESC, id DESC)}:
+ * {@code created_at < :ts OR (created_at = :ts AND id < :id)}.
+ *
+ * O SELECT é uma expressão construtora de {@link CouponResponseDTO}: só as
+ * colunas da resposta são lidas e nenhuma entidade entra no contexto de
+ * persistência.
+ */
+class CouponKeysetRepositoryImpl implements CouponKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    CouponKeysetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CouponResponseDTO> findActivePage(CouponFilterDTO filter, CouponCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CouponResponseDTO> query = cb.createQuery(CouponResponseDTO.class);
+        Root<Coupon> coupon = query.from(Coupon.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNull(coupon.get("deletedAt")));
+        predicates.add(cb.isNull(coupon.get("expiredAt")));
+
+        if (filter != null) {
+            if (filter.getPublished() != null) {
+                predicates.add(cb.equal(coupon.get("published"), filter.getPublished()));
+            }
+            if (filter.getExpiringBefore() != null) {
+                predicates.add(cb.lessThan(coupon.get("expirationDate"), filter.getExpiringBefore()));
+            }
+            if (filter.getExpiringAfter() != null) {
+                predicates.add(cb.greaterThan(coupon.get("expirationDate"), filter.getExpiringAfter()));
+            }
+            if (filter.getMinDiscount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(coupon.get("discountValue"), filter.getMinDiscount()));
+            }
+            if (filter.getMaxDiscount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(coupon.get("discountValue"), filter.getMaxDiscount()));
+            }
+        }
+
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(coupon.get("createdAt"), after.getCreatedAt()),
+                    cb.and(
+                            cb.equal(coupon.get("createdAt"), after.getCreatedAt()),
+                            cb.lessThan(coupon.get("id"), after.getId()))));
+        }
+
+        query.select(cb.construct(CouponResponseDTO.class,
+                        coupon.get("id"), coupon.get("code"), coupon.get("description"),
+                        coupon.get("discountValue"), coupon.get("discountType"), coupon.get("minCartValue"),
+                        coupon.get("stackable"), coupon.get("expirationDate"), coupon.get("published"),
+                        coupon.get("createdAt"), coupon.get("maxUses"), coupon.get("maxUsesPerCustomer")))
+             .where(predicates.toArray(Predicate[]::new))
+             .orderBy(cb.desc(coupon.get("createdAt")), cb.desc(coupon.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.couponapi.repository;
+
+import com.example.couponapi.dto.CouponChangeDTO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acesso JDBC ao outbox de eventos do catálogo ({@code coupon_outbox}) e ao
+ * estado do relay ({@code coupon_outbox_relay}).
+ *
+ * Offsets só são atribuídos por {@link #assignOffsets}, sob o lock da linha
+ * do relay: instâncias concorrentes publicam em série e os offsets visíveis
+ * nunca têm lacunas.
+ */
+@Repository
+public class CouponOutboxRepository {
+
+    private static final RowMapper<CouponChangeDTO> CHANGE_MAPPER = (rs, rowNum) -> new CouponChangeDTO(
+            rs.getLong("change_offset"),
+            CouponChangeDTO.Type.valueOf(rs.getString("event_type")),
+            rs.getLong("coupon_id"),
+            rs.getString("code"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Linha a gravar no outbox. */
+    public record OutboxRow(CouponChangeDTO.Type type, long couponId, String code,
+                            String payload, LocalDateTime occurredAt) {}
+
+    /** Estado do relay: último offset publicado e último removido pela retenção. */
+    public record RelayState(long lastOffset, long purgedOffset) {}
+
+    /** Grava as linhas (sem offset) na transação corrente, em um único batch JDBC. */
+    public void insertAll(List<OutboxRow> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO coupon_outbox (event_type, coupon_id, code, payload, occurred_at) " +
+                "VALUES (?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.type().name());
+                    ps.setLong(2, row.couponId());
+                    ps.setString(3, row.code());
+                    ps.setString(4, row.payload());
+                    ps.setTimestamp(5, Timestamp.valueOf(row.occurredAt()));
+                });
+    }
+
+    /** Indica se há linhas confirmadas ainda sem offset (sem lock). */
+    public boolean hasPending() {
+        return !jdbcTemplate.queryForList(
+                "SELECT id FROM coupon_outbox WHERE change_offset IS NULL ORDER BY id LIMIT 1",
+                Long.class).isEmpty();
+    }
+
+    /**
+     * Atribui offsets consecutivos a até {@code limit} linhas pendentes, na
+     * ordem de gravação. Deve rodar numa transação: o lock da linha do relay
+     * vale até o commit.
+     *
+     * @return quantidade de linhas publicadas
+     */
+    public int assignOffsets(int limit) {
+        Long last = jdbcTemplate.queryForObject(
+                "SELECT last_offset FROM coupon_outbox_relay WHERE id = 1 FOR UPDATE", Long.class);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM coupon_outbox WHERE change_offset IS NULL ORDER BY id LIMIT ?",
+                Long.class, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE coupon_outbox SET change_offset = ? WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, last + 1 + i);
+                        ps.setLong(2, ids.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ids.size();
+                    }
+                });
+        jdbcTemplate.update(
+                "UPDATE coupon_outbox_relay SET last_offset = ? WHERE id = 1", last + ids.size());
+        return ids.size();
+    }
+
+    public RelayState findRelayState() {
+        return jdbcTemplate.queryForObject(
+                "SELECT last_offset, purged_offset FROM coupon_outbox_relay WHERE id = 1",
+                (rs, rowNum) -> new RelayState(rs.getLong("last_offset"), rs.getLong("purged_offset")));
+    }
+
+    /** Até {@code limit} eventos publicados com offset maior que {@code since}, em ordem. */
+    public List<CouponChangeDTO> findAfter(long since, int limit) {
+        return jdbcTemplate.query(
+                "SELECT change_offset, event_type, coupon_id, code, occurred_at, payload " +
+                "FROM coupon_outbox WHERE change_offset > ? ORDER BY change_offset LIMIT ?",
+                CHANGE_MAPPER, since, limit);
+    }
+
+    /**
+     * Remove os eventos publicados anteriores a {@code cutoff}, sempre um
+     * prefixo contíguo de offsets, e registra até onde o feed foi truncado.
+     *
+     * @return quantidade de linhas removidas
+     */
+    public int purgeBefore(LocalDateTime cutoff) {
+        Long upTo = jdbcTemplate.queryForObject(
+                "SELECT MAX(change_offset) FROM coupon_outbox " +
+                "WHERE change_offset IS NOT NULL AND occurred_at < ?",
+                Long.class, Timestamp.valueOf(cutoff));
+        if (upTo == null) {
+            return 0;
+        }
+        int removed = jdbcTemplate.update(
+                "DELETE FROM coupon_outbox WHERE change_offset <= ?", upTo);
+        jdbcTemplate.update(
+                "UPDATE coupon_outbox_relay SET purged_offset = ? WHERE id = 1 AND purged_offset < ?",
+                upTo, upTo);
+        return removed;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.couponapi.repository;
+
+import com.example.couponapi.entity.DiscountType;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Acesso JDBC às estruturas de resgate: a cota reservada em {@code coupons},
+ * o uso por cliente ({@code coupon_customer_usage}) e o ledger
+ * ({@code coupon_redemptions}).
+ *
+ * Todas as alterações de contador são condicionais (compare-and-set ou
+ * {@code WHERE uses < limite}); nenhuma depende de ler e depois escrever
+ * sob lock.
+ */
+@Repository
+public class CouponRedemptionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponRedemptionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Quantidade de resgates já reservada para o cupom. */
+    public long findReservedUses(long couponId) {
+        Long reserved = jdbcTemplate.queryForObject(
+                "SELECT reserved_uses FROM coupons WHERE id = ?", Long.class, couponId);
+        return reserved;
+    }
+
+    /**
+     * Compare-and-set de {@code reserved_uses}: só grava {@code updated} se o
+     * valor atual ainda for {@code expected} e não ultrapassar {@code max_uses}.
+     *
+     * @return {@code true} se a reserva foi gravada
+     */
+    public boolean compareAndSetReservedUses(long couponId, long expected, long updated) {
+        return jdbcTemplate.update(
+                "UPDATE coupons SET reserved_uses = ? " +
+                "WHERE id = ? AND reserved_uses = ? AND ? <= max_uses",
+                updated, couponId, expected, updated) == 1;
+    }
+
+    /** Devolve ao cupom resgates reservados e não usados. */
+    public void releaseReservedUses(long couponId, long count) {
+        jdbcTemplate.update(
+                "UPDATE coupons SET reserved_uses = reserved_uses - ? WHERE id = ? AND reserved_uses >= ?",
+                count, couponId, count);
+    }
+
+    /**
+     * Garante a linha de uso do cliente (com zero usos). Executada fora da
+     * transação do resgate, para que a disputa pelo INSERT entre requisições
+     * do mesmo cliente nunca aborte essa transação.
+     */
+    public void ensureCustomerUsage(long couponId, String customerId) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO coupon_customer_usage (coupon_id, customer_id, uses) " +
+                    "SELECT ?, ?, 0 WHERE NOT EXISTS (" +
+                    "SELECT 1 FROM coupon_customer_usage WHERE coupon_id = ? AND customer_id = ?)",
+                    couponId, customerId, couponId, customerId);
+        } catch (DuplicateKeyException e) {
+            // outra requisição do mesmo cliente criou a linha primeiro
+        }
+    }
+
+    /**
+     * Incrementa o uso do cliente se ainda estiver abaixo do limite.
+     *
+     * @return {@code false} se o cliente já atingiu {@code limit}
+     */
+    public boolean incrementCustomerUsage(long couponId, String customerId, int limit) {
+        return jdbcTemplate.update(
+                "UPDATE coupon_customer_usage SET uses = uses + 1 " +
+                "WHERE coupon_id = ? AND customer_id = ? AND uses < ?",
+                couponId, customerId, limit) == 1;
+    }
+
+    /** Grava um resgate no ledger, com o valor e o tipo do desconto do cupom, e retorna seu ID. */
+    public long insertRedemption(long couponId, String customerId, String orderId,
+                                 BigDecimal discountValue, DiscountType discountType, LocalDateTime redeemedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO coupon_redemptions " +
+                    "(coupon_id, customer_id, order_id, discount_value, discount_type, redeemed_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)",
+                    new String[] {"id"});
+            ps.setLong(1, couponId);
+            ps.setString(2, customerId);
+            ps.setString(3, orderId);
+            ps.setBigDecimal(4, discountValue);
+            ps.setString(5, discountType.name());
+            ps.setTimestamp(6, Timestamp.valueOf(redeemedAt));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /** Total de resgates gravados no ledger para o cupom. */
+    public long countRedemptions(long couponId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM coupon_redemptions WHERE coupon_id = ?", Long.class, couponId);
+        return count;
+    }
+}
@@ -1,39 +1,173 @@
 package com.example.couponapi.repository;
 
+import com.example.couponapi.dto.CouponResponseDTO;
 import com.example.couponapi.entity.Coupon;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório Spring Data JPA para a entidade {@link Coupon}.
  *
  * Os métodos customizados excluem automaticamente registros soft-deletados
- * das consultas de leitura padrão.
+ * das consultas de leitura padrão. A listagem paginada vem do fragmento
+ * {@link CouponKeysetRepository}.
+ *
+ * As leituras que alimentam respostas da API projetam direto em
+ * {@link CouponResponseDTO} (expressão construtora): nenhuma entidade é
+ * hidratada nem registrada no contexto de persistência, e a transação é
+ * read-only (conexão JDBC marcada como somente leitura).
+ *
+ * As consultas de unicidade de código também olham
+ * {@code coupon_code_tombstones}: o código de um cupom arquivado continua
+ * ocupado, mesmo sem a linha em {@code coupons}.
  */
 @Repository
-public interface CouponRepository extends JpaRepository<Coupon, Long> {
+public interface CouponRepository extends JpaRepository<Coupon, Long>, CouponKeysetRepository {
+
+    /** Início das consultas de projeção em {@link CouponResponseDTO}. */
+    String SELECT_RESPONSE_DTO =
+            "SELECT new com.example.couponapi.dto.CouponResponseDTO(" +
+            "c.id, c.code, c.description, c.discountValue, c.discountType, c.minCartValue, c.stackable, " +
+            "c.expirationDate, c.published, c.createdAt, c.maxUses, c.maxUsesPerCustomer) FROM Coupon c ";
+
+    /**
+     * Retorna um cupom pelo ID somente se ele NÃO tiver sido soft-deletado
+     * nem marcado como vencido pela varredura da virada do dia.
+     * Equivalente a: WHERE id = ? AND deleted_at IS NULL AND expired_at IS NULL
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECT_RESPONSE_DTO + "WHERE c.id = :id AND c.deletedAt IS NULL AND c.expiredAt IS NULL")
+    Optional<CouponResponseDTO> findActiveById(Long id);
+
+    /**
+     * Cupons ativos (não deletados nem vencidos) com um dos IDs <em>ou</em> um
+     * dos códigos informados, numa única consulta — a busca em lote resolve
+     * as falhas de cache dos dois tipos de chave de uma vez. As regras de
+     * resgate (publicado, não expirado) ficam para quem chama. Listas vazias
+     * são aceitas (o Hibernate gera um predicado sempre falso).
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECT_RESPONSE_DTO + "WHERE (c.id IN :ids OR c.code IN :codes) " +
+           "AND c.deletedAt IS NULL AND c.expiredAt IS NULL")
+    List<CouponResponseDTO> findActiveByIdsOrCodes(Collection<Long> ids, Collection<String> codes);
+
+    /**
+     * Busca pelo código um cupom que pode ser usado agora: ativo, publicado e
+     * com expiração em {@code today} ou depois. Igualdade em {@code code},
+     * resolvida pelo índice da constraint {@code uq_coupons_code}.
+     *
+     * A comparação com {@code today} continua aqui (uma linha, custo nulo)
+     * para cobrir o intervalo entre a meia-noite e o fim da varredura.
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECT_RESPONSE_DTO + "WHERE c.code = :code AND c.deletedAt IS NULL AND c.expiredAt IS NULL " +
+           "AND c.published = true AND c.expirationDate >= :today")
+    Optional<CouponResponseDTO> findRedeemableByCode(String code, LocalDate today);
 
     /**
-     * Retorna um cupom pelo ID somente se ele NÃO tiver sido soft-deletado.
-     * Equivalente a: WHERE id = ? AND deleted_at IS NULL
+     * Percorre todos os cupons ativos (não deletados e não vencidos) em ordem
+     * de id, sem materializar a lista.
+     *
+     * As linhas são lidas do driver em lotes ({@code fetchSize}) e viram DTOs
+     * diretamente, sem entidades no contexto de persistência. Deve ser
+     * consumido dentro de uma transação e fechado ao final (try-with-resources).
      */
-    @Query("SELECT c FROM Coupon c WHERE c.id = :id AND c.deletedAt IS NULL")
-    Optional<Coupon> findActiveById(Long id);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE_DTO + "WHERE c.deletedAt IS NULL AND c.expiredAt IS NULL ORDER BY c.id")
+    Stream<CouponResponseDTO> streamAllActive();
+
+    /**
+     * Igual a {@link #streamAllActive()}, mas dos IDs mais recentes para os
+     * mais antigos. Alimenta o snapshot do catálogo, que aquece os caches
+     * começando pelos cupons mais novos.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESPONSE_DTO + "WHERE c.deletedAt IS NULL AND c.expiredAt IS NULL ORDER BY c.id DESC")
+    Stream<CouponResponseDTO> streamAllActiveNewestFirst();
+
+    /**
+     * Cupons ativos criados depois de {@code since}. Usado para atualizar um
+     * snapshot carregado na subida. Deve ser consumido dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESPONSE_DTO + "WHERE c.deletedAt IS NULL AND c.expiredAt IS NULL AND c.createdAt > :since")
+    Stream<CouponResponseDTO> streamActiveCreatedSince(LocalDateTime since);
+
+    /**
+     * Pares {@code (id, code)} dos cupons soft-deletados depois de {@code since}.
+     * Deve ser consumido dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.code FROM Coupon c WHERE c.deletedAt > :since")
+    Stream<Object[]> streamDeletedSince(LocalDateTime since);
+
+    /**
+     * Pares {@code (id, code)} dos cupons marcados como vencidos depois de
+     * {@code since}. Deve ser consumido dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.code FROM Coupon c WHERE c.expiredAt > :since")
+    Stream<Object[]> streamExpiredSince(LocalDateTime since);
+
+    /**
+     * Verifica se o código pertenceu a um cupom arquivado
+     * ({@code coupon_code_tombstones}). Códigos em {@code coupons} (ativos ou
+     * deletados) não passam por aqui: quem os barra é a constraint
+     * {@code uq_coupons_code}, no próprio INSERT.
+     */
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM coupon_code_tombstones WHERE code = :code) " +
+                   "THEN TRUE ELSE FALSE END",
+           nativeQuery = true)
+    boolean isArchivedCode(String code);
+
+    /**
+     * Dentre os códigos informados, retorna os que já existem (ativos,
+     * deletados ou arquivados). Permite checar a unicidade de um lote inteiro
+     * com uma única consulta.
+     */
+    @Query(value = "SELECT code FROM coupons WHERE code IN (:codes) " +
+                   "UNION ALL SELECT code FROM coupon_code_tombstones WHERE code IN (:codes)",
+           nativeQuery = true)
+    List<String> findExistingCodes(Collection<String> codes);
+
+    /** Quantidade de códigos ocupados (cupons em {@code coupons} mais arquivados). */
+    @Query(value = "SELECT (SELECT COUNT(*) FROM coupons) + (SELECT COUNT(*) FROM coupon_code_tombstones)",
+           nativeQuery = true)
+    long countAllCodes();
 
     /**
-     * Lista todos os cupons que NÃO foram soft-deletados.
-     * Equivalente a: WHERE deleted_at IS NULL
+     * Percorre todos os códigos (ativos, deletados e arquivados), sem carregar
+     * entidades. Usado para (re)construir o filtro de códigos em memória. Deve
+     * ser consumido dentro de uma transação e fechado ao final.
      */
-    @Query("SELECT c FROM Coupon c WHERE c.deletedAt IS NULL ORDER BY c.createdAt DESC")
-    List<Coupon> findAllActive();
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT code FROM coupons UNION ALL SELECT code FROM coupon_code_tombstones",
+           nativeQuery = true)
+    Stream<String> streamAllCodes();
 
     /**
-     * Verifica se já existe um cupom (ativo ou deletado) com o código informado.
-     * Usado para garantir unicidade do campo {@code code}.
+     * Percorre os pares {@code (code, id)} de todos os cupons (ativos,
+     * deletados e arquivados), sem carregar entidades. Usado para
+     * (re)construir o índice primitivo de códigos. Deve ser consumido dentro
+     * de uma transação e fechado ao final.
      */
-    boolean existsByCode(String code);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT code, id FROM coupons UNION ALL SELECT code, coupon_id FROM coupon_code_tombstones",
+           nativeQuery = true)
+    Stream<Object[]> streamAllCodesAndIds();
 }
@@ -0,0 +1,248 @@
+package com.example.couponapi.repository;
+
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.entity.DiscountType;
+import com.example.couponapi.repository.CouponOutboxRepository.OutboxRow;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Acesso não bloqueante (R2DBC) à tabela {@code coupons}, usado pela variante
+ * reativa da API (perfil "reactive").
+ *
+ * Mesmas consultas do lado JPA, escritas em SQL: listagem por keyset com
+ * apenas os filtros informados no WHERE (ver {@link CouponKeysetRepositoryImpl}),
+ * busca de cupom ativo por ID, soft delete e gravação no outbox
+ * ({@code coupon_outbox}, mesmas colunas de {@link CouponOutboxRepository}).
+ *
+ * Os IDs vêm da sequência {@code coupons_seq}. O Hibernate trata cada valor
+ * obtido como o topo de um bloco de 50 IDs ({@code valor - 49 .. valor}); usar
+ * o próprio valor como ID não colide com nenhum bloco do Hibernate — apenas
+ * descarta o restante daquele bloco.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveCouponRepository {
+
+    private static final String COLUMNS =
+            "id, code, description, discount_value, discount_type, min_cart_value, stackable, " +
+            "expiration_date, published, created_at, deleted_at, max_uses, max_uses_per_customer";
+
+    private static final String ORDER_BY = " ORDER BY created_at DESC, id DESC";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCouponRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /** Cupom pelo ID, incluindo soft-deletados (vazio se nunca existiu). */
+    public Mono<Coupon> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM coupons WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCouponRepository::toCoupon)
+                .one();
+    }
+
+    /** Cupom ativo (não soft-deletado) pelo ID. */
+    public Mono<Coupon> findActiveById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM coupons WHERE id = :id AND deleted_at IS NULL AND expired_at IS NULL")
+                .bind("id", id)
+                .map(ReactiveCouponRepository::toCoupon)
+                .one();
+    }
+
+    /** Indica se o código pertence a um cupom arquivado ({@code coupon_code_tombstones}). */
+    public Mono<Boolean> isArchivedCode(String code) {
+        return databaseClient.sql("SELECT COUNT(*) FROM coupon_code_tombstones WHERE code = :code")
+                .bind("code", code)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(archived -> archived > 0);
+    }
+
+    /**
+     * Insere o cupom com um ID novo da sequência e {@code createdAt} do
+     * instante atual, devolvendo a instância preenchida.
+     *
+     * Um código repetido falha com
+     * {@link org.springframework.dao.DataIntegrityViolationException}
+     * (constraint {@code uq_coupons_code}).
+     */
+    public Mono<Coupon> insert(Coupon coupon) {
+        return databaseClient.sql("SELECT NEXT VALUE FOR coupons_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    coupon.setId(id);
+                    coupon.setCreatedAt(LocalDateTime.now());
+                    DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                            "INSERT INTO coupons (id, code, description, discount_value, discount_type, " +
+                            "min_cart_value, stackable, expiration_date, published, created_at, max_uses, " +
+                            "max_uses_per_customer) " +
+                            "VALUES (:id, :code, :description, :discountValue, :discountType, " +
+                            ":minCartValue, :stackable, :expirationDate, :published, :createdAt, :maxUses, " +
+                            ":maxUsesPerCustomer)")
+                            .bind("id", id)
+                            .bind("code", coupon.getCode())
+                            .bind("discountValue", coupon.getDiscountValue())
+                            .bind("discountType", coupon.getDiscountType().name())
+                            .bind("stackable", coupon.isStackable())
+                            .bind("expirationDate", coupon.getExpirationDate())
+                            .bind("published", coupon.isPublished())
+                            .bind("createdAt", coupon.getCreatedAt());
+                    insert = bindNullable(insert, "description", coupon.getDescription(), String.class);
+                    insert = bindNullable(insert, "minCartValue", coupon.getMinCartValue(), BigDecimal.class);
+                    insert = bindNullable(insert, "maxUses", coupon.getMaxUses(), Integer.class);
+                    insert = bindNullable(insert, "maxUsesPerCustomer", coupon.getMaxUsesPerCustomer(), Integer.class);
+                    return insert.fetch().rowsUpdated().thenReturn(coupon);
+                });
+    }
+
+    /**
+     * Marca o cupom como removido se ainda estiver ativo.
+     *
+     * @return {@code true} se esta chamada fez a remoção
+     */
+    public Mono<Boolean> softDelete(long id) {
+        return databaseClient.sql("UPDATE coupons SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL")
+                .bind("now", LocalDateTime.now())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated == 1);
+    }
+
+    /** Grava a linha no outbox (sem offset), na transação corrente. */
+    public Mono<Void> insertOutbox(OutboxRow row) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                "INSERT INTO coupon_outbox (event_type, coupon_id, code, payload, occurred_at) " +
+                "VALUES (:type, :couponId, :code, :payload, :occurredAt)")
+                .bind("type", row.type().name())
+                .bind("couponId", row.couponId())
+                .bind("code", row.code())
+                .bind("occurredAt", row.occurredAt());
+        return bindNullable(insert, "payload", row.payload(), String.class)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Até {@code limit} cupons ativos após o cursor, em {@code (created_at DESC, id DESC)}.
+     *
+     * As linhas são lidas do driver conforme o assinante as pede: com a
+     * resposta HTTP como assinante, o ritmo da rede controla a leitura.
+     */
+    public Flux<Coupon> findActivePage(CouponFilterDTO filter, CouponCursor after, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT " + COLUMNS + " FROM coupons" + where(filter, after, params)
+                + ORDER_BY + " LIMIT " + limit;
+        return bindAll(databaseClient.sql(sql), params)
+                .map(ReactiveCouponRepository::toCoupon)
+                .all();
+    }
+
+    /**
+     * Cursor da página seguinte, ou vazio se a página de {@code pageSize}
+     * itens após {@code after} for a última.
+     *
+     * Lê apenas as duas linhas nas posições {@code pageSize} e
+     * {@code pageSize + 1}: a primeira é o último item da página e a segunda
+     * só confirma que há mais itens. Assim o cursor vai no header antes de o
+     * corpo começar a ser transmitido.
+     */
+    public Mono<CouponCursor> findNextCursor(CouponFilterDTO filter, CouponCursor after, int pageSize) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT created_at, id FROM coupons" + where(filter, after, params)
+                + ORDER_BY + " LIMIT 2 OFFSET " + (pageSize - 1);
+        return bindAll(databaseClient.sql(sql), params)
+                .map(row -> new CouponCursor(row.get("created_at", LocalDateTime.class), row.get("id", Long.class)))
+                .all()
+                .collectList()
+                .filter(rows -> rows.size() == 2)
+                .map(rows -> rows.get(0));
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private static String where(CouponFilterDTO filter, CouponCursor after, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE deleted_at IS NULL AND expired_at IS NULL");
+
+        if (filter != null) {
+            if (filter.getPublished() != null) {
+                where.append(" AND published = :published");
+                params.put("published", filter.getPublished());
+            }
+            if (filter.getExpiringBefore() != null) {
+                where.append(" AND expiration_date < :expiringBefore");
+                params.put("expiringBefore", filter.getExpiringBefore());
+            }
+            if (filter.getExpiringAfter() != null) {
+                where.append(" AND expiration_date > :expiringAfter");
+                params.put("expiringAfter", filter.getExpiringAfter());
+            }
+            if (filter.getMinDiscount() != null) {
+                where.append(" AND discount_value >= :minDiscount");
+                params.put("minDiscount", filter.getMinDiscount());
+            }
+            if (filter.getMaxDiscount() != null) {
+                where.append(" AND discount_value <= :maxDiscount");
+                params.put("maxDiscount", filter.getMaxDiscount());
+            }
+        }
+
+        if (after != null) {
+            where.append(" AND (created_at < :afterCreatedAt OR (created_at = :afterCreatedAt AND id < :afterId))");
+            params.put("afterCreatedAt", after.getCreatedAt());
+            params.put("afterId", after.getId());
+        }
+        return where.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec,
+                                                             Map<String, Object> params) {
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static Coupon toCoupon(Readable row) {
+        Coupon coupon = Coupon.builder()
+                .code(row.get("code", String.class))
+                .description(row.get("description", String.class))
+                .discountValue(row.get("discount_value", BigDecimal.class))
+                .discountType(DiscountType.valueOf(row.get("discount_type", String.class)))
+                .minCartValue(row.get("min_cart_value", BigDecimal.class))
+                .stackable(Boolean.TRUE.equals(row.get("stackable", Boolean.class)))
+                .expirationDate(row.get("expiration_date", LocalDate.class))
+                .published(Boolean.TRUE.equals(row.get("published", Boolean.class)))
+                .maxUses(row.get("max_uses", Integer.class))
+                .maxUsesPerCustomer(row.get("max_uses_per_customer", Integer.class))
+                .build();
+        coupon.setId(row.get("id", Long.class));
+        coupon.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        coupon.setDeletedAt(row.get("deleted_at", LocalDateTime.class));
+        return coupon;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.discount.CartDiscountEngine;
+import com.example.couponapi.discount.CompiledCoupon;
+import com.example.couponapi.discount.CompiledCouponCache;
+import com.example.couponapi.dto.CartCouponResultDTO;
+import com.example.couponapi.dto.CartDTO;
+import com.example.couponapi.dto.CartDiscountResultDTO;
+import com.example.couponapi.dto.CartItemDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável por calcular o melhor desconto de cupons para
+ * carrinhos — checkout e prévias de preço em lote.
+ *
+ * Fluxo:
+ *  1. Junta os códigos sanitizados de todos os carrinhos e os resolve numa
+ *     única chamada a {@link CouponLookupService#findRedeemableByCodes}
+ *     (caches por código e por ID, depois consultas em chunks).
+ *  2. Troca cada cupom encontrado pelas regras compiladas
+ *     ({@link CompiledCouponCache}), compiladas uma vez por ID.
+ *  3. Para cada carrinho, soma o subtotal em centavos e deixa a
+ *     {@link CartDiscountEngine} escolher a combinação de cupons.
+ *  4. Devolve totais e o desfecho de cada código, na ordem da requisição.
+ *
+ * Limites por cliente ({@code maxUsesPerCustomer}) e totais ({@code maxUses})
+ * dependem dos resgates e só são verificados no resgate.
+ */
+@Service
+@Timed(CouponService.METRIC_NAME)
+public class CartDiscountService {
+
+    private static final BigDecimal ZERO = BigDecimal.valueOf(0, 2);
+
+    private final CouponLookupService lookupService;
+    private final CompiledCouponCache compiledCache;
+    private final Validator validator;
+    private final int maxCarts;
+
+    public CartDiscountService(CouponLookupService lookupService,
+                               CompiledCouponCache compiledCache,
+                               Validator validator,
+                               @Value("${coupon.discount.max-carts:10000}") int maxCarts) {
+        this.lookupService = lookupService;
+        this.compiledCache = compiledCache;
+        this.validator     = validator;
+        this.maxCarts      = maxCarts;
+    }
+
+    /**
+     * Avalia um carrinho já validado pelo Bean Validation.
+     *
+     * @throws BusinessException se o subtotal passar de {@link CartDiscountEngine#MAX_SUBTOTAL_CENTS}
+     */
+    public CartDiscountResultDTO evaluate(CartDTO cart) {
+        return evaluateValid(List.of(cart)).get(0);
+    }
+
+    /**
+     * Avalia um lote de carrinhos, resolvendo os códigos de todos de uma vez.
+     *
+     * @return um resultado por carrinho, na ordem recebida
+     * @throws BusinessException se o lote passar do máximo, algum carrinho
+     *                           for inválido (a mensagem traz a posição) ou
+     *                           tiver subtotal acima do máximo
+     */
+    public List<CartDiscountResultDTO> evaluateAll(List<CartDTO> carts) {
+        if (carts.size() > maxCarts) {
+            throw new BusinessException("batch_too_large",
+                    "O lote aceita no máximo " + maxCarts + " carrinhos; recebidos " + carts.size() + ".");
+        }
+        for (int i = 0; i < carts.size(); i++) {
+            String violations = carts.get(i) == null ? "Carrinho vazio." : beanViolations(carts.get(i));
+            if (violations != null) {
+                throw new BusinessException("invalid_cart", "Carrinho " + i + ": " + violations);
+            }
+        }
+        return evaluateValid(carts);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private List<CartDiscountResultDTO> evaluateValid(List<CartDTO> carts) {
+        Set<String> codes = new HashSet<>();
+        for (CartDTO cart : carts) {
+            for (String rawCode : codesOf(cart)) {
+                String code = sanitize(rawCode);
+                if (code != null) {
+                    codes.add(code);
+                }
+            }
+        }
+
+        Map<String, CompiledCoupon> compiled = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (Map.Entry<String, Optional<CouponResponseDTO>> entry : lookupService.findRedeemableByCodes(codes).entrySet()) {
+                entry.getValue().ifPresent(coupon -> compiled.put(entry.getKey(), compiledCache.get(coupon)));
+            }
+        }
+
+        long today = LocalDate.now().toEpochDay();
+        List<CartDiscountResultDTO> results = new ArrayList<>(carts.size());
+        for (CartDTO cart : carts) {
+            results.add(evaluateCart(cart, compiled, today));
+        }
+        return results;
+    }
+
+    private static CartDiscountResultDTO evaluateCart(CartDTO cart, Map<String, CompiledCoupon> compiled, long today) {
+        // com preço e quantidade limitados no CartItemDTO, cada item e cada soma parcial cabem num long
+        long subtotal = 0;
+        for (CartItemDTO item : cart.getItems()) {
+            subtotal += CompiledCoupon.toCents(item.getUnitPrice()) * item.getQuantity();
+            if (subtotal > CartDiscountEngine.MAX_SUBTOTAL_CENTS) {
+                throw new BusinessException("cart_subtotal_too_large",
+                        "O subtotal do carrinho" + (cart.getCartId() == null ? "" : " '" + cart.getCartId() + "'") +
+                        " passa do máximo de " + BigDecimal.valueOf(CartDiscountEngine.MAX_SUBTOTAL_CENTS, 2) + ".");
+            }
+        }
+
+        List<String> rawCodes = codesOf(cart);
+        CompiledCoupon[] candidates = new CompiledCoupon[rawCodes.size()];
+        long duplicates = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            String code = sanitize(rawCodes.get(i));
+            CompiledCoupon coupon = code == null ? null : compiled.get(code);
+            if (coupon != null && indexOf(candidates, i, coupon) >= 0) {
+                // o mesmo cupom conta uma vez só
+                duplicates |= 1L << i;
+                coupon = null;
+            }
+            candidates[i] = coupon;
+        }
+
+        CartDiscountEngine.Selection selection = CartDiscountEngine.select(candidates, subtotal, today);
+
+        // quanto a soma dos aplicados passa do teto do subtotal
+        long overflow = -selection.discountCents();
+        for (int i = 0; i < candidates.length; i++) {
+            if (selection.isApplied(i)) {
+                overflow += candidates[i].discountCents(subtotal);
+            }
+        }
+
+        List<CartCouponResultDTO> outcomes = new ArrayList<>(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            CompiledCoupon coupon = candidates[i];
+            if ((duplicates & (1L << i)) != 0) {
+                CompiledCoupon first = compiled.get(sanitize(rawCodes.get(i)));
+                outcomes.add(outcome(rawCodes.get(i), first, CartCouponResultDTO.Status.DUPLICATE, 0));
+            } else if (coupon == null || !coupon.isValidOn(today)) {
+                outcomes.add(outcome(rawCodes.get(i), null, CartCouponResultDTO.Status.NOT_FOUND, 0));
+            } else if (!coupon.meetsMinimum(subtotal)) {
+                outcomes.add(outcome(rawCodes.get(i), coupon, CartCouponResultDTO.Status.BELOW_MIN_CART_VALUE, 0));
+            } else if (selection.isApplied(i)) {
+                // o corte do teto recai sobre o último cupom empilhado pelo motor, não sobre a ordem dos códigos
+                long share = coupon.discountCents(subtotal) - (i == selection.cappedIndex() ? overflow : 0);
+                outcomes.add(outcome(rawCodes.get(i), coupon, CartCouponResultDTO.Status.APPLIED, share));
+            } else {
+                outcomes.add(outcome(rawCodes.get(i), coupon, CartCouponResultDTO.Status.NOT_SELECTED, 0));
+            }
+        }
+        return new CartDiscountResultDTO(cart.getCartId(), BigDecimal.valueOf(subtotal, 2),
+                BigDecimal.valueOf(selection.discountCents(), 2), outcomes);
+    }
+
+    private static CartCouponResultDTO outcome(String code, CompiledCoupon coupon,
+                                               CartCouponResultDTO.Status status, long cents) {
+        return new CartCouponResultDTO(code, coupon == null ? null : coupon.id(), status,
+                cents == 0 ? ZERO : BigDecimal.valueOf(cents, 2));
+    }
+
+    private static int indexOf(CompiledCoupon[] candidates, int length, CompiledCoupon coupon) {
+        for (int i = 0; i < length; i++) {
+            if (candidates[i] != null && candidates[i].id() == coupon.id()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> codesOf(CartDTO cart) {
+        return cart.getCodes() == null ? List.of() : cart.getCodes();
+    }
+
+    private static String sanitize(String rawCode) {
+        return rawCode == null ? null : Coupon.trySanitizeCode(rawCode);
+    }
+
+    private String beanViolations(CartDTO cart) {
+        Set<ConstraintViolation<CartDTO>> violations = validator.validate(cart);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(cv -> cv.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(" "));
+    }
+}
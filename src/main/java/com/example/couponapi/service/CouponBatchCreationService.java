@@ -0,0 +1,304 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.dto.CouponBatchItemResultDTO;
+import com.example.couponapi.dto.CouponBatchResultDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável pela criação de cupons em lote.
+ *
+ * Fluxo:
+ *  1. Valida todos os itens em memória (Bean Validation + regras de domínio),
+ *     rejeitando também códigos repetidos dentro do próprio lote.
+ *  2. Divide os itens válidos em chunks de {@code chunkSize}; cada chunk roda
+ *     em sua própria transação com:
+ *      - uma única consulta {@code code IN (...)} para a unicidade, só com
+ *        os códigos que o {@link CouponCodeIndex} não conhece e que o
+ *        {@link CouponCodeFilter} não descarta;
+ *      - INSERTs agrupados em batch JDBC (IDs da sequence pooled), com os
+ *        eventos CREATED do outbox gravados em um único batch na mesma transação.
+ *  3. Devolve o resultado de cada item na ordem da requisição.
+ *
+ * Um chunk que esbarra na constraint {@value CouponValidationService#CODE_CONSTRAINT}
+ * (código inserido por outra instância ou criação concorrente entre a
+ * consulta e o INSERT) é refeito uma vez, agora consultando no banco todos os
+ * códigos que o índice não conhece; se falhar novamente, seus itens são
+ * rejeitados e os demais chunks seguem normalmente. Outras violações de
+ * integridade não são conflito de código e propagam.
+ */
+@Service
+public class CouponBatchCreationService {
+
+    private static final int MAX_CHUNK_ATTEMPTS = 2;
+
+    private final CouponRepository couponRepository;
+    private final CouponValidationService validationService;
+    private final CouponCodeFilter codeFilter;
+    private final CouponCodeIndex codeIndex;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponChangeOutbox changeOutbox;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader ndjsonReader;
+    private final int maxItems;
+    private final int chunkSize;
+
+    public CouponBatchCreationService(CouponRepository couponRepository,
+                                      CouponValidationService validationService,
+                                      CouponCodeFilter codeFilter,
+                                      CouponCodeIndex codeIndex,
+                                      CouponByIdCache byIdCache,
+                                      CouponByCodeCache byCodeCache,
+                                      CouponChangeOutbox changeOutbox,
+                                      Validator validator,
+                                      EntityManager entityManager,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper,
+                                      @Value("${coupon.batch.max-items:500000}") int maxItems,
+                                      @Value("${coupon.batch.chunk-size:1000}") int chunkSize) {
+        this.couponRepository    = couponRepository;
+        this.validationService   = validationService;
+        this.codeFilter          = codeFilter;
+        this.codeIndex           = codeIndex;
+        this.byIdCache           = byIdCache;
+        this.byCodeCache         = byCodeCache;
+        this.changeOutbox        = changeOutbox;
+        this.validator           = validator;
+        this.entityManager       = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ndjsonReader        = objectMapper.readerFor(CouponRequestDTO.class);
+        this.maxItems            = maxItems;
+        this.chunkSize           = chunkSize;
+    }
+
+    /**
+     * Cria os cupons do lote, item a item independentes entre si.
+     *
+     * @param dtos itens na ordem recebida
+     * @return totais e resultado por item
+     * @throws BusinessException se o lote estiver vazio ou exceder o máximo configurado
+     */
+    public CouponBatchResultDTO createAll(List<CouponRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BusinessException("empty_batch", "O lote deve conter ao menos um cupom.");
+        }
+        if (dtos.size() > maxItems) {
+            throw new BusinessException("batch_too_large",
+                "O lote excede o máximo de " + maxItems + " cupons por requisição.");
+        }
+
+        CouponBatchItemResultDTO[] results = new CouponBatchItemResultDTO[dtos.size()];
+        List<PendingCoupon> valid = validateAll(dtos, results);
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<PendingCoupon> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            insertChunk(chunk, results);
+        }
+
+        return new CouponBatchResultDTO(Arrays.asList(results));
+    }
+
+    /**
+     * Lê um corpo NDJSON (um {@link CouponRequestDTO} por linha) sem carregar o texto inteiro.
+     *
+     * @throws BusinessException se alguma linha não for um JSON válido ou o lote exceder o máximo
+     */
+    public List<CouponRequestDTO> readNdjson(InputStream body) {
+        List<CouponRequestDTO> dtos = new ArrayList<>();
+        try (MappingIterator<CouponRequestDTO> iterator = ndjsonReader.readValues(body)) {
+            // lê no máximo um item além do limite, só para detectar o excesso
+            while (dtos.size() <= maxItems && iterator.hasNextValue()) {
+                dtos.add(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            throw new BusinessException("invalid_ndjson",
+                "Conteúdo NDJSON inválido após " + dtos.size() + " itens lidos.");
+        }
+        if (dtos.size() > maxItems) {
+            throw new BusinessException("batch_too_large",
+                "O lote excede o máximo de " + maxItems + " cupons por requisição.");
+        }
+        return dtos;
+    }
+
+    // -------------------------------------------------------------------------
+    // Etapa 1 — validação em memória
+    // -------------------------------------------------------------------------
+
+    private List<PendingCoupon> validateAll(List<CouponRequestDTO> dtos, CouponBatchItemResultDTO[] results) {
+        List<PendingCoupon> valid = new ArrayList<>(dtos.size());
+        Set<String> codesInBatch = new HashSet<>(dtos.size() * 2);
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CouponRequestDTO dto = dtos.get(i);
+            if (dto == null) {
+                results[i] = CouponBatchItemResultDTO.rejected(i, null, "Item vazio.");
+                continue;
+            }
+
+            String violations = beanViolations(dto);
+            if (violations != null) {
+                results[i] = CouponBatchItemResultDTO.rejected(i, null, violations);
+                continue;
+            }
+
+            String code;
+            try {
+                code = validationService.sanitizeAndValidateFormat(dto.getCode());
+                validationService.validateDiscount(dto.getDiscountType(), dto.getDiscountValue());
+                validationService.validateExpirationDate(dto.getExpirationDate());
+            } catch (BusinessException e) {
+                results[i] = CouponBatchItemResultDTO.rejected(i, null, e.getMessage());
+                continue;
+            }
+
+            if (!codesInBatch.add(code)) {
+                results[i] = CouponBatchItemResultDTO.rejected(
+                        i, code, "Código '" + code + "' repetido dentro do lote.");
+                continue;
+            }
+
+            valid.add(new PendingCoupon(i, code, dto));
+        }
+        return valid;
+    }
+
+    private String beanViolations(CouponRequestDTO dto) {
+        Set<ConstraintViolation<CouponRequestDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(cv -> cv.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(" "));
+    }
+
+    // -------------------------------------------------------------------------
+    // Etapa 2 — inserção por chunk
+    // -------------------------------------------------------------------------
+
+    private void insertChunk(List<PendingCoupon> chunk, CouponBatchItemResultDTO[] results) {
+        for (int attempt = 1; attempt <= MAX_CHUNK_ATTEMPTS; attempt++) {
+            boolean checkAllCodes = attempt > 1;
+            try {
+                List<CouponBatchItemResultDTO> chunkResults =
+                        transactionTemplate.execute(status -> persistChunk(chunk, checkAllCodes));
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // outro processo inseriu um dos códigos entre a consulta e o INSERT
+                if (!CouponValidationService.isCodeConflict(e)) {
+                    throw e;
+                }
+            }
+        }
+        for (PendingCoupon pending : chunk) {
+            results[pending.index()] = CouponBatchItemResultDTO.rejected(pending.index(), pending.code(),
+                    "Conflito de código com inserções concorrentes; reenvie este item.");
+        }
+    }
+
+    /**
+     * @param checkAllCodes consulta no banco todos os códigos fora do índice, sem
+     *                      passar pelo filtro — que não enxerga códigos gravados
+     *                      por outras instâncias; usado ao refazer um chunk
+     */
+    private List<CouponBatchItemResultDTO> persistChunk(List<PendingCoupon> chunk, boolean checkAllCodes) {
+        Set<String> existing = new HashSet<>();
+        List<String> suspects = new ArrayList<>();
+        for (PendingCoupon pending : chunk) {
+            if (codeIndex.contains(pending.code())) {
+                existing.add(pending.code());
+            } else if (checkAllCodes || codeFilter.mightContain(pending.code())) {
+                suspects.add(pending.code());
+            }
+        }
+        if (!suspects.isEmpty()) {
+            List<String> found = couponRepository.findExistingCodes(suspects);
+            existing.addAll(found);
+            if (!checkAllCodes) {
+                codeFilter.recordFalsePositives(suspects.size() - found.size());
+            }
+        }
+
+        List<CouponBatchItemResultDTO> chunkResults = new ArrayList<>(chunk.size());
+        List<PendingCoupon> accepted = new ArrayList<>(chunk.size());
+        List<Coupon> coupons = new ArrayList<>(chunk.size());
+
+        for (PendingCoupon pending : chunk) {
+            if (existing.contains(pending.code())) {
+                chunkResults.add(CouponBatchItemResultDTO.rejected(pending.index(), pending.code(),
+                        DuplicateCouponCodeException.messageFor(pending.code())));
+                continue;
+            }
+            CouponRequestDTO dto = pending.dto();
+            coupons.add(Coupon.builder()
+                    .code(pending.code())
+                    .description(dto.getDescription())
+                    .discountValue(dto.getDiscountValue())
+                    .discountType(dto.getDiscountType())
+                    .minCartValue(dto.getMinCartValue())
+                    .stackable(dto.isStackable())
+                    .expirationDate(dto.getExpirationDate())
+                    .published(dto.isPublished())
+                    .maxUses(dto.getMaxUses())
+                    .maxUsesPerCustomer(dto.getMaxUsesPerCustomer())
+                    .build());
+            accepted.add(pending);
+        }
+
+        // flush pelo proxy do repositório: a violação chega traduzida como DataIntegrityViolationException
+        couponRepository.saveAllAndFlush(coupons);
+        changeOutbox.recordCreated(coupons);
+        entityManager.clear();
+        List<String> insertedCodes = accepted.stream().map(PendingCoupon::code).toList();
+        codeFilter.registerAfterCommit(insertedCodes);
+        codeIndex.registerAfterCommit(coupons);
+        // descarta eventuais 404 guardados para os IDs recém-alocados e para os códigos
+        byIdCache.invalidateAll(coupons.stream().map(Coupon::getId).toList());
+        byCodeCache.invalidateAll(insertedCodes);
+
+        for (int k = 0; k < coupons.size(); k++) {
+            PendingCoupon pending = accepted.get(k);
+            chunkResults.add(CouponBatchItemResultDTO.created(
+                    pending.index(), coupons.get(k).getId(), pending.code()));
+        }
+        return chunkResults;
+    }
+
+    /** Item que passou pela validação em memória e aguarda inserção. */
+    private record PendingCoupon(int index, String code, CouponRequestDTO dto) {}
+}
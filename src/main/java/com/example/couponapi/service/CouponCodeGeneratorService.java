@@ -0,0 +1,134 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.dto.GeneratedCodesDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponCodeBlockRepository;
+import com.example.couponapi.repository.CouponRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serviço responsável por gerar códigos de cupom únicos em massa.
+ *
+ * Cada código vem de um contador exclusivo passado pela
+ * {@link CouponCodePermutation}: contadores distintos geram códigos distintos,
+ * então códigos emitidos pelo gerador nunca colidem entre si — nem entre
+ * chamadas concorrentes, nem entre instâncias. Os contadores são reservados em
+ * blocos ({@link CouponCodeBlockRepository}), com uma ida ao banco a cada
+ * {@value CouponCodeBlockRepository#BLOCK_SIZE} códigos.
+ *
+ * Como clientes ainda podem escolher códigos livremente, os candidatos são
+ * conferidos contra os cupons existentes com uma consulta {@code IN} por chunk
+ * (nunca uma consulta por código); os já usados são descartados e repostos.
+ * Candidatos que o {@link CouponCodeIndex} já conhece são descartados direto;
+ * os demais vão sempre à consulta. O filtro de códigos não a dispensa aqui:
+ * ele é local à instância e não vê códigos escolhidos em outra, e nada é
+ * inserido neste caminho para que a constraint {@code uq_coupons_code} barre
+ * o código devolvido como livre.
+ */
+@Service
+public class CouponCodeGeneratorService {
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private final CouponCodeBlockRepository blockRepository;
+    private final CouponRepository couponRepository;
+    private final CouponCodeIndex codeIndex;
+    private final CouponCodePermutation permutation;
+    private final int maxPerRequest;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextCounter;   // protegido por lock
+    private long blockEnd;      // protegido por lock (exclusivo)
+
+    public CouponCodeGeneratorService(CouponCodeBlockRepository blockRepository,
+                                      CouponRepository couponRepository,
+                                      CouponCodeIndex codeIndex,
+                                      @Value("${coupon.codes.generator-key:6148914691236517205}") long generatorKey,
+                                      @Value("${coupon.codes.max-per-request:100000}") int maxPerRequest) {
+        this.blockRepository  = blockRepository;
+        this.couponRepository = couponRepository;
+        this.codeIndex        = codeIndex;
+        this.permutation      = new CouponCodePermutation(generatorKey);
+        this.maxPerRequest    = maxPerRequest;
+    }
+
+    /**
+     * Gera {@code count} códigos distintos e ainda não utilizados.
+     *
+     * @throws BusinessException se {@code count} estiver fora de {@code [1, maxPerRequest]}
+     *                           ou se o espaço de códigos estiver esgotado
+     */
+    public GeneratedCodesDTO generate(int count) {
+        if (count < 1 || count > maxPerRequest) {
+            throw new BusinessException("invalid_code_count",
+                "A quantidade de códigos deve estar entre 1 e " + maxPerRequest + ".");
+        }
+
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            List<String> candidates = nextCandidates(Math.min(count - codes.size(), CHUNK_SIZE));
+            Set<String> taken = new HashSet<>();
+            List<String> unknown = new ArrayList<>();
+            for (String candidate : candidates) {
+                if (codeIndex.contains(candidate)) {
+                    taken.add(candidate);
+                } else {
+                    unknown.add(candidate);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                taken.addAll(couponRepository.findExistingCodes(unknown));
+            }
+            for (String candidate : candidates) {
+                if (!taken.contains(candidate)) {
+                    codes.add(candidate);
+                }
+            }
+        }
+        return new GeneratedCodesDTO(codes);
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private List<String> nextCandidates(int n) {
+        long[] counters = reserveCounters(n);
+        List<String> candidates = new ArrayList<>(n);
+        for (long counter : counters) {
+            candidates.add(permutation.codeFor(counter));
+        }
+        return candidates;
+    }
+
+    /** Único trecho serializado: entrega contadores do bloco atual e reserva outro quando acaba. */
+    private long[] reserveCounters(int n) {
+        long[] counters = new long[n];
+        lock.lock();
+        try {
+            for (int i = 0; i < n; i++) {
+                if (nextCounter >= blockEnd) {
+                    long start = blockRepository.reserveBlock();
+                    if (start >= CouponCodePermutation.DOMAIN_SIZE) {
+                        throw new BusinessException("code_space_exhausted", "O espaço de códigos de cupom foi esgotado.");
+                    }
+                    nextCounter = start;
+                    blockEnd    = Math.min(start + CouponCodeBlockRepository.BLOCK_SIZE,
+                                           CouponCodePermutation.DOMAIN_SIZE);
+                }
+                counters[i] = nextCounter++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return counters;
+    }
+}
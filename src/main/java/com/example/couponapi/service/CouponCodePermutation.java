@@ -0,0 +1,95 @@
+package com.example.couponapi.service;
+
+/**
+ * Permutação pseudoaleatória e reversível sobre o espaço de códigos de cupom.
+ *
+ * Um código tem 6 caracteres alfanuméricos (62 símbolos), ou seja,
+ * {@code 62^6 = 56.800.235.584} valores possíveis, que cabem em 36 bits.
+ * Cada contador {@code n} no intervalo {@code [0, 62^6)} é mapeado para um
+ * código distinto, sem tabela e sem consulta ao banco:
+ *
+ *  1. uma rede de Feistel balanceada (2 × 18 bits, {@value #ROUNDS} rodadas)
+ *     embaralha os 36 bits — toda rede de Feistel é uma bijeção;
+ *  2. resultados fora do domínio ({@code >= 62^6}) são re-cifrados até caírem
+ *     dentro dele (cycle walking), o que preserva a bijeção no domínio;
+ *  3. o valor é escrito em base 62 com o alfabeto {@code 0-9A-Za-z}.
+ *
+ * Contadores distintos produzem, portanto, códigos distintos — a unicidade vem
+ * da unicidade do contador. A chave define a ordem do embaralhamento e não pode
+ * mudar depois que códigos forem emitidos.
+ */
+public final class CouponCodePermutation {
+
+    /** Alfabeto base 62 em ordem ASCII. */
+    static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /** Tamanho do espaço de códigos: 62^6. */
+    public static final long DOMAIN_SIZE = 56_800_235_584L;
+
+    static final int CODE_LENGTH = 6;
+
+    private static final int ROUNDS    = 6;
+    private static final int HALF_BITS = 18;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public CouponCodePermutation(long key) {
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    /**
+     * Código correspondente ao contador informado.
+     *
+     * @param counter valor em {@code [0, DOMAIN_SIZE)}
+     */
+    public String codeFor(long counter) {
+        if (counter < 0 || counter >= DOMAIN_SIZE) {
+            throw new IllegalArgumentException("Contador fora do espaço de códigos: " + counter);
+        }
+        return encode(permute(counter));
+    }
+
+    /** Aplica a permutação (com cycle walking) a um valor do domínio. */
+    long permute(long value) {
+        long x = value;
+        do {
+            x = feistel(x);
+        } while (x >= DOMAIN_SIZE);
+        return x;
+    }
+
+    private long feistel(long x) {
+        long left  = (x >>> HALF_BITS) & HALF_MASK;
+        long right = x & HALF_MASK;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & HALF_MASK);
+            left  = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    /** Escreve o valor em base 62 com exatamente 6 dígitos. */
+    static String encode(long value) {
+        char[] chars = new char[CODE_LENGTH];
+        long v = value;
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (v % 62)];
+            v /= 62;
+        }
+        return new String(chars);
+    }
+
+    /** Finalizador do SplitMix64: espalha bem bits de entradas próximas. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,28 +1,60 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.diagnostics.jfr.CouponCreateEvent;
 import com.example.couponapi.dto.CouponRequestDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
 import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
 import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Serviço responsável pelo caso de uso de criação de cupons.
  *
- * Orquestra a validação (delegada ao {@link CouponValidationService})
- * e a persistência da nova entidade.
+ * Orquestra a validação (delegada ao {@link CouponValidationService}),
+ * a persistência da nova entidade e o evento de criação no outbox
+ * ({@link CouponChangeOutbox}), na mesma transação. A unicidade do código
+ * é decidida pelo próprio INSERT (constraint {@code uq_coupons_code}), sem
+ * consulta prévia a {@code coupons}.
+ *
+ * Cada criação emite o evento JFR {@link CouponCreateEvent}: o {@code dbTime}
+ * cobre o INSERT do cupom e a gravação no outbox (com o payload JSON), e o
+ * {@code serializationTime} o mapeamento para o DTO de resposta.
  */
 @Service
+@Timed(CouponService.METRIC_NAME)
 public class CouponCreationService {
 
     private final CouponRepository couponRepository;
     private final CouponValidationService validationService;
+    private final CouponCodeFilter codeFilter;
+    private final CouponCodeIndex codeIndex;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponChangeOutbox changeOutbox;
 
     public CouponCreationService(CouponRepository couponRepository,
-                                 CouponValidationService validationService) {
+                                 CouponValidationService validationService,
+                                 CouponCodeFilter codeFilter,
+                                 CouponCodeIndex codeIndex,
+                                 CouponByIdCache byIdCache,
+                                 CouponByCodeCache byCodeCache,
+                                 CouponChangeOutbox changeOutbox) {
         this.couponRepository  = couponRepository;
         this.validationService = validationService;
+        this.codeFilter        = codeFilter;
+        this.codeIndex         = codeIndex;
+        this.byIdCache         = byIdCache;
+        this.byCodeCache       = byCodeCache;
+        this.changeOutbox      = changeOutbox;
     }
 
     /**
@@ -31,29 +63,73 @@ public class CouponCreationService {
      * Fluxo:
      *  1. Sanitiza o código.
      *  2. Valida tamanho do código sanitizado.
-     *  3. Valida unicidade do código.
+     *  3. Recusa códigos já conhecidos (índice em memória, cupons arquivados).
      *  4. Valida valor mínimo de desconto.
      *  5. Valida data de expiração.
-     *  6. Persiste e retorna o DTO de resposta.
+     *  6. Persiste (a constraint {@code uq_coupons_code} decide a unicidade)
+     *     e grava o evento CREATED no outbox.
+     *  7. Registra o código no filtro e no índice (após o commit) e retorna o DTO.
      *
      * @param dto dados de entrada validados pelo Bean Validation
      * @return DTO com os dados do cupom criado
      */
     @Transactional
     public CouponResponseDTO create(CouponRequestDTO dto) {
-        String sanitizedCode = validationService.sanitizeAndValidateCode(dto.getCode());
+        CouponCreateEvent event = new CouponCreateEvent();
+        return event.record(() -> {
+            String sanitizedCode = validationService.sanitizeAndValidateCode(dto.getCode());
+            event.code = sanitizedCode;
+
+            validationService.validateDiscount(dto.getDiscountType(), dto.getDiscountValue());
+            validationService.validateExpirationDate(dto.getExpirationDate());
 
-        validationService.validateDiscountValue(dto.getDiscountValue());
-        validationService.validateExpirationDate(dto.getExpirationDate());
+            Coupon coupon = Coupon.builder()
+                    .code(sanitizedCode)
+                    .description(dto.getDescription())
+                    .discountValue(dto.getDiscountValue())
+                    .discountType(dto.getDiscountType())
+                    .minCartValue(dto.getMinCartValue())
+                    .stackable(dto.isStackable())
+                    .expirationDate(dto.getExpirationDate())
+                    .published(dto.isPublished())
+                    .maxUses(dto.getMaxUses())
+                    .maxUsesPerCustomer(dto.getMaxUsesPerCustomer())
+                    .build();
 
-        Coupon coupon = Coupon.builder()
-                .code(sanitizedCode)
-                .description(dto.getDescription())
-                .discountValue(dto.getDiscountValue())
-                .expirationDate(dto.getExpirationDate())
-                .published(dto.isPublished())
-                .build();
+            long dbStarted = System.nanoTime();
+            Coupon saved = insert(coupon);
+            changeOutbox.recordCreated(saved);
+            event.dbTime = System.nanoTime() - dbStarted;
 
-        return CouponResponseDTO.fromEntity(couponRepository.save(coupon));
+            codeFilter.registerAfterCommit(sanitizedCode);
+            codeIndex.registerAfterCommit(saved);
+            // descarta eventuais 404 guardados para o ID recém-alocado e para o código
+            byIdCache.invalidate(saved.getId());
+            byCodeCache.invalidate(sanitizedCode);
+            event.setCouponId(saved.getId());
+            event.rows = 1;
+
+            long mappingStarted = System.nanoTime();
+            CouponResponseDTO response = CouponResponseDTO.fromEntity(saved);
+            event.serializationTime = System.nanoTime() - mappingStarted;
+            return response;
+        });
+    }
+
+    /**
+     * INSERT imediato ({@code saveAndFlush}): a violação da constraint de
+     * código aparece aqui, e não no commit, e vira
+     * {@link DuplicateCouponCodeException}. Das criações concorrentes com o
+     * mesmo código, só uma confirma; as demais recebem 422.
+     */
+    private Coupon insert(Coupon coupon) {
+        try {
+            return couponRepository.saveAndFlush(coupon);
+        } catch (DataIntegrityViolationException e) {
+            if (CouponValidationService.isCodeConflict(e)) {
+                throw new DuplicateCouponCodeException(coupon.getCode());
+            }
+            throw e;
+        }
     }
 }
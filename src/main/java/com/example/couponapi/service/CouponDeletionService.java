@@ -1,8 +1,13 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.diagnostics.jfr.CouponDeleteEvent;
 import com.example.couponapi.entity.Coupon;
 import com.example.couponapi.exception.CouponNotFoundException;
 import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,14 +20,33 @@ import org.springframework.transaction.annotation.Transactional;
  * Regras aplicadas:
  *  - Se o cupom não existir     → {@link CouponNotFoundException} (404).
  *  - Se já estiver soft-deletado → {@link BusinessException} (422).
+ *
+ * O evento DELETED é gravado no outbox ({@link CouponChangeOutbox}) na mesma
+ * transação do soft delete.
+ *
+ * O cupom é removido dos caches ({@link CouponByIdCache}, {@link CouponByCodeCache})
+ * na própria chamada e de novo após o commit, para que um cupom deletado nunca
+ * seja servido do cache.
+ *
+ * Cada remoção emite um {@link CouponDeleteEvent} (JFR).
  */
 @Service
+@Timed(CouponService.METRIC_NAME)
 public class CouponDeletionService {
 
     private final CouponRepository couponRepository;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponChangeOutbox changeOutbox;
 
-    public CouponDeletionService(CouponRepository couponRepository) {
+    public CouponDeletionService(CouponRepository couponRepository,
+                                 CouponByIdCache byIdCache,
+                                 CouponByCodeCache byCodeCache,
+                                 CouponChangeOutbox changeOutbox) {
         this.couponRepository = couponRepository;
+        this.byIdCache        = byIdCache;
+        this.byCodeCache      = byCodeCache;
+        this.changeOutbox     = changeOutbox;
     }
 
     /**
@@ -35,11 +59,23 @@ public class CouponDeletionService {
      */
     @Transactional
     public void delete(Long id) {
-        Coupon coupon = couponRepository.findById(id)
-                .orElseThrow(() -> new CouponNotFoundException(id));
+        CouponDeleteEvent event = new CouponDeleteEvent();
+        event.setCouponId(id);
+        event.record(() -> {
+            long dbStarted = System.nanoTime();
+            Coupon coupon = couponRepository.findById(id)
+                    .orElseThrow(() -> new CouponNotFoundException(id));
+            event.code = coupon.getCode();
+
+            // Regra de domínio: softDelete() lança BusinessException se já deletado
+            coupon.softDelete();
+            couponRepository.save(coupon);
+            changeOutbox.recordDeleted(coupon);
+            event.dbTime = System.nanoTime() - dbStarted;
+            event.rows = 1;
 
-        // Regra de domínio: softDelete() lança BusinessException se já deletado
-        coupon.softDelete();
-        couponRepository.save(coupon);
+            byIdCache.invalidate(id);
+            byCodeCache.invalidate(coupon.getCode());
+        });
     }
 }
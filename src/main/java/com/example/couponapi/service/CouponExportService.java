@@ -0,0 +1,84 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.repository.CouponRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço responsável pela exportação do catálogo completo de cupons ativos.
+ *
+ * Escreve um cupom por linha (NDJSON) diretamente no stream de saída,
+ * à medida que as linhas chegam do banco:
+ *  - o repositório devolve um {@link Stream} de DTOs (projeção, sem
+ *    entidades no contexto de persistência) com fetch size limitado;
+ *  - cada DTO é serializado assim que chega;
+ *  - a saída passa por um buffer de tamanho fixo, descarregado a cada
+ *    {@code flushEvery} linhas.
+ *
+ * O consumo de memória fica constante, independentemente do tamanho do catálogo.
+ */
+@Service
+public class CouponExportService {
+
+    private final CouponRepository couponRepository;
+    private final ObjectWriter writer;
+    private final int bufferSize;
+    private final int flushEvery;
+
+    public CouponExportService(CouponRepository couponRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${coupon.export.buffer-size:65536}") int bufferSize,
+                               @Value("${coupon.export.flush-every:1000}") int flushEvery) {
+        this.couponRepository = couponRepository;
+        // o flush fica a cargo do buffer, não de cada writeValue
+        this.writer           = objectMapper.writerFor(CouponResponseDTO.class)
+                                            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.bufferSize       = bufferSize;
+        this.flushEvery       = flushEvery;
+    }
+
+    /**
+     * Escreve todos os cupons ativos, em ordem de id, como NDJSON.
+     *
+     * O stream de saída não é fechado por este método.
+     *
+     * @param out destino da exportação (ex.: corpo da resposta HTTP)
+     * @return quantidade de cupons exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportActive(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, bufferSize);
+        JsonGenerator generator = writer.createGenerator(buffered)
+                                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // cada valor termina em '\n'; sem o separador padrão (espaço) entre valores raiz
+        generator.setRootValueSeparator(null);
+        long written = 0;
+
+        try (Stream<CouponResponseDTO> coupons = couponRepository.streamAllActive()) {
+            Iterator<CouponResponseDTO> iterator = coupons.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        generator.flush();
+        return written;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.diagnostics.jfr.CouponLookupEvent;
+import com.example.couponapi.dto.CouponLookupItemDTO;
+import com.example.couponapi.dto.CouponLookupRequestDTO;
+import com.example.couponapi.dto.CouponLookupResultDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Serviço responsável pela busca de vários cupons numa só chamada, por ID
+ * e/ou por código — o checkout resolve os cupons do carrinho de uma vez.
+ *
+ * Fluxo:
+ *  1. Sanitiza os códigos (formato inválido → não encontrado, sem consulta)
+ *     e descarta repetições.
+ *  2. Responde o que estiver nos caches ({@link CouponByIdCache},
+ *     {@link CouponByCodeCache}); um código fora do cache por código, mas
+ *     conhecido pelo {@link CouponCodeIndex}, aproveita o cache por ID.
+ *  3. Resolve as falhas restantes dos dois tipos com uma única consulta
+ *     {@code id IN (...) OR code IN (...)} por chunk de {@code chunkSize}
+ *     chaves, e guarda os resultados (inclusive ausências) nos caches.
+ *  4. Devolve um item por chave pedida, na ordem da requisição.
+ *
+ * As regras são as das buscas individuais: por ID, cupom ativo; por código,
+ * cupom ativo, publicado e não expirado.
+ *
+ * Emite um {@link CouponLookupEvent} (JFR) por chamada, com {@code by=batch}.
+ */
+@Service
+@Timed(CouponService.METRIC_NAME)
+public class CouponLookupService {
+
+    private final CouponRepository couponRepository;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponCodeIndex codeIndex;
+    private final int maxItems;
+    private final int chunkSize;
+
+    public CouponLookupService(CouponRepository couponRepository,
+                               CouponByIdCache byIdCache,
+                               CouponByCodeCache byCodeCache,
+                               CouponCodeIndex codeIndex,
+                               @Value("${coupon.lookup.max-items:1000}") int maxItems,
+                               @Value("${coupon.lookup.chunk-size:500}") int chunkSize) {
+        this.couponRepository = couponRepository;
+        this.byIdCache        = byIdCache;
+        this.byCodeCache      = byCodeCache;
+        this.codeIndex        = codeIndex;
+        this.maxItems         = maxItems;
+        this.chunkSize        = chunkSize;
+    }
+
+    /**
+     * Busca os cupons pedidos por ID e por código.
+     *
+     * @return um item por chave: os {@code ids} e depois os {@code codes},
+     *         cada grupo na ordem da requisição
+     * @throws BusinessException se não houver nenhuma chave ou houver mais que o máximo
+     */
+    public CouponLookupResultDTO lookup(CouponLookupRequestDTO request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> rawCodes = request.getCodes() == null ? List.of() : request.getCodes();
+        int requested = ids.size() + rawCodes.size();
+        if (requested == 0) {
+            throw new BusinessException("empty_lookup", "Informe ao menos um ID ou código.");
+        }
+        if (requested > maxItems) {
+            throw new BusinessException("lookup_too_large",
+                    "A busca aceita no máximo " + maxItems + " chaves; recebidas " + requested + ".");
+        }
+
+        CouponLookupEvent event = new CouponLookupEvent();
+        event.by = "batch";
+        return event.record(() -> {
+            LocalDate today = LocalDate.now();
+            String[] codes = new String[rawCodes.size()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = Coupon.trySanitizeCode(rawCodes.get(i));
+            }
+            Set<Long> distinctIds = new LinkedHashSet<>(ids);
+            distinctIds.remove(null);
+            Set<String> distinctCodes = new LinkedHashSet<>();
+            for (String code : codes) {
+                if (code != null) {
+                    distinctCodes.add(code);
+                }
+            }
+
+            Map<Long, Optional<CouponResponseDTO>> byId = new HashMap<>();
+            Map<String, Optional<CouponResponseDTO>> byCode = new HashMap<>(byCodeCache.getAllPresent(distinctCodes));
+            resolveFromCaches(distinctIds, distinctCodes, byId, byCode, today);
+
+            List<Long> missingIds = distinctIds.stream().filter(id -> !byId.containsKey(id)).toList();
+            List<String> missingCodes = distinctCodes.stream().filter(code -> !byCode.containsKey(code)).toList();
+            event.cached = missingIds.isEmpty() && missingCodes.isEmpty();
+            if (!event.cached) {
+                long dbStarted = System.nanoTime();
+                load(missingIds, missingCodes, byId, byCode, today);
+                event.dbTime = System.nanoTime() - dbStarted;
+            }
+
+            List<CouponLookupItemDTO> items = new ArrayList<>(requested);
+            for (Long id : ids) {
+                items.add(CouponLookupItemDTO.ofId(id, id == null ? null : byId.get(id).orElse(null)));
+            }
+            for (int i = 0; i < codes.length; i++) {
+                items.add(CouponLookupItemDTO.ofCode(rawCodes.get(i),
+                        codes[i] == null ? null : byCode.get(codes[i]).orElse(null)));
+            }
+            CouponLookupResultDTO result = new CouponLookupResultDTO(items);
+            event.rows = result.getFound();
+            return result;
+        });
+    }
+
+    /**
+     * Resolve códigos já sanitizados com a regra da busca por código (ativo,
+     * publicado, não expirado), pelos mesmos caches e consultas em chunks de
+     * {@link #lookup}, mas sem o limite de chaves da requisição: a avaliação
+     * de carrinhos junta os códigos de um lote inteiro numa chamada.
+     *
+     * @return um valor por código distinto: o cupom, ou vazio se não for resgatável
+     */
+    public Map<String, Optional<CouponResponseDTO>> findRedeemableByCodes(Collection<String> sanitizedCodes) {
+        LocalDate today = LocalDate.now();
+        Set<String> distinctCodes = new LinkedHashSet<>(sanitizedCodes);
+        Map<String, Optional<CouponResponseDTO>> byCode = new HashMap<>(byCodeCache.getAllPresent(distinctCodes));
+        resolveFromCaches(Set.of(), distinctCodes, new HashMap<>(), byCode, today);
+
+        List<String> missingCodes = distinctCodes.stream().filter(code -> !byCode.containsKey(code)).toList();
+        if (!missingCodes.isEmpty()) {
+            load(List.of(), missingCodes, new HashMap<>(), byCode, today);
+        }
+        return byCode;
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /**
+     * Preenche {@code byId} com o cache por ID, e {@code byCode} com os
+     * códigos que o índice liga a um ID já em cache.
+     */
+    private void resolveFromCaches(Set<Long> distinctIds, Set<String> distinctCodes,
+                                   Map<Long, Optional<CouponResponseDTO>> byId,
+                                   Map<String, Optional<CouponResponseDTO>> byCode,
+                                   LocalDate today) {
+        Map<String, Long> indexed = new HashMap<>();
+        for (String code : distinctCodes) {
+            if (!byCode.containsKey(code)) {
+                long id = codeIndex.idOf(code);
+                if (id != CouponCodeIndex.NO_ID) {
+                    indexed.put(code, id);
+                }
+            }
+        }
+        Set<Long> cachedIds = new LinkedHashSet<>(distinctIds);
+        cachedIds.addAll(indexed.values());
+        Map<Long, Optional<CouponResponseDTO>> idHits = byIdCache.getAllPresent(cachedIds);
+
+        for (Long id : distinctIds) {
+            Optional<CouponResponseDTO> hit = idHits.get(id);
+            if (hit != null) {
+                byId.put(id, hit);
+            }
+        }
+        indexed.forEach((code, id) -> {
+            Optional<CouponResponseDTO> hit = idHits.get(id);
+            if (hit != null) {
+                byCode.put(code, hit.filter(coupon -> CouponQueryService.isRedeemable(coupon, today)));
+            }
+        });
+    }
+
+    /** Consulta as chaves que faltam em chunks e guarda os resultados, inclusive ausências, nos caches. */
+    private void load(List<Long> missingIds, List<String> missingCodes,
+                      Map<Long, Optional<CouponResponseDTO>> byId,
+                      Map<String, Optional<CouponResponseDTO>> byCode,
+                      LocalDate today) {
+        long idGeneration = byIdCache.generation();
+        long codeGeneration = byCodeCache.generation();
+
+        Map<Long, CouponResponseDTO> loadedById = new HashMap<>();
+        Map<String, CouponResponseDTO> loadedByCode = new HashMap<>();
+        int total = missingIds.size() + missingCodes.size();
+        for (int from = 0; from < total; from += chunkSize) {
+            int to = Math.min(total, from + chunkSize);
+            List<Long> idChunk = missingIds.subList(
+                    Math.min(from, missingIds.size()), Math.min(to, missingIds.size()));
+            List<String> codeChunk = missingCodes.subList(
+                    Math.max(0, from - missingIds.size()), Math.max(0, to - missingIds.size()));
+            for (CouponResponseDTO coupon : couponRepository.findActiveByIdsOrCodes(idChunk, codeChunk)) {
+                loadedById.put(coupon.getId(), coupon);
+                loadedByCode.put(coupon.getCode(), coupon);
+            }
+        }
+
+        for (Long id : missingIds) {
+            Optional<CouponResponseDTO> coupon = Optional.ofNullable(loadedById.get(id));
+            byId.put(id, coupon);
+            byIdCache.putIfUnchanged(id, coupon, idGeneration);
+        }
+        for (String code : missingCodes) {
+            CouponResponseDTO active = loadedByCode.get(code);
+            Optional<CouponResponseDTO> coupon = Optional.ofNullable(active)
+                    .filter(c -> CouponQueryService.isRedeemable(c, today));
+            byCode.put(code, coupon);
+            byCodeCache.putIfUnchanged(code, coupon, codeGeneration);
+            if (active != null) {
+                // cupom ativo lido pelo código também serve o cache por ID
+                byIdCache.putIfUnchanged(active.getId(), Optional.of(active), idGeneration);
+            }
+        }
+    }
+}
@@ -1,57 +1,214 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.diagnostics.jfr.CouponListEvent;
+import com.example.couponapi.diagnostics.jfr.CouponLookupEvent;
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponPageDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
 import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
 import com.example.couponapi.exception.CouponNotFoundException;
+import com.example.couponapi.index.CouponCodeIndex;
 import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Serviço responsável pelos casos de uso de consulta de cupons.
  *
  * Responsabilidades:
- *  - Buscar um cupom ativo por ID.
- *  - Listar todos os cupons ativos.
+ *  - Buscar um cupom ativo por ID (read-through via {@link CouponByIdCache}).
+ *  - Buscar pelo código um cupom resgatável (read-through via {@link CouponByCodeCache}).
+ *  - Listar cupons ativos em páginas (keyset pagination), com filtros opcionais.
  *
  * Cupons soft-deletados são tratados como inexistentes nestas consultas.
+ *
+ * Buscas emitem {@link CouponLookupEvent} e listagens {@link CouponListEvent}
+ * (JFR). Numa busca, o {@code dbTime} é o tempo da carga do cache feita por
+ * esta chamada, e {@code cached} indica que a entrada já estava no cache e
+ * nenhuma carga rodou. Uma busca que esperou a carga de outra thread para a
+ * mesma chave não conta como acerto, com {@code dbTime} zero.
  */
 @Service
+@Timed(CouponService.METRIC_NAME)
 public class CouponQueryService {
 
     private final CouponRepository couponRepository;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponCodeIndex codeIndex;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public CouponQueryService(CouponRepository couponRepository) {
+    public CouponQueryService(CouponRepository couponRepository,
+                              CouponByIdCache byIdCache,
+                              CouponByCodeCache byCodeCache,
+                              CouponCodeIndex codeIndex,
+                              @Value("${coupon.pagination.default-page-size:50}") int defaultPageSize,
+                              @Value("${coupon.pagination.max-page-size:500}") int maxPageSize) {
         this.couponRepository = couponRepository;
+        this.byIdCache        = byIdCache;
+        this.byCodeCache      = byCodeCache;
+        this.codeIndex        = codeIndex;
+        this.defaultPageSize  = defaultPageSize;
+        this.maxPageSize      = maxPageSize;
     }
 
     /**
      * Retorna um cupom ativo pelo ID.
      *
+     * Sem transação própria: um acerto no cache não abre conexão com o banco.
+     *
      * @param id identificador do cupom
      * @return DTO de resposta
      * @throws CouponNotFoundException se não encontrado ou já soft-deletado
      */
-    @Transactional(readOnly = true)
     public CouponResponseDTO findById(Long id) {
-        Coupon coupon = couponRepository.findActiveById(id)
-                .orElseThrow(() -> new CouponNotFoundException(id));
-        return CouponResponseDTO.fromEntity(coupon);
+        CouponLookupEvent event = new CouponLookupEvent();
+        event.by = "id";
+        event.setCouponId(id);
+        return event.record(() -> {
+            event.cached = byIdCache.contains(id);
+            Optional<CouponResponseDTO> coupon = byIdCache.get(id, key -> timed(event, () -> loadActive(key)));
+            return found(event, coupon).orElseThrow(() -> new CouponNotFoundException(id));
+        });
+    }
+
+    /**
+     * Retorna pelo código um cupom que pode ser usado agora: ativo, publicado
+     * e não expirado.
+     *
+     * O código informado passa por {@link Coupon#trySanitizeCode}; se o
+     * resultado não tiver o tamanho de um código válido, a resposta é 404 sem
+     * consultar banco nem cache (e sem ocupar espaço no cache).
+     *
+     * Numa falha do cache por código, se o {@link CouponCodeIndex} conhece o
+     * código, o cupom vem do cache por ID (compartilhado com {@link #findById});
+     * só códigos desconhecidos vão ao banco pela consulta por código.
+     *
+     * @param rawCode código como digitado pelo cliente
+     * @throws CouponNotFoundException se não houver cupom resgatável com o código
+     */
+    public CouponResponseDTO findRedeemableByCode(String rawCode) {
+        CouponLookupEvent event = new CouponLookupEvent();
+        event.by = "code";
+        return event.record(() -> {
+            String code = Coupon.trySanitizeCode(rawCode);
+            if (code == null) {
+                throw new CouponNotFoundException(Coupon.sanitizeCode(rawCode));
+            }
+            event.code = code;
+            event.cached = byCodeCache.contains(code);
+            Optional<CouponResponseDTO> coupon = byCodeCache.get(code, key -> timed(event, () -> loadRedeemable(key)));
+            return found(event, coupon).orElseThrow(() -> new CouponNotFoundException(code));
+        });
     }
 
     /**
-     * Lista todos os cupons ativos, ordenados do mais recente para o mais antigo.
+     * Lista uma página de cupons ativos, ordenados do mais recente para o mais antigo.
+     *
+     * Busca {@code size + 1} linhas: a linha extra só indica se existe uma
+     * próxima página e não é devolvida ao cliente.
      *
-     * @return lista de DTOs de resposta (pode ser vazia)
+     * @param filter filtros opcionais
+     * @param cursor token da página anterior, ou {@code null} para a primeira página
+     * @param size   tamanho de página desejado; {@code null} usa o padrão e
+     *               valores acima do limite configurado são reduzidos ao limite
+     * @return página de DTOs (pode ser vazia) e o cursor da próxima página
+     * @throws BusinessException se o cursor ou o filtro forem inválidos
      */
     @Transactional(readOnly = true)
-    public List<CouponResponseDTO> findAll() {
-        return couponRepository.findAllActive()
-                .stream()
-                .map(CouponResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+    public CouponPageDTO findPage(CouponFilterDTO filter, String cursor, Integer size) {
+        CouponListEvent event = new CouponListEvent();
+        return event.record(() -> {
+            validateFilter(filter);
+            int pageSize = resolvePageSize(size, defaultPageSize, maxPageSize);
+            CouponCursor after = cursor == null || cursor.isBlank() ? null : CouponCursor.decode(cursor);
+
+            long dbStarted = System.nanoTime();
+            List<CouponResponseDTO> rows = couponRepository.findActivePage(filter, after, pageSize + 1);
+            event.dbTime = System.nanoTime() - dbStarted;
+            boolean hasNext = rows.size() > pageSize;
+            List<CouponResponseDTO> items = hasNext ? rows.subList(0, pageSize) : rows;
+            event.rows = items.size();
+
+            long cursorStarted = System.nanoTime();
+            String nextCursor = hasNext ? CouponCursor.after(items.get(items.size() - 1)).encode() : null;
+            event.serializationTime = System.nanoTime() - cursorStarted;
+            return new CouponPageDTO(items, nextCursor);
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /** Também usado pela variante reativa ({@link ReactiveCouponService}). */
+    static int resolvePageSize(Integer size, int defaultPageSize, int maxPageSize) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new BusinessException("invalid_page_size", "O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    static void validateFilter(CouponFilterDTO filter) {
+        if (filter != null && filter.getMinDiscount() != null && filter.getMaxDiscount() != null
+                && filter.getMinDiscount().compareTo(filter.getMaxDiscount()) > 0) {
+            throw new BusinessException("invalid_filter", "O filtro 'minDiscount' não pode ser maior que 'maxDiscount'.");
+        }
+    }
+
+    private Optional<CouponResponseDTO> loadRedeemable(String code) {
+        LocalDate today = LocalDate.now();
+        long id = codeIndex.idOf(code);
+        if (id == CouponCodeIndex.NO_ID) {
+            return couponRepository.findRedeemableByCode(code, today);
+        }
+        return byIdCache.get(id, this::loadActive)
+                .filter(coupon -> isRedeemable(coupon, today));
+    }
+
+    /** Cupom ativo que pode ser resgatado em {@code today}: publicado e não expirado. */
+    static boolean isRedeemable(CouponResponseDTO coupon, LocalDate today) {
+        return coupon.isPublished() && !coupon.getExpirationDate().isBefore(today);
+    }
+
+    private Optional<CouponResponseDTO> loadActive(Long id) {
+        return couponRepository.findActiveById(id);
+    }
+
+    /** Carga do cache feita por esta chamada, medida como tempo de banco. */
+    private static Optional<CouponResponseDTO> timed(CouponLookupEvent event,
+                                                     Supplier<Optional<CouponResponseDTO>> load) {
+        // entrada removida entre a consulta a contains e o get
+        event.cached = false;
+        long started = System.nanoTime();
+        try {
+            return load.get();
+        } finally {
+            event.dbTime += System.nanoTime() - started;
+        }
+    }
+
+    private static Optional<CouponResponseDTO> found(CouponLookupEvent event, Optional<CouponResponseDTO> coupon) {
+        coupon.ifPresent(c -> {
+            event.setCouponId(c.getId());
+            event.code = c.getCode();
+            event.rows = 1;
+        });
+        return coupon;
     }
 }
@@ -0,0 +1,139 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.repository.CouponRedemptionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controle do limite total de resgates ({@code max_uses}) por fatias de cota.
+ *
+ * Em vez de atualizar a linha do cupom a cada resgate — o que serializaria
+ * todas as requisições de uma campanha num único lock de linha — cada
+ * instância reserva uma fatia de até {@code sliceSize} usos com um
+ * compare-and-set em {@code coupons.reserved_uses}, e consome a fatia em
+ * memória com CAS. O banco é tocado uma vez por fatia.
+ *
+ * Garantias:
+ *  - {@code reserved_uses} nunca passa de {@code max_uses}, e um uso só é
+ *    entregue se estiver em uma fatia reservada: não há overselling, nem entre
+ *    instâncias.
+ *  - Perto do fim da cota as fatias encolhem (no máximo 1/8 do que resta),
+ *    para que uma instância não retenha usos que outra poderia entregar.
+ *  - Usos não consumidos voltam ao banco no desligamento. Se a instância cair
+ *    antes disso, esses usos ficam reservados (undersell, nunca oversell).
+ */
+@Component
+public class CouponQuotaAllocator {
+
+    private static final int TAIL_DIVISOR = 8;
+
+    private final CouponRedemptionRepository redemptionRepository;
+    private final TransactionTemplate independentTransaction;
+    private final int sliceSize;
+
+    private final Map<Long, Slice> slices = new ConcurrentHashMap<>();
+
+    public CouponQuotaAllocator(CouponRedemptionRepository redemptionRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${coupon.redemption.quota-slice-size:100}") int sliceSize) {
+        this.redemptionRepository   = redemptionRepository;
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sliceSize              = sliceSize;
+    }
+
+    /**
+     * Tenta tomar um uso da cota do cupom.
+     *
+     * @return {@code false} se a cota do cupom está esgotada
+     */
+    public boolean tryAcquire(long couponId, int maxUses) {
+        Slice slice = slices.computeIfAbsent(couponId, id -> new Slice());
+        while (true) {
+            long available = slice.available.get();
+            if (available > 0) {
+                if (slice.available.compareAndSet(available, available - 1)) {
+                    return true;
+                }
+                continue;
+            }
+            // fatia vazia: uma única thread por cupom vai ao banco. ReentrantLock em
+            // vez de synchronized: a espera pelo JDBC não prende o carrier de uma
+            // virtual thread.
+            slice.refill.lock();
+            try {
+                if (slice.available.get() > 0) {
+                    continue;
+                }
+                long granted = reserveSlice(couponId, maxUses);
+                if (granted == 0) {
+                    return false;
+                }
+                slice.available.addAndGet(granted - 1);
+                return true;
+            } finally {
+                slice.refill.unlock();
+            }
+        }
+    }
+
+    /** Devolve à fatia local um uso tomado por um resgate que não se concretizou. */
+    public void release(long couponId) {
+        slices.computeIfAbsent(couponId, id -> new Slice()).available.incrementAndGet();
+    }
+
+    /** Devolve ao banco os usos reservados e não consumidos. */
+    @PreDestroy
+    public void releaseAll() {
+        slices.forEach((couponId, slice) -> {
+            long unused = slice.available.getAndSet(0);
+            if (unused > 0) {
+                independentTransaction.executeWithoutResult(
+                        status -> redemptionRepository.releaseReservedUses(couponId, unused));
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reserva a próxima fatia com compare-and-set, repetindo se outra
+     * instância reservou no meio tempo. Roda em transação própria para que o
+     * lock da linha do cupom dure só este UPDATE.
+     *
+     * @return usos concedidos (0 = cota esgotada)
+     */
+    private long reserveSlice(long couponId, int maxUses) {
+        Long granted = independentTransaction.execute(status -> {
+            while (true) {
+                long reserved = redemptionRepository.findReservedUses(couponId);
+                long remaining = maxUses - reserved;
+                if (remaining <= 0) {
+                    return 0L;
+                }
+                long size = Math.min(sliceSize, Math.max(1, remaining / TAIL_DIVISOR));
+                if (redemptionRepository.compareAndSetReservedUses(couponId, reserved, reserved + size)) {
+                    return size;
+                }
+            }
+        });
+        return granted;
+    }
+
+    /** Usos disponíveis localmente para um cupom e o lock de reabastecimento. */
+    private static final class Slice {
+        final AtomicLong available = new AtomicLong();
+        final ReentrantLock refill = new ReentrantLock();
+    }
+}
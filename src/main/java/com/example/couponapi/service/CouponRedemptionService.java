@@ -0,0 +1,102 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.dto.CouponRedemptionRequestDTO;
+import com.example.couponapi.dto.CouponRedemptionResponseDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.CouponNotFoundException;
+import com.example.couponapi.repository.CouponRedemptionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serviço responsável pelo resgate de cupons no checkout.
+ *
+ * Fluxo:
+ *  1. Resolve o código para um cupom resgatável (ativo, publicado, não
+ *     expirado) via {@link CouponQueryService}, servido do cache por código.
+ *  2. Se houver limite por cliente, garante a linha de uso do cliente.
+ *  3. Se houver limite total, toma um uso da cota local
+ *     ({@link CouponQuotaAllocator}) — sem lock na linha do cupom.
+ *  4. Em uma transação curta: incrementa o uso do cliente de forma
+ *     condicional e grava o resgate no ledger, com o valor e o tipo do
+ *     desconto do cupom — o resgate não conhece o carrinho, então um
+ *     PERCENTAGE fica registrado como percentual, não como valor abatido.
+ *
+ * Se o passo 4 falhar, o uso tomado no passo 3 volta para a cota.
+ *
+ * Regras aplicadas:
+ *  - Código inexistente ou não resgatável → {@link CouponNotFoundException} (404).
+ *  - Limite total atingido                → {@link BusinessException} (422).
+ *  - Limite por cliente atingido          → {@link BusinessException} (422).
+ */
+@Service
+public class CouponRedemptionService {
+
+    private final CouponQueryService queryService;
+    private final CouponRedemptionRepository redemptionRepository;
+    private final CouponQuotaAllocator quotaAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    public CouponRedemptionService(CouponQueryService queryService,
+                                   CouponRedemptionRepository redemptionRepository,
+                                   CouponQuotaAllocator quotaAllocator,
+                                   PlatformTransactionManager transactionManager) {
+        this.queryService         = queryService;
+        this.redemptionRepository = redemptionRepository;
+        this.quotaAllocator       = quotaAllocator;
+        this.transactionTemplate  = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Resgata o cupom para o cliente informado.
+     *
+     * @param rawCode código como digitado pelo cliente
+     * @param dto     cliente e pedido
+     * @return resgate registrado
+     */
+    public CouponRedemptionResponseDTO redeem(String rawCode, CouponRedemptionRequestDTO dto) {
+        CouponResponseDTO coupon = queryService.findRedeemableByCode(rawCode);
+        long couponId = coupon.getId();
+        String customerId = dto.getCustomerId();
+        Integer perCustomerLimit = coupon.getMaxUsesPerCustomer();
+
+        if (perCustomerLimit != null) {
+            redemptionRepository.ensureCustomerUsage(couponId, customerId);
+        }
+
+        boolean quotaTaken = false;
+        if (coupon.getMaxUses() != null) {
+            if (!quotaAllocator.tryAcquire(couponId, coupon.getMaxUses())) {
+                throw new BusinessException("usage_limit_reached",
+                    "O cupom '" + coupon.getCode() + "' atingiu o limite de " + coupon.getMaxUses() + " usos.");
+            }
+            quotaTaken = true;
+        }
+
+        LocalDateTime redeemedAt = LocalDateTime.now();
+        try {
+            Long id = transactionTemplate.execute(status -> {
+                if (perCustomerLimit != null
+                        && !redemptionRepository.incrementCustomerUsage(couponId, customerId, perCustomerLimit)) {
+                    throw new BusinessException("customer_limit_reached",
+                        "O cliente '" + customerId + "' já atingiu o limite de " + perCustomerLimit +
+                        " usos do cupom '" + coupon.getCode() + "'.");
+                }
+                return redemptionRepository.insertRedemption(
+                        couponId, customerId, dto.getOrderId(),
+                        coupon.getDiscountValue(), coupon.getDiscountType(), redeemedAt);
+            });
+            return new CouponRedemptionResponseDTO(id, couponId, coupon.getCode(), customerId,
+                    dto.getOrderId(), coupon.getDiscountValue(), coupon.getDiscountType(), redeemedAt);
+        } catch (RuntimeException e) {
+            if (quotaTaken) {
+                quotaAllocator.release(couponId);
+            }
+            throw e;
+        }
+    }
+}
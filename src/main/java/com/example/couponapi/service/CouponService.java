@@ -1,40 +1,144 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.changes.CouponChangeFeed;
+import com.example.couponapi.dto.CartDTO;
+import com.example.couponapi.dto.CartDiscountResultDTO;
+import com.example.couponapi.dto.CouponBatchResultDTO;
+import com.example.couponapi.dto.CouponChangesPageDTO;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponLookupRequestDTO;
+import com.example.couponapi.dto.CouponLookupResultDTO;
+import com.example.couponapi.dto.CouponPageDTO;
+import com.example.couponapi.dto.CouponRedemptionRequestDTO;
+import com.example.couponapi.dto.CouponRedemptionResponseDTO;
 import com.example.couponapi.dto.CouponRequestDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.dto.GeneratedCodesDTO;
+import com.example.couponapi.idempotency.CouponIdempotencyStore;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
+/**
+ * Fachada dos casos de uso de cupom usada pelo {@code CouponController}.
+ *
+ * A fachada e os serviços de criação, consulta e remoção são medidos por
+ * {@code @Timed} no timer {@value #METRIC_NAME} (tags {@code class} e
+ * {@code method}): a diferença entre o timer da fachada e o do serviço
+ * interno é o custo da própria fachada, e a do serviço para os timers
+ * {@code spring.data.repository.invocations} é o que não é banco.
+ */
 @Service
+@Timed(CouponService.METRIC_NAME)
 public class CouponService {
 
-    private final CouponCreationService  creationService;
-    private final CouponQueryService     queryService;
-    private final CouponDeletionService  deletionService;
+    /** Timer dos serviços de cupom. */
+    public static final String METRIC_NAME = "coupon.service";
+
+    private final CouponCreationService      creationService;
+    private final CouponQueryService         queryService;
+    private final CouponLookupService        lookupService;
+    private final CartDiscountService        discountService;
+    private final CouponDeletionService      deletionService;
+    private final CouponExportService        exportService;
+    private final CouponBatchCreationService batchCreationService;
+    private final CouponCodeGeneratorService codeGeneratorService;
+    private final CouponRedemptionService    redemptionService;
+    private final CouponChangeFeed           changeFeed;
+    private final CouponIdempotencyStore     idempotencyStore;
 
     public CouponService(CouponCreationService creationService,
                          CouponQueryService queryService,
-                         CouponDeletionService deletionService) {
-        this.creationService = creationService;
-        this.queryService    = queryService;
-        this.deletionService = deletionService;
+                         CouponLookupService lookupService,
+                         CartDiscountService discountService,
+                         CouponDeletionService deletionService,
+                         CouponExportService exportService,
+                         CouponBatchCreationService batchCreationService,
+                         CouponCodeGeneratorService codeGeneratorService,
+                         CouponRedemptionService redemptionService,
+                         CouponChangeFeed changeFeed,
+                         CouponIdempotencyStore idempotencyStore) {
+        this.creationService      = creationService;
+        this.queryService         = queryService;
+        this.lookupService        = lookupService;
+        this.discountService      = discountService;
+        this.deletionService      = deletionService;
+        this.exportService        = exportService;
+        this.batchCreationService = batchCreationService;
+        this.codeGeneratorService = codeGeneratorService;
+        this.redemptionService    = redemptionService;
+        this.changeFeed           = changeFeed;
+        this.idempotencyStore     = idempotencyStore;
     }
 
     public CouponResponseDTO create(CouponRequestDTO dto) {
         return creationService.create(dto);
     }
 
+    public CouponIdempotencyStore.Outcome create(CouponRequestDTO dto, String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, dto, () -> creationService.create(dto));
+    }
+
+    public CouponBatchResultDTO createAll(List<CouponRequestDTO> dtos) {
+        return batchCreationService.createAll(dtos);
+    }
+
+    public CouponBatchResultDTO createAll(InputStream ndjson) {
+        return batchCreationService.createAll(batchCreationService.readNdjson(ndjson));
+    }
+
+    public GeneratedCodesDTO generateCodes(int count) {
+        return codeGeneratorService.generate(count);
+    }
+
     public CouponResponseDTO findById(Long id) {
         return queryService.findById(id);
     }
 
-    public List<CouponResponseDTO> findAll() {
-        return queryService.findAll();
+    public CouponResponseDTO findRedeemableByCode(String code) {
+        return queryService.findRedeemableByCode(code);
+    }
+
+    public CouponLookupResultDTO lookup(CouponLookupRequestDTO request) {
+        return lookupService.lookup(request);
+    }
+
+    public CartDiscountResultDTO evaluate(CartDTO cart) {
+        return discountService.evaluate(cart);
+    }
+
+    public List<CartDiscountResultDTO> evaluateAll(List<CartDTO> carts) {
+        return discountService.evaluateAll(carts);
+    }
+
+    public CouponRedemptionResponseDTO redeem(String code, CouponRedemptionRequestDTO dto) {
+        return redemptionService.redeem(code, dto);
+    }
+
+    public CouponPageDTO findPage(CouponFilterDTO filter, String cursor, Integer size) {
+        return queryService.findPage(filter, cursor, size);
     }
 
     public void delete(Long id) {
         deletionService.delete(id);
     }
+
+    public long exportActive(OutputStream out) throws IOException {
+        return exportService.exportActive(out);
+    }
+
+    public DeferredResult<CouponChangesPageDTO> pollChanges(long since, Integer limit, Integer waitSeconds) {
+        return changeFeed.poll(since, limit, waitSeconds);
+    }
+
+    public SseEmitter streamChanges(long since) {
+        return changeFeed.subscribe(since);
+    }
 }
 
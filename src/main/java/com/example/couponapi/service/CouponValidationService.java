@@ -1,12 +1,18 @@
 package com.example.couponapi.service;
 
 import com.example.couponapi.entity.Coupon;
-import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.entity.DiscountType;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
 import com.example.couponapi.repository.CouponRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Locale;
 
 /**
  * Serviço de validação — orquestra as regras de negócio que requerem
@@ -15,38 +21,71 @@ import java.time.LocalDate;
  * As regras puras de domínio (tamanho do código, valor mínimo, data)
  * são delegadas para os métodos estáticos de {@link Coupon}, mantendo
  * o conhecimento encapsulado no objeto de domínio.
+ *
+ * A unicidade do código é garantida pelo banco: a constraint
+ * {@value #CODE_CONSTRAINT} barra o INSERT de um código já usado em
+ * {@code coupons}, inclusive entre criações concorrentes, e
+ * {@link #isCodeConflict} reconhece a violação para que vire 422. Antes do
+ * INSERT sobram só as verificações que a constraint não cobre ou que
+ * dispensam o banco (ver {@link #sanitizeAndValidateCode}).
  */
 @Service
 public class CouponValidationService {
 
+    /** Constraint de unicidade de {@code coupons.code}. */
+    public static final String CODE_CONSTRAINT = "uq_coupons_code";
+
     private final CouponRepository couponRepository;
+    private final CouponCodeFilter codeFilter;
+    private final CouponCodeIndex codeIndex;
 
-    public CouponValidationService(CouponRepository couponRepository) {
+    public CouponValidationService(CouponRepository couponRepository,
+                                   CouponCodeFilter codeFilter,
+                                   CouponCodeIndex codeIndex) {
         this.couponRepository = couponRepository;
+        this.codeFilter       = codeFilter;
+        this.codeIndex        = codeIndex;
     }
 
     /**
      * Sanitiza e valida o código completo:
      *  1. Remove caracteres especiais (regra de domínio).
      *  2. Verifica tamanho exato de 6 chars (regra de domínio).
-     *  3. Verifica unicidade no banco (requer repositório).
+     *  3. Recusa códigos já conhecidos — o índice em memória acusa de imediato
+     *     os que com certeza existem; se o filtro não descarta o código, uma
+     *     consulta por chave a {@code coupon_code_tombstones} cobre os cupons
+     *     arquivados, que a constraint não enxerga.
+     *
+     * Um código ainda em {@code coupons} que o índice desconhece (criado por
+     * outra instância ou por uma criação concorrente) passa daqui e é barrado
+     * pelo INSERT.
      *
      * @return código sanitizado e validado
      */
     public String sanitizeAndValidateCode(String rawCode) {
-        String sanitized = Coupon.sanitizeCode(rawCode);
-        Coupon.validateCode(sanitized);
-        validateCodeUniqueness(sanitized);
+        String sanitized = sanitizeAndValidateFormat(rawCode);
+        rejectKnownCode(sanitized);
         return sanitized;
     }
 
     /**
-     * Delega para o domínio a validação do valor mínimo de desconto.
+     * Sanitiza e valida apenas o formato do código (passos 1 e 2), sem consultar o banco.
+     * Usado pela criação em lote, que verifica a unicidade de vários códigos de uma vez.
      *
-     * @see Coupon#validateDiscountValue(BigDecimal)
+     * @return código sanitizado com exatamente 6 caracteres
      */
-    public void validateDiscountValue(BigDecimal discountValue) {
-        Coupon.validateDiscountValue(discountValue);
+    public String sanitizeAndValidateFormat(String rawCode) {
+        return Coupon.sanitizeValidCode(rawCode);
+    }
+
+    /**
+     * Delega para o domínio a validação do desconto: valor mínimo e, em
+     * cupons percentuais, o teto de 100.
+     *
+     * @see Coupon#validateDiscount(DiscountType, BigDecimal)
+     */
+    public void validateDiscount(DiscountType discountType, BigDecimal discountValue) {
+        Coupon.validateDiscount(discountType, discountValue);
     }
 
     /**
@@ -63,11 +102,36 @@ public class CouponValidationService {
     // Validação que precisa do repositório
     // -------------------------------------------------------------------------
 
-    private void validateCodeUniqueness(String sanitizedCode) {
-        if (couponRepository.existsByCode(sanitizedCode)) {
-            throw new BusinessException(
-                "Já existe um cupom com o código '" + sanitizedCode + "'."
-            );
+    private void rejectKnownCode(String sanitizedCode) {
+        if (codeIndex.contains(sanitizedCode)) {
+            throw new DuplicateCouponCodeException(sanitizedCode);
+        }
+        if (!codeFilter.mightContain(sanitizedCode)) {
+            return;
         }
+        if (couponRepository.isArchivedCode(sanitizedCode)) {
+            throw new DuplicateCouponCodeException(sanitizedCode);
+        }
+        // inclui os raros códigos vivos que o índice ainda não conhece, barrados depois pelo INSERT
+        codeFilter.recordFalsePositives(1);
+    }
+
+    /**
+     * Indica se a violação veio da constraint {@value #CODE_CONSTRAINT}, e não
+     * de outra regra do banco (NOT NULL, chave estrangeira...). O nome vem do
+     * Hibernate quando ele o extrai; senão, da mensagem do driver (o H2
+     * reporta o índice, ex.: {@code PUBLIC.UQ_COUPONS_CODE_INDEX_7}).
+     */
+    public static boolean isCodeConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return mentionsCodeConstraint(violation.getConstraintName());
+            }
+        }
+        return mentionsCodeConstraint(e.getMostSpecificCause().getMessage());
+    }
+
+    private static boolean mentionsCodeConstraint(String text) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(CODE_CONSTRAINT);
     }
 }
@@ -0,0 +1,214 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.CouponNotFoundException;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.ReactiveCouponRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Casos de uso de criação, consulta, listagem e remoção na variante reativa
+ * da API (perfil "reactive"), equivalentes aos de {@link CouponService}.
+ *
+ * As regras de domínio são as mesmas ({@link Coupon}) e as falhas usam as
+ * mesmas exceções, de modo que o {@code GlobalExceptionHandler} produz
+ * respostas de erro idênticas nas duas variantes.
+ *
+ * A unicidade do código segue a variante MVC: o índice de códigos recusa os
+ * já conhecidos, o filtro decide se vale consultar os arquivados e a
+ * constraint {@code uq_coupons_code} decide o resto — só essa violação vira o
+ * 422 de código duplicado; as demais violações de integridade propagam.
+ *
+ * Criação e remoção gravam o evento no outbox na mesma transação R2DBC
+ * ({@link TransactionalOperator}) e, confirmadas, atualizam o filtro e o
+ * índice de códigos e os caches por ID e por código, como
+ * {@link CouponCreationService} e {@link CouponDeletionService}. Sem
+ * transação JDBC ativa, esses componentes aplicam a mudança na hora.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCouponService {
+
+    private final ReactiveCouponRepository couponRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final CouponCodeFilter codeFilter;
+    private final CouponCodeIndex codeIndex;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final CouponChangeOutbox changeOutbox;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveCouponService(ReactiveCouponRepository couponRepository,
+                                 TransactionalOperator transactionalOperator,
+                                 CouponCodeFilter codeFilter,
+                                 CouponCodeIndex codeIndex,
+                                 CouponByIdCache byIdCache,
+                                 CouponByCodeCache byCodeCache,
+                                 CouponChangeOutbox changeOutbox,
+                                 @Value("${coupon.pagination.default-page-size:50}") int defaultPageSize,
+                                 @Value("${coupon.pagination.max-page-size:500}") int maxPageSize) {
+        this.couponRepository      = couponRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.codeFilter            = codeFilter;
+        this.codeIndex             = codeIndex;
+        this.byIdCache             = byIdCache;
+        this.byCodeCache           = byCodeCache;
+        this.changeOutbox          = changeOutbox;
+        this.defaultPageSize       = defaultPageSize;
+        this.maxPageSize           = maxPageSize;
+    }
+
+    /**
+     * Valida e insere um novo cupom.
+     *
+     * @throws BusinessException (no sinal de erro) se alguma regra for violada
+     *                           ou o código já existir
+     */
+    public Mono<CouponResponseDTO> create(CouponRequestDTO dto) {
+        return Mono.fromCallable(() -> {
+                    String sanitizedCode = Coupon.sanitizeValidCode(dto.getCode());
+                    Coupon.validateDiscount(dto.getDiscountType(), dto.getDiscountValue());
+                    Coupon.validateExpirationDate(dto.getExpirationDate(), LocalDate.now());
+                    return Coupon.builder()
+                            .code(sanitizedCode)
+                            .description(dto.getDescription())
+                            .discountValue(dto.getDiscountValue())
+                            .discountType(dto.getDiscountType())
+                            .minCartValue(dto.getMinCartValue())
+                            .stackable(dto.isStackable())
+                            .expirationDate(dto.getExpirationDate())
+                            .published(dto.isPublished())
+                            .maxUses(dto.getMaxUses())
+                            .maxUsesPerCustomer(dto.getMaxUsesPerCustomer())
+                            .build();
+                })
+                .flatMap(coupon -> rejectKnownCode(coupon.getCode())
+                        .then(couponRepository.insert(coupon))
+                        .flatMap(saved -> couponRepository.insertOutbox(changeOutbox.createdRow(saved)).thenReturn(saved))
+                        .as(transactionalOperator::transactional)
+                        .onErrorMap(ReactiveCouponService::isCodeConflict,
+                                e -> new DuplicateCouponCodeException(coupon.getCode())))
+                .doOnNext(saved -> {
+                    codeFilter.registerAfterCommit(saved.getCode());
+                    codeIndex.registerAfterCommit(saved);
+                    // descarta eventuais 404 guardados para o ID recém-alocado e para o código
+                    byIdCache.invalidate(saved.getId());
+                    byCodeCache.invalidate(saved.getCode());
+                })
+                .map(CouponResponseDTO::fromEntity);
+    }
+
+    /**
+     * Cupom ativo pelo ID.
+     *
+     * @throws CouponNotFoundException (no sinal de erro) se não existir ou já tiver sido removido
+     */
+    public Mono<CouponResponseDTO> findById(Long id) {
+        return couponRepository.findActiveById(id)
+                .map(CouponResponseDTO::fromEntity)
+                .switchIfEmpty(Mono.error(() -> new CouponNotFoundException(id)));
+    }
+
+    /**
+     * Cursor da página seguinte à página pedida, ou vazio se ela for a última.
+     * Valida cursor, tamanho e filtro como a variante MVC.
+     */
+    public Mono<String> findNextCursor(CouponFilterDTO filter, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            CouponQueryService.validateFilter(filter);
+            int pageSize = CouponQueryService.resolvePageSize(size, defaultPageSize, maxPageSize);
+            return couponRepository.findNextCursor(filter, decode(cursor), pageSize)
+                    .map(CouponCursor::encode);
+        });
+    }
+
+    /**
+     * Itens da página pedida, emitidos sob demanda do assinante.
+     */
+    public Flux<CouponResponseDTO> findPage(CouponFilterDTO filter, String cursor, Integer size) {
+        return Flux.defer(() -> {
+            CouponQueryService.validateFilter(filter);
+            int pageSize = CouponQueryService.resolvePageSize(size, defaultPageSize, maxPageSize);
+            return couponRepository.findActivePage(filter, decode(cursor), pageSize)
+                    .map(CouponResponseDTO::fromEntity);
+        });
+    }
+
+    /**
+     * Soft delete pelo ID.
+     *
+     * Tenta primeiro o UPDATE condicional e, na mesma transação, relê o cupom
+     * para gravar o evento DELETED no outbox. Quando o UPDATE não altera
+     * nenhuma linha, a releitura distingue "nunca existiu" (404) de
+     * "já foi removido" (422).
+     */
+    public Mono<Void> delete(Long id) {
+        return couponRepository.softDelete(id)
+                .flatMap(deleted -> deleted
+                        ? couponRepository.findById(id)
+                                .flatMap(coupon -> couponRepository.insertOutbox(changeOutbox.deletedRow(coupon))
+                                        .thenReturn(coupon))
+                        : couponRepository.findById(id)
+                                .switchIfEmpty(Mono.error(() -> new CouponNotFoundException(id)))
+                                .flatMap(coupon -> Mono.<Coupon>fromRunnable(coupon::softDelete)))
+                .as(transactionalOperator::transactional)
+                .doOnNext(coupon -> {
+                    byIdCache.invalidate(id);
+                    byCodeCache.invalidate(coupon.getCode());
+                })
+                .then();
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /**
+     * Mesmas recusas de {@link CouponValidationService#sanitizeAndValidateCode},
+     * com a consulta aos arquivados feita pelo R2DBC.
+     */
+    private Mono<Void> rejectKnownCode(String code) {
+        if (codeIndex.contains(code)) {
+            return Mono.error(new DuplicateCouponCodeException(code));
+        }
+        if (!codeFilter.mightContain(code)) {
+            return Mono.empty();
+        }
+        return couponRepository.isArchivedCode(code)
+                .flatMap(archived -> {
+                    if (archived) {
+                        return Mono.error(new DuplicateCouponCodeException(code));
+                    }
+                    codeFilter.recordFalsePositives(1);
+                    return Mono.empty();
+                });
+    }
+
+    private static boolean isCodeConflict(Throwable e) {
+        return e instanceof DataIntegrityViolationException violation
+                && CouponValidationService.isCodeConflict(violation);
+    }
+
+    private static CouponCursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : CouponCursor.decode(cursor);
+    }
+}
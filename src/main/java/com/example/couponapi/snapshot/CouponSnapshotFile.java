@@ -0,0 +1,230 @@
+package com.example.couponapi.snapshot;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+import com.example.couponapi.index.CouponCode;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Formato binário do snapshot do catálogo de cupons ativos.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   magic:int  version:int  watermark:long(epoch s, UTC) watermarkNanos:int
+ * registro id:long  code:long(CouponCode)  discountCents:long  expiration:int(epoch day)
+ *          minCartCents:long  createdAt:long(epoch s, UTC)  createdAtNanos:int  maxUses:int
+ *          maxUsesPerCustomer:int  flags:byte(published|stackable|percentage)
+ *          descriptionLength:short  description:bytes(UTF-8)
+ * trailer  count:long  maxId:long  crc32:long
+ * </pre>
+ * Limites e subtotal mínimo ausentes são gravados como {@code -1}. O CRC-32 cobre todos os bytes
+ * anteriores a ele; o arquivo é gravado num temporário e movido atomicamente
+ * para o destino, então um leitor nunca vê um snapshot pela metade.
+ *
+ * A leitura mapeia o arquivo em memória ({@link FileChannel#map}) e confere
+ * cabeçalho e CRC antes de entregar qualquer registro.
+ */
+public final class CouponSnapshotFile {
+
+    private static final int MAGIC = 0x43504E53; // "CPNS"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int TRAILER_BYTES = 8 + 8 + 8;
+    private static final byte FLAG_PUBLISHED = 1;
+    private static final byte FLAG_STACKABLE = 2;
+    private static final byte FLAG_PERCENTAGE = 4;
+
+    private final MappedByteBuffer buffer;
+    private final LocalDateTime watermark;
+    private final long count;
+    private final long maxId;
+
+    private CouponSnapshotFile(MappedByteBuffer buffer, LocalDateTime watermark, long count, long maxId) {
+        this.buffer    = buffer;
+        this.watermark = watermark;
+        this.count     = count;
+        this.maxId     = maxId;
+    }
+
+    /**
+     * Grava o snapshot em {@code target}, substituindo o anterior.
+     *
+     * @param watermark instante a partir do qual as mudanças não estão
+     *                  garantidamente no snapshot
+     * @return quantidade de cupons gravados
+     */
+    public static long write(Path target, LocalDateTime watermark, Iterator<CouponResponseDTO> coupons)
+            throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+
+        long count = 0;
+        long maxId = 0;
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeDateTime(out, watermark);
+
+                while (coupons.hasNext()) {
+                    CouponResponseDTO coupon = coupons.next();
+                    writeRecord(out, coupon);
+                    count++;
+                    maxId = Math.max(maxId, coupon.getId());
+                }
+
+                out.writeLong(count);
+                out.writeLong(maxId);
+                out.flush();
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    /**
+     * Mapeia e valida o snapshot.
+     *
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido
+     *                     (cabeçalho, versão ou CRC inválidos)
+     */
+    public static CouponSnapshotFile open(Path source) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho de snapshot inválido: " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Cabeçalho de snapshot desconhecido");
+        }
+        int crcOffset = buffer.limit() - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, crcOffset));
+        if (crc.getValue() != buffer.getLong(crcOffset)) {
+            throw new IOException("CRC do snapshot não confere");
+        }
+
+        int trailer = buffer.limit() - TRAILER_BYTES;
+        LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(8), buffer.getInt(16), ZoneOffset.UTC);
+        return new CouponSnapshotFile(buffer, watermark, buffer.getLong(trailer), buffer.getLong(trailer + Long.BYTES));
+    }
+
+    /**
+     * Entrega os cupons na ordem em que foram gravados.
+     *
+     * @throws IOException se os registros não baterem com a contagem do trailer
+     *                     (só possível com um arquivo gravado por outra versão)
+     */
+    public void forEach(Consumer<CouponResponseDTO> sink) throws IOException {
+        ByteBuffer records = buffer.slice(HEADER_BYTES, buffer.limit() - HEADER_BYTES - TRAILER_BYTES);
+        long read = 0;
+        try {
+            while (records.hasRemaining()) {
+                sink.accept(readRecord(records));
+                read++;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Registro de snapshot truncado após " + read + " cupons");
+        }
+        if (read != count) {
+            throw new IOException("Snapshot com " + read + " cupons, esperado " + count);
+        }
+    }
+
+    public LocalDateTime watermark() {
+        return watermark;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Maior ID gravado ({@code 0} se vazio). */
+    public long maxId() {
+        return maxId;
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private static void writeRecord(DataOutputStream out, CouponResponseDTO coupon) throws IOException {
+        out.writeLong(coupon.getId());
+        out.writeLong(CouponCode.pack(coupon.getCode()));
+        out.writeLong(coupon.getDiscountValue().setScale(2).unscaledValue().longValueExact());
+        out.writeInt((int) coupon.getExpirationDate().toEpochDay());
+        out.writeLong(coupon.getMinCartValue() == null
+                ? -1 : coupon.getMinCartValue().setScale(2).unscaledValue().longValueExact());
+        writeDateTime(out, coupon.getCreatedAt());
+        out.writeInt(coupon.getMaxUses() == null ? -1 : coupon.getMaxUses());
+        out.writeInt(coupon.getMaxUsesPerCustomer() == null ? -1 : coupon.getMaxUsesPerCustomer());
+        out.writeByte((coupon.isPublished() ? FLAG_PUBLISHED : 0)
+                | (coupon.isStackable() ? FLAG_STACKABLE : 0)
+                | (coupon.getDiscountType() == DiscountType.PERCENTAGE ? FLAG_PERCENTAGE : 0));
+        byte[] description = coupon.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeShort(description.length);
+        out.write(description);
+    }
+
+    private static CouponResponseDTO readRecord(ByteBuffer in) {
+        long id = in.getLong();
+        String code = CouponCode.unpack(in.getLong());
+        BigDecimal discount = BigDecimal.valueOf(in.getLong(), 2);
+        LocalDate expiration = LocalDate.ofEpochDay(in.getInt());
+        long minCartCents = in.getLong();
+        LocalDateTime createdAt = readDateTime(in);
+        int maxUses = in.getInt();
+        int maxUsesPerCustomer = in.getInt();
+        byte flags = in.get();
+        byte[] description = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(description);
+        return new CouponResponseDTO(id, code, new String(description, StandardCharsets.UTF_8), discount,
+                (flags & FLAG_PERCENTAGE) != 0 ? DiscountType.PERCENTAGE : DiscountType.FIXED,
+                minCartCents < 0 ? null : BigDecimal.valueOf(minCartCents, 2),
+                (flags & FLAG_STACKABLE) != 0,
+                expiration, (flags & FLAG_PUBLISHED) != 0, createdAt,
+                maxUses < 0 ? null : maxUses, maxUsesPerCustomer < 0 ? null : maxUsesPerCustomer);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.couponapi.snapshot;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.index.CouponCode;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponArchiveRepository;
+import com.example.couponapi.repository.CouponRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot local do catálogo de cupons ativos, para que a instância suba com
+ * caches e índice já quentes.
+ *
+ * - Gravação: a cada {@code coupon.snapshot.interval}, o catálogo ativo é
+ *   lido em streaming (mais novos primeiro) e gravado em
+ *   {@code coupon.snapshot.path} no formato de {@link CouponSnapshotFile}.
+ * - Subida ({@link ApplicationStartedEvent}, antes de a instância ficar
+ *   pronta para tráfego): o arquivo é mapeado em memória e validado; cada
+ *   cupom entra no {@link CouponCodeIndex} e, até {@code warm-entries}
+ *   cupons, nos caches por ID e por código.
+ * - Atualização: são reaplicadas as criações, remoções e arquivamentos
+ *   posteriores à marca d'água do snapshot, menos {@code replay-overlap}
+ *   (cobre transações que confirmaram depois de a gravação começar).
+ *
+ * Se o arquivo não existir, estiver corrompido ou não corresponder ao banco
+ * (o maior ID do snapshot não existe), os caches são aquecidos direto do
+ * banco com os {@code warm-entries} cupons mais novos.
+ *
+ * Ativo com {@code coupon.snapshot.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.snapshot.enabled", havingValue = "true")
+public class CouponSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponSnapshotService.class);
+
+    private final CouponRepository couponRepository;
+    private final CouponArchiveRepository archiveRepository;
+    private final CouponCodeIndex codeIndex;
+    private final CouponByIdCache byIdCache;
+    private final CouponByCodeCache byCodeCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path path;
+    private final int warmEntries;
+    private final Duration replayOverlap;
+
+    private int warmed;   // usado só durante a subida, por uma única thread
+
+    public CouponSnapshotService(CouponRepository couponRepository,
+                                 CouponArchiveRepository archiveRepository,
+                                 CouponCodeIndex codeIndex,
+                                 CouponByIdCache byIdCache,
+                                 CouponByCodeCache byCodeCache,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${coupon.snapshot.path:data/coupon-catalogue.snapshot}") Path path,
+                                 @Value("${coupon.snapshot.warm-entries:50000}") int warmEntries,
+                                 @Value("${coupon.snapshot.replay-overlap:PT1M}") Duration replayOverlap) {
+        this.couponRepository    = couponRepository;
+        this.archiveRepository   = archiveRepository;
+        this.codeIndex           = codeIndex;
+        this.byIdCache           = byIdCache;
+        this.byCodeCache         = byCodeCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.path                = path;
+        this.warmEntries         = warmEntries;
+        this.replayOverlap       = replayOverlap;
+    }
+
+    /** Aquece índice e caches a partir do snapshot ou, na falta dele, do banco. */
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        boolean fromSnapshot = loadSnapshot();
+        if (!fromSnapshot) {
+            warmFromDatabase();
+        }
+        log.info("Caches aquecidos a partir do {}: {} cupons, em {} ms",
+                fromSnapshot ? "snapshot" : "banco", warmed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Grava um novo snapshot, substituindo o anterior. */
+    @Scheduled(fixedDelayString = "${coupon.snapshot.interval:PT5M}",
+               initialDelayString = "${coupon.snapshot.interval:PT5M}")
+    public void writeSnapshot() {
+        long started = System.nanoTime();
+        LocalDateTime watermark = LocalDateTime.now();
+        try {
+            long count = readOnlyTransaction.execute(status -> {
+                try (Stream<CouponResponseDTO> coupons = couponRepository.streamAllActiveNewestFirst()) {
+                    return CouponSnapshotFile.write(path, watermark, coupons.iterator());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Snapshot do catálogo gravado em {}: {} cupons, {} KiB, em {} ms",
+                    path, count, Files.size(path) / 1024, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Falha ao gravar o snapshot do catálogo em {}", path, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    /** @return {@code true} se o snapshot foi carregado e atualizado */
+    private boolean loadSnapshot() {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try {
+            CouponSnapshotFile snapshot = CouponSnapshotFile.open(path);
+            if (snapshot.maxId() > 0 && !couponRepository.existsById(snapshot.maxId())) {
+                log.warn("Snapshot {} não corresponde ao banco (ID {} inexistente); ignorado",
+                        path, snapshot.maxId());
+                return false;
+            }
+            snapshot.forEach(this::warm);
+            replaySince(snapshot.watermark().minus(replayOverlap));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot {} ilegível ou corrompido; aquecendo a partir do banco", path, e);
+            // descarta o que entrou antes da falha: sem o replay, pode estar desatualizado
+            byIdCache.clear();
+            byCodeCache.clear();
+            warmed = 0;
+            return false;
+        }
+    }
+
+    /** Reaplica criações, remoções, vencimentos e arquivamentos posteriores a {@code since}. */
+    private void replaySince(LocalDateTime since) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CouponResponseDTO> created = couponRepository.streamActiveCreatedSince(since)) {
+                created.forEach(this::warm);
+            }
+            try (Stream<Object[]> deleted = couponRepository.streamDeletedSince(since)) {
+                deleted.forEach(row -> {
+                    byIdCache.invalidate((Long) row[0]);
+                    byCodeCache.invalidate((String) row[1]);
+                });
+            }
+            try (Stream<Object[]> expired = couponRepository.streamExpiredSince(since)) {
+                expired.forEach(row -> {
+                    byIdCache.invalidate((Long) row[0]);
+                    byCodeCache.invalidate((String) row[1]);
+                });
+            }
+            archiveRepository.forEachArchivedSince(since, archived -> {
+                byIdCache.invalidate(archived.id());
+                byCodeCache.invalidate(archived.code());
+            });
+        });
+    }
+
+    private void warmFromDatabase() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CouponResponseDTO> coupons = couponRepository.streamAllActiveNewestFirst()) {
+                coupons.limit(warmEntries).forEach(this::warm);
+            }
+        });
+    }
+
+    private void warm(CouponResponseDTO coupon) {
+        codeIndex.register(CouponCode.pack(coupon.getCode()), coupon.getId());
+        if (warmed < warmEntries) {
+            byIdCache.put(coupon);
+            byCodeCache.put(coupon);
+            warmed++;
+        }
+    }
+}
@@ -3,10 +3,15 @@
 -- Banco: H2 (compatível com PostgreSQL com ajustes mínimos)
 -- ============================================================
 
+-- Sequence dos IDs. O Hibernate usa o otimizador pooled (allocationSize = 50),
+-- reservando 50 IDs por chamada; o INCREMENT BY deve ser o mesmo valor.
+-- Diferente de IDENTITY, permite INSERTs em batch JDBC.
+CREATE SEQUENCE IF NOT EXISTS coupons_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS coupons (
 
-    -- Chave primária auto-incrementada
-    id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    -- Chave primária gerada a partir de coupons_seq
+    id              BIGINT          PRIMARY KEY,
 
     -- Código único do cupom: sempre 6 caracteres alfanuméricos
     code            VARCHAR(6)      NOT NULL,
@@ -14,10 +19,19 @@ CREATE TABLE IF NOT EXISTS coupons (
     -- Descrição legível do cupom
     description     VARCHAR(255)    NOT NULL,
 
-    -- Valor do desconto (mínimo 0.5, sem máximo)
+    -- Valor do desconto (mínimo 0.5; em PERCENTAGE, no máximo 100)
     -- NUMERIC(10,2) evita erros de ponto flutuante
     discount_value  NUMERIC(10, 2)  NOT NULL,
 
+    -- Tipo do desconto: FIXED (valor em moeda) ou PERCENTAGE (% do carrinho)
+    discount_type   VARCHAR(16)     NOT NULL DEFAULT 'FIXED',
+
+    -- Subtotal mínimo do carrinho para o cupom valer (NULL = sem mínimo)
+    min_cart_value  NUMERIC(10, 2)  NULL,
+
+    -- true = acumula com outros cupons acumuláveis; false = exclusivo
+    stackable       BOOLEAN         NOT NULL DEFAULT FALSE,
+
     -- Data de expiração (somente data, sem horário)
     expiration_date DATE            NOT NULL,
 
@@ -30,21 +44,293 @@ CREATE TABLE IF NOT EXISTS coupons (
     -- Soft delete: NULL = ativo, NOT NULL = removido logicamente
     deleted_at      TIMESTAMP       NULL,
 
+    -- Preenchido pela varredura da virada do dia quando expiration_date
+    -- passa; NULL = dentro da validade. Mantido apenas via JDBC.
+    expired_at      TIMESTAMP       NULL,
+
+    -- Limite total de resgates (NULL = ilimitado)
+    max_uses        INT             NULL,
+
+    -- Limite de resgates por cliente (NULL = ilimitado)
+    max_uses_per_customer INT       NULL,
+
+    -- Resgates já reservados pelas instâncias em fatias (quota slices);
+    -- nunca ultrapassa max_uses. Mantido apenas via JDBC, fora do Hibernate.
+    reserved_uses   BIGINT          NOT NULL DEFAULT 0,
+
     -- Garante que não existam dois cupons com o mesmo código
     CONSTRAINT uq_coupons_code UNIQUE (code)
 );
 
+-- ============================================================
+-- Contadores do gerador de códigos (POST /api/v1/coupons/codes)
+--
+-- Cada valor é o início de um bloco exclusivo de 10.000 contadores;
+-- o INCREMENT BY deve ser igual a CouponCodeBlockRepository.BLOCK_SIZE.
+-- ============================================================
+CREATE SEQUENCE IF NOT EXISTS coupon_code_counter_seq
+    START WITH 0 INCREMENT BY 10000 MINVALUE 0;
+
+-- ============================================================
+-- Resgates (POST /api/v1/coupons/code/{code}/redemptions)
+--
+-- Ledger imutável, um registro por resgate. Sem FK para coupons: a linha
+-- do cupom é o ponto quente em campanhas, e cupons podem ser arquivados
+-- sem levar o histórico de resgates junto.
+-- ============================================================
+CREATE TABLE IF NOT EXISTS coupon_redemptions (
+    id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    coupon_id       BIGINT          NOT NULL,
+    customer_id     VARCHAR(64)     NOT NULL,
+    order_id        VARCHAR(64)     NULL,
+    discount_value  NUMERIC(10, 2)  NOT NULL,
+    -- Como ler discount_value: FIXED (valor em moeda) ou PERCENTAGE (% do carrinho)
+    discount_type   VARCHAR(16)     NOT NULL DEFAULT 'FIXED',
+    redeemed_at     TIMESTAMP       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_coupon_redemptions_coupon
+    ON coupon_redemptions (coupon_id, redeemed_at);
+
+CREATE INDEX IF NOT EXISTS idx_coupon_redemptions_customer
+    ON coupon_redemptions (customer_id, redeemed_at);
+
+-- Contagem de resgates por (cupom, cliente), só para cupons com
+-- max_uses_per_customer. Cada cliente disputa apenas a própria linha.
+CREATE TABLE IF NOT EXISTS coupon_customer_usage (
+    coupon_id       BIGINT          NOT NULL,
+    customer_id     VARCHAR(64)     NOT NULL,
+    uses            INT             NOT NULL DEFAULT 0,
+    CONSTRAINT pk_coupon_customer_usage PRIMARY KEY (coupon_id, customer_id)
+);
+
+-- ============================================================
+-- Índices da listagem paginada (keyset em created_at DESC, id DESC)
+--
+-- A página seguinte é lida com
+--   WHERE deleted_at IS NULL AND expired_at IS NULL [AND filtros]
+--     AND (created_at < ? OR (created_at = ? AND id < ?))
+--   ORDER BY created_at DESC, id DESC
+-- e cada índice abaixo cobre um desses acessos como range scan.
+-- ============================================================
+
+-- Listagem sem filtros
+CREATE INDEX IF NOT EXISTS idx_coupons_active_keyset
+    ON coupons (deleted_at, expired_at, created_at DESC, id DESC);
+
+-- Listagem filtrada por published
+CREATE INDEX IF NOT EXISTS idx_coupons_published_keyset
+    ON coupons (deleted_at, expired_at, published, created_at DESC, id DESC);
+
+-- Filtro por faixa de expiração, varredura da virada do dia
+-- (expired_at IS NULL AND expiration_date < hoje) e arquivamento
+-- (expired_at < corte)
+CREATE INDEX IF NOT EXISTS idx_coupons_expiration
+    ON coupons (deleted_at, expired_at, expiration_date);
+
+-- Filtro por faixa de desconto
+CREATE INDEX IF NOT EXISTS idx_coupons_discount
+    ON coupons (deleted_at, discount_value);
+
+-- ============================================================
+-- Outbox de eventos do ciclo de vida (GET /api/v1/coupons/changes)
+--
+-- Cada criação e soft delete grava uma linha na mesma transação da
+-- alteração. O relay atribui change_offset em ordem, em lotes, sob o
+-- lock da linha única de coupon_outbox_relay; linhas ainda sem offset
+-- não são visíveis no feed.
+-- ============================================================
+CREATE TABLE IF NOT EXISTS coupon_outbox (
+    id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type      VARCHAR(16)     NOT NULL,
+    coupon_id       BIGINT          NOT NULL,
+    code            VARCHAR(6)      NOT NULL,
+    -- Cupom serializado (JSON) no momento do evento; NULL na remoção
+    payload         VARCHAR(4096)   NULL,
+    occurred_at     TIMESTAMP       NOT NULL,
+    -- NULL até o relay publicar a linha
+    change_offset   BIGINT          NULL
+);
+
+-- Atende tanto "pendentes do relay" (change_offset IS NULL ORDER BY id)
+-- quanto a leitura do feed (change_offset > ? ORDER BY change_offset)
+CREATE INDEX IF NOT EXISTS idx_coupon_outbox_offset
+    ON coupon_outbox (change_offset, id);
+
+-- Último offset atribuído e último offset removido pela retenção
+CREATE TABLE IF NOT EXISTS coupon_outbox_relay (
+    id              INT             PRIMARY KEY,
+    last_offset     BIGINT          NOT NULL,
+    purged_offset   BIGINT          NOT NULL
+);
+
+MERGE INTO coupon_outbox_relay (id, last_offset, purged_offset) KEY (id) VALUES (1, 0, 0);
+
+-- ============================================================
+-- Arquivamento (CouponArchivalService)
+--
+-- Cupons deletados ou expirados há muito tempo saem de coupons em
+-- chunks: a linha completa vai para coupons_archive e o código para
+-- coupon_code_tombstones, que mantém a regra de nunca reutilizar um
+-- código com uma linha pequena por cupom arquivado.
+-- ============================================================
+CREATE TABLE IF NOT EXISTS coupons_archive (
+    id                    BIGINT          PRIMARY KEY,
+    code                  VARCHAR(6)      NOT NULL,
+    description           VARCHAR(255)    NOT NULL,
+    discount_value        NUMERIC(10, 2)  NOT NULL,
+    discount_type         VARCHAR(16)     NOT NULL,
+    min_cart_value        NUMERIC(10, 2)  NULL,
+    stackable             BOOLEAN         NOT NULL,
+    expiration_date       DATE            NOT NULL,
+    published             BOOLEAN         NOT NULL,
+    created_at            TIMESTAMP       NOT NULL,
+    deleted_at            TIMESTAMP       NULL,
+    expired_at            TIMESTAMP       NULL,
+    max_uses              INT             NULL,
+    max_uses_per_customer INT             NULL,
+    -- DELETED (soft delete antigo) ou EXPIRED (expirado e nunca deletado)
+    archive_reason        VARCHAR(16)     NOT NULL,
+    archived_at           TIMESTAMP       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_coupons_archive_archived_at
+    ON coupons_archive (archived_at);
+
+-- Códigos que já pertenceram a cupons arquivados. Consultado junto com
+-- coupons em toda verificação de unicidade (CouponRepository).
+CREATE TABLE IF NOT EXISTS coupon_code_tombstones (
+    code                  VARCHAR(6)      PRIMARY KEY,
+    coupon_id             BIGINT          NOT NULL
+);
+
+-- ============================================================
+-- Chaves de idempotência (CouponIdempotencyStore)
+--
+-- Camada persistente opcional (coupon.idempotency.persistent=true):
+-- a resposta de cada POST com Idempotency-Key é gravada na mesma
+-- transação do cupom, e retentativas em outra instância ou após um
+-- restart recebem a mesma resposta.
+-- ============================================================
+CREATE TABLE IF NOT EXISTS coupon_idempotency_keys (
+    idempotency_key       VARCHAR(255)    PRIMARY KEY,
+    -- SHA-256 (Base64) do corpo da requisição original
+    fingerprint           VARCHAR(44)     NOT NULL,
+    -- CouponResponseDTO serializado (JSON)
+    response              VARCHAR(4096)   NOT NULL,
+    created_at            TIMESTAMP       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_coupon_idempotency_created_at
+    ON coupon_idempotency_keys (created_at);
+
 -- ============================================================
 -- Script equivalente para PostgreSQL (comentado)
 -- ============================================================
+-- CREATE SEQUENCE IF NOT EXISTS coupons_seq START WITH 1 INCREMENT BY 50;
+--
 -- CREATE TABLE IF NOT EXISTS coupons (
---     id              BIGSERIAL       PRIMARY KEY,
+--     id              BIGINT          PRIMARY KEY,
 --     code            VARCHAR(6)      NOT NULL,
 --     description     VARCHAR(255)    NOT NULL,
 --     discount_value  NUMERIC(10, 2)  NOT NULL,
+--     discount_type   VARCHAR(16)     NOT NULL DEFAULT 'FIXED',
+--     min_cart_value  NUMERIC(10, 2)  NULL,
+--     stackable       BOOLEAN         NOT NULL DEFAULT FALSE,
 --     expiration_date DATE            NOT NULL,
 --     published       BOOLEAN         NOT NULL DEFAULT FALSE,
 --     created_at      TIMESTAMP       NOT NULL,
 --     deleted_at      TIMESTAMP       NULL,
+--     expired_at      TIMESTAMP       NULL,
+--     max_uses        INT             NULL,
+--     max_uses_per_customer INT       NULL,
+--     reserved_uses   BIGINT          NOT NULL DEFAULT 0,
 --     CONSTRAINT uq_coupons_code UNIQUE (code)
 -- );
+--
+-- CREATE TABLE IF NOT EXISTS coupon_redemptions (
+--     id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+--     coupon_id       BIGINT          NOT NULL,
+--     customer_id     VARCHAR(64)     NOT NULL,
+--     order_id        VARCHAR(64)     NULL,
+--     discount_value  NUMERIC(10, 2)  NOT NULL,
+--     discount_type   VARCHAR(16)     NOT NULL DEFAULT 'FIXED',
+--     redeemed_at     TIMESTAMP       NOT NULL
+-- );
+--
+-- CREATE TABLE IF NOT EXISTS coupon_customer_usage (
+--     coupon_id       BIGINT          NOT NULL,
+--     customer_id     VARCHAR(64)     NOT NULL,
+--     uses            INT             NOT NULL DEFAULT 0,
+--     PRIMARY KEY (coupon_id, customer_id)
+-- );
+--
+-- CREATE TABLE IF NOT EXISTS coupon_outbox (
+--     id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+--     event_type      VARCHAR(16)     NOT NULL,
+--     coupon_id       BIGINT          NOT NULL,
+--     code            VARCHAR(6)      NOT NULL,
+--     payload         TEXT            NULL,
+--     occurred_at     TIMESTAMP       NOT NULL,
+--     change_offset   BIGINT          NULL
+-- );
+-- CREATE INDEX IF NOT EXISTS idx_coupon_outbox_pending
+--     ON coupon_outbox (id) WHERE change_offset IS NULL;
+-- CREATE UNIQUE INDEX IF NOT EXISTS idx_coupon_outbox_offset
+--     ON coupon_outbox (change_offset) WHERE change_offset IS NOT NULL;
+--
+-- CREATE TABLE IF NOT EXISTS coupon_outbox_relay (
+--     id              INT             PRIMARY KEY,
+--     last_offset     BIGINT          NOT NULL,
+--     purged_offset   BIGINT          NOT NULL
+-- );
+-- INSERT INTO coupon_outbox_relay VALUES (1, 0, 0) ON CONFLICT (id) DO NOTHING;
+--
+-- CREATE TABLE IF NOT EXISTS coupons_archive (
+--     id                    BIGINT          PRIMARY KEY,
+--     code                  VARCHAR(6)      NOT NULL,
+--     description           VARCHAR(255)    NOT NULL,
+--     discount_value        NUMERIC(10, 2)  NOT NULL,
+--     discount_type         VARCHAR(16)     NOT NULL,
+--     min_cart_value        NUMERIC(10, 2)  NULL,
+--     stackable             BOOLEAN         NOT NULL,
+--     expiration_date       DATE            NOT NULL,
+--     published             BOOLEAN         NOT NULL,
+--     created_at            TIMESTAMP       NOT NULL,
+--     deleted_at            TIMESTAMP       NULL,
+--     expired_at            TIMESTAMP       NULL,
+--     max_uses              INT             NULL,
+--     max_uses_per_customer INT             NULL,
+--     archive_reason        VARCHAR(16)     NOT NULL,
+--     archived_at           TIMESTAMP       NOT NULL
+-- );
+-- CREATE INDEX IF NOT EXISTS idx_coupons_archive_archived_at
+--     ON coupons_archive (archived_at);
+--
+-- CREATE TABLE IF NOT EXISTS coupon_code_tombstones (
+--     code                  VARCHAR(6)      PRIMARY KEY,
+--     coupon_id             BIGINT          NOT NULL
+-- );
+--
+-- CREATE TABLE IF NOT EXISTS coupon_idempotency_keys (
+--     idempotency_key       VARCHAR(255)    PRIMARY KEY,
+--     fingerprint           VARCHAR(44)     NOT NULL,
+--     response              TEXT            NOT NULL,
+--     created_at            TIMESTAMP       NOT NULL
+-- );
+-- CREATE INDEX IF NOT EXISTS idx_coupon_idempotency_created_at
+--     ON coupon_idempotency_keys (created_at);
+--
+-- No PostgreSQL os índices podem ser parciais, já que toda leitura
+-- da listagem filtra deleted_at IS NULL AND expired_at IS NULL (e os
+-- cupons vencidos saem do índice na varredura da virada do dia):
+-- CREATE INDEX IF NOT EXISTS idx_coupons_active_keyset
+--     ON coupons (created_at DESC, id DESC) WHERE deleted_at IS NULL AND expired_at IS NULL;
+-- CREATE INDEX IF NOT EXISTS idx_coupons_published_keyset
+--     ON coupons (published, created_at DESC, id DESC) WHERE deleted_at IS NULL AND expired_at IS NULL;
+-- CREATE INDEX IF NOT EXISTS idx_coupons_expiration
+--     ON coupons (expiration_date) WHERE deleted_at IS NULL AND expired_at IS NULL;
+-- CREATE INDEX IF NOT EXISTS idx_coupons_expired
+--     ON coupons (expired_at) WHERE deleted_at IS NULL AND expired_at IS NOT NULL;
+-- CREATE INDEX IF NOT EXISTS idx_coupons_discount
+--     ON coupons (discount_value) WHERE deleted_at IS NULL AND expired_at IS NULL;
@@ -0,0 +1,92 @@
+package com.example.couponapi.archive;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.repository.CouponArchiveRepository;
+import com.example.couponapi.repository.CouponArchiveRepository.ArchivedCoupon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponArchivalService")
+class CouponArchivalServiceTest {
+
+    private static final int CHUNK = 2;
+
+    @Mock
+    private CouponArchiveRepository archiveRepository;
+
+    @Mock
+    private CouponChangeOutbox changeOutbox;
+
+    @Mock
+    private CouponByIdCache byIdCache;
+
+    @Mock
+    private CouponByCodeCache byCodeCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CouponArchivalService service(Duration maxRunTime) {
+        return new CouponArchivalService(archiveRepository, changeOutbox, byIdCache, byCodeCache,
+            transactionManager, new SimpleMeterRegistry(), Duration.ofDays(30), Duration.ofDays(90),
+            CHUNK, Duration.ZERO, maxRunTime);
+    }
+
+    @Test
+    @DisplayName("move chunks até sobrar um chunk incompleto, uma transação por chunk")
+    void drainsInChunks() {
+        given(archiveRepository.archiveDeletedBefore(any(), eq(CHUNK), any())).willReturn(
+            List.of(new ArchivedCoupon(1, "DEL001"), new ArchivedCoupon(2, "DEL002")),
+            List.of(new ArchivedCoupon(3, "DEL003")));
+        given(archiveRepository.archiveExpiredBefore(any(), eq(CHUNK), any())).willReturn(List.of());
+
+        CouponArchivalService.ArchivalReport report = service(Duration.ofMinutes(1)).archive();
+
+        assertThat(report.deleted()).isEqualTo(3);
+        assertThat(report.expired()).isZero();
+        assertThat(report.complete()).isTrue();
+        then(archiveRepository).should(times(2)).archiveDeletedBefore(any(), eq(CHUNK), any());
+        then(transactionManager).should(times(3)).commit(any());
+        then(byIdCache).should().invalidate(3L);
+        then(byCodeCache).should().invalidate("DEL003");
+    }
+
+    @Test
+    @DisplayName("só cupons expirados geram evento ARCHIVED no outbox")
+    void recordsArchivedEventsForExpiredOnly() {
+        List<ArchivedCoupon> expired = List.of(new ArchivedCoupon(7, "EXP007"));
+        given(archiveRepository.archiveDeletedBefore(any(), eq(CHUNK), any()))
+            .willReturn(List.of(new ArchivedCoupon(1, "DEL001")));
+        given(archiveRepository.archiveExpiredBefore(any(), eq(CHUNK), any())).willReturn(expired);
+
+        CouponArchivalService.ArchivalReport report = service(Duration.ofMinutes(1)).archive();
+
+        assertThat(report.expired()).isEqualTo(1);
+        then(changeOutbox).should().recordArchived(eq(expired), any());
+        then(changeOutbox).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("sem tempo disponível, não move nada e reporta execução incompleta")
+    void stopsAtMaxRunTime() {
+        CouponArchivalService.ArchivalReport report = service(Duration.ZERO).archive();
+
+        assertThat(report.deleted() + report.expired()).isZero();
+        assertThat(report.complete()).isFalse();
+        then(archiveRepository).shouldHaveNoInteractions();
+    }
+}
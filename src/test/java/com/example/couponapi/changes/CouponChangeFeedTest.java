@@ -0,0 +1,114 @@
+package com.example.couponapi.changes;
+
+import com.example.couponapi.dto.CouponChangeDTO;
+import com.example.couponapi.dto.CouponChangesPageDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.repository.CouponOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponChangeFeed")
+class CouponChangeFeedTest {
+
+    @Mock
+    private CouponOutboxRepository outboxRepository;
+
+    private CouponChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new CouponChangeFeed(outboxRepository, new SimpleMeterRegistry(), 100, 1000,
+            Duration.ofSeconds(25), Duration.ofSeconds(60), Duration.ofMinutes(30), Duration.ofSeconds(15));
+    }
+
+    private static CouponChangeDTO deleted(long offset) {
+        return new CouponChangeDTO(offset, CouponChangeDTO.Type.DELETED, offset, "DEL001",
+            LocalDateTime.of(2026, 2, 18, 10, 30), null);
+    }
+
+    private static CouponChangesPageDTO page(DeferredResult<CouponChangesPageDTO> result) {
+        return (CouponChangesPageDTO) result.getResult();
+    }
+
+    @Test
+    @DisplayName("com eventos após since, responde na hora")
+    void answersImmediatelyWhenBehind() {
+        feed.advance(2, 0);
+        given(outboxRepository.findAfter(0, 100)).willReturn(List.of(deleted(1), deleted(2)));
+
+        DeferredResult<CouponChangesPageDTO> result = feed.poll(0, null, null);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(page(result).getItems()).extracting(CouponChangeDTO::getOffset).containsExactly(1L, 2L);
+        assertThat(page(result).getNextOffset()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("sem eventos, espera até o relay avançar o topo")
+    void waitsUntilAdvance() {
+        feed.advance(5, 0);
+
+        DeferredResult<CouponChangesPageDTO> result = feed.poll(5, 10, null);
+        assertThat(result.hasResult()).isFalse();
+        then(outboxRepository).should(never()).findAfter(anyLong(), anyInt());
+
+        given(outboxRepository.findAfter(5, 10)).willReturn(List.of(deleted(6)));
+        feed.advance(6, 0);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(page(result).getNextOffset()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("long-polls com o mesmo since compartilham a consulta")
+    void sharesQueryBetweenWaiters() {
+        DeferredResult<CouponChangesPageDTO> first  = feed.poll(0, null, null);
+        DeferredResult<CouponChangesPageDTO> second = feed.poll(0, null, null);
+        given(outboxRepository.findAfter(0, 100)).willReturn(List.of(deleted(1)));
+
+        feed.advance(1, 0);
+
+        assertThat(first.hasResult()).isTrue();
+        assertThat(second.hasResult()).isTrue();
+        then(outboxRepository).should(times(1)).findAfter(0, 100);
+    }
+
+    @Test
+    @DisplayName("wait=0 sem eventos volta vazio, repetindo since")
+    void returnsEmptyWithoutWaiting() {
+        feed.advance(3, 0);
+        given(outboxRepository.findAfter(3, 100)).willReturn(List.of());
+
+        DeferredResult<CouponChangesPageDTO> result = feed.poll(3, null, 0);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(page(result).getItems()).isEmpty();
+        assertThat(page(result).getNextOffset()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("since anterior à retenção ou negativo → BusinessException")
+    void rejectsPurgedOrNegativeOffset() {
+        feed.advance(100, 40);
+
+        assertThatThrownBy(() -> feed.poll(39, null, null))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("100");
+        assertThatThrownBy(() -> feed.subscribe(-1))
+            .isInstanceOf(BusinessException.class);
+    }
+}
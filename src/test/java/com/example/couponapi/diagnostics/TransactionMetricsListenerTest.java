@@ -0,0 +1,62 @@
+package com.example.couponapi.diagnostics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionExecution;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TransactionMetricsListener")
+class TransactionMetricsListenerTest {
+
+    private SimpleMeterRegistry registry;
+    private TransactionMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        listener = new TransactionMetricsListener(registry);
+    }
+
+    private static TransactionExecution transaction(String name) {
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.getTransactionName()).thenReturn(name);
+        return transaction;
+    }
+
+    private Timer timer(String name, String outcome) {
+        return registry.find(TransactionMetricsListener.METRIC_NAME)
+                .tag("name", name).tag("outcome", outcome).timer();
+    }
+
+    @Test
+    @DisplayName("registra a duração por classe.método e desfecho")
+    void recordsByNameAndOutcome() {
+        TransactionExecution create = transaction("com.example.couponapi.service.CouponCreationService.create");
+        listener.afterBegin(create, null);
+        listener.afterCommit(create, null);
+
+        TransactionExecution template = transaction("");
+        listener.afterBegin(template, null);
+        listener.afterRollback(template, null);
+
+        assertThat(timer("CouponCreationService.create", "commit").count()).isEqualTo(1);
+        assertThat(timer("template", "rollback").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("commit que falha e depois faz rollback conta uma vez só")
+    void countsFailedCommitOnce() {
+        TransactionExecution create = transaction("com.example.couponapi.service.CouponCreationService.create");
+        listener.afterBegin(create, null);
+        listener.afterCommit(create, new IllegalStateException("falhou"));
+        listener.afterRollback(create, null);
+
+        assertThat(timer("CouponCreationService.create", "failed").count()).isEqualTo(1);
+        assertThat(timer("CouponCreationService.create", "rollback").count()).isZero();
+    }
+}
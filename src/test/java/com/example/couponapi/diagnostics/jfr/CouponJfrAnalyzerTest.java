@@ -0,0 +1,63 @@
+package com.example.couponapi.diagnostics.jfr;
+
+import com.example.couponapi.diagnostics.jfr.CouponJfrAnalyzer.OperationStats;
+import com.example.couponapi.exception.CouponNotFoundException;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CouponJfrAnalyzer")
+class CouponJfrAnalyzerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("agrupa os eventos de cupom por operação, com desfechos e tempos de banco")
+    void summarizesByOperation() throws Exception {
+        Path file = dir.resolve("coupon.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends CouponOperationEvent> type : CouponFlightRecorder.EVENT_TYPES) {
+                recording.enable(type).withoutThreshold();
+            }
+            recording.start();
+
+            for (int i = 0; i < 3; i++) {
+                CouponCreateEvent create = new CouponCreateEvent();
+                create.begin();
+                create.dbTime = 2_000_000;
+                create.rows = 1;
+                create.commit();
+            }
+            CouponLookupEvent hit = new CouponLookupEvent();
+            hit.begin();
+            hit.by = "id";
+            hit.cached = true;
+            hit.commit();
+
+            CouponDeleteEvent missing = new CouponDeleteEvent();
+            missing.begin();
+            missing.fail(new CouponNotFoundException(42L));
+            missing.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, OperationStats> stats = CouponJfrAnalyzer.summarize(file);
+
+        assertThat(stats).containsOnlyKeys("Create", "Delete", "Lookup (cache)");
+        OperationStats create = stats.get("Create");
+        assertThat(create.count()).isEqualTo(3);
+        assertThat(create.meanDb()).isEqualTo(2_000_000);
+        assertThat(create.p50()).isLessThanOrEqualTo(create.p99()).isLessThanOrEqualTo(create.max());
+        assertThat(create.outcomes()).containsExactly(entry("ok", 3));
+        assertThat(stats.get("Delete").outcomes()).containsExactly(entry("not_found", 1));
+    }
+}
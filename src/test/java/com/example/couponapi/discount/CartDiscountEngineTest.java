@@ -0,0 +1,163 @@
+package com.example.couponapi.discount;
+
+import com.example.couponapi.discount.CartDiscountEngine.Selection;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testes da escolha de cupons: tipos, mínimo do carrinho, exclusividade,
+ * acúmulo, teto e desempate. Sem Spring nem mocks.
+ */
+@DisplayName("CartDiscountEngine")
+class CartDiscountEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+    private static final long EPOCH_DAY = TODAY.toEpochDay();
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private static CompiledCoupon coupon(long id, DiscountType type, String value, String minCart,
+                                         boolean stackable, LocalDate expiration) {
+        return CompiledCoupon.compile(new CouponResponseDTO(id, String.format("CPN%03d", id), "Cupom",
+            new BigDecimal(value), type, minCart == null ? null : new BigDecimal(minCart), stackable,
+            expiration, true, LocalDateTime.of(2026, 1, 1, 0, 0), null, null));
+    }
+
+    private static CompiledCoupon fixed(long id, String value, boolean stackable) {
+        return coupon(id, DiscountType.FIXED, value, null, stackable, TODAY);
+    }
+
+    private static CompiledCoupon percentage(long id, String value, boolean stackable) {
+        return coupon(id, DiscountType.PERCENTAGE, value, null, stackable, TODAY);
+    }
+
+    private static Selection select(long subtotalCents, CompiledCoupon... candidates) {
+        return CartDiscountEngine.select(candidates, subtotalCents, EPOCH_DAY);
+    }
+
+    // -------------------------------------------------------------------------
+    // cenários
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("percentual incide sobre o subtotal, com arredondamento HALF_UP no centavo")
+    void appliesPercentageWithHalfUpRounding() {
+        // 15% de 149,70 = 22,455 → 22,46
+        Selection selection = select(14_970, percentage(1, "15.00", false));
+
+        assertThat(selection.discountCents()).isEqualTo(2_246);
+        assertThat(selection.isApplied(0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("entre exclusivos vence o de maior desconto, seja fixo ou percentual")
+    void picksBestExclusive() {
+        Selection selection = select(10_000, fixed(1, "10.00", false), percentage(2, "15.00", false));
+
+        assertThat(selection.appliedMask()).isEqualTo(0b10);
+        assertThat(selection.discountCents()).isEqualTo(1_500);
+    }
+
+    @Test
+    @DisplayName("subtotal abaixo do mínimo ou cupom vencido não concorrem")
+    void skipsIneligibleCoupons() {
+        CompiledCoupon withMinimum = coupon(1, DiscountType.FIXED, "20.00", "200.00", false, TODAY);
+        CompiledCoupon expired = coupon(2, DiscountType.FIXED, "30.00", null, false, TODAY.minusDays(1));
+
+        assertThat(select(15_000, withMinimum, expired, null).appliedMask()).isZero();
+        assertThat(select(20_000, withMinimum, expired).appliedMask()).isEqualTo(0b01);
+    }
+
+    @Test
+    @DisplayName("acumuláveis somados vencem um exclusivo menor")
+    void stackBeatsSmallerExclusive() {
+        Selection selection = select(10_000,
+            fixed(1, "15.00", false), fixed(2, "10.00", true), percentage(3, "8.00", true));
+
+        assertThat(selection.appliedMask()).isEqualTo(0b110);
+        assertThat(selection.discountCents()).isEqualTo(1_800);
+    }
+
+    @Test
+    @DisplayName("exclusivo maior vence a soma dos acumuláveis")
+    void exclusiveBeatsSmallerStack() {
+        Selection selection = select(10_000,
+            fixed(1, "20.00", false), fixed(2, "10.00", true), fixed(3, "8.00", true));
+
+        assertThat(selection.appliedMask()).isEqualTo(0b001);
+        assertThat(selection.discountCents()).isEqualTo(2_000);
+    }
+
+    @Test
+    @DisplayName("mesmo desconto: vence a opção com menos cupons")
+    void tieGoesToFewerCoupons() {
+        Selection selection = select(10_000,
+            fixed(2, "10.00", true), fixed(3, "8.00", true), fixed(9, "18.00", false));
+
+        assertThat(selection.appliedMask()).isEqualTo(0b100);
+    }
+
+    @Test
+    @DisplayName("mesmo desconto e mesma quantidade: vence o menor ID, em qualquer ordem")
+    void tieGoesToLowestIdRegardlessOfOrder() {
+        CompiledCoupon older = fixed(3, "10.00", false);
+        CompiledCoupon newer = fixed(5, "10.00", false);
+        CompiledCoupon newerStackable = fixed(7, "10.00", true);
+
+        assertThat(select(10_000, newer, older).appliedMask()).isEqualTo(0b10);
+        assertThat(select(10_000, older, newer).appliedMask()).isEqualTo(0b01);
+        assertThat(select(10_000, newerStackable, older).appliedMask()).isEqualTo(0b10);
+    }
+
+    @Test
+    @DisplayName("desconto nunca passa do subtotal, e o acúmulo para quando o cobre")
+    void capsAtSubtotal() {
+        assertThat(select(500, fixed(1, "10.00", false)).discountCents()).isEqualTo(500);
+
+        Selection selection = select(2_000,
+            fixed(1, "8.00", true), fixed(2, "15.00", true), fixed(3, "10.00", true));
+
+        // 15 + 10 já cobrem 20: o cupom de 8 fica de fora, e o de 10, último empilhado, absorve o corte
+        assertThat(selection.appliedMask()).isEqualTo(0b110);
+        assertThat(selection.discountCents()).isEqualTo(2_000);
+        assertThat(selection.cappedIndex()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("carrinho de valor zero não aplica nenhum cupom")
+    void appliesNothingToEmptySubtotal() {
+        Selection selection = select(0, percentage(1, "10.00", false), percentage(2, "5.00", true));
+
+        assertThat(selection.appliedMask()).isZero();
+        assertThat(selection.discountCents()).isZero();
+    }
+
+    @Test
+    @DisplayName("percentual sobre o subtotal máximo não estoura; acima dele → IllegalArgumentException")
+    void boundsSubtotal() {
+        long max = CartDiscountEngine.MAX_SUBTOTAL_CENTS;
+
+        assertThat(select(max, percentage(1, "100.00", false)).discountCents()).isEqualTo(max);
+        assertThat(select(max, percentage(1, "99.99", false)).discountCents()).isEqualTo(max / 10_000 * 9_999);
+        assertThatIllegalArgumentException().isThrownBy(() -> select(max + 1, percentage(1, "10.00", false)));
+    }
+
+    @Test
+    @DisplayName("mais candidatos do que bits no bitmask → IllegalArgumentException")
+    void rejectsTooManyCandidates() {
+        CompiledCoupon[] candidates = new CompiledCoupon[CartDiscountEngine.MAX_CANDIDATES + 1];
+
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> CartDiscountEngine.select(candidates, 10_000, EPOCH_DAY));
+    }
+}
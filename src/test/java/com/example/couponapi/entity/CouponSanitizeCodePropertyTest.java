@@ -0,0 +1,84 @@
+package com.example.couponapi.entity;
+
+import com.example.couponapi.exception.BusinessException;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Propriedades do sanitizador de códigos: a implementação de passada única
+ * deve produzir exatamente o mesmo resultado da regex original
+ * {@code replaceAll("[^a-zA-Z0-9]", "")}, para qualquer entrada.
+ */
+@Label("Coupon.sanitizeCode – equivalência com a regex")
+class CouponSanitizeCodePropertyTest {
+
+    private static String regex(String raw) {
+        return raw.replaceAll("[^a-zA-Z0-9]", "");
+    }
+
+    /**
+     * Strings curtas misturando alfanuméricos ASCII, pontuação, espaços,
+     * letras acentuadas, dígitos de outros alfabetos e pares surrogate.
+     */
+    @Provide
+    Arbitrary<String> rawCodes() {
+        Arbitrary<Character> chars = Arbitraries.oneOf(
+                Arbitraries.chars().alpha(),
+                Arbitraries.chars().numeric(),
+                Arbitraries.chars().with('-', '@', '#', ' ', '_', '.', '/', '\t'),
+                Arbitraries.chars().with('é', 'Ç', 'ß', '٣', '５', 'Ａ'),
+                Arbitraries.chars().with('\uD83C', '\uDF81'),
+                Arbitraries.chars().all());
+        return chars.list().ofMaxSize(20).map(list -> {
+            StringBuilder sb = new StringBuilder(list.size());
+            list.forEach(sb::append);
+            return sb.toString();
+        });
+    }
+
+    @Property(tries = 2_000)
+    @Label("sanitizeCode == regex")
+    void sanitizeMatchesRegex(@ForAll("rawCodes") String raw) {
+        assertThat(Coupon.sanitizeCode(raw)).isEqualTo(regex(raw));
+    }
+
+    @Property(tries = 2_000)
+    @Label("sanitizeCode == regex (strings arbitrárias)")
+    void sanitizeMatchesRegexForAnyString(@ForAll String raw) {
+        assertThat(Coupon.sanitizeCode(raw)).isEqualTo(regex(raw));
+    }
+
+    @Property(tries = 2_000)
+    @Label("trySanitizeCode devolve o resultado da regex quando ele tem 6 chars, senão null")
+    void trySanitizeMatchesRegexAndLength(@ForAll("rawCodes") String raw) {
+        String expected = regex(raw);
+        String actual = Coupon.trySanitizeCode(raw);
+
+        if (expected.length() == 6) {
+            assertThat(actual).isEqualTo(expected);
+        } else {
+            assertThat(actual).isNull();
+        }
+    }
+
+    @Property(tries = 2_000)
+    @Label("sanitizeValidCode equivale a sanitizeCode + validateCode, inclusive na mensagem")
+    void sanitizeValidCodeMatchesTwoStepValidation(@ForAll("rawCodes") String raw) {
+        String sanitized = Coupon.sanitizeCode(raw);
+        if (sanitized.length() == 6) {
+            assertThat(Coupon.sanitizeValidCode(raw)).isEqualTo(sanitized);
+        } else {
+            BusinessException twoStep = catchThrowableOfType(
+                    () -> Coupon.validateCode(sanitized), BusinessException.class);
+            assertThatThrownBy(() -> Coupon.sanitizeValidCode(raw))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage(twoStep.getMessage());
+        }
+    }
+}
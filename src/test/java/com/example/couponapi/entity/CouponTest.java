@@ -47,6 +47,21 @@ class CouponTest {
         void canResultInEmptyString() {
             assertThat(Coupon.sanitizeCode("---###")).isEmpty();
         }
+
+        @Test
+        @DisplayName("devolve a própria instância quando não há nada a remover")
+        void returnsSameInstanceWhenClean() {
+            String code = "ABC123";
+            assertThat(Coupon.sanitizeCode(code)).isSameAs(code);
+        }
+
+        @Test
+        @DisplayName("trySanitizeCode — null quando o resultado não tem 6 caracteres")
+        void trySanitizeReturnsNullForInvalidLength() {
+            assertThat(Coupon.trySanitizeCode("AB-C1#2")).isNull();
+            assertThat(Coupon.trySanitizeCode("ABCDEFG")).isNull();
+            assertThat(Coupon.trySanitizeCode("SA-VE@10")).isEqualTo("SAVE10");
+        }
     }
 
     // =========================================================================
@@ -130,6 +145,58 @@ class CouponTest {
             assertThatThrownBy(() -> Coupon.validateDiscountValue(new BigDecimal("-1")))
                 .isInstanceOf(BusinessException.class);
         }
+
+        @Test
+        @DisplayName("rejeição reaproveita a mesma exceção, sem stack trace")
+        void rejectionIsPreallocatedAndStackless() {
+            BusinessException first  = catchThrowableOfType(
+                () -> Coupon.validateDiscountValue(BigDecimal.ZERO), BusinessException.class);
+            BusinessException second = catchThrowableOfType(
+                () -> Coupon.validateDiscountValue(new BigDecimal("0.1")), BusinessException.class);
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.getStackTrace()).isEmpty();
+        }
+    }
+
+    // =========================================================================
+    // validateDiscount
+    // =========================================================================
+
+    @Nested
+    @DisplayName("validateDiscount()")
+    class ValidateDiscount {
+
+        @Test
+        @DisplayName("FIXED não tem máximo")
+        void fixedHasNoMaximum() {
+            assertThatNoException()
+                .isThrownBy(() -> Coupon.validateDiscount(DiscountType.FIXED, new BigDecimal("250.00")));
+        }
+
+        @Test
+        @DisplayName("PERCENTAGE aceita até 100")
+        void percentageAcceptsHundred() {
+            assertThatNoException()
+                .isThrownBy(() -> Coupon.validateDiscount(DiscountType.PERCENTAGE, new BigDecimal("100.00")));
+        }
+
+        @Test
+        @DisplayName("PERCENTAGE acima de 100 lança BusinessException")
+        void percentageRejectsAboveHundred() {
+            assertThatThrownBy(() -> Coupon.validateDiscount(DiscountType.PERCENTAGE, new BigDecimal("100.01")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("100");
+        }
+
+        @Test
+        @DisplayName("o mínimo de 0.5 vale para os dois tipos")
+        void minimumAppliesToBothTypes() {
+            assertThatThrownBy(() -> Coupon.validateDiscount(DiscountType.PERCENTAGE, new BigDecimal("0.49")))
+                .isInstanceOf(BusinessException.class);
+            assertThatThrownBy(() -> Coupon.validateDiscount(null, new BigDecimal("0.49")))
+                .isInstanceOf(BusinessException.class);
+        }
     }
 
     // =========================================================================
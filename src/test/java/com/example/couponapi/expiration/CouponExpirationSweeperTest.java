@@ -0,0 +1,79 @@
+package com.example.couponapi.expiration;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.repository.CouponExpirationRepository;
+import com.example.couponapi.repository.CouponExpirationRepository.ExpiredCoupon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponExpirationSweeper")
+class CouponExpirationSweeperTest {
+
+    private static final int CHUNK = 2;
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private CouponExpirationRepository expirationRepository;
+
+    @Mock
+    private CouponChangeOutbox changeOutbox;
+
+    @Mock
+    private CouponByIdCache byIdCache;
+
+    @Mock
+    private CouponByCodeCache byCodeCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CouponExpirationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new CouponExpirationSweeper(expirationRepository, changeOutbox, byIdCache, byCodeCache,
+            transactionManager, new SimpleMeterRegistry(), CHUNK);
+    }
+
+    @Test
+    @DisplayName("marca chunks até sobrar um chunk incompleto, uma transação por chunk")
+    void drainsInChunks() {
+        List<ExpiredCoupon> first = List.of(new ExpiredCoupon(1, "EXP001"), new ExpiredCoupon(2, "EXP002"));
+        List<ExpiredCoupon> last  = List.of(new ExpiredCoupon(3, "EXP003"));
+        given(expirationRepository.markExpired(eq(TODAY), eq(CHUNK), any())).willReturn(first, last);
+
+        long expired = sweeper.sweep(TODAY);
+
+        assertThat(expired).isEqualTo(3);
+        then(transactionManager).should(times(2)).commit(any());
+        then(changeOutbox).should().recordExpired(eq(first), any());
+        then(changeOutbox).should().recordExpired(eq(last), any());
+        then(byIdCache).should().invalidate(3L);
+        then(byCodeCache).should().invalidate("EXP003");
+    }
+
+    @Test
+    @DisplayName("sem cupons vencidos, não descarta nada dos caches")
+    void nothingToExpire() {
+        given(expirationRepository.markExpired(eq(TODAY), eq(CHUNK), any())).willReturn(List.of());
+
+        assertThat(sweeper.sweep(TODAY)).isZero();
+        then(byIdCache).shouldHaveNoInteractions();
+        then(byCodeCache).shouldHaveNoInteractions();
+    }
+}
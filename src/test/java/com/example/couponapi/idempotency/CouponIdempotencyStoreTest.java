@@ -0,0 +1,164 @@
+package com.example.couponapi.idempotency;
+
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.repository.CouponIdempotencyRepository;
+import com.example.couponapi.repository.CouponIdempotencyRepository.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponIdempotencyStore")
+class CouponIdempotencyStoreTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private CouponIdempotencyRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CouponIdempotencyStore store(boolean persistent) {
+        return new CouponIdempotencyStore(repository, transactionManager, OBJECT_MAPPER,
+            new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofSeconds(5), persistent);
+    }
+
+    private static CouponRequestDTO request(String code, String discount) {
+        CouponRequestDTO dto = new CouponRequestDTO();
+        dto.setCode(code);
+        dto.setDescription("Desconto");
+        dto.setDiscountValue(new BigDecimal(discount));
+        dto.setExpirationDate(LocalDate.of(2026, 12, 31));
+        return dto;
+    }
+
+    private static CouponResponseDTO response(long id, String code) {
+        return new CouponResponseDTO(id, code, "Desconto", new BigDecimal("10"),
+            LocalDate.of(2026, 12, 31), false, LocalDateTime.of(2026, 2, 18, 10, 30), null, null);
+    }
+
+    @Test
+    @DisplayName("retentativa com a mesma chave e o mesmo corpo repete a resposta sem criar de novo")
+    void replaysCompletedResponse() {
+        CouponIdempotencyStore store = store(false);
+        AtomicInteger creations = new AtomicInteger();
+
+        CouponIdempotencyStore.Outcome first = store.execute("k1", request("SAVE10", "10"),
+            () -> response(creations.incrementAndGet(), "SAVE10"));
+        // 10.00 e 10 são o mesmo pedido
+        CouponIdempotencyStore.Outcome retry = store.execute("k1", request("SAVE10", "10.00"),
+            () -> response(creations.incrementAndGet(), "SAVE10"));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.coupon()).isSameAs(first.coupon());
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("mesma chave com outro corpo → BusinessException")
+    void rejectsKeyReuseWithDifferentBody() {
+        CouponIdempotencyStore store = store(false);
+        store.execute("k1", request("SAVE10", "10"), () -> response(1, "SAVE10"));
+
+        assertThatThrownBy(() -> store.execute("k1", request("SAVE20", "10"), () -> response(2, "SAVE20")))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("k1");
+    }
+
+    @Test
+    @DisplayName("chave vazia ou longa demais → BusinessException")
+    void rejectsInvalidKey() {
+        CouponIdempotencyStore store = store(false);
+
+        assertThatThrownBy(() -> store.execute(" ", request("SAVE10", "10"), () -> response(1, "SAVE10")))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> store.execute("k".repeat(256), request("SAVE10", "10"), () -> response(1, "SAVE10")))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("requisições simultâneas com a mesma chave executam a criação uma vez")
+    void singleFlightsConcurrentDuplicates() throws Exception {
+        CouponIdempotencyStore store = store(false);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release  = new CountDownLatch(1);
+        AtomicInteger creations = new AtomicInteger();
+
+        CompletableFuture<CouponIdempotencyStore.Outcome> first = CompletableFuture.supplyAsync(() ->
+            store.execute("k1", request("SAVE10", "10"), () -> {
+                creations.incrementAndGet();
+                creating.countDown();
+                await(release);
+                return response(1, "SAVE10");
+            }));
+        assertThat(creating.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<CouponIdempotencyStore.Outcome> second = CompletableFuture.supplyAsync(() ->
+            store.execute("k1", request("SAVE10", "10"), () -> response(creations.incrementAndGet(), "SAVE10")));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(second.get(5, TimeUnit.SECONDS).coupon().getId()).isEqualTo(1L);
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("falhas não são guardadas: a próxima tentativa executa de novo")
+    void doesNotStoreFailures() {
+        CouponIdempotencyStore store = store(false);
+
+        assertThatThrownBy(() -> store.execute("k1", request("SAVE10", "10"), () -> {
+            throw new BusinessException("falhou");
+        })).isInstanceOf(BusinessException.class);
+
+        CouponIdempotencyStore.Outcome retry = store.execute("k1", request("SAVE10", "10"), () -> response(1, "SAVE10"));
+        assertThat(retry.replayed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("persistente: falha porque outra instância concluiu a chave → repete a resposta gravada")
+    void replaysResponseStoredByAnotherInstance() throws Exception {
+        CouponIdempotencyStore store = store(true);
+        String fingerprint = CouponIdempotencyStore.fingerprint(request("SAVE10", "10"));
+        String json = OBJECT_MAPPER.writeValueAsString(response(7, "SAVE10"));
+        given(repository.find("k1")).willReturn(Optional.empty(), Optional.of(new StoredResponse(fingerprint, json)));
+
+        CouponIdempotencyStore.Outcome outcome = store.execute("k1", request("SAVE10", "10"), () -> {
+            throw new BusinessException("Já existe um cupom com o código 'SAVE10'.");
+        });
+
+        assertThat(outcome.replayed()).isTrue();
+        assertThat(outcome.coupon().getId()).isEqualTo(7L);
+        then(repository).should(never()).insert(any(), any(), any());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
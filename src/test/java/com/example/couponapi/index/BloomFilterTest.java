@@ -0,0 +1,65 @@
+package com.example.couponapi.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BloomFilter")
+class BloomFilterTest {
+
+    private static String code(int i) {
+        return String.format("C%05d", i);
+    }
+
+    @Test
+    @DisplayName("Não deve produzir falsos negativos")
+    void shouldNeverReturnFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(code(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(code(i))).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Taxa observada de falsos positivos deve ficar próxima da configurada")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        BloomFilter filter = BloomFilter.create(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(code(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 50_000; i < 150_000; i++) {
+            if (filter.mightContain(code(i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isCloseTo(0.01, within(0.005));
+    }
+
+    @Test
+    @DisplayName("Filtro vazio deve responder ausente para qualquer código")
+    void shouldReportAbsentWhenEmpty() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        assertThat(filter.mightContain("ABC123")).isFalse();
+        assertThat(filter.memoryBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar parâmetros de dimensionamento inválidos")
+    void shouldRejectInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(1_000, 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(1_000, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
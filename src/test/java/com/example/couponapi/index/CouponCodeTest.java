@@ -0,0 +1,42 @@
+package com.example.couponapi.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CouponCode")
+class CouponCodeTest {
+
+    @Test
+    @DisplayName("Empacota em 36 bits e reconstrói o mesmo código")
+    void shouldRoundTrip() {
+        for (String code : new String[] {"000000", "zzzzzz", "SAVE10", "aB3xY9"}) {
+            long packed = CouponCode.pack(code);
+
+            assertThat(packed).isBetween(0L, (1L << CouponCode.BITS) - 1);
+            assertThat(CouponCode.unpack(packed)).isEqualTo(code);
+            assertThat(CouponCode.fromPacked(packed)).isEqualTo(CouponCode.of(code));
+        }
+    }
+
+    @Test
+    @DisplayName("Preserva a ordem ASCII dos códigos")
+    void shouldPreserveOrder() {
+        assertThat(CouponCode.of("A00000")).isGreaterThan(CouponCode.of("999999"));
+        assertThat(CouponCode.of("a00000")).isGreaterThan(CouponCode.of("ZZZZZZ"));
+    }
+
+    @Test
+    @DisplayName("Rejeita códigos não sanitizados")
+    void shouldRejectUnsanitizedCodes() {
+        assertThat(CouponCode.tryPack("SAVE-1")).isEqualTo(CouponCode.INVALID);
+        assertThat(CouponCode.tryPack("SAVE1")).isEqualTo(CouponCode.INVALID);
+        assertThatThrownBy(() -> CouponCode.pack("SAVE100"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CouponCode.fromPacked(1L << CouponCode.BITS))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CouponCode.fromPacked(62))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.couponapi.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LongLongIndex")
+class LongLongIndexTest {
+
+    private static LongLongIndex create(boolean offHeap, long expectedEntries) {
+        return offHeap ? LongLongIndex.offHeap(expectedEntries) : LongLongIndex.onHeap(expectedEntries);
+    }
+
+    @ParameterizedTest(name = "offHeap={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Encontra todas as chaves inseridas, inclusive após crescer")
+    void shouldFindAllKeysAfterGrowth(boolean offHeap) {
+        LongLongIndex index = create(offHeap, 16);
+        for (long i = 0; i < 50_000; i++) {
+            index.put(CouponCode.pack(String.format("C%05d", i)), i + 1);
+        }
+
+        assertThat(index.size()).isEqualTo(50_000);
+        for (long i = 0; i < 50_000; i++) {
+            assertThat(index.get(CouponCode.pack(String.format("C%05d", i)))).isEqualTo(i + 1);
+        }
+        assertThat(index.isOffHeap()).isEqualTo(offHeap);
+    }
+
+    @ParameterizedTest(name = "offHeap={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Chave ausente retorna NO_VALUE; chave zero é válida")
+    void shouldReportMissingKeys(boolean offHeap) {
+        LongLongIndex index = create(offHeap, 100);
+        index.put(0, 42);
+
+        assertThat(index.get(0)).isEqualTo(42);
+        assertThat(index.get(1)).isEqualTo(LongLongIndex.NO_VALUE);
+        assertThat(index.containsKey(1)).isFalse();
+    }
+
+    @ParameterizedTest(name = "offHeap={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Reinserir a mesma chave substitui o valor sem aumentar o tamanho")
+    void shouldReplaceValue(boolean offHeap) {
+        LongLongIndex index = create(offHeap, 100);
+        index.put(7, 1);
+        index.put(7, 2);
+
+        assertThat(index.get(7)).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "offHeap={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Rejeita chaves e valores negativos")
+    void shouldRejectNegatives(boolean offHeap) {
+        LongLongIndex index = create(offHeap, 100);
+
+        assertThatThrownBy(() -> index.put(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.put(1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -10,14 +10,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +54,9 @@ class CouponApiIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     // =========================================================================
     // POST /api/v1/coupons
     // =========================================================================
@@ -264,4 +271,405 @@ class CouponApiIntegrationTest {
         mockMvc.perform(delete(BASE_URL + "/99999"))
             .andExpect(status().isNotFound());
     }
+
+    // =========================================================================
+    // GET /api/v1/coupons — paginação por cursor e filtros
+    // =========================================================================
+
+    @Test
+    @Order(12)
+    @DisplayName("GET lista — percorre todas as páginas pelo cursor sem repetir itens")
+    void listCoupons_followsCursorAcrossPages() throws Exception {
+        for (String code : List.of("PAG001", "PAG002", "PAG003")) {
+            createCoupon(code, true);
+        }
+
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get(BASE_URL).param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", lessThanOrEqualTo(2)))
+                .andReturn();
+
+            objectMapper.readTree(result.getResponse().getContentAsString())
+                .forEach(node -> codes.add(node.get("code").asText()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null && pages < 50);
+
+        assertThat(codes).doesNotHaveDuplicates();
+        // ordem do mais recente para o mais antigo; deletados não aparecem
+        assertThat(codes).containsSubsequence("PAG003", "PAG002", "PAG001", "SAVE10");
+        assertThat(codes).doesNotContain("DEL001", "DEL002");
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("GET lista — filtro published=true retorna apenas publicados")
+    void listCoupons_filtersByPublished() throws Exception {
+        mockMvc.perform(get(BASE_URL).param("published", "true").param("size", "500"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].published", everyItem(is(true))))
+            .andExpect(jsonPath("$[*].code", hasItem("PAG001")))
+            .andExpect(jsonPath("$[*].code", not(hasItem("SAVE10"))));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("GET lista — cursor inválido → 422")
+    void listCoupons_invalidCursor_returns422() throws Exception {
+        mockMvc.perform(get(BASE_URL).param("cursor", "%%%"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    // =========================================================================
+    // GET /api/v1/coupons/export
+    // =========================================================================
+
+    @Test
+    @Order(15)
+    @DisplayName("GET export — transmite um cupom ativo por linha em NDJSON")
+    void exportCoupons_streamsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get(BASE_URL + "/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn();
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        List<String> codes = new ArrayList<>();
+        for (String line : lines) {
+            codes.add(objectMapper.readTree(line).get("code").asText());
+        }
+
+        assertThat(codes).contains("SAVE10", "GET001", "PAG001", "PAG002", "PAG003");
+        assertThat(codes).doesNotContain("DEL001", "DEL002");
+        assertThat(codes).doesNotHaveDuplicates();
+    }
+
+    // =========================================================================
+    // POST /api/v1/coupons/batch
+    // =========================================================================
+
+    @Test
+    @Order(16)
+    @DisplayName("POST batch (JSON) — cria válidos e reporta rejeições por item, na ordem")
+    void createBatch_reportsPerItemResults() throws Exception {
+        String future = LocalDate.now().plusDays(30).toString();
+        String body = objectMapper.writeValueAsString(List.of(
+            Map.of("code", "BAT-001", "description", "Lote 1", "discountValue", "5.00",
+                   "expirationDate", future, "published", true),
+            Map.of("code", "SAVE10", "description", "Já existe", "discountValue", "5.00",
+                   "expirationDate", future),
+            Map.of("code", "BAT001", "description", "Repetido no lote", "discountValue", "5.00",
+                   "expirationDate", future),
+            Map.of("code", "AB", "description", "Curto", "discountValue", "5.00",
+                   "expirationDate", future),
+            Map.of("code", "BAT002", "description", "Desconto baixo", "discountValue", "0.1",
+                   "expirationDate", future),
+            Map.of("code", "BAT003", "description", "Lote 3", "discountValue", "7.50",
+                   "expirationDate", future)
+        ));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.requested").value(6))
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.rejected").value(4))
+            .andExpect(jsonPath("$.items[*].index", contains(0, 1, 2, 3, 4, 5)))
+            .andExpect(jsonPath("$.items[*].status",
+                contains("CREATED", "REJECTED", "REJECTED", "REJECTED", "REJECTED", "CREATED")))
+            .andExpect(jsonPath("$.items[0].code").value("BAT001"))
+            .andExpect(jsonPath("$.items[0].id").isNumber())
+            .andExpect(jsonPath("$.items[1].message", containsString("Já existe")))
+            .andExpect(jsonPath("$.items[2].message", containsString("repetido")))
+            .andExpect(jsonPath("$.items[5].code").value("BAT003"));
+
+        mockMvc.perform(get(BASE_URL).param("size", "500"))
+            .andExpect(jsonPath("$[*].code", hasItems("BAT001", "BAT003")));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("POST batch (NDJSON) — um item por linha")
+    void createBatch_acceptsNdjson() throws Exception {
+        String future = LocalDate.now().plusDays(30).toString();
+        String body = String.join("\n",
+            "{\"code\":\"NDJ001\",\"description\":\"NDJSON 1\",\"discountValue\":3,\"expirationDate\":\"" + future + "\"}",
+            "{\"code\":\"NDJ002\",\"description\":\"NDJSON 2\",\"discountValue\":4,\"expirationDate\":\"" + future + "\"}");
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.items[*].code", contains("NDJ001", "NDJ002")));
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("POST batch — lote vazio → 422")
+    void createBatch_empty_returns422() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    // =========================================================================
+    // POST /api/v1/coupons/codes
+    // =========================================================================
+
+    @Test
+    @Order(19)
+    @DisplayName("POST codes — gera códigos distintos, válidos e utilizáveis")
+    void generateCodes_returnsUniqueUsableCodes() throws Exception {
+        MvcResult result = mockMvc.perform(post(BASE_URL + "/codes").param("count", "2500"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.codes.length()").value(2500))
+            .andReturn();
+
+        List<String> codes = new ArrayList<>();
+        objectMapper.readTree(result.getResponse().getContentAsString()).get("codes")
+            .forEach(node -> codes.add(node.asText()));
+        assertThat(codes).doesNotHaveDuplicates().allMatch(code -> code.matches("[0-9A-Za-z]{6}"));
+
+        // uma segunda chamada nunca repete códigos já emitidos
+        MvcResult second = mockMvc.perform(post(BASE_URL + "/codes").param("count", "100"))
+            .andExpect(status().isOk())
+            .andReturn();
+        objectMapper.readTree(second.getResponse().getContentAsString()).get("codes")
+            .forEach(node -> assertThat(codes).doesNotContain(node.asText()));
+
+        createCoupon(codes.get(0), false);
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("POST codes — quantidade fora do intervalo → 422")
+    void generateCodes_invalidCount_returns422() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/codes").param("count", "0"))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("GET por id — cupom em cache deixa de ser servido após o DELETE")
+    void getCouponById_afterDelete_isNotServedFromCache() throws Exception {
+        Long id = createCoupon("CCH001", true);
+
+        // duas leituras: a segunda vem do cache
+        mockMvc.perform(get(BASE_URL + "/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get(BASE_URL + "/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(delete(BASE_URL + "/{id}", id))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(BASE_URL + "/{id}", id))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("GET por código — sanitiza o código e retorna apenas cupons resgatáveis")
+    void getCouponByCode_returnsOnlyRedeemable() throws Exception {
+        Long id = createCoupon("LKP001", true);
+        createCoupon("LKP002", false);
+
+        mockMvc.perform(get(BASE_URL + "/code/{code}", "LKP-001"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(id))
+            .andExpect(jsonPath("$.code").value("LKP001"));
+
+        // não publicado
+        mockMvc.perform(get(BASE_URL + "/code/{code}", "LKP002"))
+            .andExpect(status().isNotFound());
+
+        // removido — não pode continuar vindo do cache
+        mockMvc.perform(delete(BASE_URL + "/{id}", id))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get(BASE_URL + "/code/{code}", "LKP001"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("POST redemptions — registra o resgate e respeita o limite total")
+    void redeemCoupon_returns201_untilLimit() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "code",          "RDM001",
+            "description",   "Um uso só",
+            "discountValue", "7.50",
+            "expirationDate", LocalDate.now().plusDays(15).toString(),
+            "published",     true,
+            "maxUses",       1
+        ));
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.maxUses").value(1));
+
+        String redemption = objectMapper.writeValueAsString(Map.of(
+            "customerId", "customer-1",
+            "orderId",    "order-1"
+        ));
+        mockMvc.perform(post(BASE_URL + "/code/{code}/redemptions", "RDM-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(redemption))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andExpect(jsonPath("$.code").value("RDM001"))
+            .andExpect(jsonPath("$.customerId").value("customer-1"))
+            .andExpect(jsonPath("$.discountValue").value(7.5));
+
+        mockMvc.perform(post(BASE_URL + "/code/{code}/redemptions", "RDM001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(redemption))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value(containsString("limite")));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("POST redemptions — customerId ausente → 400; código inexistente → 404")
+    void redeemCoupon_invalidRequests() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/code/{code}/redemptions", "RDM001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post(BASE_URL + "/code/{code}/redemptions", "NOPE99")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":\"customer-1\"}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("POST com Idempotency-Key — retentativa repete a resposta; outro corpo → 422")
+    void createCoupon_withIdempotencyKey_replaysResponse() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "code",          "IDM001",
+            "description",   "Retentativa segura",
+            "discountValue", "5.00",
+            "expirationDate", LocalDate.now().plusDays(10).toString(),
+            "published",     true
+        ));
+
+        MvcResult first = mockMvc.perform(post(BASE_URL)
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn();
+        Long id = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post(BASE_URL)
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.id").value(id));
+
+        String otherBody = body.replace("IDM001", "IDM002");
+        mockMvc.perform(post(BASE_URL)
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(otherBody))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value(containsString("Idempotency-Key")));
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("POST redemptions — cupom percentual fica registrado como PERCENTAGE, não como valor em moeda")
+    void redeemCoupon_percentage_recordsDiscountType() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "code",          "PCT010",
+            "description",   "Dez por cento",
+            "discountValue", "10.00",
+            "discountType",  "PERCENTAGE",
+            "expirationDate", LocalDate.now().plusDays(15).toString(),
+            "published",     true
+        ));
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isCreated());
+
+        String redemption = objectMapper.writeValueAsString(Map.of("customerId", "customer-9"));
+        MvcResult result = mockMvc.perform(post(BASE_URL + "/code/{code}/redemptions", "PCT010")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(redemption))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.discountValue").value(10.0))
+            .andExpect(jsonPath("$.discountType").value("PERCENTAGE"))
+            .andReturn();
+
+        long id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT discount_type FROM coupon_redemptions WHERE id = ?", String.class, id))
+            .isEqualTo("PERCENTAGE");
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("POST batch — 404 guardado para um ID ainda não alocado não sobrevive à criação em lote")
+    void createBatch_dropsCachedNotFoundForNewIds() throws Exception {
+        long last = createCoupon("NEG001", true);
+
+        // os próximos IDs da sequence, consultados antes de existirem: 404 em cache
+        List<Long> upcoming = List.of(last + 1, last + 2, last + 3);
+        for (Long id : upcoming) {
+            mockMvc.perform(get(BASE_URL + "/{id}", id)).andExpect(status().isNotFound());
+        }
+
+        String body = objectMapper.writeValueAsString(List.of(
+            Map.of("code", "NEG002", "description", "Lote", "discountValue", "5.00",
+                   "expirationDate", LocalDate.now().plusDays(30).toString(), "published", true)));
+        MvcResult result = mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andReturn();
+        long id = objectMapper.readTree(result.getResponse().getContentAsString()).at("/items/0/id").asLong();
+
+        assertThat(upcoming).contains(id);
+        mockMvc.perform(get(BASE_URL + "/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value("NEG002"));
+    }
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private Long createCoupon(String code, boolean published) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "code",          code,
+            "description",   "Cupom " + code,
+            "discountValue", "5.00",
+            "expirationDate", LocalDate.now().plusDays(15).toString(),
+            "published",     published
+        ));
+
+        MvcResult result = mockMvc.perform(post(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
 }
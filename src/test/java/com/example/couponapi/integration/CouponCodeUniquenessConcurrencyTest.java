@@ -0,0 +1,191 @@
+package com.example.couponapi.integration;
+
+import com.example.couponapi.dto.CouponBatchItemResultDTO;
+import com.example.couponapi.dto.CouponBatchResultDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.service.CouponService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Teste de carga da unicidade do código: centenas de criações simultâneas
+ * com o mesmo código.
+ *
+ * Prova que a constraint {@code uq_coupons_code} decide sozinha a disputa:
+ * exatamente uma criação confirma, todas as outras recebem
+ * {@link DuplicateCouponCodeException} (422) e nenhuma escapa como erro 500.
+ * Cobre também o código gravado por outra instância, que o filtro e o índice
+ * locais não conhecem e só a constraint barra.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:uniquenessdb;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.sql.init.mode=always"
+})
+@DisplayName("Unicidade do código — concorrência")
+class CouponCodeUniquenessConcurrencyTest {
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private static CouponRequestDTO request(String code) {
+        CouponRequestDTO dto = new CouponRequestDTO();
+        dto.setCode(code);
+        dto.setDescription("Campanha disputada");
+        dto.setDiscountValue(new BigDecimal("10.00"));
+        dto.setExpirationDate(LocalDate.now().plusDays(7));
+        dto.setPublished(true);
+        return dto;
+    }
+
+    private int rowsWithCode(String code) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons WHERE code = ?", Integer.class, code);
+    }
+
+    /** Grava o cupom direto no banco, como outra instância faria: o filtro e o índice locais não o veem. */
+    private void insertFromAnotherInstance(String code) {
+        jdbcTemplate.update("INSERT INTO coupons (id, code, description, discount_value, expiration_date, created_at) " +
+                            "VALUES (NEXT VALUE FOR coupons_seq, ?, 'Outra instância', 10.00, ?, CURRENT_TIMESTAMP)",
+                            code, LocalDate.now().plusDays(7));
+    }
+
+    /**
+     * Executa {@code attempts} criações em {@link #THREADS} threads, largando
+     * todas juntas. Conta as confirmadas e as recusadas por código duplicado;
+     * qualquer outra exceção é guardada em {@code unexpected}.
+     */
+    private int[] createConcurrently(int attempts, IntFunction<String> codeOf,
+                                     ConcurrentLinkedQueue<Throwable> unexpected) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(attempts);
+            for (int i = 0; i < attempts; i++) {
+                CouponRequestDTO dto = request(codeOf.apply(i));
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        couponService.create(dto);
+                        created.incrementAndGet();
+                    } catch (DuplicateCouponCodeException e) {
+                        duplicates.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        unexpected.add(e);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new int[] { created.get(), duplicates.get() };
+    }
+
+    // -------------------------------------------------------------------------
+    // cenários
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("400 criações simultâneas do mesmo código — uma confirma, 399 recebem código duplicado")
+    void singleWinnerForHotCode() throws Exception {
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        int[] result = createConcurrently(400, n -> "RACE01", unexpected);
+
+        assertThat(unexpected).isEmpty();
+        assertThat(result[0]).isEqualTo(1);
+        assertThat(result[1]).isEqualTo(399);
+        assertThat(rowsWithCode("RACE01")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("50 códigos disputados por 8 criações cada — exatamente um cupom por código")
+    void oneCouponPerContendedCode() throws Exception {
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        int[] result = createConcurrently(400, n -> String.format("MIX%03d", n % 50), unexpected);
+
+        assertThat(unexpected).isEmpty();
+        assertThat(result[0]).isEqualTo(50);
+        assertThat(result[1]).isEqualTo(350);
+        Integer rows = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM coupons WHERE code LIKE 'MIX%'", Integer.class);
+        assertThat(rows).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("código de cupom arquivado continua recusado, sem linha em coupons")
+    void rejectsArchivedCode() {
+        couponService.create(request("OLD001"));
+        // arquivamento: o código sai de coupons e fica só no tombstone
+        jdbcTemplate.update("INSERT INTO coupon_code_tombstones (code, coupon_id) " +
+                            "SELECT code, id FROM coupons WHERE code = 'OLD001'");
+        jdbcTemplate.update("DELETE FROM coupons WHERE code = 'OLD001'");
+
+        assertThatThrownBy(() -> couponService.create(request("OLD001")))
+            .isInstanceOf(DuplicateCouponCodeException.class);
+        assertThat(rowsWithCode("OLD001")).isZero();
+    }
+
+    @Test
+    @DisplayName("código gravado por outra instância, fora do filtro local → código duplicado, não erro 500")
+    void rejectsCodeInsertedElsewhere() {
+        insertFromAnotherInstance("EXT002");
+
+        assertThatThrownBy(() -> couponService.create(request("EXT002")))
+            .isInstanceOf(DuplicateCouponCodeException.class);
+        assertThat(rowsWithCode("EXT002")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("lote com código gravado por outra instância — o item é recusado e os demais são criados")
+    void batchRejectsCodeInsertedElsewhere() {
+        insertFromAnotherInstance("EXT001");
+
+        CouponBatchResultDTO result = couponService.createAll(
+            List.of(request("BAT001"), request("EXT001"), request("BAT002")));
+
+        assertThat(result.getItems()).extracting(CouponBatchItemResultDTO::getStatus).containsExactly(
+            CouponBatchItemResultDTO.Status.CREATED, CouponBatchItemResultDTO.Status.REJECTED,
+            CouponBatchItemResultDTO.Status.CREATED);
+        assertThat(result.getItems().get(1).getMessage()).contains("EXT001");
+        assertThat(rowsWithCode("EXT001")).isEqualTo(1);
+        assertThat(rowsWithCode("BAT001")).isEqualTo(1);
+        assertThat(rowsWithCode("BAT002")).isEqualTo(1);
+    }
+}
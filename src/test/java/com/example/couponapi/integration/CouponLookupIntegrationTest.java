@@ -0,0 +1,213 @@
+package com.example.couponapi.integration;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.repository.CouponRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes de integração da busca em lote: a consulta
+ * {@link CouponRepository#findActiveByIdsOrCodes} e o
+ * {@code POST /api/v1/coupons/lookup} sobre ela.
+ *
+ * Os cupons são gravados direto no banco a cada teste, com os caches
+ * limpos: o índice de códigos não os conhece e toda chave passa pela
+ * consulta, que deve guardar os resultados (inclusive ausências) nos caches.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:lookupdb;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.sql.init.mode=always"
+})
+@DisplayName("Busca em lote — testes de integração")
+class CouponLookupIntegrationTest {
+
+    private static final String LOOKUP_URL = "/api/v1/coupons/lookup";
+
+    private static final long ACTIVE      = 9_001;
+    private static final long UNPUBLISHED = 9_002;
+    private static final long DELETED     = 9_003;
+    private static final long SWEPT       = 9_004;
+    private static final long OVERDUE     = 9_005;
+    private static final long MISSING     = 9_999;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponByIdCache byIdCache;
+
+    @Autowired
+    private CouponByCodeCache byCodeCache;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM coupons WHERE id BETWEEN 9000 AND 9999");
+        LocalDate today = LocalDate.now();
+        insert(ACTIVE,      "LKP001", true,  today.plusDays(10), null,                null);
+        insert(UNPUBLISHED, "LKP002", false, today.plusDays(10), null,                null);
+        insert(DELETED,     "LKP003", true,  today.plusDays(10), LocalDateTime.now(), null);
+        insert(SWEPT,       "LKP004", true,  today.minusDays(2), null,                LocalDateTime.now());
+        // vencido ontem, mas a varredura ainda não passou: ativo pelo ID, não resgatável pelo código
+        insert(OVERDUE,     "LKP005", true,  today.minusDays(1), null,                null);
+        byIdCache.clear();
+        byCodeCache.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private void insert(long id, String code, boolean published, LocalDate expiration,
+                        LocalDateTime deletedAt, LocalDateTime expiredAt) {
+        jdbcTemplate.update("INSERT INTO coupons (id, code, description, discount_value, expiration_date, " +
+                            "published, created_at, deleted_at, expired_at) " +
+                            "VALUES (?, ?, 'Busca em lote', 10.00, ?, ?, CURRENT_TIMESTAMP, ?, ?)",
+                            id, code, expiration, published, deletedAt, expiredAt);
+    }
+
+    private ResultActions lookup(List<Long> ids, List<String> codes) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("ids", ids, "codes", codes));
+        return mockMvc.perform(post(LOOKUP_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk());
+    }
+
+    // -------------------------------------------------------------------------
+    // CouponRepository.findActiveByIdsOrCodes
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("consulta — só IDs: ignora removidos e varridos, mas não olha publicação nem data")
+    void repository_idsOnly() {
+        List<CouponResponseDTO> found = couponRepository.findActiveByIdsOrCodes(
+            List.of(ACTIVE, UNPUBLISHED, DELETED, SWEPT, OVERDUE, MISSING), List.of());
+
+        assertThat(found).extracting(CouponResponseDTO::getId)
+            .containsExactlyInAnyOrder(ACTIVE, UNPUBLISHED, OVERDUE);
+    }
+
+    @Test
+    @DisplayName("consulta — só códigos: mesmas regras de atividade")
+    void repository_codesOnly() {
+        List<CouponResponseDTO> found = couponRepository.findActiveByIdsOrCodes(
+            List.of(), List.of("LKP001", "LKP002", "LKP003", "LKP004", "LKP005", "NOPE01"));
+
+        assertThat(found).extracting(CouponResponseDTO::getCode)
+            .containsExactlyInAnyOrder("LKP001", "LKP002", "LKP005");
+    }
+
+    @Test
+    @DisplayName("consulta — IDs e códigos juntos: uma linha por cupom, mesmo casando pelos dois")
+    void repository_mixed() {
+        List<CouponResponseDTO> found = couponRepository.findActiveByIdsOrCodes(
+            List.of(ACTIVE, DELETED), List.of("LKP001", "LKP002", "LKP004"));
+
+        assertThat(found).extracting(CouponResponseDTO::getId)
+            .containsExactlyInAnyOrder(ACTIVE, UNPUBLISHED);
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/v1/coupons/lookup
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("POST lookup — só IDs: regra do GET por ID, um item por chave na ordem enviada")
+    void lookup_idsOnly() throws Exception {
+        lookup(List.of(OVERDUE, DELETED, ACTIVE, SWEPT, UNPUBLISHED, MISSING), List.of())
+            .andExpect(jsonPath("$.requested").value(6))
+            .andExpect(jsonPath("$.found").value(3))
+            .andExpect(jsonPath("$.items[*].id").value(contains(
+                (int) OVERDUE, (int) DELETED, (int) ACTIVE, (int) SWEPT, (int) UNPUBLISHED, (int) MISSING)))
+            .andExpect(jsonPath("$.items[*].status").value(contains(
+                "FOUND", "NOT_FOUND", "FOUND", "NOT_FOUND", "FOUND", "NOT_FOUND")))
+            .andExpect(jsonPath("$.items[2].coupon.code").value("LKP001"));
+    }
+
+    @Test
+    @DisplayName("POST lookup — só códigos: regra do GET por código (publicado e dentro da validade)")
+    void lookup_codesOnly() throws Exception {
+        lookup(List.of(), List.of("LKP-001", "LKP002", "LKP003", "LKP004", "LKP005", "#"))
+            .andExpect(jsonPath("$.requested").value(6))
+            .andExpect(jsonPath("$.found").value(1))
+            .andExpect(jsonPath("$.items[*].code").value(contains(
+                "LKP-001", "LKP002", "LKP003", "LKP004", "LKP005", "#")))
+            .andExpect(jsonPath("$.items[*].status").value(contains(
+                "FOUND", "NOT_FOUND", "NOT_FOUND", "NOT_FOUND", "NOT_FOUND", "NOT_FOUND")))
+            .andExpect(jsonPath("$.items[0].coupon.id").value((int) ACTIVE));
+    }
+
+    @Test
+    @DisplayName("POST lookup — IDs e códigos juntos: primeiro os IDs, depois os códigos")
+    void lookup_mixed() throws Exception {
+        lookup(List.of(UNPUBLISHED, DELETED), List.of("LKP002", "LKP001", "LKP004"))
+            .andExpect(jsonPath("$.requested").value(5))
+            .andExpect(jsonPath("$.found").value(2))
+            .andExpect(jsonPath("$.items[0].id").value((int) UNPUBLISHED))
+            .andExpect(jsonPath("$.items[0].status").value("FOUND"))
+            .andExpect(jsonPath("$.items[1].status").value("NOT_FOUND"))
+            .andExpect(jsonPath("$.items[2].code").value("LKP002"))
+            .andExpect(jsonPath("$.items[2].status").value("NOT_FOUND"))
+            .andExpect(jsonPath("$.items[3].coupon.id").value((int) ACTIVE))
+            .andExpect(jsonPath("$.items[4].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("POST lookup — guarda presenças e ausências nos caches, e a repetição não vai ao banco")
+    void lookup_writesBackToCaches() throws Exception {
+        lookup(List.of(ACTIVE, DELETED), List.of("LKP005", "NOPE01"));
+
+        Map<Long, Optional<CouponResponseDTO>> byId = byIdCache.getAllPresent(List.of(ACTIVE, DELETED, OVERDUE));
+        assertThat(byId).containsOnlyKeys(ACTIVE, DELETED, OVERDUE);
+        assertThat(byId.get(ACTIVE)).hasValueSatisfying(c -> assertThat(c.getCode()).isEqualTo("LKP001"));
+        assertThat(byId.get(DELETED)).isEmpty();
+        // LKP005 foi lido pelo código: ativo, serve o cache por ID mesmo sem ser resgatável
+        assertThat(byId.get(OVERDUE)).isPresent();
+        assertThat(byCodeCache.getAllPresent(List.of("LKP005", "NOPE01")))
+            .containsEntry("LKP005", Optional.empty())
+            .containsEntry("NOPE01", Optional.empty());
+
+        // alterado por fora da aplicação: a segunda busca ainda vem dos caches
+        jdbcTemplate.update("UPDATE coupons SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?", ACTIVE);
+        jdbcTemplate.update("UPDATE coupons SET deleted_at = NULL WHERE id = ?", DELETED);
+
+        lookup(List.of(ACTIVE, DELETED, OVERDUE), List.of("LKP005", "NOPE01"))
+            .andExpect(jsonPath("$.items[*].status").value(contains(
+                "FOUND", "NOT_FOUND", "FOUND", "NOT_FOUND", "NOT_FOUND")));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.couponapi.integration;
+
+import com.example.couponapi.dto.CouponRedemptionRequestDTO;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.repository.CouponRedemptionRepository;
+import com.example.couponapi.service.CouponQuotaAllocator;
+import com.example.couponapi.service.CouponService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Teste de carga dos resgates: muitas threads disputando o mesmo cupom.
+ *
+ * Prova que os limites total e por cliente nunca são ultrapassados, inclusive
+ * com duas "instâncias" (alocadores de cota independentes) sobre o mesmo banco.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:redemptiondb;DB_CLOSE_DELAY=-1",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.sql.init.mode=always",
+    "coupon.redemption.quota-slice-size=16"
+})
+@DisplayName("Resgates — concorrência")
+class CouponRedemptionConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRedemptionRepository redemptionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private long createCoupon(String code, Integer maxUses, Integer maxUsesPerCustomer) {
+        CouponRequestDTO dto = new CouponRequestDTO();
+        dto.setCode(code);
+        dto.setDescription("Campanha relâmpago");
+        dto.setDiscountValue(new BigDecimal("10.00"));
+        dto.setExpirationDate(LocalDate.now().plusDays(1));
+        dto.setPublished(true);
+        dto.setMaxUses(maxUses);
+        dto.setMaxUsesPerCustomer(maxUsesPerCustomer);
+        return couponService.create(dto).getId();
+    }
+
+    private boolean redeem(String code, String customerId) {
+        CouponRedemptionRequestDTO dto = new CouponRedemptionRequestDTO();
+        dto.setCustomerId(customerId);
+        try {
+            couponService.redeem(code, dto);
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+
+    /** Executa {@code attempts} tentativas em {@link #THREADS} threads, largando todas juntas. */
+    private int runConcurrently(int attempts, IntPredicate attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(attempts);
+            for (int i = 0; i < attempts; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (attempt.test(n)) {
+                        successes.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return successes.get();
+    }
+
+    // -------------------------------------------------------------------------
+    // limite total
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("Limite total — 1000 tentativas concorrentes em um cupom de 150 usos resgatam exatamente 150")
+    void neverOversellsHotCoupon() throws Exception {
+        long couponId = createCoupon("FLASH1", 150, null);
+
+        int successes = runConcurrently(1_000, n -> redeem("FLASH1", "customer-" + n));
+
+        assertThat(successes).isEqualTo(150);
+        assertThat(redemptionRepository.countRedemptions(couponId)).isEqualTo(150);
+        assertThat(redemptionRepository.findReservedUses(couponId)).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Limite total — duas instâncias disputando a cota nunca reservam além do limite")
+    void neverOversellsAcrossInstances() throws Exception {
+        long couponId = createCoupon("FLASH2", 500, null);
+        CouponQuotaAllocator first  = new CouponQuotaAllocator(redemptionRepository, transactionManager, 16);
+        CouponQuotaAllocator second = new CouponQuotaAllocator(redemptionRepository, transactionManager, 16);
+
+        int granted = runConcurrently(2_000, n -> (n % 2 == 0 ? first : second).tryAcquire(couponId, 500));
+
+        assertThat(granted).isEqualTo(500);
+        assertThat(redemptionRepository.findReservedUses(couponId)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Limite total — uso de um resgate recusado volta para a cota")
+    void returnsQuotaOfFailedRedemption() {
+        createCoupon("FLASH3", 3, 1);
+
+        assertThat(redeem("FLASH3", "ana")).isTrue();
+        assertThat(redeem("FLASH3", "ana")).isFalse();   // limite por cliente
+        assertThat(redeem("FLASH3", "bia")).isTrue();
+        assertThat(redeem("FLASH3", "caio")).isTrue();
+        assertThat(redeem("FLASH3", "davi")).isFalse();  // cota esgotada
+    }
+
+    // -------------------------------------------------------------------------
+    // limite por cliente
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("Limite por cliente — 200 tentativas concorrentes do mesmo cliente resgatam exatamente 2")
+    void enforcesPerCustomerLimitUnderContention() throws Exception {
+        long couponId = createCoupon("FLASH4", null, 2);
+
+        int successes = runConcurrently(200, n -> redeem("FLASH4", "same-customer"));
+
+        assertThat(successes).isEqualTo(2);
+        assertThat(redemptionRepository.countRedemptions(couponId)).isEqualTo(2);
+    }
+}
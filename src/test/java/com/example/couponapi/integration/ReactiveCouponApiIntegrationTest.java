@@ -0,0 +1,266 @@
+package com.example.couponapi.integration;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.index.CouponCodeIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integração da variante reativa (perfil "reactive").
+ *
+ * Sobe a aplicação em Netty com WebFlux + R2DBC e verifica que o contrato de
+ * criação, consulta, listagem e remoção — inclusive os corpos de erro — é o
+ * mesmo da variante MVC ({@link CouponApiIntegrationTest}), e que criação e
+ * remoção mantêm outbox, índice de códigos e caches como a variante MVC.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive"
+)
+@ActiveProfiles("reactive")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb;DB_CLOSE_DELAY=-1"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Coupon API reativa — testes de integração")
+class ReactiveCouponApiIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/coupons";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CouponCodeIndex codeIndex;
+
+    @Autowired
+    private CouponByCodeCache byCodeCache;
+
+    @Test
+    @Order(1)
+    @DisplayName("POST — cria cupom válido → 201 com código saneado")
+    void create_returns201() {
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(couponBody("RX#0001", "10.00", LocalDate.now().plusDays(30)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("RX0001")
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.createdAt").isNotEmpty();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST — código duplicado → 422 com a mesma mensagem da variante MVC")
+    void create_duplicateCode_returns422() {
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(couponBody("RX-0001", "5.00", LocalDate.now().plusDays(10)))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(422)
+                .jsonPath("$.error").isEqualTo("Unprocessable Entity")
+                .jsonPath("$.message").isEqualTo("Já existe um cupom com o código 'RX0001'.")
+                .jsonPath("$.timestamp").isNotEmpty();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("POST — regra de domínio violada → 422")
+    void create_pastDate_returns422() {
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(couponBody("RXPAST", "5.00", LocalDate.now().minusDays(1)))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("A data de expiração não pode estar no passado.");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("POST — Bean Validation → 400 com details por campo")
+    void create_invalidBody_returns400() {
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("description", "Sem código"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Erro de validação.")
+                .jsonPath("$.details.code").isNotEmpty();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /{id} — cupom existente → 200; inexistente → 404")
+    void findById() {
+        Long id = create("RXGET1");
+
+        webTestClient.get().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("RXGET1");
+
+        webTestClient.get().uri(BASE_URL + "/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Cupom com id 999999 não encontrado ou já foi removido.");
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET — percorre todas as páginas pelo X-Next-Cursor, sem repetir itens")
+    void findAll_followsCursor() {
+        for (int i = 0; i < 5; i++) {
+            create("RXPG0" + i);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String uri = BASE_URL + "?size=2" + (cursor != null ? "&cursor=" + cursor : "");
+            EntityExchangeResult<List<CouponResponseDTO>> page = webTestClient.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBodyList(CouponResponseDTO.class)
+                    .returnResult();
+            page.getResponseBody().forEach(item -> seen.add(item.getId()));
+            cursor = page.getResponseHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates().hasSizeGreaterThanOrEqualTo(7);
+        assertThat(pages).isEqualTo((seen.size() + 1) / 2);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET — NDJSON emite um cupom por linha")
+    void findAll_ndjson() {
+        List<CouponResponseDTO> items = webTestClient.get().uri(BASE_URL + "?size=3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CouponResponseDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(items).hasSize(3);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET — cursor inválido → 422")
+    void findAll_invalidCursor_returns422() {
+        webTestClient.get().uri(BASE_URL + "?cursor=invalido")
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Cursor de paginação inválido.");
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("DELETE — 204, depois 422 ao repetir; inexistente → 404")
+    void delete() {
+        Long id = create("RXDEL1");
+
+        webTestClient.delete().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.delete().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("O cupom com id " + id + " já foi removido anteriormente.");
+
+        webTestClient.delete().uri(BASE_URL + "/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("POST e DELETE — eventos no outbox, código no índice e cache por código limpo")
+    void createAndDelete_keepOutboxIndexAndCaches() {
+        Long id = create("RXOUT1");
+        assertThat(codeIndex.idOf("RXOUT1")).isEqualTo(id);
+
+        byCodeCache.put(webTestClient.get().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectBody(CouponResponseDTO.class)
+                .returnResult()
+                .getResponseBody());
+        webTestClient.delete().uri(BASE_URL + "/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(byCodeCache.getAllPresent(List.of("RXOUT1"))).isEmpty();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT event_type FROM coupon_outbox WHERE coupon_id = ? ORDER BY id", String.class, id))
+            .containsExactly("CREATED", "DELETED");
+    }
+
+    // -------------------------------------------------------------------------
+    // Auxiliares
+    // -------------------------------------------------------------------------
+
+    private Long create(String code) {
+        CouponResponseDTO created = webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(couponBody(code, "10.00", LocalDate.now().plusDays(30)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CouponResponseDTO.class)
+                .returnResult()
+                .getResponseBody();
+        return created.getId();
+    }
+
+    private static Map<String, Object> couponBody(String code, String discount, LocalDate expiration) {
+        return Map.of(
+            "code",           code,
+            "description",    "Cupom reativo",
+            "discountValue",  discount,
+            "expirationDate", expiration.toString(),
+            "published",      true
+        );
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.discount.CompiledCouponCache;
+import com.example.couponapi.dto.CartCouponResultDTO;
+import com.example.couponapi.dto.CartDTO;
+import com.example.couponapi.dto.CartDiscountResultDTO;
+import com.example.couponapi.dto.CartItemDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+import com.example.couponapi.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartDiscountService")
+class CartDiscountServiceTest {
+
+    @Mock
+    private CouponLookupService lookupService;
+
+    private CartDiscountService discountService;
+
+    @BeforeEach
+    void setUp() {
+        // no máximo 3 carrinhos por lote, para exercitar o limite
+        discountService = new CartDiscountService(lookupService,
+            new CompiledCouponCache(new SimpleMeterRegistry(), 100),
+            Validation.buildDefaultValidatorFactory().getValidator(), 3);
+    }
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private static CouponResponseDTO coupon(Long id, String code, DiscountType type, String value,
+                                            String minCart, boolean stackable) {
+        return new CouponResponseDTO(id, code, "Desconto", new BigDecimal(value), type,
+            minCart == null ? null : new BigDecimal(minCart), stackable,
+            LocalDate.now().plusDays(5), true, LocalDateTime.of(2026, 2, 18, 10, 0), null, null);
+    }
+
+    private static CartDTO cart(String cartId, String unitPrice, int quantity, String... codes) {
+        CartItemDTO item = new CartItemDTO();
+        item.setSku("SKU-1");
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        CartDTO cart = new CartDTO();
+        cart.setCartId(cartId);
+        cart.setItems(List.of(item));
+        cart.setCodes(List.of(codes));
+        return cart;
+    }
+
+    private static CartItemDTO item(String unitPrice, int quantity) {
+        CartItemDTO item = new CartItemDTO();
+        item.setSku("SKU-" + quantity);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+
+    private static List<CartCouponResultDTO.Status> statuses(CartDiscountResultDTO result) {
+        return result.getCoupons().stream().map(CartCouponResultDTO::getStatus).toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // cenários
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("aplica o melhor cupom e informa o desfecho de cada código, na ordem enviada")
+    void appliesBestCouponAndReportsEachCode() {
+        given(lookupService.findRedeemableByCodes(Set.of("PCT015", "SAVE10", "XYZ999", "pct015"))).willReturn(Map.of(
+            "PCT015", Optional.of(coupon(7L, "PCT015", DiscountType.PERCENTAGE, "15.00", null, false)),
+            "SAVE10", Optional.of(coupon(1L, "SAVE10", DiscountType.FIXED, "10.00", null, false)),
+            "XYZ999", Optional.empty()));
+
+        CartDiscountResultDTO result = discountService.evaluate(
+            cart("cart-42", "49.90", 3, "PCT-015", "SAVE10", "XYZ999", "pct015", "#"));
+
+        assertThat(result.getCartId()).isEqualTo("cart-42");
+        assertThat(result.getSubtotal()).isEqualByComparingTo("149.70");
+        assertThat(result.getDiscount()).isEqualByComparingTo("22.46");
+        assertThat(result.getTotal()).isEqualByComparingTo("127.24");
+        assertThat(statuses(result)).containsExactly(
+            CartCouponResultDTO.Status.APPLIED, CartCouponResultDTO.Status.NOT_SELECTED,
+            CartCouponResultDTO.Status.NOT_FOUND, CartCouponResultDTO.Status.NOT_FOUND,
+            CartCouponResultDTO.Status.NOT_FOUND);
+        assertThat(result.getCoupons().get(0).getCode()).isEqualTo("PCT-015");
+        assertThat(result.getCoupons().get(0).getCouponId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("o mesmo cupom em dois formatos conta uma vez; o segundo vem como DUPLICATE")
+    void flagsRepeatedCoupon() {
+        given(lookupService.findRedeemableByCodes(Set.of("SAVE10"))).willReturn(Map.of(
+            "SAVE10", Optional.of(coupon(1L, "SAVE10", DiscountType.FIXED, "10.00", null, true))));
+
+        CartDiscountResultDTO result = discountService.evaluate(cart(null, "100.00", 1, "SAVE10", "SAVE-10"));
+
+        assertThat(result.getDiscount()).isEqualByComparingTo("10.00");
+        assertThat(statuses(result)).containsExactly(
+            CartCouponResultDTO.Status.APPLIED, CartCouponResultDTO.Status.DUPLICATE);
+        assertThat(result.getCoupons().get(1).getCouponId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("subtotal abaixo do mínimo → BELOW_MIN_CART_VALUE, sem desconto")
+    void reportsBelowMinimum() {
+        given(lookupService.findRedeemableByCodes(Set.of("BIG200"))).willReturn(Map.of(
+            "BIG200", Optional.of(coupon(3L, "BIG200", DiscountType.FIXED, "30.00", "200.00", false))));
+
+        CartDiscountResultDTO result = discountService.evaluate(cart(null, "199.99", 1, "BIG200"));
+
+        assertThat(result.getDiscount()).isEqualByComparingTo("0");
+        assertThat(result.getTotal()).isEqualByComparingTo("199.99");
+        assertThat(statuses(result)).containsExactly(CartCouponResultDTO.Status.BELOW_MIN_CART_VALUE);
+    }
+
+    @Test
+    @DisplayName("acumuláveis dividem o desconto até o teto do subtotal")
+    void splitsCappedStackAcrossCoupons() {
+        given(lookupService.findRedeemableByCodes(Set.of("STK015", "STK010"))).willReturn(Map.of(
+            "STK015", Optional.of(coupon(1L, "STK015", DiscountType.FIXED, "15.00", null, true)),
+            "STK010", Optional.of(coupon(2L, "STK010", DiscountType.FIXED, "10.00", null, true))));
+
+        CartDiscountResultDTO result = discountService.evaluate(cart(null, "20.00", 1, "STK015", "STK010"));
+
+        assertThat(result.getDiscount()).isEqualByComparingTo("20.00");
+        assertThat(result.getTotal()).isEqualByComparingTo("0");
+        assertThat(result.getCoupons()).extracting(CartCouponResultDTO::getDiscount)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("15.00"), new BigDecimal("5.00"));
+    }
+
+    @Test
+    @DisplayName("o corte do teto recai sobre o menor acumulável, mesmo com os códigos fora de ordem")
+    void trimsSmallestStackedCouponRegardlessOfCodeOrder() {
+        given(lookupService.findRedeemableByCodes(Set.of("STK010", "STK015", "STK004"))).willReturn(Map.of(
+            "STK010", Optional.of(coupon(2L, "STK010", DiscountType.FIXED, "10.00", null, true)),
+            "STK015", Optional.of(coupon(1L, "STK015", DiscountType.FIXED, "15.00", null, true)),
+            "STK004", Optional.of(coupon(3L, "STK004", DiscountType.FIXED, "4.00", null, true))));
+
+        CartDiscountResultDTO result = discountService.evaluate(cart(null, "20.00", 1, "STK004", "STK010", "STK015"));
+
+        // 15 + 10 cobrem 20: o de 4 fica de fora e o de 10 perde os 5 que passam do teto
+        assertThat(result.getDiscount()).isEqualByComparingTo("20.00");
+        assertThat(statuses(result)).containsExactly(
+            CartCouponResultDTO.Status.NOT_SELECTED, CartCouponResultDTO.Status.APPLIED,
+            CartCouponResultDTO.Status.APPLIED);
+        assertThat(result.getCoupons()).extracting(CartCouponResultDTO::getDiscount)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(BigDecimal.ZERO, new BigDecimal("5.00"), new BigDecimal("15.00"));
+    }
+
+    @Test
+    @DisplayName("lote resolve os códigos de todos os carrinhos numa única busca")
+    void resolvesBatchCodesOnce() {
+        given(lookupService.findRedeemableByCodes(Set.of("SAVE10", "SAVE20"))).willReturn(Map.of(
+            "SAVE10", Optional.of(coupon(1L, "SAVE10", DiscountType.FIXED, "10.00", null, false)),
+            "SAVE20", Optional.of(coupon(2L, "SAVE20", DiscountType.FIXED, "20.00", null, false))));
+
+        List<CartDiscountResultDTO> results = discountService.evaluateAll(List.of(
+            cart("a", "50.00", 1, "SAVE10"),
+            cart("b", "50.00", 2, "SAVE20", "SAVE10"),
+            cart("c", "5.00", 1)));
+
+        assertThat(results).extracting(CartDiscountResultDTO::getCartId).containsExactly("a", "b", "c");
+        assertThat(results).extracting(CartDiscountResultDTO::getDiscount)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("10.00"), new BigDecimal("20.00"), BigDecimal.ZERO);
+        then(lookupService).should(times(1)).findRedeemableByCodes(any());
+    }
+
+    @Test
+    @DisplayName("subtotal no teto calcula o percentual sem overflow; um centavo acima → BusinessException")
+    void capsSubtotal() {
+        given(lookupService.findRedeemableByCodes(Set.of("ALL100"))).willReturn(Map.of(
+            "ALL100", Optional.of(coupon(1L, "ALL100", DiscountType.PERCENTAGE, "100.00", null, false))));
+
+        // 1.000.000.000,00 x 1.000 = 10^14 centavos, exatamente o teto
+        CartDTO atCap = cart("teto", "1000000000.00", 1_000, "ALL100");
+        CartDiscountResultDTO result = discountService.evaluate(atCap);
+
+        assertThat(result.getSubtotal()).isEqualByComparingTo("1000000000000.00");
+        assertThat(result.getDiscount()).isEqualByComparingTo("1000000000000.00");
+        assertThat(result.getTotal()).isEqualByComparingTo("0");
+
+        CartDTO overCap = cart("acima", "1000000000.00", 1_000, "ALL100");
+        overCap.setItems(List.of(overCap.getItems().get(0), item("0.01", 1)));
+        assertThatThrownBy(() -> discountService.evaluate(overCap))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("acima")
+            .hasMessageContaining("1000000000000.00");
+    }
+
+    @Test
+    @DisplayName("quantidade ou preço unitário acima do máximo → BusinessException, sem busca")
+    void rejectsItemsAboveLimits() {
+        CartDTO maxItem = cart("max", CartItemDTO.MAX_UNIT_PRICE, CartItemDTO.MAX_QUANTITY);
+        CartDTO tooMany = cart("qtd", "1.00", CartItemDTO.MAX_QUANTITY + 1);
+        CartDTO tooExpensive = cart("preco", "10000000000.00", 1);
+
+        assertThatThrownBy(() -> discountService.evaluateAll(List.of(tooMany)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("quantity");
+        assertThatThrownBy(() -> discountService.evaluateAll(List.of(tooExpensive)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("unitPrice");
+        then(lookupService).shouldHaveNoInteractions();
+
+        // no limite de cada campo, o item passa na validação e cai no teto do subtotal, sem ArithmeticException
+        assertThatThrownBy(() -> discountService.evaluateAll(List.of(maxItem)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("subtotal");
+    }
+
+    @Test
+    @DisplayName("carrinho inválido ou lote acima do máximo → BusinessException, sem busca")
+    void rejectsInvalidBatches() {
+        CartDTO empty = cart("vazio", "10.00", 1);
+        empty.setItems(List.of());
+
+        assertThatThrownBy(() -> discountService.evaluateAll(List.of(cart("ok", "10.00", 1), empty)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("Carrinho 1");
+        assertThatThrownBy(() -> discountService.evaluateAll(List.of(
+                cart("a", "1.00", 1), cart("b", "1.00", 1), cart("c", "1.00", 1), cart("d", "1.00", 1))))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("3");
+        then(lookupService).shouldHaveNoInteractions();
+    }
+}
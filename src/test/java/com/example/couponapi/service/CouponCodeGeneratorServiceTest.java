@@ -0,0 +1,73 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.dto.GeneratedCodesDTO;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponCodeBlockRepository;
+import com.example.couponapi.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponCodeGeneratorService")
+class CouponCodeGeneratorServiceTest {
+
+    private static final long KEY = 42;
+
+    @Mock
+    private CouponCodeBlockRepository blockRepository;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponCodeIndex codeIndex;
+
+    private CouponCodeGeneratorService generatorService;
+
+    /** Códigos que os contadores 0, 1, 2... produzem com {@link #KEY}. */
+    private final CouponCodePermutation permutation = new CouponCodePermutation(KEY);
+
+    @BeforeEach
+    void setUp() {
+        generatorService = new CouponCodeGeneratorService(blockRepository, couponRepository, codeIndex, KEY, 100);
+        given(blockRepository.reserveBlock()).willReturn(0L);
+    }
+
+    @Test
+    @DisplayName("candidato que o índice local não conhece é conferido no banco e reposto se já existir")
+    void replacesCodeTakenOnAnotherInstance() {
+        String takenElsewhere = permutation.codeFor(0);
+        given(couponRepository.findExistingCodes(anyCollection()))
+            .willReturn(List.of(takenElsewhere), List.of());
+
+        GeneratedCodesDTO result = generatorService.generate(3);
+
+        assertThat(result.getCodes()).containsExactly(
+            permutation.codeFor(1), permutation.codeFor(2), permutation.codeFor(3));
+        then(couponRepository).should().findExistingCodes(
+            List.of(takenElsewhere, permutation.codeFor(1), permutation.codeFor(2)));
+    }
+
+    @Test
+    @DisplayName("candidato presente no índice é descartado sem entrar na consulta")
+    void skipsIndexedCodeWithoutQuery() {
+        String indexed = permutation.codeFor(1);
+        given(codeIndex.contains(anyString())).willAnswer(invocation -> indexed.equals(invocation.getArgument(0)));
+        given(couponRepository.findExistingCodes(anyCollection())).willReturn(List.of());
+
+        GeneratedCodesDTO result = generatorService.generate(2);
+
+        assertThat(result.getCodes()).containsExactly(permutation.codeFor(0), permutation.codeFor(2));
+        then(couponRepository).should().findExistingCodes(List.of(permutation.codeFor(0)));
+        then(couponRepository).should().findExistingCodes(List.of(permutation.codeFor(2)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.entity.Coupon;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CouponCodePermutation")
+class CouponCodePermutationTest {
+
+    private final CouponCodePermutation permutation = new CouponCodePermutation(42L);
+
+    @Test
+    @DisplayName("contadores consecutivos geram códigos distintos")
+    void consecutiveCountersAreUnique() {
+        Set<String> codes = new HashSet<>();
+        for (long counter = 0; counter < 200_000; counter++) {
+            codes.add(permutation.codeFor(counter));
+        }
+        assertThat(codes).hasSize(200_000);
+    }
+
+    @Test
+    @DisplayName("contadores em blocos distantes também não colidem")
+    void distantBlocksAreUnique() {
+        Set<String> codes = new HashSet<>();
+        long[] blockStarts = {0L, 10_000L, 1_000_000_000L, CouponCodePermutation.DOMAIN_SIZE - 10_000};
+        for (long start : blockStarts) {
+            for (long counter = start; counter < start + 10_000; counter++) {
+                codes.add(permutation.codeFor(counter));
+            }
+        }
+        assertThat(codes).hasSize(40_000);
+    }
+
+    @Test
+    @DisplayName("todo código gerado é válido para o domínio (6 alfanuméricos, sanitização neutra)")
+    void generatedCodesAreValid() {
+        for (long counter = 0; counter < 10_000; counter++) {
+            String code = permutation.codeFor(counter * 5_680_023L);
+            assertThat(code).hasSize(6).matches("[0-9A-Za-z]{6}");
+            assertThat(Coupon.sanitizeCode(code)).isEqualTo(code);
+        }
+    }
+
+    @Test
+    @DisplayName("a permutação é determinística para a mesma chave e muda com outra chave")
+    void deterministicPerKey() {
+        assertThat(new CouponCodePermutation(42L).codeFor(123L)).isEqualTo(permutation.codeFor(123L));
+        assertThat(new CouponCodePermutation(43L).codeFor(123L)).isNotEqualTo(permutation.codeFor(123L));
+    }
+
+    @Test
+    @DisplayName("permute mantém valores dentro do domínio")
+    void staysWithinDomain() {
+        for (long value = CouponCodePermutation.DOMAIN_SIZE - 1_000; value < CouponCodePermutation.DOMAIN_SIZE; value++) {
+            assertThat(permutation.permute(value)).isBetween(0L, CouponCodePermutation.DOMAIN_SIZE - 1);
+        }
+    }
+
+    @Test
+    @DisplayName("encode escreve em base 62 com zeros à esquerda")
+    void encodesBase62() {
+        assertThat(CouponCodePermutation.encode(0)).isEqualTo("000000");
+        assertThat(CouponCodePermutation.encode(61)).isEqualTo("00000z");
+        assertThat(CouponCodePermutation.encode(62)).isEqualTo("000010");
+        assertThat(CouponCodePermutation.encode(CouponCodePermutation.DOMAIN_SIZE - 1)).isEqualTo("zzzzzz");
+    }
+
+    @Test
+    @DisplayName("contador fora do domínio → IllegalArgumentException")
+    void rejectsOutOfDomain() {
+        assertThatThrownBy(() -> permutation.codeFor(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> permutation.codeFor(CouponCodePermutation.DOMAIN_SIZE))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
 import com.example.couponapi.dto.CouponRequestDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
 import com.example.couponapi.entity.Coupon;
 import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
 import com.example.couponapi.repository.CouponRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,8 +19,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.*;
@@ -31,6 +39,21 @@ class CouponCreationServiceTest {
     @Mock
     private CouponValidationService validationService;
 
+    @Mock
+    private CouponCodeFilter codeFilter;
+
+    @Mock
+    private CouponCodeIndex codeIndex;
+
+    @Mock
+    private CouponByIdCache byIdCache;
+
+    @Mock
+    private CouponByCodeCache byCodeCache;
+
+    @Mock
+    private CouponChangeOutbox changeOutbox;
+
     @InjectMocks
     private CouponCreationService creationService;
 
@@ -48,13 +71,16 @@ class CouponCreationServiceTest {
         return dto;
     }
 
-    private Coupon savedCoupon(String sanitizedCode, CouponRequestDTO dto) {
+    /** Cupom como o {@code saveAndFlush} o devolve: com o ID já alocado pela sequência. */
+    private Coupon savedCoupon(Long id, String sanitizedCode, CouponRequestDTO dto) {
         Coupon c = Coupon.builder()
             .code(sanitizedCode)
             .description(dto.getDescription())
             .discountValue(dto.getDiscountValue())
             .expirationDate(dto.getExpirationDate())
+            .published(dto.isPublished())
             .build();
+        c.setId(id);
         return c;
     }
 
@@ -71,20 +97,24 @@ class CouponCreationServiceTest {
         void createsCouponWithSanitizedCode() {
             CouponRequestDTO dto = validDto("AB-C1#23");  // sanitized → "ABC123"
             given(validationService.sanitizeAndValidateCode("AB-C1#23")).willReturn("ABC123");
-            willDoNothing().given(validationService).validateDiscountValue(any());
+            willDoNothing().given(validationService).validateDiscount(any(), any());
             willDoNothing().given(validationService).validateExpirationDate(any());
 
-            Coupon persisted = savedCoupon("ABC123", dto);
-            given(couponRepository.save(any(Coupon.class))).willReturn(persisted);
+            Coupon persisted = savedCoupon(42L, "ABC123", dto);
+            given(couponRepository.saveAndFlush(any(Coupon.class))).willReturn(persisted);
 
             CouponResponseDTO result = creationService.create(dto);
 
             assertThat(result).isNotNull();
+            assertThat(result.getId()).isEqualTo(42L);
             assertThat(result.getCode()).isEqualTo("ABC123");
 
             ArgumentCaptor<Coupon> captor = ArgumentCaptor.forClass(Coupon.class);
-            then(couponRepository).should().save(captor.capture());
+            then(couponRepository).should().saveAndFlush(captor.capture());
             assertThat(captor.getValue().getCode()).isEqualTo("ABC123");
+            then(changeOutbox).should().recordCreated(persisted);
+            then(byIdCache).should().invalidate(42L);
+            then(byCodeCache).should().invalidate("ABC123");
         }
 
         @Test
@@ -94,16 +124,18 @@ class CouponCreationServiceTest {
             dto.setPublished(true);
 
             given(validationService.sanitizeAndValidateCode("PUB001")).willReturn("PUB001");
-            willDoNothing().given(validationService).validateDiscountValue(any());
+            willDoNothing().given(validationService).validateDiscount(any(), any());
             willDoNothing().given(validationService).validateExpirationDate(any());
 
-            Coupon persisted = savedCoupon("PUB001", dto);
-            given(couponRepository.save(any(Coupon.class))).willReturn(persisted);
+            Coupon persisted = savedCoupon(7L, "PUB001", dto);
+            given(couponRepository.saveAndFlush(any(Coupon.class))).willReturn(persisted);
 
-            creationService.create(dto);
+            CouponResponseDTO result = creationService.create(dto);
+
+            assertThat(result.isPublished()).isTrue();
 
             ArgumentCaptor<Coupon> captor = ArgumentCaptor.forClass(Coupon.class);
-            then(couponRepository).should().save(captor.capture());
+            then(couponRepository).should().saveAndFlush(captor.capture());
             assertThat(captor.getValue().isPublished()).isTrue();
         }
     }
@@ -127,7 +159,7 @@ class CouponCreationServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("6 caracteres");
 
-            then(couponRepository).should(never()).save(any());
+            then(couponRepository).should(never()).saveAndFlush(any());
         }
 
         @Test
@@ -141,7 +173,40 @@ class CouponCreationServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("DUP001");
 
-            then(couponRepository).should(never()).save(any());
+            then(couponRepository).should(never()).saveAndFlush(any());
+            then(changeOutbox).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("INSERT barrado por uq_coupons_code (criação concorrente) → DuplicateCouponCodeException")
+        void codeConstraintViolation() {
+            CouponRequestDTO dto = validDto("RACE01");
+            given(validationService.sanitizeAndValidateCode("RACE01")).willReturn("RACE01");
+            given(couponRepository.saveAndFlush(any(Coupon.class))).willThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException("duplicate key",
+                    new SQLException("Unique index or primary key violation"), "PUBLIC.UQ_COUPONS_CODE_INDEX_7")));
+
+            assertThatThrownBy(() -> creationService.create(dto))
+                .isInstanceOf(DuplicateCouponCodeException.class)
+                .hasMessageContaining("RACE01");
+
+            then(changeOutbox).shouldHaveNoInteractions();
+            then(codeIndex).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("outra violação de integridade no INSERT não vira 422")
+        void otherConstraintViolation() {
+            CouponRequestDTO dto = validDto("NUL001");
+            given(validationService.sanitizeAndValidateCode("NUL001")).willReturn("NUL001");
+            DataIntegrityViolationException notNull = new DataIntegrityViolationException(
+                "could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException("null value",
+                    new SQLException("NULL not allowed for column \"DESCRIPTION\""), null));
+            given(couponRepository.saveAndFlush(any(Coupon.class))).willThrow(notNull);
+
+            assertThatThrownBy(() -> creationService.create(dto)).isSameAs(notNull);
         }
 
         @Test
@@ -150,12 +215,12 @@ class CouponCreationServiceTest {
             CouponRequestDTO dto = validDto("OK0001");
             given(validationService.sanitizeAndValidateCode(anyString())).willReturn("OK0001");
             willThrow(new BusinessException("Desconto mínimo é 0.5"))
-                .given(validationService).validateDiscountValue(any());
+                .given(validationService).validateDiscount(any(), any());
 
             assertThatThrownBy(() -> creationService.create(dto))
                 .isInstanceOf(BusinessException.class);
 
-            then(couponRepository).should(never()).save(any());
+            then(couponRepository).should(never()).saveAndFlush(any());
         }
 
         @Test
@@ -163,7 +228,7 @@ class CouponCreationServiceTest {
         void pastExpirationDate() {
             CouponRequestDTO dto = validDto("OK0002");
             given(validationService.sanitizeAndValidateCode(anyString())).willReturn("OK0002");
-            willDoNothing().given(validationService).validateDiscountValue(any());
+            willDoNothing().given(validationService).validateDiscount(any(), any());
             willThrow(new BusinessException("Data de expiração no passado"))
                 .given(validationService).validateExpirationDate(any());
 
@@ -171,7 +236,7 @@ class CouponCreationServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("passado");
 
-            then(couponRepository).should(never()).save(any());
+            then(couponRepository).should(never()).saveAndFlush(any());
         }
     }
 }
@@ -1,5 +1,8 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
 import com.example.couponapi.entity.Coupon;
 import com.example.couponapi.exception.BusinessException;
 import com.example.couponapi.exception.CouponNotFoundException;
@@ -27,6 +30,15 @@ class CouponDeletionServiceTest {
     @Mock
     private CouponRepository couponRepository;
 
+    @Mock
+    private CouponByIdCache byIdCache;
+
+    @Mock
+    private CouponByCodeCache byCodeCache;
+
+    @Mock
+    private CouponChangeOutbox changeOutbox;
+
     @InjectMocks
     private CouponDeletionService deletionService;
 
@@ -75,6 +87,9 @@ class CouponDeletionServiceTest {
         then(couponRepository).should().save(captor.capture());
         assertThat(captor.getValue().isDeleted()).isTrue();
         assertThat(captor.getValue().getDeletedAt()).isNotNull();
+        then(byIdCache).should().invalidate(1L);
+        then(byCodeCache).should().invalidate("DEL001");
+        then(changeOutbox).should().recordDeleted(coupon);
     }
 
     // -------------------------------------------------------------------------
@@ -107,5 +122,7 @@ class CouponDeletionServiceTest {
             .hasMessageContaining("já foi removido");
 
         then(couponRepository).should(never()).save(any());
+        then(byIdCache).shouldHaveNoInteractions();
+        then(changeOutbox).shouldHaveNoInteractions();
     }
 }
@@ -0,0 +1,183 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.dto.CouponLookupItemDTO;
+import com.example.couponapi.dto.CouponLookupRequestDTO;
+import com.example.couponapi.dto.CouponLookupResultDTO;
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CouponLookupService")
+class CouponLookupServiceTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private CouponByIdCache byIdCache;
+    private CouponCodeIndex codeIndex;
+    private CouponLookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        // no máximo 4 chaves por requisição e 2 por consulta, para exercitar limite e chunks
+        byIdCache = new CouponByIdCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        CouponByCodeCache byCodeCache = new CouponByCodeCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        codeIndex = new CouponCodeIndex(
+            couponRepository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 16);
+        lookupService = new CouponLookupService(couponRepository, byIdCache, byCodeCache, codeIndex, 4, 2);
+    }
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private static CouponResponseDTO coupon(Long id, String code, boolean published) {
+        return new CouponResponseDTO(id, code, "Desconto", new BigDecimal("10"),
+            LocalDate.now().plusDays(5), published, LocalDateTime.of(2026, 2, 18, 10, 0), null, null);
+    }
+
+    private static CouponLookupRequestDTO request(List<Long> ids, List<String> codes) {
+        CouponLookupRequestDTO request = new CouponLookupRequestDTO();
+        request.setIds(ids);
+        request.setCodes(codes);
+        return request;
+    }
+
+    // -------------------------------------------------------------------------
+    // cenários
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("responde na ordem da requisição, com NOT_FOUND para chaves sem cupom")
+    void answersInRequestOrder() {
+        given(couponRepository.findActiveByIdsOrCodes(List.of(2L, 1L), List.of()))
+            .willReturn(List.of(coupon(1L, "AAA111", true)));
+        given(couponRepository.findActiveByIdsOrCodes(List.of(), List.of("BBB222")))
+            .willReturn(List.of(coupon(5L, "BBB222", true)));
+
+        CouponLookupResultDTO result = lookupService.lookup(request(List.of(2L, 1L), List.of("BBB-222")));
+
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getFound()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(CouponLookupItemDTO::getStatus).containsExactly(
+            CouponLookupItemDTO.Status.NOT_FOUND, CouponLookupItemDTO.Status.FOUND, CouponLookupItemDTO.Status.FOUND);
+        assertThat(result.getItems().get(1).getCoupon().getCode()).isEqualTo("AAA111");
+        assertThat(result.getItems().get(2).getCode()).isEqualTo("BBB-222");
+        assertThat(result.getItems().get(2).getCoupon().getId()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("segunda chamada é servida pelos caches, inclusive as ausências")
+    void servesSecondCallFromCaches() {
+        given(couponRepository.findActiveByIdsOrCodes(List.of(1L, 9L), List.of()))
+            .willReturn(List.of(coupon(1L, "AAA111", true)));
+
+        lookupService.lookup(request(List.of(1L, 9L), null));
+        CouponLookupResultDTO again = lookupService.lookup(request(List.of(9L, 1L), null));
+
+        assertThat(again.getFound()).isEqualTo(1);
+        then(couponRepository).should(times(1)).findActiveByIdsOrCodes(any(), any());
+    }
+
+    @Test
+    @DisplayName("código conhecido pelo índice usa o cache por ID e aplica as regras de resgate")
+    void resolvesIndexedCodeThroughIdCache() {
+        Coupon draft = Coupon.builder().code("DRF001").build();
+        draft.setId(3L);
+        codeIndex.registerAfterCommit(draft);
+        byIdCache.put(coupon(3L, "DRF001", false));
+
+        CouponLookupResultDTO result = lookupService.lookup(request(List.of(3L), List.of("DRF001")));
+
+        // por ID o cupom existe; por código não é resgatável (não publicado)
+        assertThat(result.getItems()).extracting(CouponLookupItemDTO::getStatus).containsExactly(
+            CouponLookupItemDTO.Status.FOUND, CouponLookupItemDTO.Status.NOT_FOUND);
+        then(couponRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("chaves repetidas e códigos inválidos não viram consultas extras")
+    void deduplicatesAndSkipsInvalidCodes() {
+        given(couponRepository.findActiveByIdsOrCodes(List.of(7L), List.of()))
+            .willReturn(List.of(coupon(7L, "CCC333", true)));
+
+        CouponLookupResultDTO result = lookupService.lookup(request(Arrays.asList(7L, 7L, null), List.of("#")));
+
+        assertThat(result.getItems()).extracting(CouponLookupItemDTO::getStatus).containsExactly(
+            CouponLookupItemDTO.Status.FOUND, CouponLookupItemDTO.Status.FOUND,
+            CouponLookupItemDTO.Status.NOT_FOUND, CouponLookupItemDTO.Status.NOT_FOUND);
+        then(couponRepository).should(times(1)).findActiveByIdsOrCodes(any(), any());
+    }
+
+    @Test
+    @DisplayName("divide as falhas de cache em chunks de chunk-size chaves")
+    void queriesInChunks() {
+        given(couponRepository.findActiveByIdsOrCodes(any(), any())).willReturn(List.of());
+
+        lookupService.lookup(request(List.of(1L, 2L, 3L), List.of("DDD444")));
+
+        then(couponRepository).should().findActiveByIdsOrCodes(List.of(1L, 2L), List.of());
+        then(couponRepository).should().findActiveByIdsOrCodes(List.of(3L), List.of("DDD444"));
+    }
+
+    @Test
+    @DisplayName("resultado de consulta concorrente com uma invalidação não entra no cache")
+    void skipsCachingWhenInvalidatedDuringQuery() {
+        given(couponRepository.findActiveByIdsOrCodes(List.of(1L), List.of())).willAnswer(invocation -> {
+            byIdCache.invalidate(1L);   // ex.: DELETE confirmado enquanto a consulta rodava
+            return List.of(coupon(1L, "AAA111", true));
+        });
+
+        lookupService.lookup(request(List.of(1L), null));
+
+        assertThat(byIdCache.getAllPresent(List.of(1L))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("sem chaves ou acima do máximo → BusinessException")
+    void rejectsEmptyOrOversizedRequests() {
+        assertThatThrownBy(() -> lookupService.lookup(request(null, List.of())))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> lookupService.lookup(request(List.of(1L, 2L, 3L), List.of("A", "B"))))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("4");
+        then(couponRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("cupom lido pelo código também aquece o cache por ID")
+    void warmsIdCacheFromCodeRows() {
+        given(couponRepository.findActiveByIdsOrCodes(List.of(), List.of("EEE555")))
+            .willReturn(List.of(coupon(8L, "EEE555", true)));
+
+        lookupService.lookup(request(null, List.of("EEE555")));
+
+        assertThat(byIdCache.getAllPresent(List.of(8L))).containsKey(8L);
+        assertThat(byIdCache.getAllPresent(List.of(8L)).get(8L)).map(CouponResponseDTO::getCode).contains("EEE555");
+    }
+}
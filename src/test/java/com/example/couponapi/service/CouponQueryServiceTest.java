@@ -1,18 +1,30 @@
 package com.example.couponapi.service;
 
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.dto.CouponCursor;
+import com.example.couponapi.dto.CouponFilterDTO;
+import com.example.couponapi.dto.CouponPageDTO;
 import com.example.couponapi.dto.CouponResponseDTO;
 import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.BusinessException;
 import com.example.couponapi.exception.CouponNotFoundException;
+import com.example.couponapi.index.CouponCodeIndex;
 import com.example.couponapi.repository.CouponRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,28 +38,48 @@ class CouponQueryServiceTest {
     @Mock
     private CouponRepository couponRepository;
 
-    @InjectMocks
+    private CouponCodeIndex codeIndex;
     private CouponQueryService queryService;
 
+    @BeforeEach
+    void setUp() {
+        // página padrão de 2 itens e limite de 3 para exercitar o corte
+        CouponByIdCache byIdCache = new CouponByIdCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        CouponByCodeCache byCodeCache = new CouponByCodeCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        codeIndex = new CouponCodeIndex(
+            couponRepository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 16);
+        queryService = new CouponQueryService(couponRepository, byIdCache, byCodeCache, codeIndex, 2, 3);
+    }
+
     // -------------------------------------------------------------------------
     // helpers
     // -------------------------------------------------------------------------
 
-    private Coupon couponWithId(Long id, String code) {
-        Coupon c = Coupon.builder()
-            .code(code)
-            .description("Desconto")
-            .discountValue(new BigDecimal("20"))
-            .expirationDate(LocalDate.now().plusDays(60))
-            .build();
-        try {
-            var field = Coupon.class.getDeclaredField("id");
-            field.setAccessible(true);
-            field.set(c, id);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        return c;
+    /** Linha como o repositório a devolve: projeção direta em DTO. */
+    private CouponResponseDTO couponWithId(Long id, String code) {
+        return new CouponResponseDTO(
+            id,
+            code,
+            "Desconto",
+            new BigDecimal("20"),
+            LocalDate.now().plusDays(60),
+            false,
+            LocalDateTime.of(2026, 2, 18, 10, 0).minusMinutes(id),
+            null,
+            null);
+    }
+
+    private void indexCode(String code, long id) {
+        Coupon coupon = Coupon.builder().code(code).build();
+        coupon.setId(id);
+        codeIndex.registerAfterCommit(coupon);
+    }
+
+    private CouponResponseDTO redeemable(Long id, String code, boolean published) {
+        return new CouponResponseDTO(id, code, "Desconto", new BigDecimal("20"),
+            LocalDate.now(), published, LocalDateTime.of(2026, 2, 18, 10, 0), null, null);
     }
 
     // -------------------------------------------------------------------------
@@ -57,7 +89,7 @@ class CouponQueryServiceTest {
     @Test
     @DisplayName("findById — retorna DTO quando cupom existe")
     void returnsDto_whenFound() {
-        Coupon coupon = couponWithId(1L, "QRY001");
+        CouponResponseDTO coupon = couponWithId(1L, "QRY001");
         given(couponRepository.findActiveById(1L)).willReturn(Optional.of(coupon));
 
         CouponResponseDTO result = queryService.findById(1L);
@@ -76,30 +108,181 @@ class CouponQueryServiceTest {
             .isInstanceOf(CouponNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("findById — chamadas repetidas são servidas do cache")
+    void servesRepeatedLookupsFromCache() {
+        given(couponRepository.findActiveById(1L)).willReturn(Optional.of(couponWithId(1L, "QRY001")));
+
+        queryService.findById(1L);
+        CouponResponseDTO result = queryService.findById(1L);
+
+        assertThat(result.getCode()).isEqualTo("QRY001");
+        then(couponRepository).should(times(1)).findActiveById(1L);
+    }
+
+    @Test
+    @DisplayName("findById — 404 também é guardado em cache (negative caching)")
+    void cachesNotFound() {
+        given(couponRepository.findActiveById(42L)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> queryService.findById(42L)).isInstanceOf(CouponNotFoundException.class);
+        assertThatThrownBy(() -> queryService.findById(42L)).isInstanceOf(CouponNotFoundException.class);
+
+        then(couponRepository).should(times(1)).findActiveById(42L);
+    }
+
+    // -------------------------------------------------------------------------
+    // findRedeemableByCode
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("findRedeemableByCode — sanitiza o código antes de buscar e usa o cache")
+    void sanitizesCodeAndCaches() {
+        given(couponRepository.findRedeemableByCode(eq("QRY001"), any()))
+            .willReturn(Optional.of(couponWithId(1L, "QRY001")));
+
+        queryService.findRedeemableByCode("QRY-001");
+        CouponResponseDTO result = queryService.findRedeemableByCode("QRY#001");
+
+        assertThat(result.getCode()).isEqualTo("QRY001");
+        then(couponRepository).should(times(1)).findRedeemableByCode(eq("QRY001"), any());
+    }
+
+    @Test
+    @DisplayName("findRedeemableByCode — lança CouponNotFoundException quando não há cupom resgatável")
+    void throwsNotFound_whenNotRedeemable() {
+        given(couponRepository.findRedeemableByCode(eq("QRY404"), any())).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> queryService.findRedeemableByCode("QRY404"))
+            .isInstanceOf(CouponNotFoundException.class)
+            .hasMessageContaining("QRY404");
+    }
+
+    @Test
+    @DisplayName("findRedeemableByCode — código conhecido pelo índice é resolvido pelo ID")
+    void resolvesThroughIdCache_whenCodeIndexed() {
+        indexCode("QRY007", 7L);
+        given(couponRepository.findActiveById(7L)).willReturn(Optional.of(redeemable(7L, "QRY007", true)));
+
+        CouponResponseDTO result = queryService.findRedeemableByCode("QRY007");
+        queryService.findById(7L);
+
+        assertThat(result.getId()).isEqualTo(7L);
+        then(couponRepository).should(times(1)).findActiveById(7L);
+        then(couponRepository).should(never()).findRedeemableByCode(any(), any());
+    }
+
+    @Test
+    @DisplayName("findRedeemableByCode — código indexado de cupom não publicado → CouponNotFoundException")
+    void throwsNotFound_whenIndexedCouponNotPublished() {
+        indexCode("QRY008", 8L);
+        given(couponRepository.findActiveById(8L)).willReturn(Optional.of(redeemable(8L, "QRY008", false)));
+
+        assertThatThrownBy(() -> queryService.findRedeemableByCode("QRY008"))
+            .isInstanceOf(CouponNotFoundException.class);
+        then(couponRepository).should(never()).findRedeemableByCode(any(), any());
+    }
+
+    @Test
+    @DisplayName("findRedeemableByCode — código com tamanho inválido não consulta o banco")
+    void skipsRepository_whenCodeLengthInvalid() {
+        assertThatThrownBy(() -> queryService.findRedeemableByCode("AB-C"))
+            .isInstanceOf(CouponNotFoundException.class);
+
+        then(couponRepository).shouldHaveNoInteractions();
+    }
+
     // -------------------------------------------------------------------------
-    // findAll
+    // findPage
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("findAll — mapeia lista de cupons corretamente")
-    void returnsMappedList() {
-        given(couponRepository.findAllActive()).willReturn(List.of(
+    @DisplayName("findPage — mapeia a página e não informa cursor quando não há mais itens")
+    void returnsMappedPage_withoutNextCursor() {
+        given(couponRepository.findActivePage(any(), isNull(), eq(3))).willReturn(List.of(
             couponWithId(1L, "QRY001"),
             couponWithId(2L, "QRY002")
         ));
 
-        List<CouponResponseDTO> result = queryService.findAll();
+        CouponPageDTO page = queryService.findPage(new CouponFilterDTO(), null, null);
 
-        assertThat(result).hasSize(2);
-        assertThat(result).extracting(CouponResponseDTO::getCode)
+        assertThat(page.getItems()).extracting(CouponResponseDTO::getCode)
             .containsExactly("QRY001", "QRY002");
+        assertThat(page.hasNext()).isFalse();
     }
 
     @Test
-    @DisplayName("findAll — retorna lista vazia quando não há cupons")
-    void returnsEmptyList_whenNoCoupons() {
-        given(couponRepository.findAllActive()).willReturn(List.of());
+    @DisplayName("findPage — descarta a linha extra e gera cursor a partir do último item")
+    void returnsNextCursor_whenMoreRowsExist() {
+        given(couponRepository.findActivePage(any(), isNull(), eq(3))).willReturn(List.of(
+            couponWithId(1L, "QRY001"),
+            couponWithId(2L, "QRY002"),
+            couponWithId(3L, "QRY003")
+        ));
+
+        CouponPageDTO page = queryService.findPage(null, null, null);
+
+        assertThat(page.getItems()).hasSize(2);
+        CouponCursor next = CouponCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo(2L);
+        assertThat(next.getCreatedAt()).isEqualTo(page.getItems().get(1).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("findPage — repassa o cursor decodificado ao repositório")
+    void passesDecodedCursor() {
+        CouponCursor cursor = new CouponCursor(LocalDateTime.of(2026, 2, 18, 9, 0), 7L);
+        given(couponRepository.findActivePage(any(), any(), anyInt())).willReturn(List.of());
+
+        queryService.findPage(null, cursor.encode(), 2);
+
+        ArgumentCaptor<CouponCursor> captor = ArgumentCaptor.forClass(CouponCursor.class);
+        then(couponRepository).should().findActivePage(any(), captor.capture(), eq(3));
+        assertThat(captor.getValue().getId()).isEqualTo(7L);
+        assertThat(captor.getValue().getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("findPage — reduz o tamanho solicitado ao máximo configurado")
+    void capsPageSize() {
+        given(couponRepository.findActivePage(any(), any(), anyInt())).willReturn(List.of());
+
+        queryService.findPage(null, null, 1_000);
+
+        then(couponRepository).should().findActivePage(any(), isNull(), eq(4));
+    }
+
+    @Test
+    @DisplayName("findPage — retorna página vazia quando não há cupons")
+    void returnsEmptyPage_whenNoCoupons() {
+        given(couponRepository.findActivePage(any(), any(), anyInt())).willReturn(List.of());
+
+        CouponPageDTO page = queryService.findPage(null, null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("findPage — cursor malformado → BusinessException")
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> queryService.findPage(null, "nao-e-um-cursor", null))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("Cursor");
+
+        then(couponRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("findPage — minDiscount maior que maxDiscount → BusinessException")
+    void rejectsInvertedDiscountRange() {
+        CouponFilterDTO filter = new CouponFilterDTO();
+        filter.setMinDiscount(new BigDecimal("20"));
+        filter.setMaxDiscount(new BigDecimal("10"));
+
+        assertThatThrownBy(() -> queryService.findPage(filter, null, null))
+            .isInstanceOf(BusinessException.class);
 
-        assertThat(queryService.findAll()).isEmpty();
+        then(couponRepository).shouldHaveNoInteractions();
     }
 }
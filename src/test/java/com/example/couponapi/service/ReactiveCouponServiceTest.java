@@ -0,0 +1,118 @@
+package com.example.couponapi.service;
+
+import com.example.couponapi.cache.CouponByCodeCache;
+import com.example.couponapi.cache.CouponByIdCache;
+import com.example.couponapi.changes.CouponChangeOutbox;
+import com.example.couponapi.dto.CouponRequestDTO;
+import com.example.couponapi.entity.Coupon;
+import com.example.couponapi.exception.DuplicateCouponCodeException;
+import com.example.couponapi.index.CouponCodeFilter;
+import com.example.couponapi.index.CouponCodeIndex;
+import com.example.couponapi.repository.ReactiveCouponRepository;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveCouponService")
+class ReactiveCouponServiceTest {
+
+    @Mock
+    private ReactiveCouponRepository couponRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private CouponCodeFilter codeFilter;
+
+    @Mock
+    private CouponCodeIndex codeIndex;
+
+    @Mock
+    private CouponByIdCache byIdCache;
+
+    @Mock
+    private CouponByCodeCache byCodeCache;
+
+    @Mock
+    private CouponChangeOutbox changeOutbox;
+
+    private ReactiveCouponService couponService;
+
+    @BeforeEach
+    void setUp() {
+        couponService = new ReactiveCouponService(couponRepository, transactionalOperator, codeFilter, codeIndex,
+            byIdCache, byCodeCache, changeOutbox, 50, 500);
+        given(transactionalOperator.transactional(any(Mono.class))).willAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    // -------------------------------------------------------------------------
+    // helpers
+    // -------------------------------------------------------------------------
+
+    private static CouponRequestDTO validDto(String code) {
+        CouponRequestDTO dto = new CouponRequestDTO();
+        dto.setCode(code);
+        dto.setDescription("Desconto reativo");
+        dto.setDiscountValue(new BigDecimal("10.00"));
+        dto.setExpirationDate(LocalDate.now().plusDays(30));
+        return dto;
+    }
+
+    // -------------------------------------------------------------------------
+    // cenários
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("INSERT barrado por uq_coupons_code → DuplicateCouponCodeException, sem tocar índice e caches")
+    void codeConstraintViolation() {
+        given(couponRepository.insert(any(Coupon.class))).willReturn(Mono.error(new DataIntegrityViolationException(
+            "executeMany",
+            new R2dbcDataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UQ_COUPONS_CODE_INDEX_7 ON PUBLIC.COUPONS(CODE)\""))));
+
+        assertThatThrownBy(() -> couponService.create(validDto("RACE01")).block())
+            .isInstanceOf(DuplicateCouponCodeException.class)
+            .hasMessageContaining("RACE01");
+
+        then(codeIndex).should(never()).registerAfterCommit(any(Coupon.class));
+        then(byCodeCache).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("outra violação de integridade no INSERT propaga, sem virar 422")
+    void otherConstraintViolation() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException(
+            "executeMany",
+            new R2dbcDataIntegrityViolationException("NULL not allowed for column \"DESCRIPTION\""));
+        given(couponRepository.insert(any(Coupon.class))).willReturn(Mono.error(notNull));
+
+        assertThatThrownBy(() -> couponService.create(validDto("NUL001")).block()).isSameAs(notNull);
+    }
+
+    @Test
+    @DisplayName("código presente no índice → DuplicateCouponCodeException sem INSERT")
+    void knownCode() {
+        given(codeIndex.contains("KNOWN1")).willReturn(true);
+        given(couponRepository.insert(any(Coupon.class))).willReturn(Mono.never());
+
+        assertThatThrownBy(() -> couponService.create(validDto("KNOWN1")).block())
+            .isInstanceOf(DuplicateCouponCodeException.class);
+
+        then(couponRepository).should(never()).isArchivedCode(any());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.couponapi.snapshot;
+
+import com.example.couponapi.dto.CouponResponseDTO;
+import com.example.couponapi.entity.DiscountType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CouponSnapshotFile")
+class CouponSnapshotFileTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2026, 2, 18, 10, 30, 15, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    private static CouponResponseDTO coupon(long id, String code, boolean published, Integer maxUses) {
+        return new CouponResponseDTO(id, code, "Desconto de verão ☀", new BigDecimal("12.50"),
+            LocalDate.of(2026, 12, 31), published, LocalDateTime.of(2026, 2, 1, 8, 0, 0, 500_000_000),
+            maxUses, null);
+    }
+
+    @Test
+    @DisplayName("Grava e lê de volta os mesmos cupons, na mesma ordem")
+    void shouldRoundTrip() throws IOException {
+        Path file = dir.resolve("catalogue.snapshot");
+        List<CouponResponseDTO> coupons = List.of(
+            coupon(30, "SAVE30", true, 100),
+            coupon(20, "abc123", false, null),
+            new CouponResponseDTO(10L, "PCT015", "15% acima de 100", new BigDecimal("15.00"),
+                DiscountType.PERCENTAGE, new BigDecimal("100.00"), true,
+                LocalDate.of(2026, 12, 31), true, LocalDateTime.of(2026, 2, 1, 8, 0), null, 1));
+
+        long written = CouponSnapshotFile.write(file, WATERMARK, coupons.iterator());
+        CouponSnapshotFile snapshot = CouponSnapshotFile.open(file);
+        List<CouponResponseDTO> read = new ArrayList<>();
+        snapshot.forEach(read::add);
+
+        assertThat(written).isEqualTo(3);
+        assertThat(snapshot.count()).isEqualTo(3);
+        assertThat(snapshot.maxId()).isEqualTo(30);
+        assertThat(snapshot.watermark()).isEqualTo(WATERMARK);
+        assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(coupons);
+    }
+
+    @Test
+    @DisplayName("Snapshot vazio é válido")
+    void shouldAcceptEmptySnapshot() throws IOException {
+        Path file = dir.resolve("empty.snapshot");
+        CouponSnapshotFile.write(file, WATERMARK, Collections.emptyIterator());
+
+        CouponSnapshotFile snapshot = CouponSnapshotFile.open(file);
+
+        assertThat(snapshot.count()).isZero();
+        assertThat(snapshot.maxId()).isZero();
+    }
+
+    @Test
+    @DisplayName("Byte alterado é detectado pelo CRC")
+    void shouldDetectCorruption() throws IOException {
+        Path file = dir.resolve("corrupt.snapshot");
+        CouponSnapshotFile.write(file, WATERMARK, List.of(coupon(1, "SAVE10", true, null)).iterator());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[30] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CouponSnapshotFile.open(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("CRC");
+    }
+
+    @Test
+    @DisplayName("Arquivo truncado ou de outro formato é rejeitado")
+    void shouldRejectTruncatedOrForeignFiles() throws IOException {
+        Path file = dir.resolve("truncated.snapshot");
+        CouponSnapshotFile.write(file, WATERMARK, List.of(coupon(1, "SAVE10", true, null)).iterator());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        Path foreign = dir.resolve("foreign.snapshot");
+        Files.write(foreign, new byte[64]);
+
+        assertThatThrownBy(() -> CouponSnapshotFile.open(file)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> CouponSnapshotFile.open(foreign)).isInstanceOf(IOException.class);
+    }
+}